@@ -0,0 +1,59 @@
+package com.dark.shade.benchmark;
+
+import com.dark.shade.benchmark.entity.BenchEntity;
+import com.dark.shade.benchmark.entity.FieldEntity100;
+import com.dark.shade.benchmark.entity.FieldEntity25;
+import com.dark.shade.benchmark.entity.FieldEntity5;
+import com.dark.shade.benchmark.entity.MethodEntity100;
+import com.dark.shade.benchmark.entity.MethodEntity25;
+import com.dark.shade.benchmark.entity.MethodEntity5;
+import com.dark.shade.exception.ShadeException;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Benchmark entity classes by accessor kind and width.
+ */
+public enum EntityKind {
+
+  FIELD, METHOD;
+
+  private static final String[] COLUMN_TYPES = {"VARCHAR(64)", "INT", "BIGINT", "DOUBLE", "BOOLEAN"};
+
+  /**
+   * Creates an entity of the given width without reflection, so it stays out of the measurements.
+   */
+  public BenchEntity newEntity(int width) {
+    switch (width) {
+      case 5:
+        return this == FIELD ? new FieldEntity5() : new MethodEntity5();
+      case 25:
+        return this == FIELD ? new FieldEntity25() : new MethodEntity25();
+      case 100:
+        return this == FIELD ? new FieldEntity100() : new MethodEntity100();
+      default:
+        throw new ShadeException(String.format("Unsupported entity width: %d", width));
+    }
+  }
+
+  public String tableName(int width) {
+    return String.format("%s_entity_%d", name().toLowerCase(), width);
+  }
+
+  /**
+   * Creates the table of the entity with the given width, dropping any previous one.
+   */
+  public void createTable(Connection connection, int width) throws SQLException {
+    StringBuilder ddl = new StringBuilder("CREATE TABLE ").append(tableName(width))
+        .append(" (id BIGINT AUTO_INCREMENT PRIMARY KEY");
+    for (int i = 1; i <= width; i++) {
+      ddl.append(", c").append(i).append(' ').append(COLUMN_TYPES[(i - 1) % COLUMN_TYPES.length]);
+    }
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("DROP TABLE IF EXISTS " + tableName(width));
+      statement.execute(ddl.append(')').toString());
+    }
+  }
+}
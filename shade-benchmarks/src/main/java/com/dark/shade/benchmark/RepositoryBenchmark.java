@@ -0,0 +1,168 @@
+package com.dark.shade.benchmark;
+
+import com.dark.shade.benchmark.entity.BenchEntity;
+import com.dark.shade.repository.Repository;
+import com.dark.shade.repository.RepositoryFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository benchmark.
+ * Measures the {@code GenericRepository} operations against an in-memory H2 database, by entity width,
+ * accessor kind and number of stored rows. Every trial starts from a freshly created and filled table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RepositoryBenchmark {
+
+  private static final String URL = "jdbc:h2:mem:shade;DB_CLOSE_DELAY=-1";
+  private static final int BATCH = 100;
+  private static final int ID_SAMPLE = 100;
+  private static boolean initialized;
+
+  @Param({"5", "25", "100"})
+  private int width;
+
+  @Param({"FIELD", "METHOD"})
+  private EntityKind accessor;
+
+  @Param({"100", "1000"})
+  private int rows;
+
+  private Repository<BenchEntity, Long> repository;
+  private Long[] ids;
+  private List<Long> idSample;
+  private long seed;
+
+  @Setup(Level.Trial)
+  public void setUp() throws SQLException {
+    synchronized (RepositoryBenchmark.class) {
+      if (!initialized) {
+        RepositoryFactory.init(URL, "sa", "");
+        initialized = true;
+      }
+    }
+    try (Connection connection = DriverManager.getConnection(URL, "sa", "")) {
+      accessor.createTable(connection, width);
+    }
+    repository = repository(accessor.newEntity(width).getClass());
+    List<BenchEntity> saved = repository.save(newEntities(rows));
+    ids = new Long[saved.size()];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = saved.get(i).key();
+    }
+    idSample = new ArrayList<>(ID_SAMPLE);
+    for (int i = 0; i < ID_SAMPLE; i++) {
+      idSample.add(ids[ThreadLocalRandom.current().nextInt(ids.length)]);
+    }
+  }
+
+  @Benchmark
+  public BenchEntity save() {
+    BenchEntity entity = accessor.newEntity(width);
+    entity.fill(seed++);
+    return repository.save(entity);
+  }
+
+  @Benchmark
+  public List<BenchEntity> saveAll() {
+    return repository.save(newEntities(BATCH));
+  }
+
+  @Benchmark
+  public BenchEntity findOne() {
+    return repository.findOne(randomId());
+  }
+
+  @Benchmark
+  public boolean exists() {
+    return repository.exists(randomId());
+  }
+
+  @Benchmark
+  public List<BenchEntity> findAll() {
+    return repository.findAll();
+  }
+
+  @Benchmark
+  public List<BenchEntity> findAllByIds() {
+    return repository.findAll(idSample);
+  }
+
+  @Benchmark
+  public void delete(DeleteState state) {
+    repository.delete(state.id);
+  }
+
+  @Benchmark
+  public void deleteAll(DeleteAllState state) {
+    repository.deleteAll();
+  }
+
+  List<BenchEntity> newEntities(int count) {
+    List<BenchEntity> entities = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      BenchEntity entity = accessor.newEntity(width);
+      entity.fill(seed++);
+      entities.add(entity);
+    }
+    return entities;
+  }
+
+  private Long randomId() {
+    return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Repository<BenchEntity, Long> repository(Class<? extends BenchEntity> entityClass) {
+    return (Repository<BenchEntity, Long>) (Repository<?, ?>) RepositoryFactory.createRepository(entityClass);
+  }
+
+  /**
+   * Row inserted before every {@link #delete(DeleteState)} invocation.
+   */
+  @State(Scope.Thread)
+  public static class DeleteState {
+
+    private Long id;
+
+    @Setup(Level.Invocation)
+    public void setUp(RepositoryBenchmark benchmark) {
+      id = benchmark.repository.save(benchmark.newEntities(1).get(0)).key();
+    }
+  }
+
+  /**
+   * Rows restored before every {@link #deleteAll(DeleteAllState)} invocation.
+   */
+  @State(Scope.Thread)
+  public static class DeleteAllState {
+
+    @Setup(Level.Invocation)
+    public void setUp(RepositoryBenchmark benchmark) {
+      benchmark.repository.save(benchmark.newEntities(benchmark.rows));
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package com.dark.shade.benchmark.entity;
+
+/**
+ * Benchmark entity.
+ * Columns are named c1..cN and typed VARCHAR, INT, BIGINT, DOUBLE, BOOLEAN in turn.
+ */
+public interface BenchEntity {
+
+  Long key();
+
+  /**
+   * Sets every column to a value derived from the seed.
+   */
+  void fill(long seed);
+}
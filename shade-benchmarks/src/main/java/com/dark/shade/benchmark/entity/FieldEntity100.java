@@ -0,0 +1,327 @@
+package com.dark.shade.benchmark.entity;
+
+import com.dark.shade.annotation.Column;
+import com.dark.shade.annotation.Entity;
+import com.dark.shade.annotation.Id;
+import com.dark.shade.annotation.Table;
+
+/**
+ * Entity with 100 field-mapped columns.
+ */
+@Entity
+@Table(name = "field_entity_100")
+public class FieldEntity100 implements BenchEntity {
+
+  @Id
+  @Column(name = "id")
+  public Long id;
+  @Column(name = "c1")
+  public String c1;
+  @Column(name = "c2")
+  public int c2;
+  @Column(name = "c3")
+  public long c3;
+  @Column(name = "c4")
+  public double c4;
+  @Column(name = "c5")
+  public boolean c5;
+  @Column(name = "c6")
+  public String c6;
+  @Column(name = "c7")
+  public int c7;
+  @Column(name = "c8")
+  public long c8;
+  @Column(name = "c9")
+  public double c9;
+  @Column(name = "c10")
+  public boolean c10;
+  @Column(name = "c11")
+  public String c11;
+  @Column(name = "c12")
+  public int c12;
+  @Column(name = "c13")
+  public long c13;
+  @Column(name = "c14")
+  public double c14;
+  @Column(name = "c15")
+  public boolean c15;
+  @Column(name = "c16")
+  public String c16;
+  @Column(name = "c17")
+  public int c17;
+  @Column(name = "c18")
+  public long c18;
+  @Column(name = "c19")
+  public double c19;
+  @Column(name = "c20")
+  public boolean c20;
+  @Column(name = "c21")
+  public String c21;
+  @Column(name = "c22")
+  public int c22;
+  @Column(name = "c23")
+  public long c23;
+  @Column(name = "c24")
+  public double c24;
+  @Column(name = "c25")
+  public boolean c25;
+  @Column(name = "c26")
+  public String c26;
+  @Column(name = "c27")
+  public int c27;
+  @Column(name = "c28")
+  public long c28;
+  @Column(name = "c29")
+  public double c29;
+  @Column(name = "c30")
+  public boolean c30;
+  @Column(name = "c31")
+  public String c31;
+  @Column(name = "c32")
+  public int c32;
+  @Column(name = "c33")
+  public long c33;
+  @Column(name = "c34")
+  public double c34;
+  @Column(name = "c35")
+  public boolean c35;
+  @Column(name = "c36")
+  public String c36;
+  @Column(name = "c37")
+  public int c37;
+  @Column(name = "c38")
+  public long c38;
+  @Column(name = "c39")
+  public double c39;
+  @Column(name = "c40")
+  public boolean c40;
+  @Column(name = "c41")
+  public String c41;
+  @Column(name = "c42")
+  public int c42;
+  @Column(name = "c43")
+  public long c43;
+  @Column(name = "c44")
+  public double c44;
+  @Column(name = "c45")
+  public boolean c45;
+  @Column(name = "c46")
+  public String c46;
+  @Column(name = "c47")
+  public int c47;
+  @Column(name = "c48")
+  public long c48;
+  @Column(name = "c49")
+  public double c49;
+  @Column(name = "c50")
+  public boolean c50;
+  @Column(name = "c51")
+  public String c51;
+  @Column(name = "c52")
+  public int c52;
+  @Column(name = "c53")
+  public long c53;
+  @Column(name = "c54")
+  public double c54;
+  @Column(name = "c55")
+  public boolean c55;
+  @Column(name = "c56")
+  public String c56;
+  @Column(name = "c57")
+  public int c57;
+  @Column(name = "c58")
+  public long c58;
+  @Column(name = "c59")
+  public double c59;
+  @Column(name = "c60")
+  public boolean c60;
+  @Column(name = "c61")
+  public String c61;
+  @Column(name = "c62")
+  public int c62;
+  @Column(name = "c63")
+  public long c63;
+  @Column(name = "c64")
+  public double c64;
+  @Column(name = "c65")
+  public boolean c65;
+  @Column(name = "c66")
+  public String c66;
+  @Column(name = "c67")
+  public int c67;
+  @Column(name = "c68")
+  public long c68;
+  @Column(name = "c69")
+  public double c69;
+  @Column(name = "c70")
+  public boolean c70;
+  @Column(name = "c71")
+  public String c71;
+  @Column(name = "c72")
+  public int c72;
+  @Column(name = "c73")
+  public long c73;
+  @Column(name = "c74")
+  public double c74;
+  @Column(name = "c75")
+  public boolean c75;
+  @Column(name = "c76")
+  public String c76;
+  @Column(name = "c77")
+  public int c77;
+  @Column(name = "c78")
+  public long c78;
+  @Column(name = "c79")
+  public double c79;
+  @Column(name = "c80")
+  public boolean c80;
+  @Column(name = "c81")
+  public String c81;
+  @Column(name = "c82")
+  public int c82;
+  @Column(name = "c83")
+  public long c83;
+  @Column(name = "c84")
+  public double c84;
+  @Column(name = "c85")
+  public boolean c85;
+  @Column(name = "c86")
+  public String c86;
+  @Column(name = "c87")
+  public int c87;
+  @Column(name = "c88")
+  public long c88;
+  @Column(name = "c89")
+  public double c89;
+  @Column(name = "c90")
+  public boolean c90;
+  @Column(name = "c91")
+  public String c91;
+  @Column(name = "c92")
+  public int c92;
+  @Column(name = "c93")
+  public long c93;
+  @Column(name = "c94")
+  public double c94;
+  @Column(name = "c95")
+  public boolean c95;
+  @Column(name = "c96")
+  public String c96;
+  @Column(name = "c97")
+  public int c97;
+  @Column(name = "c98")
+  public long c98;
+  @Column(name = "c99")
+  public double c99;
+  @Column(name = "c100")
+  public boolean c100;
+
+  @Override
+  public Long key() {
+    return id;
+  }
+
+  @Override
+  public void fill(long seed) {
+    c1 = "v" + seed;
+    c2 = (int) seed + 2;
+    c3 = seed * 3;
+    c4 = seed / 4.0;
+    c5 = (seed + 5) % 2 == 0;
+    c6 = "v" + seed;
+    c7 = (int) seed + 7;
+    c8 = seed * 8;
+    c9 = seed / 9.0;
+    c10 = (seed + 10) % 2 == 0;
+    c11 = "v" + seed;
+    c12 = (int) seed + 12;
+    c13 = seed * 13;
+    c14 = seed / 14.0;
+    c15 = (seed + 15) % 2 == 0;
+    c16 = "v" + seed;
+    c17 = (int) seed + 17;
+    c18 = seed * 18;
+    c19 = seed / 19.0;
+    c20 = (seed + 20) % 2 == 0;
+    c21 = "v" + seed;
+    c22 = (int) seed + 22;
+    c23 = seed * 23;
+    c24 = seed / 24.0;
+    c25 = (seed + 25) % 2 == 0;
+    c26 = "v" + seed;
+    c27 = (int) seed + 27;
+    c28 = seed * 28;
+    c29 = seed / 29.0;
+    c30 = (seed + 30) % 2 == 0;
+    c31 = "v" + seed;
+    c32 = (int) seed + 32;
+    c33 = seed * 33;
+    c34 = seed / 34.0;
+    c35 = (seed + 35) % 2 == 0;
+    c36 = "v" + seed;
+    c37 = (int) seed + 37;
+    c38 = seed * 38;
+    c39 = seed / 39.0;
+    c40 = (seed + 40) % 2 == 0;
+    c41 = "v" + seed;
+    c42 = (int) seed + 42;
+    c43 = seed * 43;
+    c44 = seed / 44.0;
+    c45 = (seed + 45) % 2 == 0;
+    c46 = "v" + seed;
+    c47 = (int) seed + 47;
+    c48 = seed * 48;
+    c49 = seed / 49.0;
+    c50 = (seed + 50) % 2 == 0;
+    c51 = "v" + seed;
+    c52 = (int) seed + 52;
+    c53 = seed * 53;
+    c54 = seed / 54.0;
+    c55 = (seed + 55) % 2 == 0;
+    c56 = "v" + seed;
+    c57 = (int) seed + 57;
+    c58 = seed * 58;
+    c59 = seed / 59.0;
+    c60 = (seed + 60) % 2 == 0;
+    c61 = "v" + seed;
+    c62 = (int) seed + 62;
+    c63 = seed * 63;
+    c64 = seed / 64.0;
+    c65 = (seed + 65) % 2 == 0;
+    c66 = "v" + seed;
+    c67 = (int) seed + 67;
+    c68 = seed * 68;
+    c69 = seed / 69.0;
+    c70 = (seed + 70) % 2 == 0;
+    c71 = "v" + seed;
+    c72 = (int) seed + 72;
+    c73 = seed * 73;
+    c74 = seed / 74.0;
+    c75 = (seed + 75) % 2 == 0;
+    c76 = "v" + seed;
+    c77 = (int) seed + 77;
+    c78 = seed * 78;
+    c79 = seed / 79.0;
+    c80 = (seed + 80) % 2 == 0;
+    c81 = "v" + seed;
+    c82 = (int) seed + 82;
+    c83 = seed * 83;
+    c84 = seed / 84.0;
+    c85 = (seed + 85) % 2 == 0;
+    c86 = "v" + seed;
+    c87 = (int) seed + 87;
+    c88 = seed * 88;
+    c89 = seed / 89.0;
+    c90 = (seed + 90) % 2 == 0;
+    c91 = "v" + seed;
+    c92 = (int) seed + 92;
+    c93 = seed * 93;
+    c94 = seed / 94.0;
+    c95 = (seed + 95) % 2 == 0;
+    c96 = "v" + seed;
+    c97 = (int) seed + 97;
+    c98 = seed * 98;
+    c99 = seed / 99.0;
+    c100 = (seed + 100) % 2 == 0;
+  }
+}
@@ -0,0 +1,102 @@
+package com.dark.shade.benchmark.entity;
+
+import com.dark.shade.annotation.Column;
+import com.dark.shade.annotation.Entity;
+import com.dark.shade.annotation.Id;
+import com.dark.shade.annotation.Table;
+
+/**
+ * Entity with 25 field-mapped columns.
+ */
+@Entity
+@Table(name = "field_entity_25")
+public class FieldEntity25 implements BenchEntity {
+
+  @Id
+  @Column(name = "id")
+  public Long id;
+  @Column(name = "c1")
+  public String c1;
+  @Column(name = "c2")
+  public int c2;
+  @Column(name = "c3")
+  public long c3;
+  @Column(name = "c4")
+  public double c4;
+  @Column(name = "c5")
+  public boolean c5;
+  @Column(name = "c6")
+  public String c6;
+  @Column(name = "c7")
+  public int c7;
+  @Column(name = "c8")
+  public long c8;
+  @Column(name = "c9")
+  public double c9;
+  @Column(name = "c10")
+  public boolean c10;
+  @Column(name = "c11")
+  public String c11;
+  @Column(name = "c12")
+  public int c12;
+  @Column(name = "c13")
+  public long c13;
+  @Column(name = "c14")
+  public double c14;
+  @Column(name = "c15")
+  public boolean c15;
+  @Column(name = "c16")
+  public String c16;
+  @Column(name = "c17")
+  public int c17;
+  @Column(name = "c18")
+  public long c18;
+  @Column(name = "c19")
+  public double c19;
+  @Column(name = "c20")
+  public boolean c20;
+  @Column(name = "c21")
+  public String c21;
+  @Column(name = "c22")
+  public int c22;
+  @Column(name = "c23")
+  public long c23;
+  @Column(name = "c24")
+  public double c24;
+  @Column(name = "c25")
+  public boolean c25;
+
+  @Override
+  public Long key() {
+    return id;
+  }
+
+  @Override
+  public void fill(long seed) {
+    c1 = "v" + seed;
+    c2 = (int) seed + 2;
+    c3 = seed * 3;
+    c4 = seed / 4.0;
+    c5 = (seed + 5) % 2 == 0;
+    c6 = "v" + seed;
+    c7 = (int) seed + 7;
+    c8 = seed * 8;
+    c9 = seed / 9.0;
+    c10 = (seed + 10) % 2 == 0;
+    c11 = "v" + seed;
+    c12 = (int) seed + 12;
+    c13 = seed * 13;
+    c14 = seed / 14.0;
+    c15 = (seed + 15) % 2 == 0;
+    c16 = "v" + seed;
+    c17 = (int) seed + 17;
+    c18 = seed * 18;
+    c19 = seed / 19.0;
+    c20 = (seed + 20) % 2 == 0;
+    c21 = "v" + seed;
+    c22 = (int) seed + 22;
+    c23 = seed * 23;
+    c24 = seed / 24.0;
+    c25 = (seed + 25) % 2 == 0;
+  }
+}
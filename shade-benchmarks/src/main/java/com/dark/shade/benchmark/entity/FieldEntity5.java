@@ -0,0 +1,42 @@
+package com.dark.shade.benchmark.entity;
+
+import com.dark.shade.annotation.Column;
+import com.dark.shade.annotation.Entity;
+import com.dark.shade.annotation.Id;
+import com.dark.shade.annotation.Table;
+
+/**
+ * Entity with 5 field-mapped columns.
+ */
+@Entity
+@Table(name = "field_entity_5")
+public class FieldEntity5 implements BenchEntity {
+
+  @Id
+  @Column(name = "id")
+  public Long id;
+  @Column(name = "c1")
+  public String c1;
+  @Column(name = "c2")
+  public int c2;
+  @Column(name = "c3")
+  public long c3;
+  @Column(name = "c4")
+  public double c4;
+  @Column(name = "c5")
+  public boolean c5;
+
+  @Override
+  public Long key() {
+    return id;
+  }
+
+  @Override
+  public void fill(long seed) {
+    c1 = "v" + seed;
+    c2 = (int) seed + 2;
+    c3 = seed * 3;
+    c4 = seed / 4.0;
+    c5 = (seed + 5) % 2 == 0;
+  }
+}
@@ -0,0 +1,1135 @@
+package com.dark.shade.benchmark.entity;
+
+import com.dark.shade.annotation.Column;
+import com.dark.shade.annotation.Entity;
+import com.dark.shade.annotation.Id;
+import com.dark.shade.annotation.Table;
+
+/**
+ * Entity with 100 getter-mapped columns.
+ */
+@Entity
+@Table(name = "method_entity_100")
+public class MethodEntity100 implements BenchEntity {
+
+  private Long id;
+  private String c1;
+  private int c2;
+  private long c3;
+  private double c4;
+  private boolean c5;
+  private String c6;
+  private int c7;
+  private long c8;
+  private double c9;
+  private boolean c10;
+  private String c11;
+  private int c12;
+  private long c13;
+  private double c14;
+  private boolean c15;
+  private String c16;
+  private int c17;
+  private long c18;
+  private double c19;
+  private boolean c20;
+  private String c21;
+  private int c22;
+  private long c23;
+  private double c24;
+  private boolean c25;
+  private String c26;
+  private int c27;
+  private long c28;
+  private double c29;
+  private boolean c30;
+  private String c31;
+  private int c32;
+  private long c33;
+  private double c34;
+  private boolean c35;
+  private String c36;
+  private int c37;
+  private long c38;
+  private double c39;
+  private boolean c40;
+  private String c41;
+  private int c42;
+  private long c43;
+  private double c44;
+  private boolean c45;
+  private String c46;
+  private int c47;
+  private long c48;
+  private double c49;
+  private boolean c50;
+  private String c51;
+  private int c52;
+  private long c53;
+  private double c54;
+  private boolean c55;
+  private String c56;
+  private int c57;
+  private long c58;
+  private double c59;
+  private boolean c60;
+  private String c61;
+  private int c62;
+  private long c63;
+  private double c64;
+  private boolean c65;
+  private String c66;
+  private int c67;
+  private long c68;
+  private double c69;
+  private boolean c70;
+  private String c71;
+  private int c72;
+  private long c73;
+  private double c74;
+  private boolean c75;
+  private String c76;
+  private int c77;
+  private long c78;
+  private double c79;
+  private boolean c80;
+  private String c81;
+  private int c82;
+  private long c83;
+  private double c84;
+  private boolean c85;
+  private String c86;
+  private int c87;
+  private long c88;
+  private double c89;
+  private boolean c90;
+  private String c91;
+  private int c92;
+  private long c93;
+  private double c94;
+  private boolean c95;
+  private String c96;
+  private int c97;
+  private long c98;
+  private double c99;
+  private boolean c100;
+
+  @Id
+  @Column(name = "id")
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  @Column(name = "c1")
+  public String getC1() {
+    return c1;
+  }
+
+  public void setC1(String c1) {
+    this.c1 = c1;
+  }
+
+  @Column(name = "c2")
+  public int getC2() {
+    return c2;
+  }
+
+  public void setC2(int c2) {
+    this.c2 = c2;
+  }
+
+  @Column(name = "c3")
+  public long getC3() {
+    return c3;
+  }
+
+  public void setC3(long c3) {
+    this.c3 = c3;
+  }
+
+  @Column(name = "c4")
+  public double getC4() {
+    return c4;
+  }
+
+  public void setC4(double c4) {
+    this.c4 = c4;
+  }
+
+  @Column(name = "c5")
+  public boolean getC5() {
+    return c5;
+  }
+
+  public void setC5(boolean c5) {
+    this.c5 = c5;
+  }
+
+  @Column(name = "c6")
+  public String getC6() {
+    return c6;
+  }
+
+  public void setC6(String c6) {
+    this.c6 = c6;
+  }
+
+  @Column(name = "c7")
+  public int getC7() {
+    return c7;
+  }
+
+  public void setC7(int c7) {
+    this.c7 = c7;
+  }
+
+  @Column(name = "c8")
+  public long getC8() {
+    return c8;
+  }
+
+  public void setC8(long c8) {
+    this.c8 = c8;
+  }
+
+  @Column(name = "c9")
+  public double getC9() {
+    return c9;
+  }
+
+  public void setC9(double c9) {
+    this.c9 = c9;
+  }
+
+  @Column(name = "c10")
+  public boolean getC10() {
+    return c10;
+  }
+
+  public void setC10(boolean c10) {
+    this.c10 = c10;
+  }
+
+  @Column(name = "c11")
+  public String getC11() {
+    return c11;
+  }
+
+  public void setC11(String c11) {
+    this.c11 = c11;
+  }
+
+  @Column(name = "c12")
+  public int getC12() {
+    return c12;
+  }
+
+  public void setC12(int c12) {
+    this.c12 = c12;
+  }
+
+  @Column(name = "c13")
+  public long getC13() {
+    return c13;
+  }
+
+  public void setC13(long c13) {
+    this.c13 = c13;
+  }
+
+  @Column(name = "c14")
+  public double getC14() {
+    return c14;
+  }
+
+  public void setC14(double c14) {
+    this.c14 = c14;
+  }
+
+  @Column(name = "c15")
+  public boolean getC15() {
+    return c15;
+  }
+
+  public void setC15(boolean c15) {
+    this.c15 = c15;
+  }
+
+  @Column(name = "c16")
+  public String getC16() {
+    return c16;
+  }
+
+  public void setC16(String c16) {
+    this.c16 = c16;
+  }
+
+  @Column(name = "c17")
+  public int getC17() {
+    return c17;
+  }
+
+  public void setC17(int c17) {
+    this.c17 = c17;
+  }
+
+  @Column(name = "c18")
+  public long getC18() {
+    return c18;
+  }
+
+  public void setC18(long c18) {
+    this.c18 = c18;
+  }
+
+  @Column(name = "c19")
+  public double getC19() {
+    return c19;
+  }
+
+  public void setC19(double c19) {
+    this.c19 = c19;
+  }
+
+  @Column(name = "c20")
+  public boolean getC20() {
+    return c20;
+  }
+
+  public void setC20(boolean c20) {
+    this.c20 = c20;
+  }
+
+  @Column(name = "c21")
+  public String getC21() {
+    return c21;
+  }
+
+  public void setC21(String c21) {
+    this.c21 = c21;
+  }
+
+  @Column(name = "c22")
+  public int getC22() {
+    return c22;
+  }
+
+  public void setC22(int c22) {
+    this.c22 = c22;
+  }
+
+  @Column(name = "c23")
+  public long getC23() {
+    return c23;
+  }
+
+  public void setC23(long c23) {
+    this.c23 = c23;
+  }
+
+  @Column(name = "c24")
+  public double getC24() {
+    return c24;
+  }
+
+  public void setC24(double c24) {
+    this.c24 = c24;
+  }
+
+  @Column(name = "c25")
+  public boolean getC25() {
+    return c25;
+  }
+
+  public void setC25(boolean c25) {
+    this.c25 = c25;
+  }
+
+  @Column(name = "c26")
+  public String getC26() {
+    return c26;
+  }
+
+  public void setC26(String c26) {
+    this.c26 = c26;
+  }
+
+  @Column(name = "c27")
+  public int getC27() {
+    return c27;
+  }
+
+  public void setC27(int c27) {
+    this.c27 = c27;
+  }
+
+  @Column(name = "c28")
+  public long getC28() {
+    return c28;
+  }
+
+  public void setC28(long c28) {
+    this.c28 = c28;
+  }
+
+  @Column(name = "c29")
+  public double getC29() {
+    return c29;
+  }
+
+  public void setC29(double c29) {
+    this.c29 = c29;
+  }
+
+  @Column(name = "c30")
+  public boolean getC30() {
+    return c30;
+  }
+
+  public void setC30(boolean c30) {
+    this.c30 = c30;
+  }
+
+  @Column(name = "c31")
+  public String getC31() {
+    return c31;
+  }
+
+  public void setC31(String c31) {
+    this.c31 = c31;
+  }
+
+  @Column(name = "c32")
+  public int getC32() {
+    return c32;
+  }
+
+  public void setC32(int c32) {
+    this.c32 = c32;
+  }
+
+  @Column(name = "c33")
+  public long getC33() {
+    return c33;
+  }
+
+  public void setC33(long c33) {
+    this.c33 = c33;
+  }
+
+  @Column(name = "c34")
+  public double getC34() {
+    return c34;
+  }
+
+  public void setC34(double c34) {
+    this.c34 = c34;
+  }
+
+  @Column(name = "c35")
+  public boolean getC35() {
+    return c35;
+  }
+
+  public void setC35(boolean c35) {
+    this.c35 = c35;
+  }
+
+  @Column(name = "c36")
+  public String getC36() {
+    return c36;
+  }
+
+  public void setC36(String c36) {
+    this.c36 = c36;
+  }
+
+  @Column(name = "c37")
+  public int getC37() {
+    return c37;
+  }
+
+  public void setC37(int c37) {
+    this.c37 = c37;
+  }
+
+  @Column(name = "c38")
+  public long getC38() {
+    return c38;
+  }
+
+  public void setC38(long c38) {
+    this.c38 = c38;
+  }
+
+  @Column(name = "c39")
+  public double getC39() {
+    return c39;
+  }
+
+  public void setC39(double c39) {
+    this.c39 = c39;
+  }
+
+  @Column(name = "c40")
+  public boolean getC40() {
+    return c40;
+  }
+
+  public void setC40(boolean c40) {
+    this.c40 = c40;
+  }
+
+  @Column(name = "c41")
+  public String getC41() {
+    return c41;
+  }
+
+  public void setC41(String c41) {
+    this.c41 = c41;
+  }
+
+  @Column(name = "c42")
+  public int getC42() {
+    return c42;
+  }
+
+  public void setC42(int c42) {
+    this.c42 = c42;
+  }
+
+  @Column(name = "c43")
+  public long getC43() {
+    return c43;
+  }
+
+  public void setC43(long c43) {
+    this.c43 = c43;
+  }
+
+  @Column(name = "c44")
+  public double getC44() {
+    return c44;
+  }
+
+  public void setC44(double c44) {
+    this.c44 = c44;
+  }
+
+  @Column(name = "c45")
+  public boolean getC45() {
+    return c45;
+  }
+
+  public void setC45(boolean c45) {
+    this.c45 = c45;
+  }
+
+  @Column(name = "c46")
+  public String getC46() {
+    return c46;
+  }
+
+  public void setC46(String c46) {
+    this.c46 = c46;
+  }
+
+  @Column(name = "c47")
+  public int getC47() {
+    return c47;
+  }
+
+  public void setC47(int c47) {
+    this.c47 = c47;
+  }
+
+  @Column(name = "c48")
+  public long getC48() {
+    return c48;
+  }
+
+  public void setC48(long c48) {
+    this.c48 = c48;
+  }
+
+  @Column(name = "c49")
+  public double getC49() {
+    return c49;
+  }
+
+  public void setC49(double c49) {
+    this.c49 = c49;
+  }
+
+  @Column(name = "c50")
+  public boolean getC50() {
+    return c50;
+  }
+
+  public void setC50(boolean c50) {
+    this.c50 = c50;
+  }
+
+  @Column(name = "c51")
+  public String getC51() {
+    return c51;
+  }
+
+  public void setC51(String c51) {
+    this.c51 = c51;
+  }
+
+  @Column(name = "c52")
+  public int getC52() {
+    return c52;
+  }
+
+  public void setC52(int c52) {
+    this.c52 = c52;
+  }
+
+  @Column(name = "c53")
+  public long getC53() {
+    return c53;
+  }
+
+  public void setC53(long c53) {
+    this.c53 = c53;
+  }
+
+  @Column(name = "c54")
+  public double getC54() {
+    return c54;
+  }
+
+  public void setC54(double c54) {
+    this.c54 = c54;
+  }
+
+  @Column(name = "c55")
+  public boolean getC55() {
+    return c55;
+  }
+
+  public void setC55(boolean c55) {
+    this.c55 = c55;
+  }
+
+  @Column(name = "c56")
+  public String getC56() {
+    return c56;
+  }
+
+  public void setC56(String c56) {
+    this.c56 = c56;
+  }
+
+  @Column(name = "c57")
+  public int getC57() {
+    return c57;
+  }
+
+  public void setC57(int c57) {
+    this.c57 = c57;
+  }
+
+  @Column(name = "c58")
+  public long getC58() {
+    return c58;
+  }
+
+  public void setC58(long c58) {
+    this.c58 = c58;
+  }
+
+  @Column(name = "c59")
+  public double getC59() {
+    return c59;
+  }
+
+  public void setC59(double c59) {
+    this.c59 = c59;
+  }
+
+  @Column(name = "c60")
+  public boolean getC60() {
+    return c60;
+  }
+
+  public void setC60(boolean c60) {
+    this.c60 = c60;
+  }
+
+  @Column(name = "c61")
+  public String getC61() {
+    return c61;
+  }
+
+  public void setC61(String c61) {
+    this.c61 = c61;
+  }
+
+  @Column(name = "c62")
+  public int getC62() {
+    return c62;
+  }
+
+  public void setC62(int c62) {
+    this.c62 = c62;
+  }
+
+  @Column(name = "c63")
+  public long getC63() {
+    return c63;
+  }
+
+  public void setC63(long c63) {
+    this.c63 = c63;
+  }
+
+  @Column(name = "c64")
+  public double getC64() {
+    return c64;
+  }
+
+  public void setC64(double c64) {
+    this.c64 = c64;
+  }
+
+  @Column(name = "c65")
+  public boolean getC65() {
+    return c65;
+  }
+
+  public void setC65(boolean c65) {
+    this.c65 = c65;
+  }
+
+  @Column(name = "c66")
+  public String getC66() {
+    return c66;
+  }
+
+  public void setC66(String c66) {
+    this.c66 = c66;
+  }
+
+  @Column(name = "c67")
+  public int getC67() {
+    return c67;
+  }
+
+  public void setC67(int c67) {
+    this.c67 = c67;
+  }
+
+  @Column(name = "c68")
+  public long getC68() {
+    return c68;
+  }
+
+  public void setC68(long c68) {
+    this.c68 = c68;
+  }
+
+  @Column(name = "c69")
+  public double getC69() {
+    return c69;
+  }
+
+  public void setC69(double c69) {
+    this.c69 = c69;
+  }
+
+  @Column(name = "c70")
+  public boolean getC70() {
+    return c70;
+  }
+
+  public void setC70(boolean c70) {
+    this.c70 = c70;
+  }
+
+  @Column(name = "c71")
+  public String getC71() {
+    return c71;
+  }
+
+  public void setC71(String c71) {
+    this.c71 = c71;
+  }
+
+  @Column(name = "c72")
+  public int getC72() {
+    return c72;
+  }
+
+  public void setC72(int c72) {
+    this.c72 = c72;
+  }
+
+  @Column(name = "c73")
+  public long getC73() {
+    return c73;
+  }
+
+  public void setC73(long c73) {
+    this.c73 = c73;
+  }
+
+  @Column(name = "c74")
+  public double getC74() {
+    return c74;
+  }
+
+  public void setC74(double c74) {
+    this.c74 = c74;
+  }
+
+  @Column(name = "c75")
+  public boolean getC75() {
+    return c75;
+  }
+
+  public void setC75(boolean c75) {
+    this.c75 = c75;
+  }
+
+  @Column(name = "c76")
+  public String getC76() {
+    return c76;
+  }
+
+  public void setC76(String c76) {
+    this.c76 = c76;
+  }
+
+  @Column(name = "c77")
+  public int getC77() {
+    return c77;
+  }
+
+  public void setC77(int c77) {
+    this.c77 = c77;
+  }
+
+  @Column(name = "c78")
+  public long getC78() {
+    return c78;
+  }
+
+  public void setC78(long c78) {
+    this.c78 = c78;
+  }
+
+  @Column(name = "c79")
+  public double getC79() {
+    return c79;
+  }
+
+  public void setC79(double c79) {
+    this.c79 = c79;
+  }
+
+  @Column(name = "c80")
+  public boolean getC80() {
+    return c80;
+  }
+
+  public void setC80(boolean c80) {
+    this.c80 = c80;
+  }
+
+  @Column(name = "c81")
+  public String getC81() {
+    return c81;
+  }
+
+  public void setC81(String c81) {
+    this.c81 = c81;
+  }
+
+  @Column(name = "c82")
+  public int getC82() {
+    return c82;
+  }
+
+  public void setC82(int c82) {
+    this.c82 = c82;
+  }
+
+  @Column(name = "c83")
+  public long getC83() {
+    return c83;
+  }
+
+  public void setC83(long c83) {
+    this.c83 = c83;
+  }
+
+  @Column(name = "c84")
+  public double getC84() {
+    return c84;
+  }
+
+  public void setC84(double c84) {
+    this.c84 = c84;
+  }
+
+  @Column(name = "c85")
+  public boolean getC85() {
+    return c85;
+  }
+
+  public void setC85(boolean c85) {
+    this.c85 = c85;
+  }
+
+  @Column(name = "c86")
+  public String getC86() {
+    return c86;
+  }
+
+  public void setC86(String c86) {
+    this.c86 = c86;
+  }
+
+  @Column(name = "c87")
+  public int getC87() {
+    return c87;
+  }
+
+  public void setC87(int c87) {
+    this.c87 = c87;
+  }
+
+  @Column(name = "c88")
+  public long getC88() {
+    return c88;
+  }
+
+  public void setC88(long c88) {
+    this.c88 = c88;
+  }
+
+  @Column(name = "c89")
+  public double getC89() {
+    return c89;
+  }
+
+  public void setC89(double c89) {
+    this.c89 = c89;
+  }
+
+  @Column(name = "c90")
+  public boolean getC90() {
+    return c90;
+  }
+
+  public void setC90(boolean c90) {
+    this.c90 = c90;
+  }
+
+  @Column(name = "c91")
+  public String getC91() {
+    return c91;
+  }
+
+  public void setC91(String c91) {
+    this.c91 = c91;
+  }
+
+  @Column(name = "c92")
+  public int getC92() {
+    return c92;
+  }
+
+  public void setC92(int c92) {
+    this.c92 = c92;
+  }
+
+  @Column(name = "c93")
+  public long getC93() {
+    return c93;
+  }
+
+  public void setC93(long c93) {
+    this.c93 = c93;
+  }
+
+  @Column(name = "c94")
+  public double getC94() {
+    return c94;
+  }
+
+  public void setC94(double c94) {
+    this.c94 = c94;
+  }
+
+  @Column(name = "c95")
+  public boolean getC95() {
+    return c95;
+  }
+
+  public void setC95(boolean c95) {
+    this.c95 = c95;
+  }
+
+  @Column(name = "c96")
+  public String getC96() {
+    return c96;
+  }
+
+  public void setC96(String c96) {
+    this.c96 = c96;
+  }
+
+  @Column(name = "c97")
+  public int getC97() {
+    return c97;
+  }
+
+  public void setC97(int c97) {
+    this.c97 = c97;
+  }
+
+  @Column(name = "c98")
+  public long getC98() {
+    return c98;
+  }
+
+  public void setC98(long c98) {
+    this.c98 = c98;
+  }
+
+  @Column(name = "c99")
+  public double getC99() {
+    return c99;
+  }
+
+  public void setC99(double c99) {
+    this.c99 = c99;
+  }
+
+  @Column(name = "c100")
+  public boolean getC100() {
+    return c100;
+  }
+
+  public void setC100(boolean c100) {
+    this.c100 = c100;
+  }
+
+  @Override
+  public Long key() {
+    return id;
+  }
+
+  @Override
+  public void fill(long seed) {
+    setC1("v" + seed);
+    setC2((int) seed + 2);
+    setC3(seed * 3);
+    setC4(seed / 4.0);
+    setC5((seed + 5) % 2 == 0);
+    setC6("v" + seed);
+    setC7((int) seed + 7);
+    setC8(seed * 8);
+    setC9(seed / 9.0);
+    setC10((seed + 10) % 2 == 0);
+    setC11("v" + seed);
+    setC12((int) seed + 12);
+    setC13(seed * 13);
+    setC14(seed / 14.0);
+    setC15((seed + 15) % 2 == 0);
+    setC16("v" + seed);
+    setC17((int) seed + 17);
+    setC18(seed * 18);
+    setC19(seed / 19.0);
+    setC20((seed + 20) % 2 == 0);
+    setC21("v" + seed);
+    setC22((int) seed + 22);
+    setC23(seed * 23);
+    setC24(seed / 24.0);
+    setC25((seed + 25) % 2 == 0);
+    setC26("v" + seed);
+    setC27((int) seed + 27);
+    setC28(seed * 28);
+    setC29(seed / 29.0);
+    setC30((seed + 30) % 2 == 0);
+    setC31("v" + seed);
+    setC32((int) seed + 32);
+    setC33(seed * 33);
+    setC34(seed / 34.0);
+    setC35((seed + 35) % 2 == 0);
+    setC36("v" + seed);
+    setC37((int) seed + 37);
+    setC38(seed * 38);
+    setC39(seed / 39.0);
+    setC40((seed + 40) % 2 == 0);
+    setC41("v" + seed);
+    setC42((int) seed + 42);
+    setC43(seed * 43);
+    setC44(seed / 44.0);
+    setC45((seed + 45) % 2 == 0);
+    setC46("v" + seed);
+    setC47((int) seed + 47);
+    setC48(seed * 48);
+    setC49(seed / 49.0);
+    setC50((seed + 50) % 2 == 0);
+    setC51("v" + seed);
+    setC52((int) seed + 52);
+    setC53(seed * 53);
+    setC54(seed / 54.0);
+    setC55((seed + 55) % 2 == 0);
+    setC56("v" + seed);
+    setC57((int) seed + 57);
+    setC58(seed * 58);
+    setC59(seed / 59.0);
+    setC60((seed + 60) % 2 == 0);
+    setC61("v" + seed);
+    setC62((int) seed + 62);
+    setC63(seed * 63);
+    setC64(seed / 64.0);
+    setC65((seed + 65) % 2 == 0);
+    setC66("v" + seed);
+    setC67((int) seed + 67);
+    setC68(seed * 68);
+    setC69(seed / 69.0);
+    setC70((seed + 70) % 2 == 0);
+    setC71("v" + seed);
+    setC72((int) seed + 72);
+    setC73(seed * 73);
+    setC74(seed / 74.0);
+    setC75((seed + 75) % 2 == 0);
+    setC76("v" + seed);
+    setC77((int) seed + 77);
+    setC78(seed * 78);
+    setC79(seed / 79.0);
+    setC80((seed + 80) % 2 == 0);
+    setC81("v" + seed);
+    setC82((int) seed + 82);
+    setC83(seed * 83);
+    setC84(seed / 84.0);
+    setC85((seed + 85) % 2 == 0);
+    setC86("v" + seed);
+    setC87((int) seed + 87);
+    setC88(seed * 88);
+    setC89(seed / 89.0);
+    setC90((seed + 90) % 2 == 0);
+    setC91("v" + seed);
+    setC92((int) seed + 92);
+    setC93(seed * 93);
+    setC94(seed / 94.0);
+    setC95((seed + 95) % 2 == 0);
+    setC96("v" + seed);
+    setC97((int) seed + 97);
+    setC98(seed * 98);
+    setC99(seed / 99.0);
+    setC100((seed + 100) % 2 == 0);
+  }
+}
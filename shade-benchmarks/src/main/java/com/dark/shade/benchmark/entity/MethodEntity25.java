@@ -0,0 +1,310 @@
+package com.dark.shade.benchmark.entity;
+
+import com.dark.shade.annotation.Column;
+import com.dark.shade.annotation.Entity;
+import com.dark.shade.annotation.Id;
+import com.dark.shade.annotation.Table;
+
+/**
+ * Entity with 25 getter-mapped columns.
+ */
+@Entity
+@Table(name = "method_entity_25")
+public class MethodEntity25 implements BenchEntity {
+
+  private Long id;
+  private String c1;
+  private int c2;
+  private long c3;
+  private double c4;
+  private boolean c5;
+  private String c6;
+  private int c7;
+  private long c8;
+  private double c9;
+  private boolean c10;
+  private String c11;
+  private int c12;
+  private long c13;
+  private double c14;
+  private boolean c15;
+  private String c16;
+  private int c17;
+  private long c18;
+  private double c19;
+  private boolean c20;
+  private String c21;
+  private int c22;
+  private long c23;
+  private double c24;
+  private boolean c25;
+
+  @Id
+  @Column(name = "id")
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  @Column(name = "c1")
+  public String getC1() {
+    return c1;
+  }
+
+  public void setC1(String c1) {
+    this.c1 = c1;
+  }
+
+  @Column(name = "c2")
+  public int getC2() {
+    return c2;
+  }
+
+  public void setC2(int c2) {
+    this.c2 = c2;
+  }
+
+  @Column(name = "c3")
+  public long getC3() {
+    return c3;
+  }
+
+  public void setC3(long c3) {
+    this.c3 = c3;
+  }
+
+  @Column(name = "c4")
+  public double getC4() {
+    return c4;
+  }
+
+  public void setC4(double c4) {
+    this.c4 = c4;
+  }
+
+  @Column(name = "c5")
+  public boolean getC5() {
+    return c5;
+  }
+
+  public void setC5(boolean c5) {
+    this.c5 = c5;
+  }
+
+  @Column(name = "c6")
+  public String getC6() {
+    return c6;
+  }
+
+  public void setC6(String c6) {
+    this.c6 = c6;
+  }
+
+  @Column(name = "c7")
+  public int getC7() {
+    return c7;
+  }
+
+  public void setC7(int c7) {
+    this.c7 = c7;
+  }
+
+  @Column(name = "c8")
+  public long getC8() {
+    return c8;
+  }
+
+  public void setC8(long c8) {
+    this.c8 = c8;
+  }
+
+  @Column(name = "c9")
+  public double getC9() {
+    return c9;
+  }
+
+  public void setC9(double c9) {
+    this.c9 = c9;
+  }
+
+  @Column(name = "c10")
+  public boolean getC10() {
+    return c10;
+  }
+
+  public void setC10(boolean c10) {
+    this.c10 = c10;
+  }
+
+  @Column(name = "c11")
+  public String getC11() {
+    return c11;
+  }
+
+  public void setC11(String c11) {
+    this.c11 = c11;
+  }
+
+  @Column(name = "c12")
+  public int getC12() {
+    return c12;
+  }
+
+  public void setC12(int c12) {
+    this.c12 = c12;
+  }
+
+  @Column(name = "c13")
+  public long getC13() {
+    return c13;
+  }
+
+  public void setC13(long c13) {
+    this.c13 = c13;
+  }
+
+  @Column(name = "c14")
+  public double getC14() {
+    return c14;
+  }
+
+  public void setC14(double c14) {
+    this.c14 = c14;
+  }
+
+  @Column(name = "c15")
+  public boolean getC15() {
+    return c15;
+  }
+
+  public void setC15(boolean c15) {
+    this.c15 = c15;
+  }
+
+  @Column(name = "c16")
+  public String getC16() {
+    return c16;
+  }
+
+  public void setC16(String c16) {
+    this.c16 = c16;
+  }
+
+  @Column(name = "c17")
+  public int getC17() {
+    return c17;
+  }
+
+  public void setC17(int c17) {
+    this.c17 = c17;
+  }
+
+  @Column(name = "c18")
+  public long getC18() {
+    return c18;
+  }
+
+  public void setC18(long c18) {
+    this.c18 = c18;
+  }
+
+  @Column(name = "c19")
+  public double getC19() {
+    return c19;
+  }
+
+  public void setC19(double c19) {
+    this.c19 = c19;
+  }
+
+  @Column(name = "c20")
+  public boolean getC20() {
+    return c20;
+  }
+
+  public void setC20(boolean c20) {
+    this.c20 = c20;
+  }
+
+  @Column(name = "c21")
+  public String getC21() {
+    return c21;
+  }
+
+  public void setC21(String c21) {
+    this.c21 = c21;
+  }
+
+  @Column(name = "c22")
+  public int getC22() {
+    return c22;
+  }
+
+  public void setC22(int c22) {
+    this.c22 = c22;
+  }
+
+  @Column(name = "c23")
+  public long getC23() {
+    return c23;
+  }
+
+  public void setC23(long c23) {
+    this.c23 = c23;
+  }
+
+  @Column(name = "c24")
+  public double getC24() {
+    return c24;
+  }
+
+  public void setC24(double c24) {
+    this.c24 = c24;
+  }
+
+  @Column(name = "c25")
+  public boolean getC25() {
+    return c25;
+  }
+
+  public void setC25(boolean c25) {
+    this.c25 = c25;
+  }
+
+  @Override
+  public Long key() {
+    return id;
+  }
+
+  @Override
+  public void fill(long seed) {
+    setC1("v" + seed);
+    setC2((int) seed + 2);
+    setC3(seed * 3);
+    setC4(seed / 4.0);
+    setC5((seed + 5) % 2 == 0);
+    setC6("v" + seed);
+    setC7((int) seed + 7);
+    setC8(seed * 8);
+    setC9(seed / 9.0);
+    setC10((seed + 10) % 2 == 0);
+    setC11("v" + seed);
+    setC12((int) seed + 12);
+    setC13(seed * 13);
+    setC14(seed / 14.0);
+    setC15((seed + 15) % 2 == 0);
+    setC16("v" + seed);
+    setC17((int) seed + 17);
+    setC18(seed * 18);
+    setC19(seed / 19.0);
+    setC20((seed + 20) % 2 == 0);
+    setC21("v" + seed);
+    setC22((int) seed + 22);
+    setC23(seed * 23);
+    setC24(seed / 24.0);
+    setC25((seed + 25) % 2 == 0);
+  }
+}
@@ -0,0 +1,90 @@
+package com.dark.shade.benchmark.entity;
+
+import com.dark.shade.annotation.Column;
+import com.dark.shade.annotation.Entity;
+import com.dark.shade.annotation.Id;
+import com.dark.shade.annotation.Table;
+
+/**
+ * Entity with 5 getter-mapped columns.
+ */
+@Entity
+@Table(name = "method_entity_5")
+public class MethodEntity5 implements BenchEntity {
+
+  private Long id;
+  private String c1;
+  private int c2;
+  private long c3;
+  private double c4;
+  private boolean c5;
+
+  @Id
+  @Column(name = "id")
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  @Column(name = "c1")
+  public String getC1() {
+    return c1;
+  }
+
+  public void setC1(String c1) {
+    this.c1 = c1;
+  }
+
+  @Column(name = "c2")
+  public int getC2() {
+    return c2;
+  }
+
+  public void setC2(int c2) {
+    this.c2 = c2;
+  }
+
+  @Column(name = "c3")
+  public long getC3() {
+    return c3;
+  }
+
+  public void setC3(long c3) {
+    this.c3 = c3;
+  }
+
+  @Column(name = "c4")
+  public double getC4() {
+    return c4;
+  }
+
+  public void setC4(double c4) {
+    this.c4 = c4;
+  }
+
+  @Column(name = "c5")
+  public boolean getC5() {
+    return c5;
+  }
+
+  public void setC5(boolean c5) {
+    this.c5 = c5;
+  }
+
+  @Override
+  public Long key() {
+    return id;
+  }
+
+  @Override
+  public void fill(long seed) {
+    setC1("v" + seed);
+    setC2((int) seed + 2);
+    setC3(seed * 3);
+    setC4(seed / 4.0);
+    setC5((seed + 5) % 2 == 0);
+  }
+}
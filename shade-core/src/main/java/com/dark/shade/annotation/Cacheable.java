@@ -0,0 +1,28 @@
+package com.dark.shade.annotation;
+
+import com.dark.shade.cache.EntityCache;
+import com.dark.shade.cache.LruEntityCache;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Cacheable annotation.
+ * Enables the second-level cache of an entity for finds and existence checks by id.
+ */
+@Target(TYPE)
+@Retention(RUNTIME)
+public @interface Cacheable {
+
+  int maxSize() default 1000;
+
+  long ttlSeconds() default 300;
+
+  /**
+   * Cache implementation, created through its public {@code (int maxSize, long ttlMillis)} constructor.
+   */
+  Class<? extends EntityCache> implementation() default LruEntityCache.class;
+}
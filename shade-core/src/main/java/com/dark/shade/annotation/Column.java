@@ -0,0 +1,41 @@
+package com.dark.shade.annotation;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Column annotation
+ */
+@Target({METHOD, FIELD})
+@Retention(RUNTIME)
+public @interface Column {
+
+  String name() default "";
+
+  boolean unique() default false;
+
+  boolean nullable() default true;
+
+  /**
+   * Length of character and binary columns in generated schemas.
+   */
+  int length() default 255;
+
+  /**
+   * SQL type of the column in generated schemas, e.g. {@code UUID} or {@code JSONB};
+   * by default it is derived from the member type.
+   */
+  String definition() default "";
+
+  /**
+   * Leaves the column out of the queries loading entities, for large values such as documents or images.
+   * Lazy columns are read on demand through the repository, as values or streams. Without dirty tracking, updates
+   * leave out lazy columns which are null, as they are most likely not loaded, so clearing a lazy column to null
+   * requires {@link com.dark.shade.config.SessionSettings#setDirtyTracking dirty tracking}.
+   */
+  boolean lazy() default false;
+}
@@ -0,0 +1,17 @@
+package com.dark.shade.annotation;
+
+/**
+ * Fetch strategy of a relation.
+ */
+public enum FetchType {
+
+  /**
+   * The relation is loaded with the entities, by one IN-list query per relation for all entities of a result.
+   */
+  EAGER,
+  /**
+   * The relation is loaded only by an explicit call of {@link com.dark.shade.repository.Repository#fetch};
+   * there is no loading on access.
+   */
+  LAZY
+}
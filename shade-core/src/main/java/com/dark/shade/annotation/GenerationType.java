@@ -0,0 +1,25 @@
+package com.dark.shade.annotation;
+
+/**
+ * Id generation strategy.
+ */
+public enum GenerationType {
+
+  /**
+   * Ids are generated by the database on insert and read back as generated keys.
+   */
+  IDENTITY,
+  /**
+   * Each value of the sequence reserves the ids from value * allocation size to the next block.
+   */
+  HILO,
+  /**
+   * The sequence increments by the allocation size; each value reserves the ids from the value
+   * to the next one.
+   */
+  POOLED,
+  /**
+   * Random UUIDs, for String or {@link java.util.UUID} ids.
+   */
+  UUID
+}
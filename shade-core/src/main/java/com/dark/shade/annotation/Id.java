@@ -13,4 +13,16 @@ import static java.lang.annotation.RetentionPolicy.RUNTIME;
 @Target({METHOD, FIELD})
 @Retention(RUNTIME)
 public @interface Id {
+
+  GenerationType strategy() default GenerationType.IDENTITY;
+
+  /**
+   * Sequence of the HILO and POOLED strategies; defaults to the table name with a _seq suffix.
+   */
+  String sequence() default "";
+
+  /**
+   * Number of ids reserved per sequence value by the HILO and POOLED strategies.
+   */
+  int allocationSize() default 50;
 }
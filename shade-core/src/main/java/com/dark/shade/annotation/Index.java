@@ -0,0 +1,33 @@
+package com.dark.shade.annotation;
+
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Index annotation.
+ * On an entity class it declares an index of the given columns, in order; on a column member it indexes
+ * that column. Indexes are created by the schema generator and checked by schema validation.
+ */
+@Target({TYPE, METHOD, FIELD})
+@Retention(RUNTIME)
+@Repeatable(Indexes.class)
+public @interface Index {
+
+  /**
+   * Index name; defaults to the table and column names with an _idx suffix.
+   */
+  String name() default "";
+
+  /**
+   * Indexed column names; required on an entity class and ignored on a column member.
+   */
+  String[] columns() default {};
+
+  boolean unique() default false;
+}
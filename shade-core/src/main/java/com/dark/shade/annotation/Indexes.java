@@ -5,18 +5,15 @@ import java.lang.annotation.Target;
 
 import static java.lang.annotation.ElementType.FIELD;
 import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
 import static java.lang.annotation.RetentionPolicy.RUNTIME;
 
 /**
- * Column annotation
+ * Container of repeated {@link Index} annotations.
  */
-@Target({METHOD, FIELD})
+@Target({TYPE, METHOD, FIELD})
 @Retention(RUNTIME)
-public @interface Column {
+public @interface Indexes {
 
-  String name() default "";
-
-  boolean unique() default false;
-
-  boolean nullable() default true;
+  Index[] value();
 }
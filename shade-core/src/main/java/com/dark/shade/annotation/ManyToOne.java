@@ -0,0 +1,29 @@
+package com.dark.shade.annotation;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Many-to-one relation annotation.
+ * Maps a member of an entity type to a column holding the id of the referenced entity. Until the relation
+ * is fetched the member holds a stub: an instance of the referenced entity with only its id set, whose other
+ * members are null or default. {@link FetchType#EAGER EAGER} relations are fetched with the entities;
+ * {@link FetchType#LAZY LAZY} ones keep the stub until
+ * {@link com.dark.shade.repository.Repository#fetch(Iterable, String)} is called explicitly, as members
+ * are never loaded on access.
+ */
+@Target({METHOD, FIELD})
+@Retention(RUNTIME)
+public @interface ManyToOne {
+
+  /**
+   * Column holding the id of the referenced entity; defaults to the member name with an _id suffix.
+   */
+  String column() default "";
+
+  FetchType fetch() default FetchType.EAGER;
+}
@@ -0,0 +1,33 @@
+package com.dark.shade.annotation;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * One-to-many relation annotation.
+ * Maps a {@link java.util.List} or {@link java.util.Collection} member to the entities of the given type
+ * whose column references the id of this entity. The relation is read-only: it is not written on save.
+ * {@link FetchType#LAZY LAZY}, the default, means the member stays null until
+ * {@link com.dark.shade.repository.Repository#fetch(Iterable, String)} is called explicitly, as members
+ * are never loaded on access.
+ */
+@Target({METHOD, FIELD})
+@Retention(RUNTIME)
+public @interface OneToMany {
+
+  /**
+   * Entity type of the elements; defaults to the type argument of the member type.
+   */
+  Class<?> target() default void.class;
+
+  /**
+   * Column of the target entity holding the id of this entity.
+   */
+  String column();
+
+  FetchType fetch() default FetchType.LAZY;
+}
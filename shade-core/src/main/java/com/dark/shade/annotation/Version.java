@@ -0,0 +1,19 @@
+package com.dark.shade.annotation;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Version annotation.
+ * Marks an int or long column as the version of the entity for optimistic locking: updates increment it
+ * and apply only to the row with the version the entity was read with, failing with
+ * {@link com.dark.shade.exception.OptimisticLockException} otherwise.
+ */
+@Target({METHOD, FIELD})
+@Retention(RUNTIME)
+public @interface Version {
+}
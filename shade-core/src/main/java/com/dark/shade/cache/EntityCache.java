@@ -0,0 +1,33 @@
+package com.dark.shade.cache;
+
+/**
+ * Entity cache.
+ * Second-level cache of one entity, shared by all sessions. Entries are copied column value snapshots
+ * keyed by id, never entity instances. Implementations must be thread-safe.
+ * Finds take a {@link #stamp} before reading a row and store it with {@link #put(Object, Object[], long)},
+ * so that a row read before a concurrent write committed is not stored after the write evicted the id.
+ */
+public interface EntityCache {
+
+  Object[] get(Object id);
+
+  void put(Object id, Object[] snapshot);
+
+  void evict(Object id);
+
+  void clear();
+
+  /**
+   * Returns a stamp of the evictions of the id so far. The default stamp never invalidates a put.
+   */
+  default long stamp(Object id) {
+    return 0;
+  }
+
+  /**
+   * Stores a snapshot unless the id was evicted or the cache cleared since the stamp was taken.
+   */
+  default void put(Object id, Object[] snapshot, long stamp) {
+    put(id, snapshot);
+  }
+}
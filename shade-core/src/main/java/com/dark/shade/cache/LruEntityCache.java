@@ -0,0 +1,125 @@
+package com.dark.shade.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity cache bounded by size with least recently used eviction, and by time to live.
+ * Ids are spread over up to 16 segments, each with its own lock and an equal share of the maximum size,
+ * so concurrent finds of different ids rarely contend and eviction is least recently used per segment.
+ * Each segment counts its evictions, which invalidates the stamps taken before them.
+ */
+public final class LruEntityCache implements EntityCache {
+
+  private static final int MAX_SEGMENTS = 16;
+
+  private final long ttlNanos;
+  private final Segment[] segments;
+
+  public LruEntityCache(int maxSize, long ttlMillis) {
+    this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    int count = Math.min(MAX_SEGMENTS, Integer.highestOneBit(Math.max(1, maxSize)));
+    this.segments = new Segment[count];
+    for (int i = 0; i < count; i++) {
+      segments[i] = new Segment((Math.max(1, maxSize) + count - 1) / count);
+    }
+  }
+
+  @Override
+  public Object[] get(Object id) {
+    return segment(id).get(id, ttlNanos);
+  }
+
+  @Override
+  public void put(Object id, Object[] snapshot) {
+    segment(id).put(id, snapshot, -1);
+  }
+
+  @Override
+  public long stamp(Object id) {
+    return segment(id).stamp();
+  }
+
+  @Override
+  public void put(Object id, Object[] snapshot, long stamp) {
+    segment(id).put(id, snapshot, stamp);
+  }
+
+  @Override
+  public void evict(Object id) {
+    segment(id).evict(id);
+  }
+
+  @Override
+  public void clear() {
+    for (Segment segment : segments) {
+      segment.clear();
+    }
+  }
+
+  private Segment segment(Object id) {
+    int hash = id.hashCode();
+    return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+  }
+
+  private static final class Segment {
+
+    private final Map<Object, CacheEntry> entries;
+    private long evictions;
+
+    private Segment(final int maxSize) {
+      this.entries = new LinkedHashMap<Object, CacheEntry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, CacheEntry> eldest) {
+          return size() > maxSize;
+        }
+      };
+    }
+
+    synchronized Object[] get(Object id, long ttlNanos) {
+      CacheEntry entry = entries.get(id);
+      if (entry == null) {
+        return null;
+      }
+      if (System.nanoTime() - entry.createdNanos > ttlNanos) {
+        entries.remove(id);
+        return null;
+      }
+      return entry.snapshot;
+    }
+
+    synchronized long stamp() {
+      return evictions;
+    }
+
+    /**
+     * Stores a snapshot unless evictions happened since the stamp; a negative stamp always stores it.
+     */
+    synchronized void put(Object id, Object[] snapshot, long stamp) {
+      if (stamp < 0 || stamp == evictions) {
+        entries.put(id, new CacheEntry(snapshot));
+      }
+    }
+
+    synchronized void evict(Object id) {
+      evictions++;
+      entries.remove(id);
+    }
+
+    synchronized void clear() {
+      evictions++;
+      entries.clear();
+    }
+  }
+
+  private static final class CacheEntry {
+
+    private final Object[] snapshot;
+    private final long createdNanos = System.nanoTime();
+
+    private CacheEntry(Object[] snapshot) {
+      this.snapshot = snapshot;
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package com.dark.shade.config;
+
+/**
+ * Read replica endpoint.
+ * A null user and password mean the credentials of the primary database.
+ */
+public final class ReadReplica {
+
+  private final String url;
+  private final String user;
+  private final String pass;
+
+  public ReadReplica(String url, String user, String pass) {
+    this.url = url;
+    this.user = user;
+    this.pass = pass;
+  }
+
+  public String getUrl() {
+    return url;
+  }
+
+  public String getUser() {
+    return user;
+  }
+
+  public String getPass() {
+    return pass;
+  }
+}
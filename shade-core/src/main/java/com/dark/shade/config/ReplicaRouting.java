@@ -0,0 +1,17 @@
+package com.dark.shade.config;
+
+/**
+ * Choice of the read replica serving a read operation.
+ */
+public enum ReplicaRouting {
+
+  /**
+   * Replicas take turns.
+   */
+  ROUND_ROBIN,
+
+  /**
+   * The replica with the fewest borrowed connections is chosen.
+   */
+  LEAST_LOADED
+}
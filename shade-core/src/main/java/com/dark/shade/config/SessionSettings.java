@@ -0,0 +1,267 @@
+package com.dark.shade.config;
+
+import com.dark.shade.dialect.Dialect;
+import com.dark.shade.exception.ShadeException;
+import com.dark.shade.metrics.ShadeListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Session settings.
+ * Defaults suit a small service; every setter returns the settings for chaining.
+ */
+public final class SessionSettings {
+
+  private int maxPoolSize = 10;
+  private int minIdle = 1;
+  private long borrowTimeoutMillis = 30000;
+  private long validationIntervalMillis = 5000;
+  private int validationTimeoutSeconds = 2;
+  private long idleTimeoutMillis = 600000;
+  private long evictionIntervalMillis = 30000;
+  private int statementCacheSize = 64;
+  private int batchSize = 100;
+  private int fetchSize = 500;
+  private boolean dirtyTracking = true;
+  private ShadeListener listener;
+  private long slowQueryThresholdMillis;
+  private Dialect dialect;
+  private final List<ReadReplica> readReplicas = new ArrayList<>();
+  private ReplicaRouting replicaRouting = ReplicaRouting.ROUND_ROBIN;
+  private boolean pinReadsInTransaction = true;
+
+  public int getMaxPoolSize() {
+    return maxPoolSize;
+  }
+
+  /**
+   * Maximum number of open connections.
+   */
+  public SessionSettings setMaxPoolSize(int maxPoolSize) {
+    this.maxPoolSize = positive("Max pool size", maxPoolSize);
+    return this;
+  }
+
+  public int getMinIdle() {
+    return minIdle;
+  }
+
+  /**
+   * Number of idle connections kept open by idle eviction.
+   */
+  public SessionSettings setMinIdle(int minIdle) {
+    if (minIdle < 0) {
+      throw new ShadeException(String.format("Min idle must not be negative: %d", minIdle));
+    }
+    this.minIdle = minIdle;
+    return this;
+  }
+
+  public long getBorrowTimeoutMillis() {
+    return borrowTimeoutMillis;
+  }
+
+  /**
+   * Time to wait for a connection when the pool is exhausted.
+   */
+  public SessionSettings setBorrowTimeoutMillis(long borrowTimeoutMillis) {
+    this.borrowTimeoutMillis = positive("Borrow timeout", borrowTimeoutMillis);
+    return this;
+  }
+
+  public long getValidationIntervalMillis() {
+    return validationIntervalMillis;
+  }
+
+  /**
+   * Connections idle for longer than this are validated before being borrowed.
+   */
+  public SessionSettings setValidationIntervalMillis(long validationIntervalMillis) {
+    this.validationIntervalMillis = validationIntervalMillis;
+    return this;
+  }
+
+  public int getValidationTimeoutSeconds() {
+    return validationTimeoutSeconds;
+  }
+
+  public SessionSettings setValidationTimeoutSeconds(int validationTimeoutSeconds) {
+    this.validationTimeoutSeconds = positive("Validation timeout", validationTimeoutSeconds);
+    return this;
+  }
+
+  public long getIdleTimeoutMillis() {
+    return idleTimeoutMillis;
+  }
+
+  /**
+   * Connections idle for longer than this are closed, down to {@link #getMinIdle()}.
+   */
+  public SessionSettings setIdleTimeoutMillis(long idleTimeoutMillis) {
+    this.idleTimeoutMillis = positive("Idle timeout", idleTimeoutMillis);
+    return this;
+  }
+
+  public long getEvictionIntervalMillis() {
+    return evictionIntervalMillis;
+  }
+
+  public SessionSettings setEvictionIntervalMillis(long evictionIntervalMillis) {
+    this.evictionIntervalMillis = positive("Eviction interval", evictionIntervalMillis);
+    return this;
+  }
+
+  public int getStatementCacheSize() {
+    return statementCacheSize;
+  }
+
+  /**
+   * Number of prepared statements cached per connection.
+   */
+  public SessionSettings setStatementCacheSize(int statementCacheSize) {
+    this.statementCacheSize = positive("Statement cache size", statementCacheSize);
+    return this;
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  /**
+   * Number of statements sent per JDBC batch.
+   */
+  public SessionSettings setBatchSize(int batchSize) {
+    this.batchSize = positive("Batch size", batchSize);
+    return this;
+  }
+
+  public int getFetchSize() {
+    return fetchSize;
+  }
+
+  /**
+   * Number of rows fetched per round trip by streaming reads.
+   */
+  public SessionSettings setFetchSize(int fetchSize) {
+    this.fetchSize = positive("Fetch size", fetchSize);
+    return this;
+  }
+
+  public boolean isDirtyTracking() {
+    return dirtyTracking;
+  }
+
+  /**
+   * Whether loaded and saved entities are snapshotted so updates write only changed columns, and are skipped when
+   * nothing changed. On by default; every entity loaded is then copied and kept in a weak map until it is collected,
+   * so read-heavy services which rarely update may turn it off to write all columns instead.
+   */
+  public SessionSettings setDirtyTracking(boolean dirtyTracking) {
+    this.dirtyTracking = dirtyTracking;
+    return this;
+  }
+
+  public ShadeListener getListener() {
+    return listener;
+  }
+
+  /**
+   * Listener notified of every operation which reaches the database, or null for none.
+   */
+  public SessionSettings setListener(ShadeListener listener) {
+    this.listener = listener;
+    return this;
+  }
+
+  public long getSlowQueryThresholdMillis() {
+    return slowQueryThresholdMillis;
+  }
+
+  /**
+   * Execution time from which statements are logged to the com.dark.shade.SlowQuery logger; 0 disables the log.
+   */
+  public SessionSettings setSlowQueryThresholdMillis(long slowQueryThresholdMillis) {
+    if (slowQueryThresholdMillis < 0) {
+      throw new ShadeException(String.format(
+          "Slow query threshold must not be negative: %d", slowQueryThresholdMillis));
+    }
+    this.slowQueryThresholdMillis = slowQueryThresholdMillis;
+    return this;
+  }
+
+  public Dialect getDialect() {
+    return dialect;
+  }
+
+  /**
+   * SQL dialect of the database, or null to detect it from the JDBC URL.
+   */
+  public SessionSettings setDialect(Dialect dialect) {
+    this.dialect = dialect;
+    return this;
+  }
+
+  public List<ReadReplica> getReadReplicas() {
+    return Collections.unmodifiableList(readReplicas);
+  }
+
+  /**
+   * Adds a read-only replica of the database, reached with the credentials of the primary.
+   * Read operations are routed to the replicas, each with a pool sized like the primary one.
+   */
+  public SessionSettings addReadReplica(String url) {
+    return addReadReplica(url, null, null);
+  }
+
+  public SessionSettings addReadReplica(String url, String user, String pass) {
+    if (url == null) {
+      throw new ShadeException("Read replica url must not be null");
+    }
+    readReplicas.add(new ReadReplica(url, user, pass));
+    return this;
+  }
+
+  public ReplicaRouting getReplicaRouting() {
+    return replicaRouting;
+  }
+
+  /**
+   * How reads choose among several replicas.
+   */
+  public SessionSettings setReplicaRouting(ReplicaRouting replicaRouting) {
+    if (replicaRouting == null) {
+      throw new ShadeException("Replica routing must not be null");
+    }
+    this.replicaRouting = replicaRouting;
+    return this;
+  }
+
+  public boolean isPinReadsInTransaction() {
+    return pinReadsInTransaction;
+  }
+
+  /**
+   * Whether reads inside a transaction use its primary connection, seeing its own writes,
+   * rather than a replica.
+   */
+  public SessionSettings setPinReadsInTransaction(boolean pinReadsInTransaction) {
+    this.pinReadsInTransaction = pinReadsInTransaction;
+    return this;
+  }
+
+  private static int positive(String name, int value) {
+    if (value < 1) {
+      throw new ShadeException(String.format("%s must be positive: %d", name, value));
+    }
+    return value;
+  }
+
+  private static long positive(String name, long value) {
+    if (value < 1) {
+      throw new ShadeException(String.format("%s must be positive: %d", name, value));
+    }
+    return value;
+  }
+}
@@ -0,0 +1,298 @@
+package com.dark.shade.dialect;
+
+import com.dark.shade.exception.ShadeException;
+
+import java.sql.JDBCType;
+import java.util.List;
+import java.util.UUID;
+
+import static com.dark.shade.internal.EntitySql.joinColumns;
+import static com.dark.shade.internal.EntitySql.placeholders;
+
+/**
+ * SQL dialect of a database, for the statements which standard SQL does not cover uniformly.
+ */
+public enum Dialect {
+
+  H2 {
+    @Override
+    public String upsertSql(String tableName, String idName, List<String> columnNames) {
+      return String.format("MERGE INTO %s (%s) KEY (%s) VALUES (%s)",
+          tableName, joinColumns(idName, columnNames), idName, placeholders(columnNames.size() + 1));
+    }
+
+    @Override
+    public String sequenceNextValueSql(String sequence) {
+      return String.format("SELECT NEXT VALUE FOR %s", sequence);
+    }
+
+    @Override
+    public String columnType(Class<?> javaType, JDBCType jdbcType, int length, boolean lob) {
+      return javaType == UUID.class ? "UUID" : super.columnType(javaType, jdbcType, length, lob);
+    }
+
+    @Override
+    public int maxParameters() {
+      return 65535;
+    }
+  },
+  POSTGRESQL {
+    @Override
+    public String upsertSql(String tableName, String idName, List<String> columnNames) {
+      String insert = String.format("INSERT INTO %s (%s) VALUES (%s) ON CONFLICT (%s) DO ",
+          tableName, joinColumns(idName, columnNames), placeholders(columnNames.size() + 1), idName);
+      return columnNames.isEmpty()
+          ? insert + "NOTHING" : insert + "UPDATE SET " + assignments(columnNames, "EXCLUDED.%s");
+    }
+
+    @Override
+    public String sequenceNextValueSql(String sequence) {
+      return String.format("SELECT nextval('%s')", sequence);
+    }
+
+    @Override
+    public String columnType(Class<?> javaType, JDBCType jdbcType, int length, boolean lob) {
+      if (javaType == UUID.class) {
+        return "UUID";
+      }
+      switch (jdbcType) {
+        case TINYINT:
+          return "SMALLINT";
+        case VARCHAR:
+          return lob ? "TEXT" : super.columnType(javaType, jdbcType, length, false);
+        case VARBINARY:
+          return "BYTEA";
+        default:
+          return super.columnType(javaType, jdbcType, length, lob);
+      }
+    }
+
+    @Override
+    public int maxParameters() {
+      return 65535;
+    }
+  },
+  /**
+   * MySQL 8.0.19 or later, whose upsert refers to the inserted row by an alias.
+   */
+  MYSQL {
+    @Override
+    public String upsertSql(String tableName, String idName, List<String> columnNames) {
+      return String.format("INSERT INTO %s (%s) VALUES (%s) AS new ON DUPLICATE KEY UPDATE %s",
+          tableName, joinColumns(idName, columnNames), placeholders(columnNames.size() + 1),
+          columnNames.isEmpty() ? idName + " = new." + idName : assignments(columnNames, "new.%s"));
+    }
+
+    /**
+     * MySQL has no sequences.
+     */
+    @Override
+    public String sequenceNextValueSql(String sequence) {
+      throw new ShadeException("MySQL does not support sequences");
+    }
+
+    @Override
+    public String columnType(Class<?> javaType, JDBCType jdbcType, int length, boolean lob) {
+      switch (jdbcType) {
+        case VARCHAR:
+          return lob ? "LONGTEXT" : super.columnType(javaType, jdbcType, length, false);
+        case VARBINARY:
+          return lob ? "LONGBLOB" : super.columnType(javaType, jdbcType, length, false);
+        case TIMESTAMP:
+          return "DATETIME(3)";
+        default:
+          return super.columnType(javaType, jdbcType, length, lob);
+      }
+    }
+
+    @Override
+    public String identityColumnType(String columnType) {
+      return columnType + " AUTO_INCREMENT";
+    }
+
+    @Override
+    public int maxParameters() {
+      return 65535;
+    }
+  },
+  /**
+   * MariaDB, which has no row alias for the upsert and keeps the {@code VALUES()} function, but has sequences.
+   */
+  MARIADB {
+    @Override
+    public String upsertSql(String tableName, String idName, List<String> columnNames) {
+      return String.format("INSERT INTO %s (%s) VALUES (%s) ON DUPLICATE KEY UPDATE %s",
+          tableName, joinColumns(idName, columnNames), placeholders(columnNames.size() + 1),
+          columnNames.isEmpty() ? idName + " = " + idName : assignments(columnNames, "VALUES(%s)"));
+    }
+
+    @Override
+    public String sequenceNextValueSql(String sequence) {
+      return String.format("SELECT NEXTVAL(%s)", sequence);
+    }
+
+    @Override
+    public String columnType(Class<?> javaType, JDBCType jdbcType, int length, boolean lob) {
+      return MYSQL.columnType(javaType, jdbcType, length, lob);
+    }
+
+    @Override
+    public String identityColumnType(String columnType) {
+      return MYSQL.identityColumnType(columnType);
+    }
+
+    @Override
+    public int maxParameters() {
+      return 65535;
+    }
+  },
+  /**
+   * SQL:2003 MERGE with a {@code VALUES} source, e.g. for HSQLDB and DB2. Oracle before 23ai and Derby accept
+   * only tables or queries as the source of a MERGE, so their upserts need a dialect of their own.
+   */
+  STANDARD {
+    @Override
+    public String upsertSql(String tableName, String idName, List<String> columnNames) {
+      StringBuilder sourceColumns = new StringBuilder("s.").append(idName);
+      for (String columnName : columnNames) {
+        sourceColumns.append(", s.").append(columnName);
+      }
+      String columns = joinColumns(idName, columnNames);
+      String update = columnNames.isEmpty() ? "" : " WHEN MATCHED THEN UPDATE SET " + assignments(columnNames, "s.%s");
+      return String.format("MERGE INTO %s t USING (VALUES (%s)) s (%s) ON (t.%s = s.%s)%s "
+              + "WHEN NOT MATCHED THEN INSERT (%s) VALUES (%s)",
+          tableName, placeholders(columnNames.size() + 1), columns, idName, idName, update, columns, sourceColumns);
+    }
+
+    @Override
+    public String sequenceNextValueSql(String sequence) {
+      return String.format("VALUES NEXT VALUE FOR %s", sequence);
+    }
+
+    @Override
+    public String createSequenceSql(String sequence, int increment) {
+      return String.format("CREATE SEQUENCE %s START WITH 1 INCREMENT BY %d", sequence, increment);
+    }
+
+    /**
+     * SQL:2008 row limit.
+     */
+    @Override
+    public String limitSql(String rows) {
+      return String.format("FETCH FIRST %s ROWS ONLY", rows);
+    }
+  };
+
+  /**
+   * Returns the statement inserting a row or updating the row with the same id, taking the id
+   * and then the columns as parameters.
+   */
+  public abstract String upsertSql(String tableName, String idName, List<String> columnNames);
+
+  /**
+   * Returns the query of the next value of a sequence.
+   */
+  public abstract String sequenceNextValueSql(String sequence);
+
+  /**
+   * Returns the SQL type of a column of the given java and JDBC types, or null when there is none; {@code length}
+   * applies to character and binary columns, for which {@code lob} selects a large object type.
+   */
+  public String columnType(Class<?> javaType, JDBCType jdbcType, int length, boolean lob) {
+    switch (jdbcType) {
+      case INTEGER:
+        return "INTEGER";
+      case BIGINT:
+        return "BIGINT";
+      case SMALLINT:
+        return "SMALLINT";
+      case TINYINT:
+        return "TINYINT";
+      case DOUBLE:
+        return "DOUBLE PRECISION";
+      case REAL:
+        return "REAL";
+      case BOOLEAN:
+        return "BOOLEAN";
+      case VARCHAR:
+        return lob ? "CLOB" : String.format("VARCHAR(%d)", length);
+      case DECIMAL:
+        return "DECIMAL(38, 10)";
+      case VARBINARY:
+        return lob ? "BLOB" : String.format("VARBINARY(%d)", length);
+      case DATE:
+        return "DATE";
+      case TIME:
+        return "TIME";
+      case TIMESTAMP:
+        return "TIMESTAMP";
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Returns the clause ending a query which returns at most {@code rows} rows, a number or a {@code ?} parameter.
+   */
+  public String limitSql(String rows) {
+    return "LIMIT " + rows;
+  }
+
+  /**
+   * Returns the literal a boolean column is compared with in derived queries.
+   */
+  public String booleanLiteral(boolean value) {
+    return value ? "TRUE" : "FALSE";
+  }
+
+  /**
+   * Returns the bind parameters allowed in one statement; the default is the SQL Server limit, the lowest among
+   * the common databases which {@link #STANDARD} may stand for.
+   */
+  public int maxParameters() {
+    return 2100;
+  }
+
+  /**
+   * Returns the type of an id column generated by the database.
+   */
+  public String identityColumnType(String columnType) {
+    return columnType + " GENERATED BY DEFAULT AS IDENTITY";
+  }
+
+  /**
+   * Returns the statement creating a sequence, unless it exists where the database supports that check.
+   */
+  public String createSequenceSql(String sequence, int increment) {
+    return String.format("CREATE SEQUENCE IF NOT EXISTS %s START WITH 1 INCREMENT BY %d", sequence, increment);
+  }
+
+  /**
+   * Returns the dialect of the database which a JDBC URL points to, or {@link #STANDARD} for unknown ones.
+   */
+  public static Dialect forUrl(String url) {
+    String lowerCaseUrl = url.toLowerCase();
+    if (lowerCaseUrl.startsWith("jdbc:h2:")) {
+      return H2;
+    }
+    if (lowerCaseUrl.startsWith("jdbc:postgresql:") || lowerCaseUrl.startsWith("jdbc:pgsql:")) {
+      return POSTGRESQL;
+    }
+    if (lowerCaseUrl.startsWith("jdbc:mysql:")) {
+      return MYSQL;
+    }
+    if (lowerCaseUrl.startsWith("jdbc:mariadb:")) {
+      return MARIADB;
+    }
+    return STANDARD;
+  }
+
+  private static String assignments(List<String> columnNames, String valueFormat) {
+    StringBuilder builder = new StringBuilder();
+    for (String columnName : columnNames) {
+      builder.append(builder.length() == 0 ? "" : ", ").append(columnName).append(" = ")
+          .append(String.format(valueFormat, columnName));
+    }
+    return builder.toString();
+  }
+}
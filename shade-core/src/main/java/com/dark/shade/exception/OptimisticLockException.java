@@ -0,0 +1,25 @@
+package com.dark.shade.exception;
+
+/**
+ * Optimistic lock exception.
+ * Thrown when an update of a versioned entity matches no row, because the row was updated or deleted
+ * since the entity was read. The entity keeps the version it was read with.
+ */
+public class OptimisticLockException extends ShadeException {
+
+  private static final long serialVersionUID = 1L;
+
+  private final transient Object entity;
+
+  public OptimisticLockException(String message, Object entity) {
+    super(message);
+    this.entity = entity;
+  }
+
+  /**
+   * Returns the entity whose update failed.
+   */
+  public Object getEntity() {
+    return entity;
+  }
+}
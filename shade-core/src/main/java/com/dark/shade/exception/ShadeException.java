@@ -5,6 +5,8 @@ package com.dark.shade.exception;
  */
 public class ShadeException extends RuntimeException {
 
+  private static final long serialVersionUID = 1L;
+
   public ShadeException() {
   }
 
@@ -0,0 +1,47 @@
+package com.dark.shade.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * Batch spliterator.
+ * Reads up to a batch of elements ahead from another spliterator and hands each batch to an action
+ * before emitting its elements, so relations of streamed entities are loaded a batch at a time.
+ */
+final class BatchSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+  private final Spliterator<T> source;
+  private final int batchSize;
+  private final Consumer<List<T>> batchAction;
+  private final List<T> batch;
+  private int next;
+
+  BatchSpliterator(Spliterator<T> source, int batchSize, Consumer<List<T>> batchAction) {
+    super(source.estimateSize(), source.characteristics() & ~(Spliterator.SIZED | Spliterator.SUBSIZED));
+    this.source = source;
+    this.batchSize = batchSize;
+    this.batchAction = batchAction;
+    this.batch = new ArrayList<>(Math.min(batchSize, 1024));
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super T> action) {
+    if (next == batch.size()) {
+      batch.clear();
+      next = 0;
+      boolean more = true;
+      while (more && batch.size() < batchSize) {
+        more = source.tryAdvance(batch::add);
+      }
+      if (batch.isEmpty()) {
+        return false;
+      }
+      batchAction.accept(batch);
+    }
+    action.accept(batch.get(next++));
+    return true;
+  }
+}
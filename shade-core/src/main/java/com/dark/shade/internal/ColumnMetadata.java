@@ -0,0 +1,88 @@
+package com.dark.shade.internal;
+
+import com.dark.shade.annotation.Column;
+import com.dark.shade.internal.accessor.Accessor;
+import com.dark.shade.internal.jdbc.ColumnBinder;
+import com.dark.shade.internal.jdbc.ColumnBinding;
+import com.dark.shade.internal.jdbc.ColumnReader;
+
+/**
+ * Column metadata.
+ */
+public final class ColumnMetadata {
+
+  private final String name;
+  private final Accessor accessor;
+  private final ColumnBinding binding;
+  private final boolean lazy;
+  private final boolean unique;
+  private final boolean nullable;
+  private final int length;
+  private final String definition;
+
+  public ColumnMetadata(String name, Accessor accessor) {
+    this(name, accessor, null);
+  }
+
+  /**
+   * Creates the metadata of a column with the settings of its annotation, or the defaults when it is null.
+   */
+  public ColumnMetadata(String name, Accessor accessor, Column column) {
+    this.name = name;
+    this.accessor = accessor;
+    this.binding = ColumnBinding.forAccessor(accessor);
+    this.lazy = column != null && column.lazy();
+    this.unique = column != null && column.unique();
+    this.nullable = (column == null || column.nullable()) && !accessor.getType().isPrimitive();
+    this.length = column == null ? 255 : column.length();
+    this.definition = column == null || column.definition().isEmpty() ? null : column.definition();
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public Accessor getAccessor() {
+    return accessor;
+  }
+
+  /**
+   * Returns whether the column is left out of the queries loading entities.
+   */
+  public boolean isLazy() {
+    return lazy;
+  }
+
+  public boolean isUnique() {
+    return unique;
+  }
+
+  /**
+   * Returns whether the column may hold NULL, which primitive columns may not.
+   */
+  public boolean isNullable() {
+    return nullable;
+  }
+
+  /**
+   * Returns the length of character and binary columns in generated schemas.
+   */
+  public int getLength() {
+    return length;
+  }
+
+  /**
+   * Returns the declared SQL type of the column, or null when it is derived from the member type.
+   */
+  public String getDefinition() {
+    return definition;
+  }
+
+  public ColumnBinder getBinder() {
+    return binding;
+  }
+
+  public ColumnReader getReader() {
+    return binding;
+  }
+}
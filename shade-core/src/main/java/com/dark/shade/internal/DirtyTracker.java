@@ -0,0 +1,111 @@
+package com.dark.shade.internal;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationTargetException;
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dirty tracker.
+ * Keeps the column values of loaded and saved entities, weakly keyed by entity identity,
+ * so an update can write only the columns which changed since. The snapshots of collected entities are removed
+ * by a daemon thread waiting on the reference queue, started when the first entity is tracked.
+ */
+final class DirtyTracker {
+
+  private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+  private final ConcurrentHashMap<IdentityReference, Object[]> snapshots = new ConcurrentHashMap<>();
+  private volatile Thread expunger;
+
+  void track(EntityMetadata metadata, Object entity) throws IllegalAccessException, InvocationTargetException {
+    if (expunger == null) {
+      startExpunger();
+    }
+    snapshots.put(new IdentityReference(entity, queue), metadata.snapshot(entity));
+  }
+
+  void untrack(Object entity) {
+    snapshots.remove(new IdentityReference(entity, null));
+  }
+
+  /**
+   * Records a column value loaded after the entity was tracked, so that it does not count as a change.
+   */
+  void loaded(Object entity, int column, Object value) {
+    Object[] snapshot = snapshots.get(new IdentityReference(entity, null));
+    if (snapshot != null) {
+      snapshot[column + 1] = value instanceof byte[] ? ((byte[]) value).clone() : value;
+    }
+  }
+
+  /**
+   * Returns the columns changed since the entity was tracked, as indexes into
+   * {@link EntityMetadata#getColumns()}, or null when the entity is not tracked.
+   */
+  BitSet dirtyColumns(EntityMetadata metadata, Object entity)
+      throws IllegalAccessException, InvocationTargetException {
+    Object[] snapshot = snapshots.get(new IdentityReference(entity, null));
+    if (snapshot == null) {
+      return null;
+    }
+    BitSet dirty = new BitSet(metadata.getColumns().size());
+    for (int i = 0; i < metadata.getColumns().size(); i++) {
+      if (!Objects.deepEquals(snapshot[i + 1], metadata.getColumns().get(i).getAccessor().get(entity))) {
+        dirty.set(i);
+      }
+    }
+    return dirty;
+  }
+
+  private synchronized void startExpunger() {
+    if (expunger != null) {
+      return;
+    }
+    Thread thread = new Thread(this::expunge, "shade-dirty-tracker");
+    thread.setDaemon(true);
+    thread.start();
+    expunger = thread;
+  }
+
+  private void expunge() {
+    while (true) {
+      Reference<?> reference;
+      try {
+        reference = queue.remove();
+      } catch (InterruptedException e) {
+        return;
+      }
+      snapshots.remove(reference);
+    }
+  }
+
+  private static final class IdentityReference extends WeakReference<Object> {
+
+    private final int hash;
+
+    private IdentityReference(Object entity, ReferenceQueue<Object> queue) {
+      super(entity, queue);
+      hash = System.identityHashCode(entity);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof IdentityReference)) {
+        return false;
+      }
+      Object referent = get();
+      return referent != null && referent == ((IdentityReference) o).get();
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
@@ -0,0 +1,1732 @@
+package com.dark.shade.internal;
+
+import com.dark.shade.cache.EntityCache;
+import com.dark.shade.config.SessionSettings;
+import com.dark.shade.exception.OptimisticLockException;
+import com.dark.shade.exception.ShadeException;
+import com.dark.shade.internal.UnitOfWork.PendingWrite;
+import com.dark.shade.internal.accessor.Accessor;
+import com.dark.shade.internal.jdbc.JdbcType;
+import com.dark.shade.internal.pool.PooledConnection;
+import com.dark.shade.internal.query.QueryPlan;
+import com.dark.shade.internal.schema.SchemaGenerator;
+import com.dark.shade.metrics.Operation;
+import com.dark.shade.metrics.ShadeListener;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.math.BigInteger;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Entity manager.
+ * Thread-safe: every operation borrows a pooled connection from the {@link Session} for its duration,
+ * or uses the connection of the {@link UnitOfWork} active in the current thread.
+ */
+public final class EntityManager {
+
+  private static volatile EntityManager manager;
+  private volatile Session session;
+  private volatile int batchSize = new SessionSettings().getBatchSize();
+  private volatile int fetchSize = new SessionSettings().getFetchSize();
+  private volatile boolean dirtyTracking = new SessionSettings().isDirtyTracking();
+  private volatile ShadeListener listener;
+  private volatile long slowQueryNanos;
+  private volatile boolean pinReadsInTransaction = true;
+  private final ThreadLocal<UnitOfWork> currentUnit = new ThreadLocal<>();
+  private final DirtyTracker dirtyTracker = new DirtyTracker();
+
+  private EntityManager() {
+  }
+
+  public static EntityManager getManager() {
+    EntityManager result = manager;
+    if (result == null) {
+      synchronized (EntityManager.class) {
+        result = manager;
+        if (result == null) {
+          result = new EntityManager();
+          manager = result;
+        }
+      }
+    }
+    return result;
+  }
+
+  public void persist(final EntityMetadata metadata, final Object entity) {
+    UnitOfWork unit = currentUnit.get();
+    if (unit != null) {
+      schedulePersist(unit, metadata, entity);
+      return;
+    }
+    execute(metadata, Operation.PERSIST, (connection, trace) -> {
+      Object id = metadata.getIdAccessor().get(entity);
+      boolean generatedKeys = id == null && metadata.getIdGenerator() == null;
+      Object version = null;
+      PreparedStatement statement;
+      if (generatedKeys) {
+        initVersion(metadata, entity);
+        statement = trace.prepare(connection, metadata.getSql().getInsertSql(), Statement.RETURN_GENERATED_KEYS);
+        bindColumns(metadata, statement, entity);
+      } else if (id == null) {
+        initVersion(metadata, entity);
+        assignId(connection, checkOpen(), metadata, entity);
+        statement = trace.prepare(connection, metadata.getSql().getInsertWithIdSql());
+        bindIdAndColumns(metadata, statement, 1, entity);
+      } else {
+        BitSet dirty = dirtyColumns(metadata, entity);
+        if (dirty != null && dirty.isEmpty()) {
+          return null;
+        }
+        statement = trace.prepare(connection,
+            dirty == null ? metadata.getSql().getUpdateSql() : metadata.getSql().getUpdateSql(dirty));
+        int index = bindColumns(metadata, statement, entity, dirty);
+        metadata.getIdColumn().getBinder().bindValue(statement, index, id);
+        version = bindVersion(metadata, statement, entity, dirty, index + 1);
+      }
+      int count = trace.executeUpdate(statement);
+      if (version != null) {
+        if (count == 0) {
+          throw conflict(metadata, entity, id, version);
+        }
+        metadata.getVersionColumn().getAccessor().set(entity, nextVersion(version));
+      }
+      commit(connection, trace);
+      if (generatedKeys) {
+        try (ResultSet generatedKeysResultSet = statement.getGeneratedKeys()) {
+          if (generatedKeysResultSet.next()) {
+            metadata.getIdColumn().getReader().read(generatedKeysResultSet, 1, entity);
+          }
+        }
+      }
+      track(metadata, entity);
+      evictCached(metadata, entity);
+      return null;
+    });
+  }
+
+  /**
+   * Persists entities with JDBC batches of {@link #getBatchSize()} statements, committing once per batch.
+   * Entities without id are inserted and receive the generated keys, the rest are updated.
+   */
+  public void persistAll(final EntityMetadata metadata, final Iterable<?> entities) {
+    UnitOfWork unit = currentUnit.get();
+    if (unit != null) {
+      for (Object entity : entities) {
+        schedulePersist(unit, metadata, entity);
+      }
+      return;
+    }
+    execute(metadata, Operation.PERSIST, (connection, trace) -> {
+      List<Object> inserts = new ArrayList<>();
+      List<Object> updates = new ArrayList<>();
+      for (Object entity : entities) {
+        (metadata.getIdAccessor().get(entity) == null ? inserts : updates).add(entity);
+      }
+      int size = batchSize;
+      for (int from = 0; from < inserts.size(); from += size) {
+        List<Object> batch = inserts.subList(from, Math.min(from + size, inserts.size()));
+        insertBatch(connection, trace, checkOpen(), metadata, batch);
+        commit(connection, trace);
+        trackAll(metadata, batch);
+        evictCached(metadata, batch);
+      }
+      for (int from = 0; from < updates.size(); from += size) {
+        List<Object> updated = updateBatch(
+            connection, trace, metadata, updates.subList(from, Math.min(from + size, updates.size())));
+        commit(connection, trace);
+        trackAll(metadata, updated);
+        evictCached(metadata, updated);
+      }
+      return null;
+    });
+  }
+
+  /**
+   * Inserts the entity, or updates the row with its id when there is one, with a single dialect-specific
+   * statement. The entity must have an id.
+   */
+  public void upsert(final EntityMetadata metadata, final Object entity) {
+    checkUpsert(metadata);
+    UnitOfWork unit = currentUnit.get();
+    if (unit != null) {
+      scheduleUpsert(unit, metadata, entity);
+      return;
+    }
+    execute(metadata, Operation.UPSERT, (connection, trace) -> {
+      PreparedStatement statement = trace.prepare(connection, metadata.getSql().getUpsertSql(checkOpen().getDialect()));
+      bindUpsert(metadata, statement, entity);
+      trace.executeUpdate(statement);
+      commit(connection, trace);
+      track(metadata, entity);
+      evictCached(metadata, entity);
+      return null;
+    });
+  }
+
+  /**
+   * Upserts entities with JDBC batches of {@link #getBatchSize()} statements, committing once per batch.
+   */
+  public void upsertAll(final EntityMetadata metadata, final Iterable<?> entities) {
+    checkUpsert(metadata);
+    UnitOfWork unit = currentUnit.get();
+    if (unit != null) {
+      for (Object entity : entities) {
+        scheduleUpsert(unit, metadata, entity);
+      }
+      return;
+    }
+    execute(metadata, Operation.UPSERT, (connection, trace) -> {
+      List<Object> values = new ArrayList<>();
+      for (Object entity : entities) {
+        values.add(entity);
+      }
+      int size = batchSize;
+      for (int from = 0; from < values.size(); from += size) {
+        List<Object> batch = values.subList(from, Math.min(from + size, values.size()));
+        upsertBatch(connection, trace, checkOpen(), metadata, batch);
+        commit(connection, trace);
+        trackAll(metadata, batch);
+        evictCached(metadata, batch);
+      }
+      return null;
+    });
+  }
+
+  /**
+   * Inserts the entities of an iterator with multi-row INSERT statements of {@code rowsPerStatement} rows,
+   * committing after each statement outside a transaction, and returns the number of inserted rows.
+   * Entities are consumed as they are inserted, so the iterator may stream any number of them, and statements
+   * are cut to fewer rows when they would exceed the bind parameters of the dialect. Ids generated
+   * by the database are read back into the entities only when {@code returnIds} is set, while ids of an id
+   * generator are always assigned. Inserted entities are neither cached nor tracked.
+   */
+  public long bulkInsert(final EntityMetadata metadata, final Iterator<?> entities, final int rowsPerStatement,
+                         final boolean returnIds) {
+    if (rowsPerStatement < 1) {
+      throw new ShadeException(String.format("Rows per statement must be positive: %d", rowsPerStatement));
+    }
+    final UnitOfWork unit = currentUnit.get();
+    int parameters = metadata.getColumns().size() + (metadata.getIdGenerator() != null ? 1 : 0);
+    final int rows = Math.max(1,
+        Math.min(rowsPerStatement, checkOpen().getDialect().maxParameters() / Math.max(1, parameters)));
+    return execute(metadata, Operation.BULK_INSERT, (connection, trace) -> {
+      List<Object> chunk = new ArrayList<>(rows);
+      long count = 0;
+      while (entities.hasNext()) {
+        chunk.add(entities.next());
+        if (chunk.size() == rows || !entities.hasNext()) {
+          insertRows(connection, trace, checkOpen(), metadata, chunk, rows, returnIds);
+          if (unit == null) {
+            commit(connection, trace);
+          }
+          count += chunk.size();
+          chunk.clear();
+        }
+      }
+      return count;
+    });
+  }
+
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  public void setBatchSize(int batchSize) {
+    if (batchSize < 1) {
+      throw new ShadeException(String.format("Batch size must be positive: %d", batchSize));
+    }
+    this.batchSize = batchSize;
+  }
+
+  public void removeAll(final EntityMetadata metadata) {
+    final UnitOfWork unit = currentUnit.get();
+    execute(metadata, Operation.REMOVE_ALL, (connection, trace) -> {
+      trace.executeUpdate(trace.prepare(connection, metadata.getSql().getDeleteAllSql()));
+      if (unit == null) {
+        commit(connection, trace);
+        if (metadata.getCache() != null) {
+          metadata.getCache().clear();
+        }
+      } else {
+        unit.evictAll(metadata);
+        unit.evictOnCommit(metadata, null);
+      }
+      return null;
+    });
+  }
+
+  public void remove(final EntityMetadata metadata, final Object primaryKey) {
+    UnitOfWork unit = currentUnit.get();
+    if (unit != null) {
+      unit.evict(metadata, idKey(primaryKey));
+      unit.evictOnCommit(metadata, idKey(primaryKey));
+      unit.schedule(new PendingWrite(PendingWrite.Kind.DELETE, metadata, primaryKey));
+      return;
+    }
+    execute(metadata, Operation.REMOVE, (connection, trace) -> {
+      PreparedStatement statement = trace.prepare(connection, metadata.getSql().getDeleteSql());
+      metadata.getIdColumn().getBinder().bindValue(statement, 1, primaryKey);
+
+      trace.executeUpdate(statement);
+      commit(connection, trace);
+      if (metadata.getCache() != null) {
+        metadata.getCache().evict(idKey(primaryKey));
+      }
+      return null;
+    });
+  }
+
+  public <T> List<T> findAll(final EntityMetadata metadata, final Class<T> entityClass) {
+    return fetchEager(metadata, execute(metadata, Operation.FIND_ALL, true, (connection, trace) -> {
+      try (ResultSet resultSet = trace.executeQuery(trace.prepare(connection, metadata.getSql().getSelectAllSql()))) {
+        return parseResultSet(trace, metadata, entityClass, resultSet);
+      }
+    }));
+  }
+
+  /**
+   * Streams all entities with a server-side cursor, mapping rows lazily.
+   * The stream holds a pooled connection until it is closed or fully consumed, and loads the eager relations
+   * of its entities on that connection, so it never needs a second one. Inside a transaction it reads on
+   * the transaction connection and its entities are not added to the identity map. The operation is reported
+   * when the stream is closed or exhausted, with the rows mapped until then.
+   */
+  public <T> Stream<T> stream(final EntityMetadata metadata, final Class<T> entityClass) {
+    return stream(metadata, entityClass, metadata.getSql().getSelectAllSql(), null, null);
+  }
+
+  /**
+   * Streams the entities of a derived query like {@link #stream(EntityMetadata, Class)}.
+   */
+  public <T> Stream<T> stream(EntityMetadata metadata, Class<T> entityClass, QueryPlan plan, Object[] args) {
+    return stream(metadata, entityClass, null, plan, args);
+  }
+
+  /**
+   * Streams all entities in parallel: splits the ids between the lowest and the highest one into up to
+   * {@code partitions} ranges of equal width and reads each range with its own query and pooled connection,
+   * when a worker of the parallel stream reaches it. Ids must be integral; ranges hold similar numbers of rows
+   * when ids are evenly spread. The stream must be closed to release its connections unless it is fully consumed,
+   * and the pool must allow a connection per worker. Eager relations of a range are loaded on the connection of
+   * that range, so no worker needs a second one. Entities are not tracked, as with {@link #stream}.
+   */
+  public <T> Stream<T> parallelStream(final EntityMetadata metadata, final Class<T> entityClass,
+                                      final int partitions) {
+    if (partitions < 1) {
+      throw new ShadeException(String.format("Partitions must be positive: %d", partitions));
+    }
+    JdbcType idType = JdbcType.forClass(metadata.getIdAccessor().getType());
+    if (idType != JdbcType.INTEGER && idType != JdbcType.BIGINT && idType != JdbcType.SMALLINT
+        && idType != JdbcType.TINYINT) {
+      throw new ShadeException(String.format("Parallel scan of %s requires an integral id", metadata.getEntityName()));
+    }
+    if (currentUnit.get() != null) {
+      throw new ShadeException(String.format(
+          "Parallel scan of %s cannot run inside a transaction, as it reads on other connections",
+          metadata.getEntityName()));
+    }
+    long[] range = execute(metadata, Operation.SCAN, true, (connection, trace) -> {
+      try (ResultSet resultSet = trace.executeQuery(trace.prepare(connection, metadata.getSql().getIdRangeSql()))) {
+        resultSet.next();
+        long min = resultSet.getLong(1);
+        return resultSet.wasNull() ? null : new long[]{min, resultSet.getLong(2)};
+      }
+    });
+    if (range == null) {
+      return Stream.empty();
+    }
+    BigInteger first = BigInteger.valueOf(range[0]);
+    BigInteger width = BigInteger.valueOf(range[1]).subtract(first).add(BigInteger.ONE);
+    BigInteger count = width.min(BigInteger.valueOf(partitions));
+    long[] firstIds = new long[count.intValue()];
+    long[] lastIds = new long[firstIds.length];
+    for (int i = 0; i < firstIds.length; i++) {
+      firstIds[i] = first.add(width.multiply(BigInteger.valueOf(i)).divide(count)).longValue();
+      lastIds[i] = first.add(width.multiply(BigInteger.valueOf(i + 1)).divide(count)).subtract(BigInteger.ONE)
+          .longValue();
+    }
+    final Set<ResultSetSpliterator<T>> cursors = ConcurrentHashMap.newKeySet();
+    PartitionSpliterator<T> spliterator = new PartitionSpliterator<>(firstIds, lastIds, (firstId, lastId) -> {
+      ResultSetSpliterator<T> cursor = openRange(metadata, entityClass, firstId, lastId);
+      cursors.add(cursor);
+      return metadata.getEagerRelations().isEmpty() ? cursor
+          : new BatchSpliterator<>(cursor, fetchSize, batch -> fetchEager(metadata, batch, cursor.openConnection()));
+    });
+    return StreamSupport.stream(spliterator, true).onClose(() -> {
+      for (ResultSetSpliterator<T> cursor : cursors) {
+        cursor.close();
+      }
+    });
+  }
+
+  /**
+   * Passes all entities to an action, which must be thread-safe, from {@code partitions} threads of a dedicated
+   * fork-join pool reading the id ranges of {@link #parallelStream}, and returns when all are passed.
+   */
+  public <T> void parallelForEach(EntityMetadata metadata, Class<T> entityClass, int partitions,
+                                  final Consumer<? super T> action) {
+    final Stream<T> entities = parallelStream(metadata, entityClass, partitions);
+    ForkJoinPool pool = new ForkJoinPool(partitions);
+    try {
+      pool.submit(() -> entities.forEach(action)).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ShadeException(String.format("Parallel scan of %s was interrupted", metadata.getEntityName()), e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new ShadeException(cause.getMessage(), cause);
+    } finally {
+      pool.shutdown();
+      entities.close();
+    }
+  }
+
+  /**
+   * Finds the entities of a derived query.
+   */
+  public <T> List<T> findAll(final EntityMetadata metadata, final Class<T> entityClass, final QueryPlan plan,
+                             final Object[] args) {
+    return fetchEager(metadata, execute(metadata, Operation.FIND_ALL, true, (connection, trace) -> {
+      PreparedStatement statement = trace.prepare(connection, plan.getSql(checkOpen().getDialect(), args));
+      plan.bind(statement, args);
+      try (ResultSet resultSet = trace.executeQuery(statement)) {
+        return parseResultSet(trace, metadata, entityClass, resultSet);
+      }
+    }));
+  }
+
+  /**
+   * Counts the rows of a derived query.
+   */
+  public long count(final EntityMetadata metadata, final QueryPlan plan, final Object[] args) {
+    return execute(metadata, Operation.COUNT, true, (connection, trace) -> {
+      PreparedStatement statement = trace.prepare(connection, plan.getSql(checkOpen().getDialect(), args));
+      plan.bind(statement, args);
+      try (ResultSet resultSet = trace.executeQuery(statement)) {
+        resultSet.next();
+        return resultSet.getLong(1);
+      }
+    });
+  }
+
+  /**
+   * Checks whether a derived query has rows.
+   */
+  public boolean contains(final EntityMetadata metadata, final QueryPlan plan, final Object[] args) {
+    return execute(metadata, Operation.CONTAINS, true, (connection, trace) -> {
+      PreparedStatement statement = trace.prepare(connection, plan.getSql(checkOpen().getDialect(), args));
+      plan.bind(statement, args);
+      try (ResultSet resultSet = trace.executeQuery(statement)) {
+        return resultSet.next();
+      }
+    });
+  }
+
+  /**
+   * Deletes the rows of a derived query and returns their number. The deleted entities are not known,
+   * so the second-level cache and the identity map of the entity are cleared.
+   */
+  public long removeAll(final EntityMetadata metadata, final QueryPlan plan, final Object[] args) {
+    final UnitOfWork unit = currentUnit.get();
+    return execute(metadata, Operation.REMOVE_ALL, (connection, trace) -> {
+      PreparedStatement statement = trace.prepare(connection, plan.getSql(checkOpen().getDialect(), args));
+      plan.bind(statement, args);
+      long count = trace.executeUpdate(statement);
+      if (unit == null) {
+        commit(connection, trace);
+        if (metadata.getCache() != null) {
+          metadata.getCache().clear();
+        }
+      } else {
+        unit.evictAll(metadata);
+        unit.evictOnCommit(metadata, null);
+      }
+      return count;
+    });
+  }
+
+  /**
+   * Finds up to {@code limit} entities with ids greater than {@code afterId} in id order,
+   * or the first ones when {@code afterId} is null.
+   */
+  public <T> List<T> findPage(final EntityMetadata metadata, final Class<T> entityClass,
+                              final Object afterId, final int limit) {
+    return fetchEager(metadata, execute(metadata, Operation.FIND_ALL, true, (connection, trace) -> {
+      PreparedStatement statement;
+      if (afterId == null) {
+        statement = trace.prepare(connection, metadata.getSql().getSelectFirstPageSql(checkOpen().getDialect()));
+        statement.setInt(1, limit);
+      } else {
+        statement = trace.prepare(connection, metadata.getSql().getSelectPageSql(checkOpen().getDialect()));
+        metadata.getIdColumn().getBinder().bindValue(statement, 1, afterId);
+        statement.setInt(2, limit);
+      }
+      try (ResultSet resultSet = trace.executeQuery(statement)) {
+        return parseResultSet(trace, metadata, entityClass, resultSet);
+      }
+    }));
+  }
+
+  /**
+   * Finds entities by ids with chunked IN-list queries.
+   * Returns the entities in the order of the given ids, with null for ids which are not found.
+   */
+  public <T> List<T> findAll(EntityMetadata metadata, Class<T> entityClass, Iterable<?> primaryKeys) {
+    return fetchEager(metadata, findByIds(metadata, entityClass, primaryKeys, null));
+  }
+
+  /**
+   * Finds entities by ids like {@link #findAll(EntityMetadata, Class, Iterable)}, on the given held connection
+   * when it is not null.
+   */
+  private <T> List<T> findByIds(final EntityMetadata metadata, final Class<T> entityClass,
+                                final Iterable<?> primaryKeys, PooledConnection held) {
+    final List<Object> ids = new ArrayList<>();
+    for (Object id : primaryKeys) {
+      ids.add(id);
+    }
+    return execute(metadata, Operation.FIND_ALL, true, held, (connection, trace) -> {
+      List<Object> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+      distinctIds.remove(null);
+      Map<Object, T> found = new HashMap<>();
+      for (int from = 0; from < distinctIds.size(); ) {
+        int chunkSize = EntitySql.idChunkSize(distinctIds.size() - from);
+        int to = Math.min(from + chunkSize, distinctIds.size());
+        PreparedStatement statement = trace.prepare(connection, metadata.getSql().getSelectByIdsSql(chunkSize));
+        for (int index = 1; index <= chunkSize; index++) {
+          metadata.getIdColumn().getBinder().bindValue(
+              statement, index, distinctIds.get(Math.min(from + index, to) - 1));
+        }
+        try (ResultSet resultSet = trace.executeQuery(statement)) {
+          for (T entity : parseResultSet(trace, metadata, entityClass, resultSet)) {
+            found.put(idKey(metadata.getIdAccessor().get(entity)), entity);
+          }
+        }
+        from = to;
+      }
+      List<T> entities = new ArrayList<>(ids.size());
+      for (Object id : ids) {
+        entities.add(id == null ? null : found.get(idKey(id)));
+      }
+      return entities;
+    });
+  }
+
+  public <T> T find(final EntityMetadata metadata, final Class<T> entityClass, final Object primaryKey) {
+    UnitOfWork unit = currentUnit.get();
+    if (unit != null && primaryKey != null) {
+      Object managed = unit.getManaged(metadata, idKey(primaryKey));
+      if (managed != null) {
+        return entityClass.cast(managed);
+      }
+    }
+    final EntityCache cache = unit == null ? metadata.getCache() : null;
+    if (cache != null && primaryKey != null) {
+      Object[] snapshot = cache.get(idKey(primaryKey));
+      if (snapshot != null) {
+        try {
+          Object entity = metadata.restore(snapshot);
+          track(metadata, entity);
+          fetchEager(metadata, Collections.singletonList(entity));
+          return entityClass.cast(entity);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+          throw new ShadeException(e.getMessage(), e);
+        }
+      }
+    }
+    final long stamp = cache == null || primaryKey == null ? 0 : cache.stamp(idKey(primaryKey));
+    T found = execute(metadata, Operation.FIND, true, (connection, trace) -> {
+      PreparedStatement statement = trace.prepare(connection, metadata.getSql().getSelectByIdSql());
+      metadata.getIdColumn().getBinder().bindValue(statement, 1, primaryKey);
+      try (ResultSet resultSet = trace.executeQuery(statement)) {
+        List<T> entities = parseResultSet(trace, metadata, entityClass, resultSet);
+        if (entities.isEmpty()) {
+          return null;
+        }
+        T entity = entities.iterator().next();
+        if (cache != null) {
+          cache.put(idKey(primaryKey), metadata.snapshot(entity, false), stamp);
+        }
+        return entity;
+      }
+    });
+    if (found != null) {
+      fetchEager(metadata, Collections.singletonList(found));
+    }
+    return found;
+  }
+
+  public boolean contains(final EntityMetadata metadata, final Object primaryKey) {
+    UnitOfWork unit = currentUnit.get();
+    if (unit != null && primaryKey != null && unit.isManaged(metadata, idKey(primaryKey))) {
+      return true;
+    }
+    if (unit == null && primaryKey != null && metadata.getCache() != null
+        && metadata.getCache().get(idKey(primaryKey)) != null) {
+      return true;
+    }
+    return execute(metadata, Operation.CONTAINS, true, (connection, trace) -> {
+      PreparedStatement statement = trace.prepare(connection, metadata.getSql().getExistsSql());
+      metadata.getIdColumn().getBinder().bindValue(statement, 1, primaryKey);
+      try (ResultSet resultSet = trace.executeQuery(statement)) {
+        return resultSet.next();
+      }
+    });
+  }
+
+  /**
+   * Loads a column of an entity, typically a lazy one, sets it on the entity and returns its value.
+   * The loaded value does not count as a change of the entity, so saving it does not write the value back.
+   */
+  public Object loadColumn(final EntityMetadata metadata, final Object entity, final String columnName) {
+    final ColumnMetadata column = column(metadata, columnName);
+    return execute(metadata, Operation.LOAD_COLUMN, true, (connection, trace) -> {
+      Object id = metadata.getIdAccessor().get(entity);
+      if (id == null) {
+        throw new ShadeException(String.format(
+            "Cannot load column %s of %s without id", column.getName(), metadata.getEntityName()));
+      }
+      PreparedStatement statement = trace.prepare(connection, metadata.getSql().getSelectColumnSql(column.getName()));
+      metadata.getIdColumn().getBinder().bindValue(statement, 1, id);
+      try (ResultSet resultSet = trace.executeQuery(statement)) {
+        if (!resultSet.next()) {
+          throw new ShadeException(String.format("%s with id %s does not exist", metadata.getEntityName(), id));
+        }
+        long start = System.nanoTime();
+        column.getReader().read(resultSet, 1, entity);
+        trace.mapped(start, 1);
+      }
+      Object value = column.getAccessor().get(entity);
+      if (dirtyTracking) {
+        dirtyTracker.loaded(entity, metadata.getColumns().indexOf(column), value);
+      }
+      return value;
+    });
+  }
+
+  /**
+   * Loads a relation of the given entities and sets it on them, with one IN-list query per chunk of ids
+   * for all entities, then loads the eager relations of the loaded entities.
+   */
+  public void fetch(EntityMetadata metadata, Iterable<?> entities, String relationName) {
+    RelationMetadata relation = metadata.findRelation(relationName);
+    if (relation == null) {
+      throw new ShadeException(String.format("%s has no relation %s", metadata.getEntityName(), relationName));
+    }
+    List<Object> list = new ArrayList<>();
+    for (Object entity : entities) {
+      list.add(entity);
+    }
+    fetch(metadata, relation, list, Collections.<RelationMetadata>emptySet(), null);
+  }
+
+  /**
+   * Opens a binary stream over a column of the row with the given id, reading the value from the database
+   * while the stream is consumed. Returns null when the row has no value. The stream holds a pooled connection
+   * until it is closed; inside a transaction it must be closed before the next operation of the transaction.
+   */
+  public InputStream openBinaryStream(EntityMetadata metadata, Object primaryKey, String columnName) {
+    return (InputStream) openColumn(metadata, primaryKey, columnName, false);
+  }
+
+  /**
+   * Opens a character stream over a column of the row with the given id, like {@link #openBinaryStream}.
+   */
+  public Reader openCharacterStream(EntityMetadata metadata, Object primaryKey, String columnName) {
+    return (Reader) openColumn(metadata, primaryKey, columnName, true);
+  }
+
+  /**
+   * Begins a unit of work bound to the current thread. Until it ends, finds are served from its identity map
+   * and writes are queued, then flushed as batches before queries and on commit.
+   */
+  public UnitOfWork begin() {
+    if (currentUnit.get() != null) {
+      throw new ShadeException("Transaction is already active in the current thread");
+    }
+    Session session = checkOpen();
+    UnitOfWork unit = new UnitOfWork(session, acquire(session));
+    currentUnit.set(unit);
+    return unit;
+  }
+
+  public void flush(UnitOfWork unit) {
+    checkCurrent(unit);
+    flushWrites(unit);
+  }
+
+  public void commit(UnitOfWork unit) {
+    checkCurrent(unit);
+    OperationTrace trace = trace(null, Operation.COMMIT);
+    Exception failure = null;
+    boolean committed = false;
+    try {
+      flushWrites(unit);
+      long start = System.nanoTime();
+      unit.getConnection().commit();
+      trace.committed(start);
+      committed = true;
+      unit.applyCacheEvictions();
+    } catch (OptimisticLockException e) {
+      failure = e;
+      throw e;
+    } catch (Exception e) {
+      failure = e;
+      throw new ShadeException(String.format("Failed to commit changes: %s", e.getMessage()), e);
+    } finally {
+      end(unit, committed);
+      trace.end(failure);
+    }
+  }
+
+  public void rollback(UnitOfWork unit) {
+    checkCurrent(unit);
+    end(unit, false);
+  }
+
+  public void createSession(String url, String user, String pass) {
+    createSession(url, user, pass, new SessionSettings());
+  }
+
+  public synchronized void createSession(String url, String user, String pass, SessionSettings settings) {
+    if (session != null && !session.isClosed()) {
+      throw new ShadeException("Session already exists");
+    }
+    try {
+      session = new Session(url, user, pass, settings);
+      batchSize = settings.getBatchSize();
+      fetchSize = settings.getFetchSize();
+      dirtyTracking = settings.isDirtyTracking();
+      listener = settings.getListener();
+      slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(settings.getSlowQueryThresholdMillis());
+      pinReadsInTransaction = settings.isPinReadsInTransaction();
+    } catch (SQLException e) {
+      throw new ShadeException(String.format(
+          "Cannot create database connection to %s with user %s and pass %s: %s", url, user, pass, e.getMessage()), e);
+    }
+  }
+
+  /**
+   * Closes the session and its pools, after which a new session may be created.
+   */
+  public void closeSession() {
+    checkOpen().close();
+  }
+
+  /**
+   * Returns the statements creating the tables, id sequences and indexes of the given entities.
+   */
+  public List<String> generateSchema(List<EntityMetadata> entities) {
+    SchemaGenerator generator = new SchemaGenerator(checkOpen().getDialect());
+    List<String> statements = new ArrayList<>();
+    for (EntityMetadata metadata : entities) {
+      statements.addAll(generator.createSql(metadata));
+    }
+    return statements;
+  }
+
+  /**
+   * Creates the missing tables and indexes of the given entities and returns the statements executed.
+   * Existing tables are not altered.
+   */
+  public List<String> createSchema(final List<EntityMetadata> entities) {
+    return withSchema((connection, generator) -> {
+      List<String> executed = new ArrayList<>();
+      for (EntityMetadata metadata : entities) {
+        for (String sql : generator.missingSql(metadata, connection.getMetaData())) {
+          try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.execute();
+          }
+          executed.add(sql);
+        }
+      }
+      connection.commit();
+      return executed;
+    });
+  }
+
+  /**
+   * Returns the differences between the mappings of the given entities and the database schema.
+   */
+  public List<String> validateSchema(final List<EntityMetadata> entities) {
+    return withSchema((connection, generator) -> {
+      List<String> differences = new ArrayList<>();
+      for (EntityMetadata metadata : entities) {
+        differences.addAll(generator.validate(metadata, connection.getMetaData()));
+      }
+      return differences;
+    });
+  }
+
+  private List<String> withSchema(SchemaWork work) {
+    Session session = checkOpen();
+    PooledConnection connection = acquire(session);
+    try {
+      List<String> result = work.execute(connection, new SchemaGenerator(session.getDialect()));
+      session.release(connection);
+      return result;
+    } catch (SQLException e) {
+      session.releaseAfterFailure(connection);
+      throw new ShadeException(String.format("Failed to read or create schema: %s", e.getMessage()), e);
+    } catch (RuntimeException e) {
+      session.releaseAfterFailure(connection);
+      throw e;
+    }
+  }
+
+  private <R> R execute(EntityMetadata metadata, Operation operation, ConnectionWork<R> work) {
+    return execute(metadata, operation, false, work);
+  }
+
+  /**
+   * Runs the work of an operation, which is traced, on a borrowed connection
+   * or on the connection of the current unit of work after flushing its queued writes.
+   * Reads borrow a read replica connection when there are replicas, unless reads are pinned to the unit of work.
+   */
+  private <R> R execute(EntityMetadata metadata, Operation operation, boolean read, ConnectionWork<R> work) {
+    return execute(metadata, operation, read, null, work);
+  }
+
+  /**
+   * Runs the work of an operation like {@link #execute(EntityMetadata, Operation, boolean, ConnectionWork)},
+   * or on the given held connection when it is not null, which is neither flushed nor released.
+   */
+  private <R> R execute(EntityMetadata metadata, Operation operation, boolean read, PooledConnection held,
+                        ConnectionWork<R> work) {
+    UnitOfWork unit = held == null ? unitFor(read) : null;
+    if (unit != null) {
+      flushWrites(unit);
+    }
+    OperationTrace trace = trace(metadata, operation);
+    Session session = unit != null ? unit.getSession() : checkOpen();
+    PooledConnection connection = null;
+    Exception failure = null;
+    try {
+      connection = held != null ? held : unit != null ? unit.getConnection() : acquire(session, read);
+      return work.execute(connection, trace);
+    } catch (Exception e) {
+      failure = e;
+      throw failure(trace, e);
+    } finally {
+      if (held == null && unit == null && connection != null) {
+        if (failure == null) {
+          session.release(connection);
+        } else {
+          session.releaseAfterFailure(connection);
+        }
+      }
+      trace.end(failure);
+    }
+  }
+
+  /**
+   * Returns the unit of work whose connection an operation uses, or null when it borrows one.
+   */
+  private UnitOfWork unitFor(boolean read) {
+    UnitOfWork unit = currentUnit.get();
+    if (unit != null && read && !pinReadsInTransaction && unit.getSession().hasReplicas()) {
+      return null;
+    }
+    return unit;
+  }
+
+  private OperationTrace trace(EntityMetadata metadata, Operation operation) {
+    return new OperationTrace(metadata, operation, listener, slowQueryNanos);
+  }
+
+  /**
+   * Returns the exception to throw for a failed operation, adding the operation and statement to the message.
+   */
+  private static ShadeException failure(OperationTrace trace, Exception e) {
+    if (e instanceof ShadeException) {
+      return (ShadeException) e;
+    }
+    return new ShadeException(String.format("Failed to %s: %s", trace.describe(), e.getMessage()), e);
+  }
+
+  private static PooledConnection acquire(Session session) {
+    return acquire(session, false);
+  }
+
+  private static PooledConnection acquire(Session session, boolean read) {
+    try {
+      return read ? session.acquireRead() : session.acquire();
+    } catch (SQLException e) {
+      throw new ShadeException(String.format("Cannot acquire database connection: %s", e.getMessage()), e);
+    }
+  }
+
+  private <T> List<T> parseResultSet(OperationTrace trace, EntityMetadata metadata, Class<T> entityClass,
+                                     ResultSet resultSet)
+      throws SQLException, IllegalAccessException, InvocationTargetException {
+    long start = System.nanoTime();
+    RowMapper<T> rowMapper = new RowMapper<>(metadata, entityClass, resultSet.getMetaData());
+    UnitOfWork unit = currentUnit.get();
+    List<T> entities = new ArrayList<>();
+    while (resultSet.next()) {
+      T entity = rowMapper.map(resultSet);
+      T managed = unit == null ? entity
+          : entityClass.cast(unit.manage(metadata, idKey(metadata.getIdAccessor().get(entity)), entity));
+      if (managed == entity) {
+        track(metadata, entity);
+      }
+      entities.add(managed);
+    }
+    trace.mapped(start, entities.size());
+    return entities;
+  }
+
+  /**
+   * Loads the eager relations of the given entities, which may contain nulls, and returns them.
+   */
+  private <L extends List<?>> L fetchEager(EntityMetadata metadata, L entities) {
+    return fetchEager(metadata, entities, null);
+  }
+
+  /**
+   * Loads the eager relations of the given entities on the given held connection, such as the one of the stream
+   * reading them, or on a borrowed one when it is null, and returns them.
+   */
+  private <L extends List<?>> L fetchEager(EntityMetadata metadata, L entities, PooledConnection held) {
+    if (!entities.isEmpty()) {
+      fetchEager(metadata, entities, Collections.<RelationMetadata>emptySet(), held);
+    }
+    return entities;
+  }
+
+  /**
+   * Loads the eager relations of the given entities except the relations already followed to load them,
+   * so relations referencing each other do not load in cycles.
+   */
+  private void fetchEager(EntityMetadata metadata, List<?> entities, Set<RelationMetadata> path,
+                          PooledConnection held) {
+    for (RelationMetadata relation : metadata.getEagerRelations()) {
+      if (!path.contains(relation)) {
+        fetch(metadata, relation, entities, path, held);
+      }
+    }
+  }
+
+  private void fetch(EntityMetadata metadata, RelationMetadata relation, List<?> entities,
+                     Set<RelationMetadata> path, PooledConnection held) {
+    List<?> loaded;
+    try {
+      loaded = relation.isToMany()
+          ? fetchMany(metadata, relation, entities, held) : fetchOne(relation, entities, held);
+    } catch (IllegalAccessException | InvocationTargetException e) {
+      throw new ShadeException(e.getMessage(), e);
+    }
+    if (!loaded.isEmpty() && !relation.getTarget().getEagerRelations().isEmpty()) {
+      Set<RelationMetadata> followed = new HashSet<>(path);
+      followed.add(relation);
+      RelationMetadata inverse = inverse(metadata, relation);
+      if (inverse != null) {
+        followed.add(inverse);
+      }
+      fetchEager(relation.getTarget(), loaded, followed, held);
+    }
+  }
+
+  /**
+   * Returns the many-to-one relation of the target entity mapping the column of a one-to-many relation, or null.
+   */
+  private static RelationMetadata inverse(EntityMetadata metadata, RelationMetadata relation) {
+    if (!relation.isToMany()) {
+      return null;
+    }
+    for (RelationMetadata candidate : relation.getTarget().getRelations()) {
+      if (!candidate.isToMany() && candidate.getTargetClass() == metadata.getEntityClass()
+          && candidate.getColumnName().equalsIgnoreCase(relation.getColumnName())) {
+        return candidate;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Loads the entities referenced by a many-to-one relation by their ids, and returns them.
+   * Entities sharing a reference share the loaded entity; references to missing rows keep their id only.
+   */
+  private List<Object> fetchOne(RelationMetadata relation, List<?> entities, PooledConnection held)
+      throws IllegalAccessException, InvocationTargetException {
+    Accessor reference = relation.getColumn().getAccessor();
+    Set<Object> ids = new LinkedHashSet<>();
+    for (Object entity : entities) {
+      Object id = entity == null ? null : reference.get(entity);
+      if (id != null) {
+        ids.add(id);
+      }
+    }
+    if (ids.isEmpty()) {
+      return Collections.emptyList();
+    }
+    EntityMetadata target = relation.getTarget();
+    Map<Object, Object> found = new HashMap<>();
+    List<Object> loaded = new ArrayList<>();
+    for (Object targetEntity : findByIds(target, Object.class, ids, held)) {
+      if (targetEntity != null) {
+        found.put(idKey(target.getIdAccessor().get(targetEntity)), targetEntity);
+        loaded.add(targetEntity);
+      }
+    }
+    for (Object entity : entities) {
+      Object id = entity == null ? null : reference.get(entity);
+      Object targetEntity = id == null ? null : found.get(idKey(id));
+      if (targetEntity != null) {
+        relation.getAccessor().set(entity, targetEntity);
+      }
+    }
+    return loaded;
+  }
+
+  /**
+   * Loads the entities referencing the given entities through the column of a one-to-many relation,
+   * with chunked IN-list queries, sets them as lists in id order and returns them. Their many-to-one relation
+   * mapping the column, if any, is set to the given entities.
+   */
+  private List<Object> fetchMany(final EntityMetadata metadata, RelationMetadata relation, List<?> entities,
+                                 PooledConnection held) throws IllegalAccessException, InvocationTargetException {
+    final EntityMetadata target = relation.getTarget();
+    final ColumnMetadata column = target.findColumn(relation.getColumnName());
+    if (column == null || column == target.getIdColumn()) {
+      throw new ShadeException(String.format("%s has no column %s referenced by relation %s of %s",
+          target.getEntityName(), relation.getColumnName(), relation.getName(), metadata.getEntityName()));
+    }
+    final List<Object> ids = new ArrayList<>();
+    Set<Object> keys = new HashSet<>();
+    for (Object entity : entities) {
+      Object id = entity == null ? null : metadata.getIdAccessor().get(entity);
+      if (id != null && keys.add(idKey(id))) {
+        ids.add(id);
+      }
+    }
+    List<Object> loaded = ids.isEmpty() ? Collections.emptyList()
+        : execute(target, Operation.FIND_ALL, true, held, (connection, trace) -> {
+          List<Object> result = new ArrayList<>();
+          for (int from = 0; from < ids.size(); ) {
+            int chunkSize = EntitySql.idChunkSize(ids.size() - from);
+            int to = Math.min(from + chunkSize, ids.size());
+            PreparedStatement statement = trace.prepare(connection,
+                target.getSql().getSelectByColumnSql(column.getName(), chunkSize));
+            for (int index = 1; index <= chunkSize; index++) {
+              column.getBinder().bindValue(statement, index, ids.get(Math.min(from + index, to) - 1));
+            }
+            try (ResultSet resultSet = trace.executeQuery(statement)) {
+              result.addAll(parseResultSet(trace, target, Object.class, resultSet));
+            }
+            from = to;
+          }
+          return result;
+        });
+    Map<Object, List<Object>> byId = new HashMap<>();
+    for (Object targetEntity : loaded) {
+      Object id = column.getAccessor().get(targetEntity);
+      byId.computeIfAbsent(idKey(id), key -> new ArrayList<>()).add(targetEntity);
+    }
+    RelationMetadata inverse = inverse(metadata, relation);
+    for (Object entity : entities) {
+      if (entity != null) {
+        Object id = metadata.getIdAccessor().get(entity);
+        List<Object> related = id == null ? null : byId.get(idKey(id));
+        relation.getAccessor().set(entity, related == null ? new ArrayList<>() : new ArrayList<>(related));
+        if (related != null && inverse != null) {
+          for (Object targetEntity : related) {
+            inverse.getAccessor().set(targetEntity, entity);
+          }
+        }
+      }
+    }
+    return loaded;
+  }
+
+  private Object openColumn(EntityMetadata metadata, Object primaryKey, String columnName, boolean characters) {
+    ColumnMetadata column = column(metadata, columnName);
+    UnitOfWork unit = unitFor(true);
+    if (unit != null) {
+      flush(unit);
+    }
+    Session session = unit != null ? unit.getSession() : checkOpen();
+    PooledConnection connection = unit != null ? unit.getConnection() : acquire(session, true);
+    OperationTrace trace = trace(metadata, Operation.LOAD_COLUMN);
+    PreparedStatement statement = null;
+    LobCursor cursor = null;
+    try {
+      statement = trace.prepareUncached(connection, metadata.getSql().getSelectColumnSql(column.getName()));
+      metadata.getIdColumn().getBinder().bindValue(statement, 1, primaryKey);
+      ResultSet resultSet = trace.executeQuery(statement);
+      cursor = new LobCursor(session, connection, unit == null, statement);
+      if (!resultSet.next()) {
+        throw new ShadeException(String.format(
+            "%s with id %s does not exist", metadata.getEntityName(), primaryKey));
+      }
+      Object stream = characters ? resultSet.getCharacterStream(1) : resultSet.getBinaryStream(1);
+      trace.end(null);
+      if (stream == null) {
+        cursor.close();
+        return null;
+      }
+      return characters ? cursor.characterStream((Reader) stream) : cursor.binaryStream((InputStream) stream);
+    } catch (Exception e) {
+      if (cursor != null) {
+        cursor.close();
+      } else {
+        closeQuietly(statement);
+        if (unit == null) {
+          session.releaseAfterFailure(connection);
+        }
+      }
+      trace.end(e);
+      throw failure(trace, e);
+    }
+  }
+
+  /**
+   * Opens the rows of a range of ids of a parallel scan on a pooled connection, which they hold until closed.
+   */
+  private <T> ResultSetSpliterator<T> openRange(EntityMetadata metadata, Class<T> entityClass, long firstId,
+                                                long lastId) {
+    Session session = checkOpen();
+    PooledConnection connection = acquire(session, true);
+    OperationTrace trace = trace(metadata, Operation.SCAN);
+    PreparedStatement statement = null;
+    try {
+      statement = trace.prepareUncached(connection, metadata.getSql().getSelectIdRangeSql());
+      statement.setLong(1, firstId);
+      statement.setLong(2, lastId);
+      statement.setFetchSize(fetchSize);
+      ResultSet resultSet = trace.executeQuery(statement);
+      return new ResultSetSpliterator<>(session, connection, true, statement, resultSet,
+          new RowMapper<>(metadata, entityClass, resultSet.getMetaData()), trace);
+    } catch (Exception e) {
+      closeQuietly(statement);
+      session.releaseAfterFailure(connection);
+      trace.end(e);
+      throw failure(trace, e);
+    }
+  }
+
+  private static void closeQuietly(Statement statement) {
+    if (statement == null) {
+      return;
+    }
+    try {
+      statement.close();
+    } catch (SQLException ignored) {
+    }
+  }
+
+  private static ColumnMetadata column(EntityMetadata metadata, String columnName) {
+    ColumnMetadata column = metadata.findColumn(columnName);
+    if (column == null || column == metadata.getIdColumn()) {
+      throw new ShadeException(String.format("%s has no column %s", metadata.getEntityName(), columnName));
+    }
+    return column;
+  }
+
+  /**
+   * Streams the entities of the given SQL, or of a derived query when it is null.
+   */
+  private <T> Stream<T> stream(EntityMetadata metadata, Class<T> entityClass, String sql, QueryPlan plan,
+                               Object[] args) {
+    UnitOfWork unit = unitFor(true);
+    if (unit != null) {
+      flush(unit);
+    }
+    Session session = unit != null ? unit.getSession() : checkOpen();
+    PooledConnection connection = unit != null ? unit.getConnection() : acquire(session, true);
+    OperationTrace trace = trace(metadata, Operation.STREAM);
+    PreparedStatement statement = null;
+    try {
+      statement = trace.prepareUncached(connection, sql != null ? sql : plan.getSql(session.getDialect(), args));
+      if (plan != null) {
+        plan.bind(statement, args);
+      }
+      statement.setFetchSize(fetchSize);
+      ResultSet resultSet = trace.executeQuery(statement);
+      ResultSetSpliterator<T> spliterator = new ResultSetSpliterator<>(session, connection, unit == null,
+          statement, resultSet, new RowMapper<>(metadata, entityClass, resultSet.getMetaData()), trace);
+      Spliterator<T> entities = metadata.getEagerRelations().isEmpty() ? spliterator : new BatchSpliterator<>(
+          spliterator, fetchSize, batch -> fetchEager(metadata, batch, spliterator.openConnection()));
+      return StreamSupport.stream(entities, false).onClose(spliterator::close);
+    } catch (Exception e) {
+      closeQuietly(statement);
+      if (unit == null) {
+        session.releaseAfterFailure(connection);
+      }
+      trace.end(e);
+      throw failure(trace, e);
+    }
+  }
+
+  private void schedulePersist(UnitOfWork unit, EntityMetadata metadata, Object entity) {
+    if (unit.isPendingInsert(entity)) {
+      return;
+    }
+    Object id;
+    try {
+      id = metadata.getIdAccessor().get(entity);
+    } catch (IllegalAccessException | InvocationTargetException e) {
+      throw new ShadeException(e.getMessage(), e);
+    }
+    unit.recordSaved(metadata, entity);
+    if (id == null && metadata.getIdGenerator() != null) {
+      try {
+        assignId(unit.getConnection(), unit.getSession(), metadata, entity);
+        id = metadata.getIdAccessor().get(entity);
+      } catch (SQLException | IllegalAccessException | InvocationTargetException e) {
+        throw new ShadeException(String.format(
+            "Cannot generate id of %s: %s", metadata.getEntityName(), e.getMessage()), e);
+      }
+      unit.manage(metadata, idKey(id), entity);
+      unit.scheduleInsert(metadata, entity);
+    } else if (id == null) {
+      unit.scheduleInsert(metadata, entity);
+    } else {
+      unit.manage(metadata, idKey(id), entity);
+      unit.evictOnCommit(metadata, idKey(id));
+      unit.scheduleUpdate(metadata, entity);
+    }
+  }
+
+  private void scheduleUpsert(UnitOfWork unit, EntityMetadata metadata, Object entity) {
+    Object id;
+    try {
+      id = metadata.getIdAccessor().get(entity);
+    } catch (IllegalAccessException | InvocationTargetException e) {
+      throw new ShadeException(e.getMessage(), e);
+    }
+    if (id == null) {
+      throw new ShadeException(String.format("Upsert of %s requires an id", metadata.getEntityName()));
+    }
+    unit.manage(metadata, idKey(id), entity);
+    unit.evictOnCommit(metadata, idKey(id));
+    unit.schedule(new PendingWrite(PendingWrite.Kind.UPSERT, metadata, entity));
+  }
+
+  /**
+   * Executes the queued writes of a unit of work without committing,
+   * batching consecutive writes of the same kind and entity.
+   */
+  private void flushWrites(UnitOfWork unit) {
+    if (!unit.hasPendingWrites()) {
+      return;
+    }
+    List<PendingWrite> writes = unit.drainPendingWrites();
+    PooledConnection connection = unit.getConnection();
+    int size = batchSize;
+    for (int from = 0; from < writes.size(); ) {
+      PendingWrite first = writes.get(from);
+      int to = from + 1;
+      while (to < writes.size() && to - from < size && first.sameBatch(writes.get(to))) {
+        to++;
+      }
+      List<Object> values = new ArrayList<>(to - from);
+      for (PendingWrite write : writes.subList(from, to)) {
+        values.add(write.value);
+      }
+      OperationTrace trace = trace(first.metadata,
+          first.kind == PendingWrite.Kind.DELETE ? Operation.REMOVE
+              : first.kind == PendingWrite.Kind.UPSERT ? Operation.UPSERT : Operation.PERSIST);
+      try {
+        flushBatch(unit, connection, trace, first, values);
+      } catch (Exception e) {
+        trace.end(e);
+        throw failure(trace, e);
+      }
+      trace.end(null);
+      from = to;
+    }
+  }
+
+  private void flushBatch(UnitOfWork unit, PooledConnection connection, OperationTrace trace, PendingWrite first,
+                          List<Object> values) throws SQLException, IllegalAccessException, InvocationTargetException {
+    switch (first.kind) {
+      case INSERT:
+        insertBatch(connection, trace, unit.getSession(), first.metadata, values);
+        for (Object entity : values) {
+          unit.manage(first.metadata, idKey(first.metadata.getIdAccessor().get(entity)), entity);
+        }
+        trackAll(first.metadata, values);
+        unit.recordTracked(values);
+        break;
+      case UPDATE:
+        List<Object> updated = updateBatch(connection, trace, first.metadata, values);
+        trackAll(first.metadata, updated);
+        unit.recordTracked(updated);
+        break;
+      case UPSERT:
+        upsertBatch(connection, trace, unit.getSession(), first.metadata, values);
+        trackAll(first.metadata, values);
+        unit.recordTracked(values);
+        break;
+      default:
+        deleteBatch(connection, trace, first.metadata, values);
+    }
+  }
+
+  /**
+   * Ends a unit of work. Without commit, the saved entities get back the ids and versions they had before it.
+   */
+  private void end(UnitOfWork unit, boolean committed) {
+    currentUnit.remove();
+    try {
+      if (!committed) {
+        for (Object entity : unit.getTracked()) {
+          dirtyTracker.untrack(entity);
+        }
+        unit.restoreSaved();
+      }
+    } finally {
+      unit.deactivate();
+      if (committed) {
+        unit.getSession().release(unit.getConnection());
+      } else {
+        unit.getSession().releaseAfterFailure(unit.getConnection());
+      }
+    }
+  }
+
+  private void checkCurrent(UnitOfWork unit) {
+    if (!unit.isActive()) {
+      throw new ShadeException("Transaction is not active");
+    }
+    if (currentUnit.get() != unit) {
+      throw new ShadeException("Transaction belongs to another thread");
+    }
+  }
+
+  /**
+   * Inserts entities with one JDBC batch, assigning generated ids first when the entity has an id generator
+   * and reading back the generated keys otherwise.
+   */
+  private void insertBatch(PooledConnection connection, OperationTrace trace, Session session,
+                           EntityMetadata metadata, List<Object> entities)
+      throws SQLException, IllegalAccessException, InvocationTargetException {
+    boolean generatedKeys = metadata.getIdGenerator() == null;
+    PreparedStatement statement = generatedKeys
+        ? trace.prepare(connection, metadata.getSql().getInsertSql(), Statement.RETURN_GENERATED_KEYS)
+        : trace.prepare(connection, metadata.getSql().getInsertWithIdSql());
+    try {
+      for (Object entity : entities) {
+        initVersion(metadata, entity);
+        if (generatedKeys) {
+          bindColumns(metadata, statement, entity);
+        } else {
+          assignId(connection, session, metadata, entity);
+          bindIdAndColumns(metadata, statement, 1, entity);
+        }
+        statement.addBatch();
+      }
+      trace.executeBatch(statement);
+      if (generatedKeys) {
+        readGeneratedKeys(statement, metadata, entities);
+      }
+    } catch (SQLException | IllegalAccessException | InvocationTargetException | RuntimeException e) {
+      clearBatch(statement);
+      throw e;
+    }
+  }
+
+  /**
+   * Inserts a chunk of a bulk insert. A full chunk is one multi-row INSERT; the last, shorter one is a JDBC batch
+   * of single-row INSERTs, so that each bulk insert adds at most one statement shape to the statement cache.
+   */
+  private void insertRows(PooledConnection connection, OperationTrace trace, Session session,
+                          EntityMetadata metadata, List<Object> entities, int rowsPerStatement, boolean returnIds)
+      throws SQLException, IllegalAccessException, InvocationTargetException {
+    boolean multiRow = entities.size() == rowsPerStatement;
+    int rows = multiRow ? rowsPerStatement : 1;
+    boolean assignIds = metadata.getIdGenerator() != null;
+    boolean generatedKeys = returnIds && !assignIds;
+    String sql = assignIds ? metadata.getSql().getInsertWithIdSql(rows) : metadata.getSql().getInsertSql(rows);
+    PreparedStatement statement = generatedKeys
+        ? trace.prepare(connection, sql, Statement.RETURN_GENERATED_KEYS) : trace.prepare(connection, sql);
+    try {
+      int index = 1;
+      for (Object entity : entities) {
+        initVersion(metadata, entity);
+        if (assignIds) {
+          assignId(connection, session, metadata, entity);
+          index = bindIdAndColumns(metadata, statement, index, entity);
+        } else {
+          index = bindColumns(metadata, statement, index, entity, null);
+        }
+        if (!multiRow) {
+          statement.addBatch();
+          index = 1;
+        }
+      }
+      if (multiRow) {
+        trace.executeUpdate(statement);
+      } else {
+        trace.executeBatch(statement);
+      }
+      if (generatedKeys) {
+        readGeneratedKeys(statement, metadata, entities);
+      }
+    } catch (SQLException | IllegalAccessException | InvocationTargetException | RuntimeException e) {
+      clearBatch(statement);
+      throw e;
+    }
+  }
+
+  private static void readGeneratedKeys(PreparedStatement statement, EntityMetadata metadata, List<Object> entities)
+      throws SQLException, IllegalAccessException, InvocationTargetException {
+    try (ResultSet generatedKeysResultSet = statement.getGeneratedKeys()) {
+      for (Object entity : entities) {
+        if (!generatedKeysResultSet.next()) {
+          break;
+        }
+        metadata.getIdColumn().getReader().read(generatedKeysResultSet, 1, entity);
+      }
+    }
+  }
+
+  /**
+   * Assigns a generated id to an entity which has none.
+   */
+  private static void assignId(PooledConnection connection, Session session, EntityMetadata metadata, Object entity)
+      throws SQLException, IllegalAccessException, InvocationTargetException {
+    if (metadata.getIdAccessor().get(entity) == null) {
+      metadata.getIdAccessor().set(entity, metadata.getIdGenerator().next(connection, session.getDialect()));
+    }
+  }
+
+  /**
+   * Updates entities with one JDBC batch per changed column subset, skipping entities without changes.
+   * An entity listed more than once is updated once, as its later updates would expect the old version.
+   * Returns the updated entities.
+   */
+  private List<Object> updateBatch(PooledConnection connection, OperationTrace trace, EntityMetadata metadata,
+                                   List<Object> entities)
+      throws SQLException, IllegalAccessException, InvocationTargetException {
+    ColumnMetadata versionColumn = metadata.getVersionColumn();
+    Map<Object, Object> versions = versionColumn == null ? null : new IdentityHashMap<>();
+    Map<BitSet, List<Object>> groups = new LinkedHashMap<>();
+    List<Object> updated = new ArrayList<>(entities.size());
+    Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (Object entity : entities) {
+      if (!seen.add(entity)) {
+        continue;
+      }
+      BitSet dirty = dirtyColumns(metadata, entity);
+      if (dirty == null || !dirty.isEmpty()) {
+        groups.computeIfAbsent(dirty, columns -> new ArrayList<>()).add(entity);
+        updated.add(entity);
+      }
+    }
+    for (Map.Entry<BitSet, List<Object>> group : groups.entrySet()) {
+      BitSet columns = group.getKey();
+      PreparedStatement statement = trace.prepare(connection,
+          columns == null ? metadata.getSql().getUpdateSql() : metadata.getSql().getUpdateSql(columns));
+      try {
+        for (Object entity : group.getValue()) {
+          int index = bindColumns(metadata, statement, entity, columns);
+          metadata.getIdColumn().getBinder().bind(statement, index, entity);
+          if (versions != null) {
+            versions.put(entity, bindVersion(metadata, statement, entity, columns, index + 1));
+          }
+          statement.addBatch();
+        }
+        int[] counts = trace.executeBatch(statement);
+        for (int i = 0; versions != null && i < counts.length; i++) {
+          if (counts[i] == 0) {
+            Object entity = group.getValue().get(i);
+            throw conflict(metadata, entity, metadata.getIdAccessor().get(entity), versions.get(entity));
+          }
+        }
+      } catch (SQLException | IllegalAccessException | InvocationTargetException | RuntimeException e) {
+        clearBatch(statement);
+        throw e;
+      }
+    }
+    if (versions != null) {
+      for (Map.Entry<Object, Object> version : versions.entrySet()) {
+        versionColumn.getAccessor().set(version.getKey(), nextVersion(version.getValue()));
+      }
+    }
+    return updated;
+  }
+
+  /**
+   * Sets the version of a versioned entity to 0 before it is inserted, unless it has one.
+   */
+  private static void initVersion(EntityMetadata metadata, Object entity)
+      throws IllegalAccessException, InvocationTargetException {
+    ColumnMetadata column = metadata.getVersionColumn();
+    if (column != null && column.getAccessor().get(entity) == null) {
+      column.getAccessor().set(entity, column.getAccessor().getType() == Integer.class ? (Object) 0 : (Object) 0L);
+    }
+  }
+
+  /**
+   * Binds the update of a versioned entity to its next version: the next version over the parameter of the version
+   * column, and the current one at the given index, after the id. Returns the current version, or null when
+   * the entity is not versioned. The entity keeps its version until the update succeeds.
+   */
+  private static Object bindVersion(EntityMetadata metadata, PreparedStatement statement, Object entity,
+                                    BitSet columns, int index)
+      throws SQLException, IllegalAccessException, InvocationTargetException {
+    ColumnMetadata column = metadata.getVersionColumn();
+    if (column == null) {
+      return null;
+    }
+    Object version = column.getAccessor().get(entity);
+    if (version == null) {
+      throw new ShadeException(String.format("Cannot update %s with id %s without version",
+          metadata.getEntityName(), metadata.getIdAccessor().get(entity)));
+    }
+    int versionIndex = metadata.getVersionIndex();
+    int parameter = columns == null ? versionIndex + 1 : columns.get(0, versionIndex).cardinality() + 1;
+    column.getBinder().bindValue(statement, parameter, nextVersion(version));
+    column.getBinder().bindValue(statement, index, version);
+    return version;
+  }
+
+  private static Object nextVersion(Object version) {
+    return version instanceof Integer ? (Object) ((Integer) version + 1) : (Object) ((Long) version + 1);
+  }
+
+  private static OptimisticLockException conflict(EntityMetadata metadata, Object entity, Object id,
+                                                  Object version) {
+    return new OptimisticLockException(String.format("%s with id %s was updated or deleted since version %s was read",
+        metadata.getEntityName(), id, version), entity);
+  }
+
+  /**
+   * Rejects upserts of versioned entities, which would overwrite rows without checking their version.
+   */
+  private static void checkUpsert(EntityMetadata metadata) {
+    if (metadata.getVersionColumn() != null) {
+      throw new ShadeException(String.format(
+          "Upsert of versioned %s is not supported, as it cannot check the version", metadata.getEntityName()));
+    }
+  }
+
+  private void upsertBatch(PooledConnection connection, OperationTrace trace, Session session,
+                           EntityMetadata metadata, List<Object> entities)
+      throws SQLException, IllegalAccessException, InvocationTargetException {
+    PreparedStatement statement = trace.prepare(connection, metadata.getSql().getUpsertSql(session.getDialect()));
+    try {
+      for (Object entity : entities) {
+        bindUpsert(metadata, statement, entity);
+        statement.addBatch();
+      }
+      trace.executeBatch(statement);
+    } catch (SQLException | IllegalAccessException | InvocationTargetException | RuntimeException e) {
+      clearBatch(statement);
+      throw e;
+    }
+  }
+
+  /**
+   * Binds the id and then all columns of an upsert, failing for entities without id.
+   */
+  private static void bindUpsert(EntityMetadata metadata, PreparedStatement statement, Object entity)
+      throws SQLException, IllegalAccessException, InvocationTargetException {
+    Object id = metadata.getIdAccessor().get(entity);
+    if (id == null) {
+      throw new ShadeException(String.format("Upsert of %s requires an id", metadata.getEntityName()));
+    }
+    bindIdAndColumns(metadata, statement, 1, entity);
+  }
+
+  /**
+   * Binds the id and then all columns from the given parameter index on and returns the next one.
+   */
+  private static int bindIdAndColumns(EntityMetadata metadata, PreparedStatement statement, int index,
+                                      Object entity)
+      throws SQLException, IllegalAccessException, InvocationTargetException {
+    metadata.getIdColumn().getBinder().bind(statement, index, entity);
+    return bindColumns(metadata, statement, index + 1, entity, null);
+  }
+
+  /**
+   * Returns the columns changed since the entity was loaded or saved, with the version column of a versioned
+   * entity when some changed, or null when they are unknown.
+   * When they are unknown for an entity with lazy columns, returns all columns but the null lazy ones,
+   * which are most likely just not loaded and must not overwrite the stored values.
+   */
+  private BitSet dirtyColumns(EntityMetadata metadata, Object entity)
+      throws IllegalAccessException, InvocationTargetException {
+    BitSet dirty = dirtyTracking ? dirtyTracker.dirtyColumns(metadata, entity) : null;
+    if (dirty != null && !dirty.isEmpty() && metadata.getVersionIndex() >= 0) {
+      dirty.set(metadata.getVersionIndex());
+    }
+    if (dirty != null || !metadata.hasLazyColumns()) {
+      return dirty;
+    }
+    List<ColumnMetadata> columns = metadata.getColumns();
+    BitSet written = new BitSet(columns.size());
+    for (int i = 0; i < columns.size(); i++) {
+      if (!columns.get(i).isLazy() || columns.get(i).getAccessor().get(entity) != null) {
+        written.set(i);
+      }
+    }
+    return written;
+  }
+
+  private void track(EntityMetadata metadata, Object entity)
+      throws IllegalAccessException, InvocationTargetException {
+    if (dirtyTracking) {
+      dirtyTracker.track(metadata, entity);
+    }
+  }
+
+  private void trackAll(EntityMetadata metadata, List<Object> entities)
+      throws IllegalAccessException, InvocationTargetException {
+    if (dirtyTracking) {
+      for (Object entity : entities) {
+        dirtyTracker.track(metadata, entity);
+      }
+    }
+  }
+
+  /**
+   * Evicts a written entity from its second-level cache, if any, once the write is committed. Finds store
+   * the committed state again; storing it here could overwrite the state of a concurrent write committed later.
+   */
+  private static void evictCached(EntityMetadata metadata, Object entity)
+      throws IllegalAccessException, InvocationTargetException {
+    EntityCache cache = metadata.getCache();
+    if (cache != null) {
+      cache.evict(idKey(metadata.getIdAccessor().get(entity)));
+    }
+  }
+
+  private static void evictCached(EntityMetadata metadata, List<Object> entities)
+      throws IllegalAccessException, InvocationTargetException {
+    if (metadata.getCache() != null) {
+      for (Object entity : entities) {
+        evictCached(metadata, entity);
+      }
+    }
+  }
+
+  private void deleteBatch(PooledConnection connection, OperationTrace trace, EntityMetadata metadata,
+                           List<Object> ids) throws SQLException {
+    PreparedStatement statement = trace.prepare(connection, metadata.getSql().getDeleteSql());
+    try {
+      for (Object id : ids) {
+        metadata.getIdColumn().getBinder().bindValue(statement, 1, id);
+        statement.addBatch();
+      }
+      trace.executeBatch(statement);
+    } catch (SQLException | RuntimeException e) {
+      clearBatch(statement);
+      throw e;
+    }
+  }
+
+  /**
+   * Normalizes integral ids so that e.g. an Integer argument matches a Long id read from the database.
+   */
+  static Object idKey(Object id) {
+    if (id instanceof Integer || id instanceof Short || id instanceof Byte) {
+      return ((Number) id).longValue();
+    }
+    return id;
+  }
+
+  private static void clearBatch(PreparedStatement statement) {
+    try {
+      statement.clearBatch();
+    } catch (SQLException ignored) {
+    }
+  }
+
+  private static int bindColumns(EntityMetadata metadata, PreparedStatement statement, Object entity)
+      throws SQLException, IllegalAccessException, InvocationTargetException {
+    return bindColumns(metadata, statement, entity, null);
+  }
+
+  /**
+   * Binds the given columns, or all when null, from parameter 1 on and returns the next parameter index.
+   */
+  private static int bindColumns(EntityMetadata metadata, PreparedStatement statement, Object entity,
+                                 BitSet columns) throws SQLException, IllegalAccessException, InvocationTargetException {
+    return bindColumns(metadata, statement, 1, entity, columns);
+  }
+
+  /**
+   * Binds the given columns, or all when null, from the given parameter index on and returns the next one.
+   */
+  private static int bindColumns(EntityMetadata metadata, PreparedStatement statement, int index, Object entity,
+                                 BitSet columns) throws SQLException, IllegalAccessException, InvocationTargetException {
+    List<ColumnMetadata> metadataColumns = metadata.getColumns();
+    for (int i = 0; i < metadataColumns.size(); i++) {
+      if (columns == null || columns.get(i)) {
+        metadataColumns.get(i).getBinder().bind(statement, index++, entity);
+      }
+    }
+    return index;
+  }
+
+  private static void commit(PooledConnection connection, OperationTrace trace) {
+    long start = System.nanoTime();
+    try {
+      connection.commit();
+      trace.committed(start);
+    } catch (SQLException e) {
+      throw new ShadeException(String.format("Failed to commit changes: %s", e.getMessage()), e);
+    }
+  }
+
+  private Session checkOpen() {
+    Session current = session;
+    if (current == null) {
+      throw new ShadeException("Database connection is not created.");
+    }
+    if (current.isClosed()) {
+      throw new ShadeException("Database connection is closed.");
+    }
+    return current;
+  }
+
+  /**
+   * Work done with a borrowed connection.
+   */
+  private interface ConnectionWork<R> {
+
+    R execute(PooledConnection connection, OperationTrace trace) throws Exception;
+  }
+
+  /**
+   * Schema work done with a borrowed primary connection.
+   */
+  private interface SchemaWork {
+
+    List<String> execute(PooledConnection connection, SchemaGenerator generator) throws SQLException;
+  }
+}
@@ -0,0 +1,252 @@
+package com.dark.shade.internal;
+
+import com.dark.shade.cache.EntityCache;
+import com.dark.shade.internal.accessor.Accessor;
+import com.dark.shade.internal.id.IdGenerator;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Entity metadata.
+ */
+public final class EntityMetadata {
+
+  private final Class<?> entityClass;
+  private final String entityName;
+  private final String tableName;
+  private final MethodHandle constructor;
+  private final ColumnMetadata idColumn;
+  private final List<ColumnMetadata> columns;
+  private final Map<String, Accessor> columnAccessors;
+  private final List<String> columnNames;
+  private final Map<String, ColumnMetadata> columnsByLabel;
+  private final EntitySql sql;
+  private final EntityCache cache;
+  private final IdGenerator idGenerator;
+  private final List<IndexMetadata> indexes;
+  private final List<RelationMetadata> relations;
+  private final List<RelationMetadata> eagerRelations;
+  private final ColumnMetadata versionColumn;
+  private final int versionIndex;
+  private final boolean lazyColumns;
+
+  public EntityMetadata(Class<?> entityClass, String entityName, String tableName, MethodHandle constructor,
+                        ColumnMetadata idColumn, List<ColumnMetadata> columns, EntitySql sql, EntityCache cache,
+                        IdGenerator idGenerator, List<IndexMetadata> indexes, List<RelationMetadata> relations,
+                        ColumnMetadata versionColumn) {
+    this.entityClass = entityClass;
+    this.entityName = entityName;
+    this.tableName = tableName;
+    this.constructor = constructor;
+    this.idColumn = idColumn;
+    this.columns = Collections.unmodifiableList(new ArrayList<>(columns));
+    this.sql = sql;
+    this.cache = cache;
+    this.idGenerator = idGenerator;
+    this.indexes = Collections.unmodifiableList(new ArrayList<>(indexes));
+    this.relations = Collections.unmodifiableList(new ArrayList<>(relations));
+    List<RelationMetadata> eager = new ArrayList<>();
+    for (RelationMetadata relation : relations) {
+      if (relation.isEager()) {
+        eager.add(relation);
+      }
+    }
+    eagerRelations = Collections.unmodifiableList(eager);
+    this.versionColumn = versionColumn;
+    this.versionIndex = this.columns.indexOf(versionColumn);
+    Map<String, Accessor> accessors = new LinkedHashMap<>();
+    List<String> names = new ArrayList<>();
+    columnsByLabel = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    columnsByLabel.put(idColumn.getName(), idColumn);
+    boolean lazy = false;
+    for (ColumnMetadata column : columns) {
+      lazy |= column.isLazy();
+      accessors.put(column.getName(), column.getAccessor());
+      names.add(column.getName());
+      columnsByLabel.put(column.getName(), column);
+    }
+    columnAccessors = Collections.unmodifiableMap(accessors);
+    columnNames = Collections.unmodifiableList(names);
+    lazyColumns = lazy;
+  }
+
+  public Class<?> getEntityClass() {
+    return entityClass;
+  }
+
+  public String getEntityName() {
+    return entityName;
+  }
+
+  public String getTableName() {
+    return tableName;
+  }
+
+  public String getIdName() {
+    return idColumn.getName();
+  }
+
+  public Accessor getIdAccessor() {
+    return idColumn.getAccessor();
+  }
+
+  public ColumnMetadata getIdColumn() {
+    return idColumn;
+  }
+
+  public List<ColumnMetadata> getColumns() {
+    return columns;
+  }
+
+  public Map<String, Accessor> getColumnAccessors() {
+    return columnAccessors;
+  }
+
+  public List<String> getColumnNames() {
+    return columnNames;
+  }
+
+  /**
+   * Finds id or column metadata by result set column label, ignoring case.
+   */
+  public ColumnMetadata findColumn(String label) {
+    return columnsByLabel.get(label);
+  }
+
+  public EntitySql getSql() {
+    return sql;
+  }
+
+  /**
+   * Returns the second-level cache of the entity, or null when it is not cacheable.
+   */
+  public EntityCache getCache() {
+    return cache;
+  }
+
+  /**
+   * Returns the generator assigning ids before insertion, or null when the database generates them.
+   */
+  public IdGenerator getIdGenerator() {
+    return idGenerator;
+  }
+
+  /**
+   * Returns the declared secondary indexes.
+   */
+  public List<IndexMetadata> getIndexes() {
+    return indexes;
+  }
+
+  /**
+   * Returns the version column checked and incremented by updates, or null when the entity is not versioned.
+   */
+  public ColumnMetadata getVersionColumn() {
+    return versionColumn;
+  }
+
+  /**
+   * Returns the index of the version column in the columns, or -1.
+   */
+  public int getVersionIndex() {
+    return versionIndex;
+  }
+
+  public List<RelationMetadata> getRelations() {
+    return relations;
+  }
+
+  /**
+   * Returns the relations loaded with the entities.
+   */
+  public List<RelationMetadata> getEagerRelations() {
+    return eagerRelations;
+  }
+
+  /**
+   * Finds a relation by the name of its member, or returns null.
+   */
+  public RelationMetadata findRelation(String name) {
+    for (RelationMetadata relation : relations) {
+      if (relation.getName().equals(name)) {
+        return relation;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns whether some columns are lazy, i.e. not loaded with the entity.
+   */
+  public boolean hasLazyColumns() {
+    return lazyColumns;
+  }
+
+  /**
+   * Copies the id and column values of an entity, in column order.
+   */
+  public Object[] snapshot(Object entity) throws IllegalAccessException, InvocationTargetException {
+    return snapshot(entity, true);
+  }
+
+  /**
+   * Copies the id and column values of an entity, in column order, leaving lazy columns null unless included.
+   */
+  public Object[] snapshot(Object entity, boolean includeLazy)
+      throws IllegalAccessException, InvocationTargetException {
+    Object[] snapshot = new Object[columns.size() + 1];
+    snapshot[0] = idColumn.getAccessor().get(entity);
+    for (int i = 0; i < columns.size(); i++) {
+      if (!includeLazy && columns.get(i).isLazy()) {
+        continue;
+      }
+      snapshot[i + 1] = copy(columns.get(i).getAccessor().get(entity));
+    }
+    return snapshot;
+  }
+
+  /**
+   * Creates an entity from a snapshot taken by {@link #snapshot(Object)}.
+   */
+  public Object restore(Object[] snapshot) throws IllegalAccessException, InvocationTargetException {
+    Object entity = newInstance();
+    idColumn.getAccessor().set(entity, snapshot[0]);
+    for (int i = 0; i < columns.size(); i++) {
+      columns.get(i).getAccessor().set(entity, copy(snapshot[i + 1]));
+    }
+    return entity;
+  }
+
+  /**
+   * Copies the mutable values of columns, byte arrays and dates including SQL timestamps, so that snapshots share
+   * no state with entities.
+   */
+  private static Object copy(Object value) {
+    if (value instanceof byte[]) {
+      return ((byte[]) value).clone();
+    }
+    if (value instanceof Date) {
+      return ((Date) value).clone();
+    }
+    return value;
+  }
+
+  public Object newInstance() throws InvocationTargetException {
+    try {
+      return constructor.invokeExact();
+    } catch (Throwable e) {
+      if (e instanceof Error) {
+        throw (Error) e;
+      }
+      throw new InvocationTargetException(e);
+    }
+  }
+}
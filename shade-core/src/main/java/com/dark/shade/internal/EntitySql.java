@@ -0,0 +1,296 @@
+package com.dark.shade.internal;
+
+import com.dark.shade.dialect.Dialect;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precompiled SQL statements of an entity.
+ */
+public final class EntitySql {
+
+  /**
+   * Parameter counts of the IN-list queries; a fixed set keeps the number of statement shapes small.
+   */
+  private static final int[] ID_CHUNK_SIZES = {16, 64, 256, 1000};
+
+  private final String insertSql;
+  private final String insertWithIdSql;
+  private final String updateSql;
+  private final String selectByIdSql;
+  private final String selectAllSql;
+  private final String existsSql;
+  private final String deleteSql;
+  private final String deleteAllSql;
+  private final String[] selectByIdsSql;
+  private final String selectFirstPageSql;
+  private final String selectPageSql;
+  private final String idRangeSql;
+  private final String selectIdRangeSql;
+  private final String tableName;
+  private final String idName;
+  private final String versionCondition;
+  private final List<String> columnNames;
+  private final ConcurrentHashMap<BitSet, String> partialUpdateSql = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<Integer, String> multiRowInsertSql = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<Integer, String> multiRowInsertWithIdSql = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<Dialect, String> upsertSql = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, String> selectColumnSql = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, String[]> selectByColumnSql = new ConcurrentHashMap<>();
+
+  public EntitySql(String tableName, String idName, List<String> columnNames) {
+    this(tableName, idName, columnNames, Collections.<String>emptySet());
+  }
+
+  /**
+   * Creates the statements of an entity whose lazy columns are written but left out of the SELECTs.
+   */
+  public EntitySql(String tableName, String idName, List<String> columnNames, Set<String> lazyColumnNames) {
+    this(tableName, idName, columnNames, lazyColumnNames, null);
+  }
+
+  /**
+   * Creates the statements of an entity whose UPDATEs also match the version column, unless it is null.
+   */
+  public EntitySql(String tableName, String idName, List<String> columnNames, Set<String> lazyColumnNames,
+                   String versionName) {
+    this.tableName = tableName;
+    this.idName = idName;
+    this.versionCondition = versionName == null ? "" : String.format(" AND %s=?", versionName);
+    this.columnNames = columnNames;
+    List<String> eagerColumnNames = new ArrayList<>(columnNames);
+    eagerColumnNames.removeAll(lazyColumnNames);
+    String selectColumns = joinColumns(idName, eagerColumnNames);
+    insertSql = String.format("INSERT INTO %s (%s) VALUES (%s)",
+        tableName, String.join(", ", columnNames), placeholders(columnNames.size()));
+    insertWithIdSql = String.format("INSERT INTO %s (%s) VALUES (%s)",
+        tableName, joinColumns(idName, columnNames), placeholders(columnNames.size() + 1));
+    updateSql = String.format("UPDATE %s SET %s WHERE %s=?%s",
+        tableName, String.join("=?, ", columnNames) + "=?", idName, versionCondition);
+    selectAllSql = String.format("SELECT %s FROM %s", selectColumns, tableName);
+    selectByIdSql = String.format("%s WHERE %s=?", selectAllSql, idName);
+    existsSql = String.format("SELECT 1 FROM %s WHERE %s=?", tableName, idName);
+    deleteSql = String.format("DELETE FROM %s WHERE %s=?", tableName, idName);
+    deleteAllSql = String.format("DELETE FROM %s", tableName);
+    selectFirstPageSql = String.format("%s ORDER BY %s", selectAllSql, idName);
+    selectPageSql = String.format("%s WHERE %s > ? ORDER BY %s", selectAllSql, idName, idName);
+    idRangeSql = String.format("SELECT MIN(%s), MAX(%s) FROM %s", idName, idName, tableName);
+    selectIdRangeSql = String.format("%s WHERE %s BETWEEN ? AND ?", selectAllSql, idName);
+    selectByIdsSql = new String[ID_CHUNK_SIZES.length];
+    for (int i = 0; i < ID_CHUNK_SIZES.length; i++) {
+      selectByIdsSql[i] = String.format("%s WHERE %s IN (%s)", selectAllSql, idName, placeholders(ID_CHUNK_SIZES[i]));
+    }
+  }
+
+  /**
+   * Returns the parameter count of the IN-list query used for the given number of ids:
+   * the smallest chunk size that holds them all, or the largest one.
+   */
+  public static int idChunkSize(int idCount) {
+    for (int chunkSize : ID_CHUNK_SIZES) {
+      if (idCount <= chunkSize) {
+        return chunkSize;
+      }
+    }
+    return ID_CHUNK_SIZES[ID_CHUNK_SIZES.length - 1];
+  }
+
+  public String getInsertSql() {
+    return insertSql;
+  }
+
+  /**
+   * Returns the INSERT of the given number of rows with one VALUES list per row.
+   * Statements are built once per row count.
+   */
+  public String getInsertSql(int rows) {
+    return rows == 1 ? insertSql : multiRow(multiRowInsertSql, insertSql, columnNames.size(), rows);
+  }
+
+  /**
+   * Returns the INSERT of ids assigned before insertion, taking the id and then the columns as parameters.
+   */
+  public String getInsertWithIdSql() {
+    return insertWithIdSql;
+  }
+
+  public String getInsertWithIdSql(int rows) {
+    return rows == 1
+        ? insertWithIdSql : multiRow(multiRowInsertWithIdSql, insertWithIdSql, columnNames.size() + 1, rows);
+  }
+
+  public String getUpdateSql() {
+    return updateSql;
+  }
+
+  /**
+   * Returns the UPDATE of the given columns, as indexes into the column names, taking the id and then,
+   * for versioned entities, the previous version after the columns. Statements are built once per column subset.
+   */
+  public String getUpdateSql(BitSet columns) {
+    if (columns.cardinality() == columnNames.size()) {
+      return updateSql;
+    }
+    String sql = partialUpdateSql.get(columns);
+    if (sql == null) {
+      StringBuilder builder = new StringBuilder("UPDATE ").append(tableName).append(" SET ");
+      String prefix = "";
+      for (int i = columns.nextSetBit(0); i >= 0; i = columns.nextSetBit(i + 1)) {
+        builder.append(prefix).append(columnNames.get(i)).append("=?");
+        prefix = ", ";
+      }
+      sql = builder.append(" WHERE ").append(idName).append("=?").append(versionCondition).toString();
+      partialUpdateSql.putIfAbsent((BitSet) columns.clone(), sql);
+    }
+    return sql;
+  }
+
+  /**
+   * Returns the upsert of the given dialect, taking the id and then the columns as parameters.
+   */
+  public String getUpsertSql(Dialect dialect) {
+    String sql = upsertSql.get(dialect);
+    if (sql == null) {
+      sql = dialect.upsertSql(tableName, idName, columnNames);
+      upsertSql.putIfAbsent(dialect, sql);
+    }
+    return sql;
+  }
+
+  public String getSelectByIdSql() {
+    return selectByIdSql;
+  }
+
+  public String getSelectAllSql() {
+    return selectAllSql;
+  }
+
+  /**
+   * Returns the query of a single column of the row with a given id, used to load lazy columns.
+   */
+  public String getSelectColumnSql(String columnName) {
+    String sql = selectColumnSql.get(columnName);
+    if (sql == null) {
+      sql = String.format("SELECT %s FROM %s WHERE %s=?", columnName, tableName, idName);
+      selectColumnSql.putIfAbsent(columnName, sql);
+    }
+    return sql;
+  }
+
+  /**
+   * Returns the IN-list query for a chunk size returned by {@link #idChunkSize(int)}.
+   */
+  public String getSelectByIdsSql(int chunkSize) {
+    for (int i = 0; i < ID_CHUNK_SIZES.length; i++) {
+      if (ID_CHUNK_SIZES[i] == chunkSize) {
+        return selectByIdsSql[i];
+      }
+    }
+    throw new IllegalArgumentException(String.format("Unsupported id chunk size: %d", chunkSize));
+  }
+
+  /**
+   * Returns the IN-list query on a column for a chunk size returned by {@link #idChunkSize(int)}, in id order,
+   * used to load the entities referencing a chunk of other entities.
+   */
+  public String getSelectByColumnSql(String columnName, int chunkSize) {
+    String[] sql = selectByColumnSql.get(columnName);
+    if (sql == null) {
+      sql = new String[ID_CHUNK_SIZES.length];
+      for (int i = 0; i < ID_CHUNK_SIZES.length; i++) {
+        sql[i] = String.format("%s WHERE %s IN (%s) ORDER BY %s",
+            selectAllSql, columnName, placeholders(ID_CHUNK_SIZES[i]), idName);
+      }
+      selectByColumnSql.putIfAbsent(columnName, sql);
+    }
+    for (int i = 0; i < ID_CHUNK_SIZES.length; i++) {
+      if (ID_CHUNK_SIZES[i] == chunkSize) {
+        return sql[i];
+      }
+    }
+    throw new IllegalArgumentException(String.format("Unsupported id chunk size: %d", chunkSize));
+  }
+
+  /**
+   * Returns the query of the first page, taking the row limit as parameter.
+   */
+  public String getSelectFirstPageSql(Dialect dialect) {
+    return selectFirstPageSql + " " + dialect.limitSql("?");
+  }
+
+  /**
+   * Returns the query of the page after an id, taking the id and then the row limit as parameters.
+   */
+  public String getSelectPageSql(Dialect dialect) {
+    return selectPageSql + " " + dialect.limitSql("?");
+  }
+
+  /**
+   * Returns the query of the lowest and highest id.
+   */
+  public String getIdRangeSql() {
+    return idRangeSql;
+  }
+
+  /**
+   * Returns the query of the entities with ids from a first to a last one, inclusive.
+   */
+  public String getSelectIdRangeSql() {
+    return selectIdRangeSql;
+  }
+
+  public String getExistsSql() {
+    return existsSql;
+  }
+
+  public String getDeleteSql() {
+    return deleteSql;
+  }
+
+  public String getDeleteAllSql() {
+    return deleteAllSql;
+  }
+
+  private static String multiRow(ConcurrentHashMap<Integer, String> cache, String singleRowSql, int columns,
+                                 int rows) {
+    String sql = cache.get(rows);
+    if (sql == null) {
+      String values = "(" + placeholders(columns) + ")";
+      StringBuilder builder = new StringBuilder(singleRowSql.length() + rows * (values.length() + 2))
+          .append(singleRowSql, 0, singleRowSql.lastIndexOf(values));
+      for (int i = 0; i < rows; i++) {
+        builder.append(i == 0 ? "" : ", ").append(values);
+      }
+      sql = builder.toString();
+      cache.putIfAbsent(rows, sql);
+    }
+    return sql;
+  }
+
+  /**
+   * Returns the id column followed by the given columns, separated by commas.
+   */
+  public static String joinColumns(String idName, List<String> columnNames) {
+    StringBuilder builder = new StringBuilder(idName);
+    for (String columnName : columnNames) {
+      builder.append(", ").append(columnName);
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Returns the given number of comma-separated bind parameters.
+   */
+  public static String placeholders(int count) {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      builder.append(i == 0 ? "?" : ", ?");
+    }
+    return builder.toString();
+  }
+}
@@ -0,0 +1,32 @@
+package com.dark.shade.internal;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Index metadata.
+ */
+public final class IndexMetadata {
+
+  private final String name;
+  private final List<String> columnNames;
+  private final boolean unique;
+
+  public IndexMetadata(String name, List<String> columnNames, boolean unique) {
+    this.name = name;
+    this.columnNames = Collections.unmodifiableList(columnNames);
+    this.unique = unique;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public List<String> getColumnNames() {
+    return columnNames;
+  }
+
+  public boolean isUnique() {
+    return unique;
+  }
+}
@@ -0,0 +1,73 @@
+package com.dark.shade.internal;
+
+import com.dark.shade.internal.pool.PooledConnection;
+
+import java.io.FilterInputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * LOB cursor.
+ * Keeps the statement reading a single column value open while its stream is read and owns it and the
+ * borrowed connection until the stream is closed. A connection of an active transaction is only borrowed
+ * and stays with the transaction.
+ */
+final class LobCursor {
+
+  private final Session session;
+  private final PooledConnection connection;
+  private final Statement statement;
+  private final boolean ownsConnection;
+  private boolean closed;
+
+  LobCursor(Session session, PooledConnection connection, boolean ownsConnection, Statement statement) {
+    this.session = session;
+    this.connection = connection;
+    this.statement = statement;
+    this.ownsConnection = ownsConnection;
+  }
+
+  InputStream binaryStream(InputStream stream) {
+    return new FilterInputStream(stream) {
+      @Override
+      public void close() throws IOException {
+        try {
+          super.close();
+        } finally {
+          LobCursor.this.close();
+        }
+      }
+    };
+  }
+
+  Reader characterStream(Reader reader) {
+    return new FilterReader(reader) {
+      @Override
+      public void close() throws IOException {
+        try {
+          super.close();
+        } finally {
+          LobCursor.this.close();
+        }
+      }
+    };
+  }
+
+  synchronized void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      statement.close();
+    } catch (SQLException ignored) {
+    }
+    if (ownsConnection) {
+      session.release(connection);
+    }
+  }
+}
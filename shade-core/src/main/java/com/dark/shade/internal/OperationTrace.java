@@ -0,0 +1,152 @@
+package com.dark.shade.internal;
+
+import com.dark.shade.internal.pool.PooledConnection;
+import com.dark.shade.metrics.Operation;
+import com.dark.shade.metrics.OperationEvent;
+import com.dark.shade.metrics.ShadeListener;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Operation trace.
+ * Times the statements of one entity manager operation, logs those slower than the slow query threshold
+ * and reports the operation to the listener when it ends. Confined to the thread running the operation;
+ * the trace of a stream is handed to its spliterator and ends when the stream is closed.
+ */
+final class OperationTrace {
+
+  private static final Logger SLOW_QUERY_LOGGER = Logger.getLogger("com.dark.shade.SlowQuery");
+  private static final Logger LOGGER = Logger.getLogger(OperationTrace.class.getName());
+
+  private final EntityMetadata metadata;
+  private final Operation operation;
+  private final ShadeListener listener;
+  private final long slowQueryNanos;
+  private final long startNanos = System.nanoTime();
+  private long prepareNanos;
+  private long executeNanos;
+  private long mappingNanos;
+  private long commitNanos;
+  private int statements;
+  private long rowsRead;
+  private long rowsWritten;
+  private String sql;
+
+  OperationTrace(EntityMetadata metadata, Operation operation, ShadeListener listener, long slowQueryNanos) {
+    this.metadata = metadata;
+    this.operation = operation;
+    this.listener = listener;
+    this.slowQueryNanos = slowQueryNanos;
+  }
+
+  PreparedStatement prepare(PooledConnection connection, String sql) throws SQLException {
+    long start = System.nanoTime();
+    PreparedStatement statement = connection.cachedStatement(sql);
+    prepareNanos += System.nanoTime() - start;
+    this.sql = sql;
+    return statement;
+  }
+
+  PreparedStatement prepare(PooledConnection connection, String sql, int autoGeneratedKeys) throws SQLException {
+    long start = System.nanoTime();
+    PreparedStatement statement = connection.cachedStatement(sql, autoGeneratedKeys);
+    prepareNanos += System.nanoTime() - start;
+    this.sql = sql;
+    return statement;
+  }
+
+  /**
+   * Prepares a statement outside the statement cache, for cursors which stay open after the operation returns;
+   * the caller closes it.
+   */
+  PreparedStatement prepareUncached(PooledConnection connection, String sql) throws SQLException {
+    long start = System.nanoTime();
+    PreparedStatement statement = connection.prepareStatement(sql);
+    prepareNanos += System.nanoTime() - start;
+    this.sql = sql;
+    return statement;
+  }
+
+  ResultSet executeQuery(PreparedStatement statement) throws SQLException {
+    long start = System.nanoTime();
+    ResultSet resultSet = statement.executeQuery();
+    executed(start, 0);
+    return resultSet;
+  }
+
+  int executeUpdate(PreparedStatement statement) throws SQLException {
+    long start = System.nanoTime();
+    int count = statement.executeUpdate();
+    executed(start, count);
+    return count;
+  }
+
+  /**
+   * Executes a batch, counting one written row for every statement whose count the driver does not report.
+   */
+  int[] executeBatch(PreparedStatement statement) throws SQLException {
+    long start = System.nanoTime();
+    int[] counts = statement.executeBatch();
+    long written = 0;
+    for (int count : counts) {
+      written += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+    }
+    executed(start, written);
+    return counts;
+  }
+
+  void mapped(long startNanos, int rows) {
+    mappingNanos += System.nanoTime() - startNanos;
+    rowsRead += rows;
+  }
+
+  void committed(long startNanos) {
+    commitNanos += System.nanoTime() - startNanos;
+  }
+
+  /**
+   * Reports the ended operation to the listener; listener failures are logged, not propagated.
+   */
+  void end(Throwable failure) {
+    if (listener == null) {
+      return;
+    }
+    OperationEvent event = new OperationEvent(metadata == null ? null : metadata.getEntityClass(), operation,
+        System.nanoTime() - startNanos, prepareNanos, executeNanos, mappingNanos, commitNanos, statements,
+        rowsRead, rowsWritten, sql, failure);
+    try {
+      listener.onOperation(event);
+    } catch (RuntimeException e) {
+      LOGGER.log(Level.WARNING, "Shade listener failed", e);
+    }
+  }
+
+  /**
+   * Returns a description of the operation for failure messages.
+   */
+  String describe() {
+    return sql == null ? target() : String.format("%s [%s]", target(), sql);
+  }
+
+  private String target() {
+    return String.format("%s %s", operation.name().toLowerCase().replace('_', ' '),
+        metadata == null ? "transaction" : metadata.getEntityName());
+  }
+
+  private void executed(long start, long written) {
+    long elapsed = System.nanoTime() - start;
+    executeNanos += elapsed;
+    statements++;
+    rowsWritten += written;
+    if (slowQueryNanos > 0 && elapsed >= slowQueryNanos && SLOW_QUERY_LOGGER.isLoggable(Level.WARNING)) {
+      SLOW_QUERY_LOGGER.warning(String.format("Slow statement of %s took %d ms: %s",
+          target(), TimeUnit.NANOSECONDS.toMillis(elapsed), sql));
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package com.dark.shade.internal;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Partition spliterator.
+ * Reads ranges of ids one after another, each from rows opened when the range is reached. Splitting hands
+ * half of the ranges not reached yet to a new spliterator, so a parallel stream reads ranges concurrently.
+ */
+final class PartitionSpliterator<T> implements Spliterator<T> {
+
+  private final long[] firstIds;
+  private final long[] lastIds;
+  private final RangeReader<T> reader;
+  private int next;
+  private int end;
+  private Spliterator<T> rows;
+
+  PartitionSpliterator(long[] firstIds, long[] lastIds, RangeReader<T> reader) {
+    this(firstIds, lastIds, reader, 0, firstIds.length);
+  }
+
+  private PartitionSpliterator(long[] firstIds, long[] lastIds, RangeReader<T> reader, int next, int end) {
+    this.firstIds = firstIds;
+    this.lastIds = lastIds;
+    this.reader = reader;
+    this.next = next;
+    this.end = end;
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super T> action) {
+    while (true) {
+      if (rows == null) {
+        if (next == end) {
+          return false;
+        }
+        rows = reader.open(firstIds[next], lastIds[next]);
+        next++;
+      }
+      if (rows.tryAdvance(action)) {
+        return true;
+      }
+      rows = null;
+    }
+  }
+
+  @Override
+  public Spliterator<T> trySplit() {
+    int remaining = end - next;
+    int split = rows == null ? remaining / 2 : (remaining + 1) / 2;
+    if (split == 0) {
+      return null;
+    }
+    end -= split;
+    return new PartitionSpliterator<>(firstIds, lastIds, reader, end, end + split);
+  }
+
+  @Override
+  public long estimateSize() {
+    return Long.MAX_VALUE;
+  }
+
+  @Override
+  public int characteristics() {
+    return Spliterator.NONNULL;
+  }
+
+  /**
+   * Opens the rows of the ids from {@code firstId} to {@code lastId}.
+   */
+  interface RangeReader<T> {
+
+    Spliterator<T> open(long firstId, long lastId);
+  }
+}
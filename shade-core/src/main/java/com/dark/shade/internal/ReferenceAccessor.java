@@ -0,0 +1,51 @@
+package com.dark.shade.internal;
+
+import com.dark.shade.internal.accessor.Accessor;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Reference accessor.
+ * Accesses the column of a many-to-one relation through the member holding the referenced entity:
+ * reads the id of the entity and, when the column is read, sets an instance holding only the id
+ * unless the member already references an entity with that id.
+ */
+final class ReferenceAccessor implements Accessor {
+
+  private final Accessor member;
+  private final Class<?> idType;
+  private final RelationMetadata relation;
+
+  ReferenceAccessor(Accessor member, Class<?> idType, RelationMetadata relation) {
+    this.member = member;
+    this.idType = idType;
+    this.relation = relation;
+  }
+
+  @Override
+  public Class<?> getType() {
+    return idType;
+  }
+
+  @Override
+  public Object get(Object entity) throws IllegalAccessException, InvocationTargetException {
+    Object reference = member.get(entity);
+    return reference == null ? null : relation.getTarget().getIdAccessor().get(reference);
+  }
+
+  @Override
+  public void set(Object entity, Object value) throws IllegalAccessException, InvocationTargetException {
+    if (value == null) {
+      member.set(entity, null);
+      return;
+    }
+    Object reference = member.get(entity);
+    EntityMetadata target = relation.getTarget();
+    if (reference != null && value.equals(target.getIdAccessor().get(reference))) {
+      return;
+    }
+    reference = target.newInstance();
+    target.getIdAccessor().set(reference, value);
+    member.set(entity, reference);
+  }
+}
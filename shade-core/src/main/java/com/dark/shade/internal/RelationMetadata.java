@@ -0,0 +1,101 @@
+package com.dark.shade.internal;
+
+import com.dark.shade.internal.accessor.Accessor;
+
+import java.util.function.Supplier;
+
+/**
+ * Relation metadata.
+ * The metadata of the target entity is resolved on first use, so entities may reference each other.
+ * A many-to-one relation owns a column of its entity, holding the id of the referenced entity;
+ * a one-to-many relation names the column of its target entity referencing its own entity.
+ */
+public final class RelationMetadata {
+
+  private final String name;
+  private final Accessor accessor;
+  private final Class<?> targetClass;
+  private final Supplier<EntityMetadata> targetSupplier;
+  private final String columnName;
+  private final boolean toMany;
+  private final boolean eager;
+  private final ColumnMetadata column;
+  private volatile EntityMetadata target;
+
+  private RelationMetadata(String name, Accessor accessor, Class<?> targetClass,
+                           Supplier<EntityMetadata> targetSupplier, String columnName, Class<?> idType,
+                           boolean toMany, boolean eager) {
+    this.name = name;
+    this.accessor = accessor;
+    this.targetClass = targetClass;
+    this.targetSupplier = targetSupplier;
+    this.columnName = columnName;
+    this.toMany = toMany;
+    this.eager = eager;
+    this.column = toMany ? null : new ColumnMetadata(columnName, new ReferenceAccessor(accessor, idType, this));
+  }
+
+  /**
+   * Creates a many-to-one relation whose column holds ids of the given type.
+   */
+  public static RelationMetadata manyToOne(String name, Accessor accessor, Class<?> targetClass,
+                                           Supplier<EntityMetadata> target, String columnName, Class<?> idType,
+                                           boolean eager) {
+    return new RelationMetadata(name, accessor, targetClass, target, columnName, idType, false, eager);
+  }
+
+  public static RelationMetadata oneToMany(String name, Accessor accessor, Class<?> targetClass,
+                                           Supplier<EntityMetadata> target, String columnName, boolean eager) {
+    return new RelationMetadata(name, accessor, targetClass, target, columnName, null, true, eager);
+  }
+
+  /**
+   * Returns the name of the member holding the related entity or entities.
+   */
+  public String getName() {
+    return name;
+  }
+
+  public Accessor getAccessor() {
+    return accessor;
+  }
+
+  public Class<?> getTargetClass() {
+    return targetClass;
+  }
+
+  public EntityMetadata getTarget() {
+    EntityMetadata result = target;
+    if (result == null) {
+      result = targetSupplier.get();
+      target = result;
+    }
+    return result;
+  }
+
+  /**
+   * Returns the column holding the id of the referenced entity, or the referencing column of the target
+   * entity for a one-to-many relation.
+   */
+  public String getColumnName() {
+    return columnName;
+  }
+
+  public boolean isToMany() {
+    return toMany;
+  }
+
+  /**
+   * Returns whether the relation is loaded with the entities.
+   */
+  public boolean isEager() {
+    return eager;
+  }
+
+  /**
+   * Returns the column of a many-to-one relation, mapped like the other columns of its entity, or null.
+   */
+  public ColumnMetadata getColumn() {
+    return column;
+  }
+}
@@ -0,0 +1,101 @@
+package com.dark.shade.internal;
+
+import com.dark.shade.exception.ShadeException;
+import com.dark.shade.internal.pool.PooledConnection;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * Result set spliterator.
+ * Maps rows lazily while the stream is consumed and owns its statement and the borrowed connection until it
+ * is closed,
+ * which happens when the stream is closed, the rows are exhausted or mapping fails. A connection of an
+ * active transaction is only borrowed and stays with the transaction. Closing is thread-safe, as parallel scans
+ * close the spliterators of all partitions from the thread closing the stream.
+ */
+final class ResultSetSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+  private final Session session;
+  private final PooledConnection connection;
+  private final Statement statement;
+  private final ResultSet resultSet;
+  private final RowMapper<T> rowMapper;
+  private final OperationTrace trace;
+  private final boolean ownsConnection;
+  private boolean closed;
+
+  ResultSetSpliterator(Session session, PooledConnection connection, boolean ownsConnection, Statement statement,
+                       ResultSet resultSet, RowMapper<T> rowMapper, OperationTrace trace) {
+    super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+    this.session = session;
+    this.connection = connection;
+    this.statement = statement;
+    this.resultSet = resultSet;
+    this.rowMapper = rowMapper;
+    this.trace = trace;
+    this.ownsConnection = ownsConnection;
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super T> action) {
+    if (closed) {
+      return false;
+    }
+    T entity;
+    long start = System.nanoTime();
+    try {
+      if (!resultSet.next()) {
+        trace.mapped(start, 0);
+        close();
+        return false;
+      }
+      entity = rowMapper.map(resultSet);
+      trace.mapped(start, 1);
+    } catch (Exception e) {
+      close(e);
+      throw new ShadeException(e.getMessage(), e);
+    }
+    action.accept(entity);
+    return true;
+  }
+
+  void close() {
+    close(null);
+  }
+
+  /**
+   * Returns the connection of the rows while they are open, so the consuming thread can run related queries
+   * on it instead of borrowing another one, or null once they are closed and the connection is released.
+   */
+  synchronized PooledConnection openConnection() {
+    return closed ? null : connection;
+  }
+
+  /**
+   * Closes the statement, releases an owned connection and ends the trace of the operation,
+   * which thereby covers the mapping of all rows read.
+   */
+  private synchronized void close(Exception failure) {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      statement.close();
+    } catch (SQLException ignored) {
+    }
+    if (ownsConnection) {
+      if (failure != null) {
+        session.releaseAfterFailure(connection);
+      } else {
+        session.release(connection);
+      }
+    }
+    trace.end(failure);
+  }
+}
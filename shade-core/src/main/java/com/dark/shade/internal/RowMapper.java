@@ -0,0 +1,51 @@
+package com.dark.shade.internal;
+
+import com.dark.shade.internal.jdbc.ColumnReader;
+
+import java.lang.reflect.InvocationTargetException;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Row mapper.
+ * Resolves the column readers of a result set by index once, from its {@link ResultSetMetaData},
+ * so mapping a row performs no label lookups.
+ */
+final class RowMapper<T> {
+
+  private final EntityMetadata metadata;
+  private final Class<T> entityClass;
+  private final int[] indexes;
+  private final ColumnReader[] readers;
+
+  RowMapper(EntityMetadata metadata, Class<T> entityClass, ResultSetMetaData resultSetMetaData)
+      throws SQLException {
+    this.metadata = metadata;
+    this.entityClass = entityClass;
+    List<Integer> indexList = new ArrayList<>();
+    List<ColumnReader> readerList = new ArrayList<>();
+    for (int index = 1; index <= resultSetMetaData.getColumnCount(); index++) {
+      ColumnMetadata column = metadata.findColumn(resultSetMetaData.getColumnLabel(index));
+      if (column != null) {
+        indexList.add(index);
+        readerList.add(column.getReader());
+      }
+    }
+    indexes = new int[indexList.size()];
+    for (int i = 0; i < indexes.length; i++) {
+      indexes[i] = indexList.get(i);
+    }
+    readers = readerList.toArray(new ColumnReader[readerList.size()]);
+  }
+
+  T map(ResultSet resultSet) throws SQLException, IllegalAccessException, InvocationTargetException {
+    T entity = entityClass.cast(metadata.newInstance());
+    for (int i = 0; i < readers.length; i++) {
+      readers[i].read(resultSet, indexes[i], entity);
+    }
+    return entity;
+  }
+}
@@ -0,0 +1,123 @@
+package com.dark.shade.internal;
+
+import com.dark.shade.config.ReadReplica;
+import com.dark.shade.config.ReplicaRouting;
+import com.dark.shade.config.SessionSettings;
+import com.dark.shade.dialect.Dialect;
+import com.dark.shade.internal.pool.ConnectionPool;
+import com.dark.shade.internal.pool.PooledConnection;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Session.
+ * Hands out pooled connections; every {@link EntityManager} operation borrows one for its duration.
+ * Reads borrow from the read replica pools when there are any, falling back to the primary
+ * when no replica connection can be borrowed.
+ */
+public final class Session {
+
+  private static final Logger LOGGER = Logger.getLogger(Session.class.getName());
+
+  private final ConnectionPool pool;
+  private final ConnectionPool[] replicas;
+  private final ReplicaRouting replicaRouting;
+  private final AtomicInteger nextReplica = new AtomicInteger();
+  private final Dialect dialect;
+
+  Session(String url, String user, String pass, SessionSettings settings) throws SQLException {
+    pool = new ConnectionPool(url, user, pass, settings);
+    replicas = new ConnectionPool[settings.getReadReplicas().size()];
+    try {
+      for (int i = 0; i < replicas.length; i++) {
+        ReadReplica replica = settings.getReadReplicas().get(i);
+        replicas[i] = new ConnectionPool(replica.getUrl(),
+            replica.getUser() == null ? user : replica.getUser(),
+            replica.getUser() == null ? pass : replica.getPass(), settings, true);
+      }
+    } catch (SQLException e) {
+      close();
+      throw e;
+    }
+    replicaRouting = settings.getReplicaRouting();
+    dialect = settings.getDialect() != null ? settings.getDialect() : Dialect.forUrl(url);
+  }
+
+  Dialect getDialect() {
+    return dialect;
+  }
+
+  boolean hasReplicas() {
+    return replicas.length > 0;
+  }
+
+  PooledConnection acquire() throws SQLException {
+    return pool.borrow();
+  }
+
+  /**
+   * Borrows a read-only replica connection, or a primary one when there are no replicas.
+   */
+  PooledConnection acquireRead() throws SQLException {
+    if (replicas.length == 0) {
+      return pool.borrow();
+    }
+    ConnectionPool replica = chooseReplica();
+    try {
+      return replica.borrow();
+    } catch (SQLException e) {
+      LOGGER.log(Level.WARNING, String.format("Cannot borrow a connection of read replica %s, reading from primary",
+          replica.getUrl()), e);
+      return pool.borrow();
+    }
+  }
+
+  void release(PooledConnection connection) {
+    connection.getPool().release(connection);
+  }
+
+  /**
+   * Rolls back the work of a failed operation and returns the connection to the pool,
+   * closing it instead when the rollback itself fails.
+   */
+  void releaseAfterFailure(PooledConnection connection) {
+    try {
+      connection.rollback();
+    } catch (SQLException e) {
+      connection.getPool().invalidate(connection);
+      return;
+    }
+    connection.getPool().release(connection);
+  }
+
+  boolean isClosed() {
+    return pool.isClosed();
+  }
+
+  void close() {
+    pool.close();
+    for (ConnectionPool replica : replicas) {
+      if (replica != null) {
+        replica.close();
+      }
+    }
+  }
+
+  private ConnectionPool chooseReplica() {
+    if (replicaRouting == ReplicaRouting.ROUND_ROBIN) {
+      return replicas[(nextReplica.getAndIncrement() & Integer.MAX_VALUE) % replicas.length];
+    }
+    int start = (nextReplica.getAndIncrement() & Integer.MAX_VALUE) % replicas.length;
+    ConnectionPool chosen = replicas[start];
+    for (int i = 1; i < replicas.length; i++) {
+      ConnectionPool replica = replicas[(start + i) % replicas.length];
+      if (replica.getBorrowed() < chosen.getBorrowed()) {
+        chosen = replica;
+      }
+    }
+    return chosen;
+  }
+}
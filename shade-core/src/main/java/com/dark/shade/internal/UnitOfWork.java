@@ -0,0 +1,287 @@
+package com.dark.shade.internal;
+
+import com.dark.shade.exception.ShadeException;
+import com.dark.shade.internal.pool.PooledConnection;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Unit of work.
+ * Holds the connection of a transaction, its first-level identity map keyed by entity type and id,
+ * and the writes queued until the next flush. New entities queued for insert are kept by identity, so saving one
+ * again before the flush does not insert it twice, and the ids and versions of saved entities are recorded
+ * as they were before the transaction, to be restored on rollback.
+ */
+public final class UnitOfWork {
+
+  private final Session session;
+  private final PooledConnection connection;
+  private final Map<EntityKey, Object> identityMap = new HashMap<>();
+  private final List<PendingWrite> pendingWrites = new ArrayList<>();
+  private final Set<Object> pendingInserts = Collections.newSetFromMap(new IdentityHashMap<>());
+  private final Set<Object> pendingUpdates = Collections.newSetFromMap(new IdentityHashMap<>());
+  private final List<CacheEviction> cacheEvictions = new ArrayList<>();
+  private final List<Object> tracked = new ArrayList<>();
+  private final Map<Object, SavedState> savedStates = new IdentityHashMap<>();
+  private boolean active = true;
+
+  UnitOfWork(Session session, PooledConnection connection) {
+    this.session = session;
+    this.connection = connection;
+  }
+
+  public boolean isActive() {
+    return active;
+  }
+
+  Session getSession() {
+    return session;
+  }
+
+  PooledConnection getConnection() {
+    return connection;
+  }
+
+  void deactivate() {
+    active = false;
+    identityMap.clear();
+    pendingWrites.clear();
+    pendingInserts.clear();
+    pendingUpdates.clear();
+    cacheEvictions.clear();
+    tracked.clear();
+    savedStates.clear();
+  }
+
+  Object getManaged(EntityMetadata metadata, Object id) {
+    return identityMap.get(new EntityKey(metadata.getEntityClass(), id));
+  }
+
+  boolean isManaged(EntityMetadata metadata, Object id) {
+    return identityMap.containsKey(new EntityKey(metadata.getEntityClass(), id));
+  }
+
+  /**
+   * Returns the managed instance with the given id, registering the given entity when there is none.
+   */
+  Object manage(EntityMetadata metadata, Object id, Object entity) {
+    EntityKey key = new EntityKey(metadata.getEntityClass(), id);
+    Object managed = identityMap.get(key);
+    if (managed != null) {
+      return managed;
+    }
+    identityMap.put(key, entity);
+    return entity;
+  }
+
+  void evict(EntityMetadata metadata, Object id) {
+    identityMap.remove(new EntityKey(metadata.getEntityClass(), id));
+  }
+
+  void evictAll(EntityMetadata metadata) {
+    Iterator<EntityKey> keys = identityMap.keySet().iterator();
+    while (keys.hasNext()) {
+      if (keys.next().type == metadata.getEntityClass()) {
+        keys.remove();
+      }
+    }
+  }
+
+  /**
+   * Records a second-level cache eviction applied once the transaction commits; a null id clears the cache.
+   */
+  void evictOnCommit(EntityMetadata metadata, Object id) {
+    if (metadata.getCache() != null) {
+      cacheEvictions.add(new CacheEviction(metadata, id));
+    }
+  }
+
+  void applyCacheEvictions() {
+    for (CacheEviction eviction : cacheEvictions) {
+      if (eviction.id == null) {
+        eviction.metadata.getCache().clear();
+      } else {
+        eviction.metadata.getCache().evict(eviction.id);
+      }
+    }
+    cacheEvictions.clear();
+  }
+
+  /**
+   * Queues the insert of a new entity, unless it is already queued, and returns whether it was queued.
+   */
+  boolean scheduleInsert(EntityMetadata metadata, Object entity) {
+    if (!pendingInserts.add(entity)) {
+      return false;
+    }
+    pendingWrites.add(new PendingWrite(PendingWrite.Kind.INSERT, metadata, entity));
+    return true;
+  }
+
+  boolean isPendingInsert(Object entity) {
+    return pendingInserts.contains(entity);
+  }
+
+  /**
+   * Queues the update of an entity unless one is queued already, which writes its state at flush time.
+   * A second update would expect the version the first one already incremented.
+   */
+  boolean scheduleUpdate(EntityMetadata metadata, Object entity) {
+    if (!pendingUpdates.add(entity)) {
+      return false;
+    }
+    pendingWrites.add(new PendingWrite(PendingWrite.Kind.UPDATE, metadata, entity));
+    return true;
+  }
+
+  /**
+   * Records the id and version of an entity about to be written, the first time it is written in the unit.
+   */
+  void recordSaved(EntityMetadata metadata, Object entity) {
+    if (savedStates.containsKey(entity)) {
+      return;
+    }
+    try {
+      ColumnMetadata version = metadata.getVersionColumn();
+      savedStates.put(entity, new SavedState(metadata, metadata.getIdAccessor().get(entity),
+          version == null ? null : version.getAccessor().get(entity)));
+    } catch (IllegalAccessException | InvocationTargetException e) {
+      throw new ShadeException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Restores the ids and versions which saved entities had before the unit wrote them.
+   */
+  void restoreSaved() {
+    try {
+      for (Map.Entry<Object, SavedState> saved : savedStates.entrySet()) {
+        SavedState state = saved.getValue();
+        state.metadata.getIdAccessor().set(saved.getKey(), state.id);
+        ColumnMetadata version = state.metadata.getVersionColumn();
+        if (version != null) {
+          version.getAccessor().set(saved.getKey(), state.version);
+        }
+      }
+    } catch (IllegalAccessException | InvocationTargetException e) {
+      throw new ShadeException(e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Records entities whose dirty tracking snapshots were taken at flush, to be dropped on rollback.
+   */
+  void recordTracked(List<Object> entities) {
+    tracked.addAll(entities);
+  }
+
+  List<Object> getTracked() {
+    return tracked;
+  }
+
+  void schedule(PendingWrite write) {
+    pendingWrites.add(write);
+  }
+
+  boolean hasPendingWrites() {
+    return !pendingWrites.isEmpty();
+  }
+
+  List<PendingWrite> drainPendingWrites() {
+    List<PendingWrite> writes = new ArrayList<>(pendingWrites);
+    pendingWrites.clear();
+    pendingInserts.clear();
+    pendingUpdates.clear();
+    return writes;
+  }
+
+  /**
+   * Write queued until flush.
+   */
+  static final class PendingWrite {
+
+    enum Kind {
+      INSERT, UPDATE, UPSERT, DELETE
+    }
+
+    final Kind kind;
+    final EntityMetadata metadata;
+    final Object value;
+
+    PendingWrite(Kind kind, EntityMetadata metadata, Object value) {
+      this.kind = kind;
+      this.metadata = metadata;
+      this.value = value;
+    }
+
+    boolean sameBatch(PendingWrite other) {
+      return kind == other.kind && metadata == other.metadata;
+    }
+  }
+
+  /**
+   * Second-level cache eviction applied on commit; a null id clears the cache.
+   */
+  private static final class CacheEviction {
+
+    private final EntityMetadata metadata;
+    private final Object id;
+
+    private CacheEviction(EntityMetadata metadata, Object id) {
+      this.metadata = metadata;
+      this.id = id;
+    }
+  }
+
+  /**
+   * Id and version of an entity before the unit wrote it.
+   */
+  private static final class SavedState {
+
+    private final EntityMetadata metadata;
+    private final Object id;
+    private final Object version;
+
+    private SavedState(EntityMetadata metadata, Object id, Object version) {
+      this.metadata = metadata;
+      this.id = id;
+      this.version = version;
+    }
+  }
+
+  private static final class EntityKey {
+
+    private final Class<?> type;
+    private final Object id;
+
+    private EntityKey(Class<?> type, Object id) {
+      this.type = type;
+      this.id = id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof EntityKey)) {
+        return false;
+      }
+      EntityKey other = (EntityKey) o;
+      return type == other.type && id.equals(other.id);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * type.hashCode() + id.hashCode();
+    }
+  }
+}
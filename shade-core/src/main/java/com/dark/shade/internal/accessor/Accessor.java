@@ -0,0 +1,47 @@
+package com.dark.shade.internal.accessor;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Accessor.
+ */
+public interface Accessor {
+
+  Class<?> getType();
+
+  Object get(Object entity) throws IllegalAccessException, InvocationTargetException;
+
+  void set(Object entity, Object value) throws IllegalAccessException, InvocationTargetException;
+
+  default int getInt(Object entity) throws IllegalAccessException, InvocationTargetException {
+    return (Integer) get(entity);
+  }
+
+  default void setInt(Object entity, int value) throws IllegalAccessException, InvocationTargetException {
+    set(entity, value);
+  }
+
+  default long getLong(Object entity) throws IllegalAccessException, InvocationTargetException {
+    return (Long) get(entity);
+  }
+
+  default void setLong(Object entity, long value) throws IllegalAccessException, InvocationTargetException {
+    set(entity, value);
+  }
+
+  default double getDouble(Object entity) throws IllegalAccessException, InvocationTargetException {
+    return (Double) get(entity);
+  }
+
+  default void setDouble(Object entity, double value) throws IllegalAccessException, InvocationTargetException {
+    set(entity, value);
+  }
+
+  default boolean getBoolean(Object entity) throws IllegalAccessException, InvocationTargetException {
+    return (Boolean) get(entity);
+  }
+
+  default void setBoolean(Object entity, boolean value) throws IllegalAccessException, InvocationTargetException {
+    set(entity, value);
+  }
+}
@@ -0,0 +1,68 @@
+package com.dark.shade.internal.accessor;
+
+import com.dark.shade.internal.accessor.handle.BooleanHandleAccessor;
+import com.dark.shade.internal.accessor.handle.DoubleHandleAccessor;
+import com.dark.shade.internal.accessor.handle.IntHandleAccessor;
+import com.dark.shade.internal.accessor.handle.LongHandleAccessor;
+import com.dark.shade.internal.accessor.handle.ObjectHandleAccessor;
+import com.dark.shade.internal.accessor.mapper.MapperAccessor;
+import com.dark.shade.internal.accessor.member.FieldAccessor;
+import com.dark.shade.internal.accessor.member.MethodAccessor;
+import com.dark.shade.mapper.MemberAccessor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Accessor factory.
+ * Builds {@link MethodHandle} based accessors, specialized for int, long, double and boolean members,
+ * and falls back to reflective accessors when the member cannot be unreflected.
+ */
+public final class AccessorFactory {
+
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  private AccessorFactory() {
+  }
+
+  public static Accessor forField(Field field) {
+    try {
+      field.setAccessible(true);
+      return create(field.getType(), LOOKUP.unreflectGetter(field), LOOKUP.unreflectSetter(field));
+    } catch (IllegalAccessException e) {
+      return new FieldAccessor(field);
+    }
+  }
+
+  public static Accessor forMethods(Method getter, Method setter) {
+    try {
+      getter.setAccessible(true);
+      setter.setAccessible(true);
+      return create(getter.getReturnType(), LOOKUP.unreflect(getter), LOOKUP.unreflect(setter));
+    } catch (IllegalAccessException e) {
+      return new MethodAccessor(getter, setter);
+    }
+  }
+
+  public static Accessor forMapper(MemberAccessor accessor) {
+    return new MapperAccessor(accessor);
+  }
+
+  private static Accessor create(Class<?> type, MethodHandle getter, MethodHandle setter) {
+    if (type == int.class) {
+      return new IntHandleAccessor(getter, setter);
+    }
+    if (type == long.class) {
+      return new LongHandleAccessor(getter, setter);
+    }
+    if (type == double.class) {
+      return new DoubleHandleAccessor(getter, setter);
+    }
+    if (type == boolean.class) {
+      return new BooleanHandleAccessor(getter, setter);
+    }
+    return new ObjectHandleAccessor(type, getter, setter);
+  }
+}
@@ -0,0 +1,47 @@
+package com.dark.shade.internal.accessor.handle;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Method handle accessor for boolean members.
+ */
+public final class BooleanHandleAccessor extends HandleAccessor {
+
+  private final MethodHandle getter;
+  private final MethodHandle setter;
+
+  public BooleanHandleAccessor(MethodHandle getter, MethodHandle setter) {
+    super(boolean.class);
+    this.getter = adaptGetter(getter, boolean.class);
+    this.setter = adaptSetter(setter, boolean.class);
+  }
+
+  @Override
+  public Object get(Object entity) throws InvocationTargetException {
+    return getBoolean(entity);
+  }
+
+  @Override
+  public void set(Object entity, Object value) throws InvocationTargetException {
+    setBoolean(entity, (Boolean) value);
+  }
+
+  @Override
+  public boolean getBoolean(Object entity) throws InvocationTargetException {
+    try {
+      return (boolean) getter.invokeExact(entity);
+    } catch (Throwable e) {
+      throw wrap(e);
+    }
+  }
+
+  @Override
+  public void setBoolean(Object entity, boolean value) throws InvocationTargetException {
+    try {
+      setter.invokeExact(entity, value);
+    } catch (Throwable e) {
+      throw wrap(e);
+    }
+  }
+}
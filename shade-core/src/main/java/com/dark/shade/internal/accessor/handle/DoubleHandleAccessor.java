@@ -0,0 +1,47 @@
+package com.dark.shade.internal.accessor.handle;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Method handle accessor for double members.
+ */
+public final class DoubleHandleAccessor extends HandleAccessor {
+
+  private final MethodHandle getter;
+  private final MethodHandle setter;
+
+  public DoubleHandleAccessor(MethodHandle getter, MethodHandle setter) {
+    super(double.class);
+    this.getter = adaptGetter(getter, double.class);
+    this.setter = adaptSetter(setter, double.class);
+  }
+
+  @Override
+  public Object get(Object entity) throws InvocationTargetException {
+    return getDouble(entity);
+  }
+
+  @Override
+  public void set(Object entity, Object value) throws InvocationTargetException {
+    setDouble(entity, (Double) value);
+  }
+
+  @Override
+  public double getDouble(Object entity) throws InvocationTargetException {
+    try {
+      return (double) getter.invokeExact(entity);
+    } catch (Throwable e) {
+      throw wrap(e);
+    }
+  }
+
+  @Override
+  public void setDouble(Object entity, double value) throws InvocationTargetException {
+    try {
+      setter.invokeExact(entity, value);
+    } catch (Throwable e) {
+      throw wrap(e);
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package com.dark.shade.internal.accessor.handle;
+
+import com.dark.shade.internal.accessor.Accessor;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Base method handle accessor.
+ * Handles are adapted to exact erased signatures once, so invocations go through {@code invokeExact}.
+ */
+abstract class HandleAccessor implements Accessor {
+
+  private final Class<?> type;
+
+  HandleAccessor(Class<?> type) {
+    this.type = type;
+  }
+
+  @Override
+  public Class<?> getType() {
+    return type;
+  }
+
+  static MethodHandle adaptGetter(MethodHandle getter, Class<?> valueType) {
+    return getter.asType(MethodType.methodType(valueType, Object.class));
+  }
+
+  static MethodHandle adaptSetter(MethodHandle setter, Class<?> valueType) {
+    return setter.asType(MethodType.methodType(void.class, Object.class, valueType));
+  }
+
+  static InvocationTargetException wrap(Throwable e) {
+    if (e instanceof Error) {
+      throw (Error) e;
+    }
+    return new InvocationTargetException(e);
+  }
+}
@@ -0,0 +1,47 @@
+package com.dark.shade.internal.accessor.handle;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Method handle accessor for int members.
+ */
+public final class IntHandleAccessor extends HandleAccessor {
+
+  private final MethodHandle getter;
+  private final MethodHandle setter;
+
+  public IntHandleAccessor(MethodHandle getter, MethodHandle setter) {
+    super(int.class);
+    this.getter = adaptGetter(getter, int.class);
+    this.setter = adaptSetter(setter, int.class);
+  }
+
+  @Override
+  public Object get(Object entity) throws InvocationTargetException {
+    return getInt(entity);
+  }
+
+  @Override
+  public void set(Object entity, Object value) throws InvocationTargetException {
+    setInt(entity, (Integer) value);
+  }
+
+  @Override
+  public int getInt(Object entity) throws InvocationTargetException {
+    try {
+      return (int) getter.invokeExact(entity);
+    } catch (Throwable e) {
+      throw wrap(e);
+    }
+  }
+
+  @Override
+  public void setInt(Object entity, int value) throws InvocationTargetException {
+    try {
+      setter.invokeExact(entity, value);
+    } catch (Throwable e) {
+      throw wrap(e);
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package com.dark.shade.internal.accessor.handle;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Method handle accessor for long members.
+ */
+public final class LongHandleAccessor extends HandleAccessor {
+
+  private final MethodHandle getter;
+  private final MethodHandle setter;
+
+  public LongHandleAccessor(MethodHandle getter, MethodHandle setter) {
+    super(long.class);
+    this.getter = adaptGetter(getter, long.class);
+    this.setter = adaptSetter(setter, long.class);
+  }
+
+  @Override
+  public Object get(Object entity) throws InvocationTargetException {
+    return getLong(entity);
+  }
+
+  @Override
+  public void set(Object entity, Object value) throws InvocationTargetException {
+    setLong(entity, (Long) value);
+  }
+
+  @Override
+  public long getLong(Object entity) throws InvocationTargetException {
+    try {
+      return (long) getter.invokeExact(entity);
+    } catch (Throwable e) {
+      throw wrap(e);
+    }
+  }
+
+  @Override
+  public void setLong(Object entity, long value) throws InvocationTargetException {
+    try {
+      setter.invokeExact(entity, value);
+    } catch (Throwable e) {
+      throw wrap(e);
+    }
+  }
+}
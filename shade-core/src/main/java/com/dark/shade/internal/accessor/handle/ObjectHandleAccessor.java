@@ -0,0 +1,37 @@
+package com.dark.shade.internal.accessor.handle;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Method handle accessor for reference members and the remaining primitive types.
+ */
+public final class ObjectHandleAccessor extends HandleAccessor {
+
+  private final MethodHandle getter;
+  private final MethodHandle setter;
+
+  public ObjectHandleAccessor(Class<?> type, MethodHandle getter, MethodHandle setter) {
+    super(type);
+    this.getter = adaptGetter(getter, Object.class);
+    this.setter = adaptSetter(setter, Object.class);
+  }
+
+  @Override
+  public Object get(Object entity) throws InvocationTargetException {
+    try {
+      return getter.invokeExact(entity);
+    } catch (Throwable e) {
+      throw wrap(e);
+    }
+  }
+
+  @Override
+  public void set(Object entity, Object value) throws InvocationTargetException {
+    try {
+      setter.invokeExact(entity, value);
+    } catch (Throwable e) {
+      throw wrap(e);
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package com.dark.shade.internal.accessor.mapper;
+
+import com.dark.shade.internal.accessor.Accessor;
+import com.dark.shade.mapper.MemberAccessor;
+
+/**
+ * Accessor backed by a member accessor of a generated entity mapper.
+ */
+public final class MapperAccessor implements Accessor {
+
+  private final MemberAccessor accessor;
+
+  public MapperAccessor(MemberAccessor accessor) {
+    this.accessor = accessor;
+  }
+
+  @Override
+  public Class<?> getType() {
+    return accessor.getType();
+  }
+
+  @Override
+  public Object get(Object entity) {
+    return accessor.get(entity);
+  }
+
+  @Override
+  public void set(Object entity, Object value) {
+    accessor.set(entity, value);
+  }
+
+  @Override
+  public int getInt(Object entity) {
+    return accessor.getInt(entity);
+  }
+
+  @Override
+  public void setInt(Object entity, int value) {
+    accessor.setInt(entity, value);
+  }
+
+  @Override
+  public long getLong(Object entity) {
+    return accessor.getLong(entity);
+  }
+
+  @Override
+  public void setLong(Object entity, long value) {
+    accessor.setLong(entity, value);
+  }
+
+  @Override
+  public double getDouble(Object entity) {
+    return accessor.getDouble(entity);
+  }
+
+  @Override
+  public void setDouble(Object entity, double value) {
+    accessor.setDouble(entity, value);
+  }
+
+  @Override
+  public boolean getBoolean(Object entity) {
+    return accessor.getBoolean(entity);
+  }
+
+  @Override
+  public void setBoolean(Object entity, boolean value) {
+    accessor.setBoolean(entity, value);
+  }
+}
@@ -17,7 +17,7 @@ public final class FieldAccessor implements Accessor {
   }
 
   @Override
-  public Class getType() {
+  public Class<?> getType() {
     return field.getType();
   }
 
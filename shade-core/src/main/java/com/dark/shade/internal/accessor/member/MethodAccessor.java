@@ -21,7 +21,7 @@ public final class MethodAccessor implements Accessor {
   }
 
   @Override
-  public Class getType() {
+  public Class<?> getType() {
     return getter.getReturnType();
   }
 
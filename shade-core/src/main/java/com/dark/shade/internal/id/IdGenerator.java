@@ -0,0 +1,18 @@
+package com.dark.shade.internal.id;
+
+import com.dark.shade.dialect.Dialect;
+import com.dark.shade.internal.pool.PooledConnection;
+
+import java.sql.SQLException;
+
+/**
+ * Id generator.
+ * Assigns ids to new entities before they are inserted. Implementations must be thread-safe.
+ */
+public interface IdGenerator {
+
+  /**
+   * Returns the next id; the connection is used only when the generator has to reserve more ids.
+   */
+  Object next(PooledConnection connection, Dialect dialect) throws SQLException;
+}
@@ -0,0 +1,97 @@
+package com.dark.shade.internal.id;
+
+import com.dark.shade.dialect.Dialect;
+import com.dark.shade.exception.ShadeException;
+import com.dark.shade.internal.pool.PooledConnection;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generator handing out ids from blocks reserved with one sequence call each.
+ * Threads take ids from the current block with a single atomic increment; only the thread which finds
+ * the block exhausted locks to reserve the next one.
+ */
+public final class SequenceIdGenerator implements IdGenerator {
+
+  private final String sequence;
+  private final int allocationSize;
+  private final boolean hilo;
+  private final boolean intIds;
+  private volatile Block block = new Block(0, 0);
+
+  /**
+   * Creates a generator whose sequence values are block numbers when {@code hilo} is set and first ids of blocks
+   * otherwise; ids are Integers when {@code intIds} is set and Longs otherwise.
+   */
+  public SequenceIdGenerator(String sequence, int allocationSize, boolean hilo, boolean intIds) {
+    if (allocationSize < 1) {
+      throw new ShadeException(String.format("Allocation size must be positive: %d", allocationSize));
+    }
+    this.sequence = sequence;
+    this.allocationSize = allocationSize;
+    this.hilo = hilo;
+    this.intIds = intIds;
+  }
+
+  public String getSequence() {
+    return sequence;
+  }
+
+  /**
+   * Returns the increment the sequence must be created with: 1 for block numbers, the allocation size otherwise.
+   */
+  public int getIncrement() {
+    return hilo ? 1 : allocationSize;
+  }
+
+  @Override
+  public Object next(PooledConnection connection, Dialect dialect) throws SQLException {
+    long id = nextId(connection, dialect);
+    if (!intIds) {
+      return id;
+    }
+    if (id > Integer.MAX_VALUE) {
+      throw new ShadeException(String.format("Sequence %s exceeded the int id range: %d", sequence, id));
+    }
+    return (int) id;
+  }
+
+  private long nextId(PooledConnection connection, Dialect dialect) throws SQLException {
+    while (true) {
+      Block current = block;
+      long id = current.next.getAndIncrement();
+      if (id < current.limit) {
+        return id;
+      }
+      synchronized (this) {
+        if (block == current) {
+          long value = nextValue(connection, dialect);
+          long first = hilo ? value * allocationSize : value;
+          block = new Block(first, first + allocationSize);
+        }
+      }
+    }
+  }
+
+  private long nextValue(PooledConnection connection, Dialect dialect) throws SQLException {
+    try (ResultSet resultSet = connection.cachedStatement(dialect.sequenceNextValueSql(sequence)).executeQuery()) {
+      if (!resultSet.next()) {
+        throw new ShadeException(String.format("Sequence %s returned no value", sequence));
+      }
+      return resultSet.getLong(1);
+    }
+  }
+
+  private static final class Block {
+
+    private final AtomicLong next;
+    private final long limit;
+
+    private Block(long first, long limit) {
+      this.next = new AtomicLong(first);
+      this.limit = limit;
+    }
+  }
+}
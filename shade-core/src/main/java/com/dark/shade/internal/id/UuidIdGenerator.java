@@ -0,0 +1,24 @@
+package com.dark.shade.internal.id;
+
+import com.dark.shade.dialect.Dialect;
+import com.dark.shade.internal.pool.PooledConnection;
+
+import java.util.UUID;
+
+/**
+ * Generator of random UUID ids, as strings or {@link UUID} instances.
+ */
+public final class UuidIdGenerator implements IdGenerator {
+
+  private final boolean asString;
+
+  public UuidIdGenerator(boolean asString) {
+    this.asString = asString;
+  }
+
+  @Override
+  public Object next(PooledConnection connection, Dialect dialect) {
+    UUID uuid = UUID.randomUUID();
+    return asString ? uuid.toString() : uuid;
+  }
+}
@@ -0,0 +1,17 @@
+package com.dark.shade.internal.jdbc;
+
+import java.lang.reflect.InvocationTargetException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Column binder.
+ * Binds a column value to a statement parameter with the setter matching the column type.
+ */
+public interface ColumnBinder {
+
+  void bind(PreparedStatement statement, int index, Object entity)
+      throws SQLException, IllegalAccessException, InvocationTargetException;
+
+  void bindValue(PreparedStatement statement, int index, Object value) throws SQLException;
+}
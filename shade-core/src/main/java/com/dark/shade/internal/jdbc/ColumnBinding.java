@@ -0,0 +1,156 @@
+package com.dark.shade.internal.jdbc;
+
+import com.dark.shade.internal.accessor.Accessor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Column binding.
+ * Resolved once per mapped member from the accessor type; int, long, double and boolean members
+ * are bound and read through the primitive accessor methods without boxing.
+ */
+public abstract class ColumnBinding implements ColumnBinder, ColumnReader {
+
+  final Accessor accessor;
+  final JdbcType type;
+
+  private ColumnBinding(Accessor accessor) {
+    this.accessor = accessor;
+    this.type = JdbcType.forClass(accessor.getType());
+  }
+
+  public static ColumnBinding forAccessor(Accessor accessor) {
+    Class<?> type = accessor.getType();
+    if (type == int.class) {
+      return new IntBinding(accessor);
+    }
+    if (type == long.class) {
+      return new LongBinding(accessor);
+    }
+    if (type == double.class) {
+      return new DoubleBinding(accessor);
+    }
+    if (type == boolean.class) {
+      return new BooleanBinding(accessor);
+    }
+    return new ObjectBinding(accessor);
+  }
+
+  public JdbcType getType() {
+    return type;
+  }
+
+  @Override
+  public void bindValue(PreparedStatement statement, int index, Object value) throws SQLException {
+    type.bind(statement, index, value);
+  }
+
+  @Override
+  public Object readValue(ResultSet resultSet, int index) throws SQLException {
+    return type.read(resultSet, index);
+  }
+
+  private static final class IntBinding extends ColumnBinding {
+
+    private IntBinding(Accessor accessor) {
+      super(accessor);
+    }
+
+    @Override
+    public void bind(PreparedStatement statement, int index, Object entity)
+        throws SQLException, IllegalAccessException, InvocationTargetException {
+      statement.setInt(index, accessor.getInt(entity));
+    }
+
+    @Override
+    public void read(ResultSet resultSet, int index, Object entity)
+        throws SQLException, IllegalAccessException, InvocationTargetException {
+      accessor.setInt(entity, resultSet.getInt(index));
+    }
+  }
+
+  private static final class LongBinding extends ColumnBinding {
+
+    private LongBinding(Accessor accessor) {
+      super(accessor);
+    }
+
+    @Override
+    public void bind(PreparedStatement statement, int index, Object entity)
+        throws SQLException, IllegalAccessException, InvocationTargetException {
+      statement.setLong(index, accessor.getLong(entity));
+    }
+
+    @Override
+    public void read(ResultSet resultSet, int index, Object entity)
+        throws SQLException, IllegalAccessException, InvocationTargetException {
+      accessor.setLong(entity, resultSet.getLong(index));
+    }
+  }
+
+  private static final class DoubleBinding extends ColumnBinding {
+
+    private DoubleBinding(Accessor accessor) {
+      super(accessor);
+    }
+
+    @Override
+    public void bind(PreparedStatement statement, int index, Object entity)
+        throws SQLException, IllegalAccessException, InvocationTargetException {
+      statement.setDouble(index, accessor.getDouble(entity));
+    }
+
+    @Override
+    public void read(ResultSet resultSet, int index, Object entity)
+        throws SQLException, IllegalAccessException, InvocationTargetException {
+      accessor.setDouble(entity, resultSet.getDouble(index));
+    }
+  }
+
+  private static final class BooleanBinding extends ColumnBinding {
+
+    private BooleanBinding(Accessor accessor) {
+      super(accessor);
+    }
+
+    @Override
+    public void bind(PreparedStatement statement, int index, Object entity)
+        throws SQLException, IllegalAccessException, InvocationTargetException {
+      statement.setBoolean(index, accessor.getBoolean(entity));
+    }
+
+    @Override
+    public void read(ResultSet resultSet, int index, Object entity)
+        throws SQLException, IllegalAccessException, InvocationTargetException {
+      accessor.setBoolean(entity, resultSet.getBoolean(index));
+    }
+  }
+
+  private static final class ObjectBinding extends ColumnBinding {
+
+    private final boolean primitive;
+
+    private ObjectBinding(Accessor accessor) {
+      super(accessor);
+      primitive = accessor.getType().isPrimitive();
+    }
+
+    @Override
+    public void bind(PreparedStatement statement, int index, Object entity)
+        throws SQLException, IllegalAccessException, InvocationTargetException {
+      type.bind(statement, index, accessor.get(entity));
+    }
+
+    @Override
+    public void read(ResultSet resultSet, int index, Object entity)
+        throws SQLException, IllegalAccessException, InvocationTargetException {
+      Object value = type.read(resultSet, index);
+      if (value != null || !primitive) {
+        accessor.set(entity, value);
+      }
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package com.dark.shade.internal.jdbc;
+
+import java.lang.reflect.InvocationTargetException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Column reader.
+ * Reads a result set column with the getter matching the column type.
+ */
+public interface ColumnReader {
+
+  void read(ResultSet resultSet, int index, Object entity)
+      throws SQLException, IllegalAccessException, InvocationTargetException;
+
+  Object readValue(ResultSet resultSet, int index) throws SQLException;
+}
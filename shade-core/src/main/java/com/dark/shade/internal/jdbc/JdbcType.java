@@ -0,0 +1,238 @@
+package com.dark.shade.internal.jdbc;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JDBC type of a mapped java type.
+ */
+public enum JdbcType {
+
+  INTEGER(Types.INTEGER) {
+    @Override
+    void set(PreparedStatement statement, int index, Object value) throws SQLException {
+      statement.setInt(index, ((Number) value).intValue());
+    }
+
+    @Override
+    Object get(ResultSet resultSet, int index) throws SQLException {
+      int value = resultSet.getInt(index);
+      return resultSet.wasNull() ? null : value;
+    }
+  },
+  BIGINT(Types.BIGINT) {
+    @Override
+    void set(PreparedStatement statement, int index, Object value) throws SQLException {
+      statement.setLong(index, ((Number) value).longValue());
+    }
+
+    @Override
+    Object get(ResultSet resultSet, int index) throws SQLException {
+      long value = resultSet.getLong(index);
+      return resultSet.wasNull() ? null : value;
+    }
+  },
+  SMALLINT(Types.SMALLINT) {
+    @Override
+    void set(PreparedStatement statement, int index, Object value) throws SQLException {
+      statement.setShort(index, ((Number) value).shortValue());
+    }
+
+    @Override
+    Object get(ResultSet resultSet, int index) throws SQLException {
+      short value = resultSet.getShort(index);
+      return resultSet.wasNull() ? null : value;
+    }
+  },
+  TINYINT(Types.TINYINT) {
+    @Override
+    void set(PreparedStatement statement, int index, Object value) throws SQLException {
+      statement.setByte(index, ((Number) value).byteValue());
+    }
+
+    @Override
+    Object get(ResultSet resultSet, int index) throws SQLException {
+      byte value = resultSet.getByte(index);
+      return resultSet.wasNull() ? null : value;
+    }
+  },
+  DOUBLE(Types.DOUBLE) {
+    @Override
+    void set(PreparedStatement statement, int index, Object value) throws SQLException {
+      statement.setDouble(index, ((Number) value).doubleValue());
+    }
+
+    @Override
+    Object get(ResultSet resultSet, int index) throws SQLException {
+      double value = resultSet.getDouble(index);
+      return resultSet.wasNull() ? null : value;
+    }
+  },
+  REAL(Types.REAL) {
+    @Override
+    void set(PreparedStatement statement, int index, Object value) throws SQLException {
+      statement.setFloat(index, ((Number) value).floatValue());
+    }
+
+    @Override
+    Object get(ResultSet resultSet, int index) throws SQLException {
+      float value = resultSet.getFloat(index);
+      return resultSet.wasNull() ? null : value;
+    }
+  },
+  BOOLEAN(Types.BOOLEAN) {
+    @Override
+    void set(PreparedStatement statement, int index, Object value) throws SQLException {
+      statement.setBoolean(index, (Boolean) value);
+    }
+
+    @Override
+    Object get(ResultSet resultSet, int index) throws SQLException {
+      boolean value = resultSet.getBoolean(index);
+      return resultSet.wasNull() ? null : value;
+    }
+  },
+  VARCHAR(Types.VARCHAR) {
+    @Override
+    void set(PreparedStatement statement, int index, Object value) throws SQLException {
+      statement.setString(index, value.toString());
+    }
+
+    @Override
+    Object get(ResultSet resultSet, int index) throws SQLException {
+      return resultSet.getString(index);
+    }
+  },
+  DECIMAL(Types.DECIMAL) {
+    @Override
+    void set(PreparedStatement statement, int index, Object value) throws SQLException {
+      statement.setBigDecimal(index, (BigDecimal) value);
+    }
+
+    @Override
+    Object get(ResultSet resultSet, int index) throws SQLException {
+      return resultSet.getBigDecimal(index);
+    }
+  },
+  VARBINARY(Types.VARBINARY) {
+    @Override
+    void set(PreparedStatement statement, int index, Object value) throws SQLException {
+      statement.setBytes(index, (byte[]) value);
+    }
+
+    @Override
+    Object get(ResultSet resultSet, int index) throws SQLException {
+      return resultSet.getBytes(index);
+    }
+  },
+  DATE(Types.DATE) {
+    @Override
+    void set(PreparedStatement statement, int index, Object value) throws SQLException {
+      statement.setDate(index, (Date) value);
+    }
+
+    @Override
+    Object get(ResultSet resultSet, int index) throws SQLException {
+      return resultSet.getDate(index);
+    }
+  },
+  TIME(Types.TIME) {
+    @Override
+    void set(PreparedStatement statement, int index, Object value) throws SQLException {
+      statement.setTime(index, (Time) value);
+    }
+
+    @Override
+    Object get(ResultSet resultSet, int index) throws SQLException {
+      return resultSet.getTime(index);
+    }
+  },
+  TIMESTAMP(Types.TIMESTAMP) {
+    @Override
+    void set(PreparedStatement statement, int index, Object value) throws SQLException {
+      statement.setTimestamp(index, value instanceof Timestamp
+          ? (Timestamp) value : new Timestamp(((java.util.Date) value).getTime()));
+    }
+
+    @Override
+    Object get(ResultSet resultSet, int index) throws SQLException {
+      return resultSet.getTimestamp(index);
+    }
+  },
+  OTHER(Types.NULL) {
+    @Override
+    void set(PreparedStatement statement, int index, Object value) throws SQLException {
+      statement.setObject(index, value);
+    }
+
+    @Override
+    Object get(ResultSet resultSet, int index) throws SQLException {
+      return resultSet.getObject(index);
+    }
+  };
+
+  private static final Map<Class<?>, JdbcType> TYPES = new HashMap<>();
+
+  static {
+    TYPES.put(int.class, INTEGER);
+    TYPES.put(Integer.class, INTEGER);
+    TYPES.put(long.class, BIGINT);
+    TYPES.put(Long.class, BIGINT);
+    TYPES.put(short.class, SMALLINT);
+    TYPES.put(Short.class, SMALLINT);
+    TYPES.put(byte.class, TINYINT);
+    TYPES.put(Byte.class, TINYINT);
+    TYPES.put(double.class, DOUBLE);
+    TYPES.put(Double.class, DOUBLE);
+    TYPES.put(float.class, REAL);
+    TYPES.put(Float.class, REAL);
+    TYPES.put(boolean.class, BOOLEAN);
+    TYPES.put(Boolean.class, BOOLEAN);
+    TYPES.put(String.class, VARCHAR);
+    TYPES.put(BigDecimal.class, DECIMAL);
+    TYPES.put(byte[].class, VARBINARY);
+    TYPES.put(Date.class, DATE);
+    TYPES.put(Time.class, TIME);
+    TYPES.put(Timestamp.class, TIMESTAMP);
+    TYPES.put(java.util.Date.class, TIMESTAMP);
+  }
+
+  private final int sqlType;
+
+  JdbcType(int sqlType) {
+    this.sqlType = sqlType;
+  }
+
+  public static JdbcType forClass(Class<?> type) {
+    JdbcType jdbcType = TYPES.get(type);
+    return jdbcType != null ? jdbcType : OTHER;
+  }
+
+  public int getSqlType() {
+    return sqlType;
+  }
+
+  public void bind(PreparedStatement statement, int index, Object value) throws SQLException {
+    if (value == null) {
+      statement.setNull(index, sqlType);
+    } else {
+      set(statement, index, value);
+    }
+  }
+
+  public Object read(ResultSet resultSet, int index) throws SQLException {
+    return get(resultSet, index);
+  }
+
+  abstract void set(PreparedStatement statement, int index, Object value) throws SQLException;
+
+  abstract Object get(ResultSet resultSet, int index) throws SQLException;
+}
@@ -0,0 +1,476 @@
+package com.dark.shade.internal.parser;
+
+import com.dark.shade.annotation.Cacheable;
+import com.dark.shade.annotation.Column;
+import com.dark.shade.annotation.Entity;
+import com.dark.shade.annotation.FetchType;
+import com.dark.shade.annotation.GenerationType;
+import com.dark.shade.annotation.Id;
+import com.dark.shade.annotation.Index;
+import com.dark.shade.annotation.ManyToOne;
+import com.dark.shade.annotation.OneToMany;
+import com.dark.shade.annotation.Table;
+import com.dark.shade.annotation.Version;
+import com.dark.shade.cache.EntityCache;
+import com.dark.shade.exception.ShadeException;
+import com.dark.shade.internal.ColumnMetadata;
+import com.dark.shade.internal.EntityMetadata;
+import com.dark.shade.internal.EntitySql;
+import com.dark.shade.internal.IndexMetadata;
+import com.dark.shade.internal.RelationMetadata;
+import com.dark.shade.internal.accessor.Accessor;
+import com.dark.shade.internal.accessor.AccessorFactory;
+import com.dark.shade.internal.id.IdGenerator;
+import com.dark.shade.internal.id.SequenceIdGenerator;
+import com.dark.shade.internal.id.UuidIdGenerator;
+import com.dark.shade.mapper.EntityMapper;
+import com.dark.shade.mapper.MemberAccessor;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity parser.
+ */
+public final class EntityParser {
+
+  public static EntityMetadata parseEntity(Class<?> entityClass)
+      throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+    String entityName = parseAnnotationName(entityClass, Entity.class, entityClass.getSimpleName());
+    if (entityName == null) {
+      throw new ShadeException(String.format(
+          "Entity class must be annotated with %s annotation", Entity.class.getCanonicalName()));
+    }
+    String tableName = parseAnnotationName(entityClass, Table.class, entityClass.getSimpleName());
+    if (tableName == null) {
+      tableName = entityClass.getSimpleName();
+    }
+    EntityMapper<?> mapper = findMapper(entityClass);
+    Map<String, Accessor> mapperAccessors = new HashMap<>();
+    if (mapper != null) {
+      for (Map.Entry<String, MemberAccessor> entry : mapper.getAccessors().entrySet()) {
+        mapperAccessors.put(entry.getKey(), AccessorFactory.forMapper(entry.getValue()));
+      }
+    }
+    Map<String, Accessor> idAccessor = new HashMap<>(1);
+    Map<String, AccessibleObject> members = new LinkedHashMap<>();
+    Map<String, Accessor> columnAccessors = parseColumns(entityClass, idAccessor, mapperAccessors, members);
+    if (idAccessor.isEmpty()) {
+      throw new ShadeException(String.format(
+          "Entity class must have member with %s annotation", Id.class.getCanonicalName()));
+    }
+    String idName = idAccessor.keySet().iterator().next();
+    List<ColumnMetadata> columns = new ArrayList<>(columnAccessors.size());
+    Set<String> lazyColumns = new HashSet<>();
+    for (Map.Entry<String, Accessor> entry : columnAccessors.entrySet()) {
+      Column column = members.get(entry.getKey()).getAnnotation(Column.class);
+      if (column.lazy() && entry.getValue().getType().isPrimitive()) {
+        throw new ShadeException(String.format(
+            "Lazy column %s of entity class %s must not be primitive", entry.getKey(), entityClass.getName()));
+      }
+      if (column.lazy()) {
+        lazyColumns.add(entry.getKey());
+      }
+      columns.add(new ColumnMetadata(entry.getKey(), entry.getValue(), column));
+    }
+    List<RelationMetadata> relations = parseRelations(entityClass, mapperAccessors, columns, members);
+    List<String> columnNames = new ArrayList<>(columns.size());
+    for (ColumnMetadata column : columns) {
+      columnNames.add(column.getName());
+    }
+    ColumnMetadata versionColumn = parseVersion(entityClass, columns, members);
+    EntitySql sql = new EntitySql(tableName, idName, columnNames, lazyColumns,
+        versionColumn == null ? null : versionColumn.getName());
+    MethodHandle constructor = mapper == null ? parseConstructor(entityClass) : MethodHandles.lookup()
+        .findVirtual(EntityMapper.class, "newInstance", MethodType.methodType(Object.class)).bindTo(mapper);
+    Accessor id = idAccessor.values().iterator().next();
+    ColumnMetadata idColumn = new ColumnMetadata(idName, id, members.get(idName).getAnnotation(Column.class));
+    return new EntityMetadata(entityClass, entityName, tableName, constructor, idColumn, columns, sql,
+        parseCache(entityClass), parseIdGenerator(entityClass, tableName, id.getType()),
+        parseIndexes(entityClass, tableName, idColumn, columns, members), relations, versionColumn);
+  }
+
+  /**
+   * Returns the mapper generated for the entity class at compile time, or null when there is none.
+   */
+  private static EntityMapper<?> findMapper(Class<?> entityClass) {
+    Class<?> mapperClass;
+    try {
+      mapperClass = Class.forName(entityClass.getName() + EntityMapper.SUFFIX, true, entityClass.getClassLoader());
+    } catch (ClassNotFoundException e) {
+      return null;
+    }
+    if (!EntityMapper.class.isAssignableFrom(mapperClass)) {
+      return null;
+    }
+    try {
+      return (EntityMapper<?>) mapperClass.getDeclaredConstructor().newInstance();
+    } catch (ReflectiveOperationException e) {
+      throw new ShadeException(String.format(
+          "Cannot create mapper %s for entity class %s: %s", mapperClass.getName(), entityClass.getName(),
+          e.getMessage()), e);
+    }
+  }
+
+  /**
+   * Returns the generator of the id strategy, or null for {@link GenerationType#IDENTITY}.
+   */
+  private static IdGenerator parseIdGenerator(Class<?> entityClass, String tableName, Class<?> idType) {
+    Id id = findIdAnnotation(entityClass);
+    switch (id.strategy()) {
+      case HILO:
+      case POOLED:
+        boolean intIds = idType == Integer.class;
+        if (!intIds && idType != Long.class) {
+          throw new ShadeException(String.format("Id of entity class %s must be a Long or Integer for %s strategy",
+              entityClass.getName(), id.strategy()));
+        }
+        String sequence = id.sequence().isEmpty() ? tableName + "_seq" : id.sequence();
+        return new SequenceIdGenerator(sequence, id.allocationSize(), id.strategy() == GenerationType.HILO, intIds);
+      case UUID:
+        if (idType != String.class && idType != UUID.class) {
+          throw new ShadeException(String.format(
+              "Id of entity class %s must be a String or UUID for UUID strategy", entityClass.getName()));
+        }
+        return new UuidIdGenerator(idType == String.class);
+      default:
+        return null;
+    }
+  }
+
+  private static Id findIdAnnotation(Class<?> entityClass) {
+    for (Field field : entityClass.getDeclaredFields()) {
+      if (field.isAnnotationPresent(Id.class)) {
+        return field.getAnnotation(Id.class);
+      }
+    }
+    for (Method method : entityClass.getDeclaredMethods()) {
+      if (method.isAnnotationPresent(Id.class)) {
+        return method.getAnnotation(Id.class);
+      }
+    }
+    throw new ShadeException(String.format(
+        "Entity class must have member with %s annotation", Id.class.getCanonicalName()));
+  }
+
+  /**
+   * Returns the column annotated with {@link Version}, or null, checking that it is an int or long column.
+   */
+  private static ColumnMetadata parseVersion(Class<?> entityClass, List<ColumnMetadata> columns,
+                                             Map<String, AccessibleObject> members) {
+    int declared = 0;
+    for (Field field : entityClass.getDeclaredFields()) {
+      declared += field.isAnnotationPresent(Version.class) ? 1 : 0;
+    }
+    for (Method method : entityClass.getDeclaredMethods()) {
+      declared += method.isAnnotationPresent(Version.class) ? 1 : 0;
+    }
+    if (declared > 1) {
+      throw new ShadeException(String.format(
+          "Entity class must have ONLY ONE %s annotation", Version.class.getCanonicalName()));
+    }
+    for (ColumnMetadata column : columns) {
+      AccessibleObject member = members.get(column.getName());
+      if (member.isAnnotationPresent(Version.class) && member.isAnnotationPresent(Column.class)) {
+        Class<?> type = column.getAccessor().getType();
+        if (type != int.class && type != Integer.class && type != long.class && type != Long.class) {
+          throw new ShadeException(String.format("Version column %s of entity class %s must be an int or a long",
+              column.getName(), entityClass.getName()));
+        }
+        if (column.isLazy()) {
+          throw new ShadeException(String.format(
+              "Version column %s of entity class %s must not be lazy", column.getName(), entityClass.getName()));
+        }
+        return column;
+      }
+    }
+    if (declared > 0) {
+      throw new ShadeException(String.format("%s member of entity class %s must be a %s other than the id",
+          Version.class.getCanonicalName(), entityClass.getName(), Column.class.getCanonicalName()));
+    }
+    return null;
+  }
+
+  /**
+   * Returns the relations of the entity class, adding the columns of its many-to-one relations to the columns.
+   */
+  private static List<RelationMetadata> parseRelations(Class<?> entityClass, Map<String, Accessor> mapperAccessors,
+                                                       List<ColumnMetadata> columns,
+                                                       Map<String, AccessibleObject> members)
+      throws NoSuchMethodException {
+    List<RelationMetadata> relations = new ArrayList<>();
+    for (Field field : entityClass.getDeclaredFields()) {
+      if (field.isAnnotationPresent(ManyToOne.class) || field.isAnnotationPresent(OneToMany.class)) {
+        relations.add(parseRelation(entityClass, field, field.getName(), field.getType(), field.getGenericType(),
+            fieldAccessor(field, mapperAccessors), columns, members));
+      }
+    }
+    for (Method method : entityClass.getDeclaredMethods()) {
+      if (method.isAnnotationPresent(ManyToOne.class) || method.isAnnotationPresent(OneToMany.class)) {
+        relations.add(parseRelation(entityClass, method, propertyName(method), method.getReturnType(),
+            method.getGenericReturnType(), methodAccessor(entityClass, method, mapperAccessors), columns, members));
+      }
+    }
+    return relations;
+  }
+
+  private static RelationMetadata parseRelation(Class<?> entityClass, AccessibleObject member, String name,
+                                                Class<?> type, Type genericType, Accessor accessor,
+                                                List<ColumnMetadata> columns, Map<String, AccessibleObject> members) {
+    ManyToOne manyToOne = member.getAnnotation(ManyToOne.class);
+    OneToMany oneToMany = member.getAnnotation(OneToMany.class);
+    if ((manyToOne != null && oneToMany != null) || member.isAnnotationPresent(Column.class)
+        || member.isAnnotationPresent(Id.class)) {
+      throw new ShadeException(String.format("Relation %s of entity class %s must have only one of %s, %s, %s "
+          + "annotations", name, entityClass.getName(), ManyToOne.class.getSimpleName(),
+          OneToMany.class.getSimpleName(), Column.class.getSimpleName()));
+    }
+    if (manyToOne != null) {
+      checkTarget(entityClass, name, type);
+      String columnName = manyToOne.column().isEmpty() ? name + "_id" : manyToOne.column();
+      if (members.containsKey(columnName)) {
+        throw new ShadeException(String.format(
+            "Entity class must have ONLY ONE %s with name %s", Column.class.getCanonicalName(), columnName));
+      }
+      RelationMetadata relation = RelationMetadata.manyToOne(name, accessor, type,
+          () -> EntityRegistry.getMetadata(type), columnName, findIdType(type),
+          manyToOne.fetch() == FetchType.EAGER);
+      columns.add(relation.getColumn());
+      members.put(columnName, member);
+      return relation;
+    }
+    if (!type.isAssignableFrom(ArrayList.class)) {
+      throw new ShadeException(String.format(
+          "One-to-many relation %s of entity class %s must be a List or a Collection", name, entityClass.getName()));
+    }
+    Class<?> target = oneToMany.target() != void.class ? oneToMany.target() : elementType(genericType);
+    if (target == null) {
+      throw new ShadeException(String.format(
+          "One-to-many relation %s of entity class %s must declare its element type", name, entityClass.getName()));
+    }
+    checkTarget(entityClass, name, target);
+    return RelationMetadata.oneToMany(name, accessor, target, () -> EntityRegistry.getMetadata(target),
+        oneToMany.column(), oneToMany.fetch() == FetchType.EAGER);
+  }
+
+  private static void checkTarget(Class<?> entityClass, String name, Class<?> target) {
+    if (!target.isAnnotationPresent(Entity.class)) {
+      throw new ShadeException(String.format("Relation %s of entity class %s must reference an entity class, not %s",
+          name, entityClass.getName(), target.getName()));
+    }
+  }
+
+  /**
+   * Returns the id type of an entity class, boxed, without parsing the class, which may reference the entity
+   * being parsed.
+   */
+  private static Class<?> findIdType(Class<?> entityClass) {
+    for (Field field : entityClass.getDeclaredFields()) {
+      if (field.isAnnotationPresent(Id.class)) {
+        return MethodType.methodType(field.getType()).wrap().returnType();
+      }
+    }
+    for (Method method : entityClass.getDeclaredMethods()) {
+      if (method.isAnnotationPresent(Id.class)) {
+        return MethodType.methodType(method.getReturnType()).wrap().returnType();
+      }
+    }
+    throw new ShadeException(String.format(
+        "Entity class %s must have member with %s annotation", entityClass.getName(), Id.class.getCanonicalName()));
+  }
+
+  private static Class<?> elementType(Type genericType) {
+    if (genericType instanceof ParameterizedType) {
+      Type[] arguments = ((ParameterizedType) genericType).getActualTypeArguments();
+      if (arguments.length == 1 && arguments[0] instanceof Class) {
+        return (Class<?>) arguments[0];
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the indexes declared on the entity class and its column members, checking that their columns exist.
+   */
+  private static List<IndexMetadata> parseIndexes(Class<?> entityClass, String tableName, ColumnMetadata idColumn,
+                                                  List<ColumnMetadata> columns, Map<String, AccessibleObject> members) {
+    Map<String, String> columnNames = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    columnNames.put(idColumn.getName(), idColumn.getName());
+    for (ColumnMetadata column : columns) {
+      columnNames.put(column.getName(), column.getName());
+    }
+    List<IndexMetadata> indexes = new ArrayList<>();
+    for (Index index : entityClass.getAnnotationsByType(Index.class)) {
+      if (index.columns().length == 0) {
+        throw new ShadeException(String.format(
+            "Index %s of entity class %s must name its columns", index.name(), entityClass.getName()));
+      }
+      List<String> indexColumns = new ArrayList<>();
+      for (String columnName : index.columns()) {
+        String indexColumn = columnNames.get(columnName);
+        if (indexColumn == null) {
+          throw new ShadeException(String.format(
+              "Index of entity class %s names unknown column %s", entityClass.getName(), columnName));
+        }
+        indexColumns.add(indexColumn);
+      }
+      indexes.add(index(tableName, index, indexColumns));
+    }
+    for (Map.Entry<String, AccessibleObject> member : members.entrySet()) {
+      for (Index index : member.getValue().getAnnotationsByType(Index.class)) {
+        indexes.add(index(tableName, index, Collections.singletonList(member.getKey())));
+      }
+    }
+    return indexes;
+  }
+
+  private static IndexMetadata index(String tableName, Index index, List<String> columnNames) {
+    String name = index.name();
+    if (name.isEmpty()) {
+      name = tableName + "_" + String.join("_", columnNames) + "_idx";
+    }
+    return new IndexMetadata(name, columnNames, index.unique());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static EntityCache parseCache(Class<?> entityClass) {
+    Cacheable cacheable = entityClass.getAnnotation(Cacheable.class);
+    if (cacheable == null) {
+      return null;
+    }
+    try {
+      return cacheable.implementation().getConstructor(int.class, long.class)
+          .newInstance(cacheable.maxSize(), TimeUnit.SECONDS.toMillis(cacheable.ttlSeconds()));
+    } catch (ReflectiveOperationException e) {
+      throw new ShadeException(String.format("Cannot create %s cache for entity class %s: %s",
+          cacheable.implementation().getName(), entityClass.getName(), e.getMessage()), e);
+    }
+  }
+
+  private static MethodHandle parseConstructor(Class<?> entityClass) throws IllegalAccessException {
+    Constructor<?> constructor;
+    try {
+      constructor = entityClass.getDeclaredConstructor();
+    } catch (NoSuchMethodException e) {
+      throw new ShadeException(String.format(
+          "Entity class %s must have a no-argument constructor", entityClass.getName()), e);
+    }
+    constructor.setAccessible(true);
+    return MethodHandles.lookup().unreflectConstructor(constructor).asType(MethodType.methodType(Object.class));
+  }
+
+  private static <T extends Annotation> String parseAnnotationName(Class<?> entityClass, Class<T> annotationClass,
+                                                                  String defaultValue)
+      throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+    if (entityClass.isAnnotationPresent(annotationClass)) {
+      Annotation annotation = entityClass.getAnnotation(annotationClass);
+      String name = (String) annotationClass.getDeclaredMethod("name").invoke(annotation);
+      if (name.equals("")) {
+        name = defaultValue;
+      }
+      return name;
+    }
+    return null;
+  }
+
+  private static Map<String, Accessor> parseColumns(Class<?> entityClass, Map<String, Accessor> idAccessor,
+                                                    Map<String, Accessor> mapperAccessors,
+                                                    Map<String, AccessibleObject> members)
+      throws NoSuchMethodException {
+    Map<String, Accessor> columnAccessors = new LinkedHashMap<>();
+    for (Field field : entityClass.getDeclaredFields()) {
+      if (field.isAnnotationPresent(Id.class)) {
+        if (!idAccessor.isEmpty()) {
+          throw new ShadeException(String.format(
+              "Entity class must have ONLY ONE %s annotation", Id.class.getCanonicalName()));
+        }
+        String idName = parseColumnFromMember(field, field.getName());
+        idName = idName == null ? field.getName() : idName;
+        idAccessor.put(idName, fieldAccessor(field, mapperAccessors));
+        members.put(idName, field);
+      } else {
+        String columnName = parseColumnFromMember(field, field.getName());
+        if (columnName != null && columnAccessors.put(columnName, fieldAccessor(field, mapperAccessors)) != null) {
+          throw new ShadeException(String.format(
+              "Entity class must have ONLY ONE %s with name %s", Column.class.getCanonicalName(), columnName));
+        }
+        if (columnName != null) {
+          members.put(columnName, field);
+        }
+      }
+    }
+    for (Method method : entityClass.getDeclaredMethods()) {
+      String defaultValue = propertyName(method);
+      if (method.isAnnotationPresent(Id.class)) {
+        if (!idAccessor.isEmpty()) {
+          throw new ShadeException(String.format(
+              "Entity class must have ONLY ONE %s annotation", Id.class.getCanonicalName()));
+        }
+        String idName = parseColumnFromMember(method, defaultValue);
+        idName = idName == null ? defaultValue : idName;
+        idAccessor.put(idName, methodAccessor(entityClass, method, mapperAccessors));
+        members.put(idName, method);
+      } else {
+        String columnName = parseColumnFromMember(method, defaultValue);
+        if (columnName != null
+            && columnAccessors.put(columnName, methodAccessor(entityClass, method, mapperAccessors)) != null) {
+          throw new ShadeException(String.format(
+              "Entity class must have ONLY ONE %s with name %s", Column.class.getCanonicalName(), columnName));
+        }
+        if (columnName != null) {
+          members.put(columnName, method);
+        }
+      }
+    }
+    return columnAccessors;
+  }
+
+  private static String propertyName(Method getter) {
+    return getter.getName().replaceFirst("(?:get|is).",
+        getter.getName().replaceFirst("get|is", "").substring(0, 1).toLowerCase());
+  }
+
+  private static Accessor fieldAccessor(Field field, Map<String, Accessor> mapperAccessors) {
+    Accessor accessor = mapperAccessors.get(field.getName());
+    return accessor != null ? accessor : AccessorFactory.forField(field);
+  }
+
+  private static Accessor methodAccessor(Class<?> entityClass, Method getter, Map<String, Accessor> mapperAccessors)
+      throws NoSuchMethodException {
+    Accessor accessor = mapperAccessors.get(getter.getName());
+    return accessor != null ? accessor : AccessorFactory.forMethods(getter, entityClass.getDeclaredMethod(
+        getter.getName().replaceFirst("get|is", "set"), getter.getReturnType()));
+  }
+
+  private static String parseColumnFromMember(AccessibleObject accessibleObject, String defaultValue) {
+    if (accessibleObject.isAnnotationPresent(Column.class)) {
+      Column columnAnnotation = accessibleObject.getAnnotation(Column.class);
+      String column = columnAnnotation.name();
+      if (column.equals("")) {
+        column = defaultValue;
+      }
+      return column;
+    }
+    return null;
+  }
+}
@@ -0,0 +1,138 @@
+package com.dark.shade.internal.parser;
+
+import com.dark.shade.annotation.Entity;
+import com.dark.shade.exception.ShadeException;
+import com.dark.shade.internal.EntityMetadata;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+
+/**
+ * Entity registry.
+ * Process-wide cache of entity metadata, so every entity class is parsed once and its metadata
+ * is shared by all repositories.
+ */
+public final class EntityRegistry {
+
+  private static final ConcurrentHashMap<Class<?>, EntityMetadata> METADATA = new ConcurrentHashMap<>();
+
+  private EntityRegistry() {
+  }
+
+  public static EntityMetadata getMetadata(Class<?> entityClass) {
+    EntityMetadata metadata = METADATA.get(entityClass);
+    if (metadata == null) {
+      metadata = METADATA.computeIfAbsent(entityClass, EntityRegistry::parse);
+    }
+    return metadata;
+  }
+
+  /**
+   * Parses and registers all {@link Entity} classes in the given packages and their subpackages in parallel.
+   * Mapping errors of all classes are reported together.
+   *
+   * @return the registered entity classes
+   */
+  public static List<Class<?>> scan(String... packageNames) {
+    ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+    List<Class<?>> entityClasses = new ArrayList<>();
+    for (String packageName : packageNames) {
+      for (String className : findClassNames(classLoader, packageName)) {
+        Class<?> type = loadClass(classLoader, className);
+        if (type.isAnnotationPresent(Entity.class)) {
+          entityClasses.add(type);
+        }
+      }
+    }
+    List<String> errors = entityClasses.parallelStream()
+        .map(EntityRegistry::validate)
+        .filter(error -> error != null)
+        .collect(Collectors.toList());
+    if (!errors.isEmpty()) {
+      throw new ShadeException(String.format("Invalid entity mappings:%n%s", String.join(String.format("%n"), errors)));
+    }
+    return entityClasses;
+  }
+
+  private static String validate(Class<?> entityClass) {
+    try {
+      getMetadata(entityClass);
+      return null;
+    } catch (ShadeException e) {
+      return String.format("%s: %s", entityClass.getName(), e.getMessage());
+    }
+  }
+
+  private static EntityMetadata parse(Class<?> entityClass) {
+    try {
+      return EntityParser.parseEntity(entityClass);
+    } catch (ReflectiveOperationException e) {
+      throw new ShadeException(
+          String.format("Failed to parse entity class %s: %s", entityClass, e.getMessage()), e);
+    }
+  }
+
+  private static Class<?> loadClass(ClassLoader classLoader, String className) {
+    try {
+      return Class.forName(className, false, classLoader);
+    } catch (ClassNotFoundException | LinkageError e) {
+      throw new ShadeException(String.format("Cannot load class %s: %s", className, e.getMessage()), e);
+    }
+  }
+
+  private static List<String> findClassNames(ClassLoader classLoader, String packageName) {
+    String path = packageName.replace('.', '/');
+    List<String> classNames = new ArrayList<>();
+    try {
+      Enumeration<URL> resources = classLoader.getResources(path);
+      for (URL resource : Collections.list(resources)) {
+        if ("jar".equals(resource.getProtocol())) {
+          JarURLConnection connection = (JarURLConnection) resource.openConnection();
+          connection.setUseCaches(false);
+          try (JarFile jarFile = connection.getJarFile()) {
+            for (JarEntry entry : Collections.list(jarFile.entries())) {
+              String name = entry.getName();
+              if (name.startsWith(path + "/") && name.endsWith(".class")) {
+                classNames.add(toClassName(name));
+              }
+            }
+          }
+        } else if ("file".equals(resource.getProtocol())) {
+          collectClassNames(new File(URLDecoder.decode(resource.getPath(), "UTF-8")), packageName, classNames);
+        }
+      }
+    } catch (IOException e) {
+      throw new ShadeException(String.format("Cannot scan package %s: %s", packageName, e.getMessage()), e);
+    }
+    return classNames;
+  }
+
+  private static void collectClassNames(File directory, String packageName, List<String> classNames) {
+    File[] files = directory.listFiles();
+    if (files == null) {
+      return;
+    }
+    for (File file : files) {
+      if (file.isDirectory()) {
+        collectClassNames(file, packageName + "." + file.getName(), classNames);
+      } else if (file.getName().endsWith(".class")) {
+        classNames.add(packageName + "." + file.getName().substring(0, file.getName().length() - ".class".length()));
+      }
+    }
+  }
+
+  private static String toClassName(String entryName) {
+    return entryName.substring(0, entryName.length() - ".class".length()).replace('/', '.');
+  }
+}
@@ -0,0 +1,209 @@
+package com.dark.shade.internal.pool;
+
+import com.dark.shade.config.SessionSettings;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Connection pool.
+ * Idle connections are kept in a lock-free LIFO deque and the pool size is bounded with CAS, so borrow and
+ * release never lock; borrowers of an exhausted pool park until a connection is released or the timeout expires.
+ * Connections idle longer than the validation interval are validated on borrow, and a daemon thread shared by all
+ * pools closes connections idle longer than the idle timeout. A read-only pool opens its connections with
+ * {@code setReadOnly(true)}, e.g. for a read replica.
+ */
+public final class ConnectionPool {
+
+  private static final ScheduledThreadPoolExecutor EVICTOR = new ScheduledThreadPoolExecutor(1, runnable -> {
+    Thread thread = new Thread(runnable, "shade-pool-evictor");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  static {
+    EVICTOR.setRemoveOnCancelPolicy(true);
+  }
+
+  private final String url;
+  private final String user;
+  private final String pass;
+  private final SessionSettings settings;
+  private final boolean readOnly;
+  private final ConcurrentLinkedDeque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+  private final ConcurrentLinkedQueue<Thread> waiters = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger size = new AtomicInteger();
+  private final AtomicInteger borrowed = new AtomicInteger();
+  private final ScheduledFuture<?> eviction;
+  private volatile boolean closed;
+
+  public ConnectionPool(String url, String user, String pass, SessionSettings settings) throws SQLException {
+    this(url, user, pass, settings, false);
+  }
+
+  public ConnectionPool(String url, String user, String pass, SessionSettings settings, boolean readOnly)
+      throws SQLException {
+    this.url = url;
+    this.user = user;
+    this.pass = pass;
+    this.settings = settings;
+    this.readOnly = readOnly;
+    size.incrementAndGet();
+    idle.offerFirst(create());
+    eviction = EVICTOR.scheduleWithFixedDelay(this::evict,
+        settings.getEvictionIntervalMillis(), settings.getEvictionIntervalMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  public PooledConnection borrow() throws SQLException {
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settings.getBorrowTimeoutMillis());
+    while (true) {
+      checkOpen();
+      PooledConnection connection = idle.pollFirst();
+      if (connection != null) {
+        if (validate(connection)) {
+          borrowed.incrementAndGet();
+          return connection;
+        }
+        discard(connection);
+        continue;
+      }
+      int current = size.get();
+      if (current < settings.getMaxPoolSize()) {
+        if (size.compareAndSet(current, current + 1)) {
+          try {
+            connection = create();
+          } catch (SQLException e) {
+            size.decrementAndGet();
+            throw e;
+          }
+          borrowed.incrementAndGet();
+          return connection;
+        }
+        continue;
+      }
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        throw new SQLTimeoutException(String.format(
+            "Timed out after %d ms waiting for one of %d connections",
+            settings.getBorrowTimeoutMillis(), settings.getMaxPoolSize()));
+      }
+      Thread waiter = Thread.currentThread();
+      waiters.offer(waiter);
+      // a connection released or discarded before the offer woke no one, so check again before parking
+      if (idle.isEmpty() && size.get() >= settings.getMaxPoolSize()) {
+        LockSupport.parkNanos(this, remaining);
+      }
+      waiters.remove(waiter);
+    }
+  }
+
+  /**
+   * Returns a borrowed connection to the pool, rolling back the transaction left open by reads first;
+   * the connection is closed instead when the rollback fails.
+   */
+  public void release(PooledConnection connection) {
+    if (connection.isInTransaction()) {
+      try {
+        connection.rollback();
+      } catch (SQLException e) {
+        invalidate(connection);
+        return;
+      }
+    }
+    borrowed.decrementAndGet();
+    if (closed) {
+      discard(connection);
+      return;
+    }
+    connection.touch();
+    idle.offerFirst(connection);
+    Thread waiter = waiters.poll();
+    if (waiter != null) {
+      LockSupport.unpark(waiter);
+    }
+  }
+
+  /**
+   * Closes a borrowed connection which must not be reused, e.g. after a failed rollback.
+   */
+  public void invalidate(PooledConnection connection) {
+    borrowed.decrementAndGet();
+    discard(connection);
+  }
+
+  public int getSize() {
+    return size.get();
+  }
+
+  public int getBorrowed() {
+    return borrowed.get();
+  }
+
+  public String getUrl() {
+    return url;
+  }
+
+  public boolean isClosed() {
+    return closed;
+  }
+
+  public void close() {
+    closed = true;
+    eviction.cancel(false);
+    PooledConnection connection;
+    while ((connection = idle.pollFirst()) != null) {
+      discard(connection);
+    }
+    Thread waiter;
+    while ((waiter = waiters.poll()) != null) {
+      LockSupport.unpark(waiter);
+    }
+  }
+
+  private PooledConnection create() throws SQLException {
+    return new PooledConnection(this, DriverManager.getConnection(url, user, pass), settings.getStatementCacheSize(),
+        readOnly);
+  }
+
+  private boolean validate(PooledConnection connection) {
+    long idleNanos = System.nanoTime() - connection.getLastUsedNanos();
+    return idleNanos < TimeUnit.MILLISECONDS.toNanos(settings.getValidationIntervalMillis())
+        || connection.isValid(settings.getValidationTimeoutSeconds());
+  }
+
+  private void discard(PooledConnection connection) {
+    size.decrementAndGet();
+    connection.close();
+    Thread waiter = waiters.poll();
+    if (waiter != null) {
+      LockSupport.unpark(waiter);
+    }
+  }
+
+  private void evict() {
+    long idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(settings.getIdleTimeoutMillis());
+    for (PooledConnection connection : idle) {
+      if (idle.size() <= settings.getMinIdle()) {
+        break;
+      }
+      if (System.nanoTime() - connection.getLastUsedNanos() > idleTimeoutNanos
+          && idle.removeFirstOccurrence(connection)) {
+        discard(connection);
+      }
+    }
+  }
+
+  private void checkOpen() throws SQLException {
+    if (closed) {
+      throw new SQLException("Connection pool is closed");
+    }
+  }
+}
@@ -0,0 +1,164 @@
+package com.dark.shade.internal.pool;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pooled connection.
+ * Owns a physical connection and its bounded prepared statement cache; used by one thread at a time.
+ */
+public final class PooledConnection {
+
+  private final ConnectionPool pool;
+  private final Connection connection;
+  private final Map<StatementKey, PreparedStatement> statements;
+  private volatile long lastUsedNanos;
+  private boolean inTransaction;
+
+  PooledConnection(ConnectionPool pool, Connection connection, final int statementCacheSize, boolean readOnly)
+      throws SQLException {
+    this.pool = pool;
+    this.connection = connection;
+    connection.setReadOnly(readOnly);
+    connection.setAutoCommit(false);
+    statements = new LinkedHashMap<StatementKey, PreparedStatement>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<StatementKey, PreparedStatement> eldest) {
+        if (size() > statementCacheSize) {
+          closeQuietly(eldest.getValue());
+          return true;
+        }
+        return false;
+      }
+    };
+    lastUsedNanos = System.nanoTime();
+  }
+
+  /**
+   * Returns the pool the connection belongs to, and must be returned to.
+   */
+  public ConnectionPool getPool() {
+    return pool;
+  }
+
+  public PreparedStatement prepareStatement(String sql) throws SQLException {
+    inTransaction = true;
+    return connection.prepareStatement(sql);
+  }
+
+  /**
+   * Returns the cached statement for the given sql, preparing it on first use.
+   * Cached statements are owned by the connection and must not be closed by callers.
+   */
+  public PreparedStatement cachedStatement(String sql) throws SQLException {
+    return cachedStatement(sql, Statement.NO_GENERATED_KEYS);
+  }
+
+  /**
+   * Returns the cached statement for the given sql and generated keys flag, preparing it on first use;
+   * the same sql prepared with and without generated keys is cached as two statements.
+   */
+  public PreparedStatement cachedStatement(String sql, int autoGeneratedKeys) throws SQLException {
+    inTransaction = true;
+    StatementKey key = new StatementKey(sql, autoGeneratedKeys);
+    PreparedStatement statement = statements.get(key);
+    if (statement == null || statement.isClosed()) {
+      statement = connection.prepareStatement(sql, autoGeneratedKeys);
+      statements.put(key, statement);
+    }
+    return statement;
+  }
+
+  public DatabaseMetaData getMetaData() throws SQLException {
+    inTransaction = true;
+    return connection.getMetaData();
+  }
+
+  public void commit() throws SQLException {
+    connection.commit();
+    inTransaction = false;
+  }
+
+  public void rollback() throws SQLException {
+    connection.rollback();
+    inTransaction = false;
+  }
+
+  /**
+   * Returns whether statements ran since the last commit or rollback, so the connection may hold
+   * an open transaction, e.g. the snapshot and locks of a read.
+   */
+  boolean isInTransaction() {
+    return inTransaction;
+  }
+
+  boolean isValid(int timeoutSeconds) {
+    try {
+      return connection.isValid(timeoutSeconds);
+    } catch (SQLException e) {
+      return false;
+    }
+  }
+
+  long getLastUsedNanos() {
+    return lastUsedNanos;
+  }
+
+  void touch() {
+    lastUsedNanos = System.nanoTime();
+  }
+
+  void close() {
+    for (PreparedStatement statement : statements.values()) {
+      closeQuietly(statement);
+    }
+    statements.clear();
+    try {
+      connection.close();
+    } catch (SQLException ignored) {
+    }
+  }
+
+  private static void closeQuietly(Statement statement) {
+    try {
+      statement.close();
+    } catch (SQLException ignored) {
+    }
+  }
+
+  /**
+   * Statement cache key.
+   */
+  private static final class StatementKey {
+
+    private final String sql;
+    private final int autoGeneratedKeys;
+
+    StatementKey(String sql, int autoGeneratedKeys) {
+      this.sql = sql;
+      this.autoGeneratedKeys = autoGeneratedKeys;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof StatementKey)) {
+        return false;
+      }
+      StatementKey that = (StatementKey) o;
+      return autoGeneratedKeys == that.autoGeneratedKeys && sql.equals(that.sql);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * sql.hashCode() + autoGeneratedKeys;
+    }
+  }
+}
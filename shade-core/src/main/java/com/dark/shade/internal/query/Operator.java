@@ -0,0 +1,92 @@
+package com.dark.shade.internal.query;
+
+/**
+ * Comparison of a derived query criterion, named by the keyword ending the property in a method name.
+ * Keywords are matched in declaration order, so longer keywords come before their suffixes.
+ */
+enum Operator {
+
+  IS_NOT_NULL("%s IS NOT NULL", 0, null, "IsNotNull", "NotNull"),
+  IS_NULL("%s IS NULL", 0, null, "IsNull", "Null"),
+  TRUE("%s = %s", 0, null, "IsTrue", "True"),
+  FALSE("%s = %s", 0, null, "IsFalse", "False"),
+  GREATER_THAN_EQUAL("%s >= ?", 1, null, "IsGreaterThanEqual", "GreaterThanEqual"),
+  GREATER_THAN("%s > ?", 1, null, "IsGreaterThan", "GreaterThan", "IsAfter", "After"),
+  LESS_THAN_EQUAL("%s <= ?", 1, null, "IsLessThanEqual", "LessThanEqual"),
+  LESS_THAN("%s < ?", 1, null, "IsLessThan", "LessThan", "IsBefore", "Before"),
+  BETWEEN("%s BETWEEN ? AND ?", 2, null, "IsBetween", "Between"),
+  NOT_LIKE("%s NOT LIKE ?", 1, null, "IsNotLike", "NotLike"),
+  LIKE("%s LIKE ?", 1, null, "IsLike", "Like"),
+  STARTING_WITH("%s LIKE ? ESCAPE '!'", 1, "%s%%", "IsStartingWith", "StartingWith", "StartsWith"),
+  ENDING_WITH("%s LIKE ? ESCAPE '!'", 1, "%%%s", "IsEndingWith", "EndingWith", "EndsWith"),
+  CONTAINING("%s LIKE ? ESCAPE '!'", 1, "%%%s%%", "IsContaining", "Containing", "Contains"),
+  NOT_IN("%s NOT IN (%s)", 1, null, "IsNotIn", "NotIn"),
+  IN("%s IN (%s)", 1, null, "IsIn", "In"),
+  NOT_EQUAL("%s <> ?", 1, null, "IsNot", "Not"),
+  EQUAL("%s = ?", 1, null, "Is", "Equals");
+
+  /**
+   * Escape character of the LIKE patterns built from arguments; unlike a backslash, it needs no escaping
+   * in the string literals of any database.
+   */
+  private static final char LIKE_ESCAPE = '!';
+
+  private final String sql;
+  private final int arguments;
+  private final String pattern;
+  private final String[] keywords;
+
+  Operator(String sql, int arguments, String pattern, String... keywords) {
+    this.sql = sql;
+    this.arguments = arguments;
+    this.pattern = pattern;
+    this.keywords = keywords;
+  }
+
+  /**
+   * Returns the SQL condition, taking the column and, for IN lists, the placeholders or, for booleans,
+   * the literal of the dialect.
+   */
+  String getSql() {
+    return sql;
+  }
+
+  int getArguments() {
+    return arguments;
+  }
+
+  boolean isList() {
+    return this == IN || this == NOT_IN;
+  }
+
+  boolean isBoolean() {
+    return this == TRUE || this == FALSE;
+  }
+
+  /**
+   * Returns the LIKE pattern the argument is formatted into, or null when it is bound as is.
+   */
+  String getPattern() {
+    return pattern;
+  }
+
+  /**
+   * Returns the pattern matching the argument literally, with its wildcards and escape characters escaped.
+   */
+  String toPattern(Object argument) {
+    String value = argument.toString();
+    StringBuilder escaped = new StringBuilder(value.length() + 8);
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+        escaped.append(LIKE_ESCAPE);
+      }
+      escaped.append(c);
+    }
+    return String.format(pattern, escaped);
+  }
+
+  String[] getKeywords() {
+    return keywords;
+  }
+}
@@ -0,0 +1,205 @@
+package com.dark.shade.internal.query;
+
+import com.dark.shade.exception.ShadeException;
+import com.dark.shade.internal.ColumnMetadata;
+import com.dark.shade.internal.EntityMetadata;
+import com.dark.shade.internal.query.QueryPlan.Criterion;
+import com.dark.shade.internal.query.QueryPlan.Kind;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Query method parser.
+ * Derives a {@link QueryPlan} from the name of a repository method such as {@code findByStatusAndCreatedAfter}
+ * or {@code countByStatus}: a subject ({@code find}, {@code read}, {@code get}, {@code query}, {@code stream},
+ * {@code count}, {@code exists}, {@code delete}, {@code remove}) with an optional {@code First<n>}
+ * or {@code Top<n>} limit, then {@code By} and criteria joined by {@code And} and {@code Or},
+ * then an optional {@code OrderBy} clause. Properties match column names ignoring case and underscores.
+ */
+public final class QueryMethodParser {
+
+  private static final Pattern METHOD = Pattern.compile(
+      "^(find|read|get|query|stream|count|exists|delete|remove)(?:All|First(\\d*)|Top(\\d*))?By(.*)$");
+  private static final Pattern OR = Pattern.compile("(?<=[a-z0-9])Or(?=[A-Z])");
+  private static final Pattern AND = Pattern.compile("(?<=[a-z0-9])And(?=[A-Z])");
+  private static final Pattern ORDER = Pattern.compile("(?<=Asc|Desc)(?=[A-Z])");
+  private static final Pattern ORDER_BY = Pattern.compile("(?:^|(?<=[a-z0-9]))OrderBy(?=[A-Z])");
+
+  private QueryMethodParser() {
+  }
+
+  public static QueryPlan parse(EntityMetadata metadata, Method method) {
+    Matcher matcher = METHOD.matcher(method.getName());
+    if (!matcher.matches()) {
+      throw error(metadata, method, "name must be a query subject followed by By and criteria");
+    }
+    Kind kind = parseKind(metadata, method, matcher.group(1));
+    String limitGroup = matcher.group(2) != null ? matcher.group(2) : matcher.group(3);
+    int limit = limitGroup == null ? 0 : limitGroup.isEmpty() ? 1 : Integer.parseInt(limitGroup);
+    String body = matcher.group(4);
+    Matcher orderBy = ORDER_BY.matcher(body);
+    boolean ordered = orderBy.find();
+    String predicate = ordered ? body.substring(0, orderBy.start()) : body;
+    String order = ordered ? body.substring(orderBy.end()) : "";
+    if (predicate.isEmpty() && order.isEmpty()) {
+      throw error(metadata, method, "criteria are missing");
+    }
+    boolean select = kind != Kind.COUNT && kind != Kind.EXISTS && kind != Kind.DELETE;
+    if (!select && (limitGroup != null || !order.isEmpty())) {
+      throw error(metadata, method, "limits and ordering apply only to finds");
+    }
+    if (limitGroup != null && limit < 1) {
+      throw error(metadata, method, "limit must be positive");
+    }
+
+    Map<String, ColumnMetadata> properties = new HashMap<>();
+    properties.put(normalize(metadata.getIdName()), metadata.getIdColumn());
+    for (ColumnMetadata column : metadata.getColumns()) {
+      properties.put(normalize(column.getName()), column);
+    }
+    List<Criterion> criteria = new ArrayList<>();
+    int argument = 0;
+    if (!predicate.isEmpty()) {
+      String[] alternatives = OR.split(predicate);
+      for (int i = 0; i < alternatives.length; i++) {
+        String[] parts = AND.split(alternatives[i]);
+        for (int j = 0; j < parts.length; j++) {
+          Criterion criterion = parseCriterion(metadata, method, properties, parts[j],
+              i == 0 && j == 0 ? "" : j == 0 ? " OR " : " AND ", argument);
+          argument += criterion.getArguments();
+          criteria.add(criterion);
+        }
+      }
+    }
+    if (argument != method.getParameterCount()) {
+      throw error(metadata, method, String.format("criteria take %d parameters, method has %d",
+          argument, method.getParameterCount()));
+    }
+
+    String table = metadata.getTableName();
+    String where = criteria.isEmpty() ? "" : " WHERE ";
+    StringBuilder suffix = new StringBuilder();
+    if (!order.isEmpty()) {
+      suffix.append(" ORDER BY ");
+      String prefix = "";
+      for (String token : ORDER.split(order)) {
+        boolean descending = token.endsWith("Desc");
+        String property = descending ? token.substring(0, token.length() - 4)
+            : token.endsWith("Asc") ? token.substring(0, token.length() - 3) : token;
+        ColumnMetadata column = properties.get(normalize(property));
+        if (column == null) {
+          throw error(metadata, method, String.format("no column matches ordering property %s", property));
+        }
+        suffix.append(prefix).append(column.getName()).append(descending ? " DESC" : " ASC");
+        prefix = ", ";
+      }
+    }
+    switch (kind) {
+      case COUNT:
+        return new QueryPlan(kind, String.format("SELECT COUNT(*) FROM %s%s", table, where), criteria, "", 0);
+      case EXISTS:
+        return new QueryPlan(kind, String.format("SELECT 1 FROM %s%s", table, where), criteria, "", 1);
+      case DELETE:
+        return new QueryPlan(kind, String.format("DELETE FROM %s%s", table, where), criteria, "", 0);
+      default:
+        if (limitGroup == null && (kind == Kind.SINGLE || kind == Kind.OPTIONAL)) {
+          limit = 2;
+        }
+        return new QueryPlan(kind, metadata.getSql().getSelectAllSql() + where, criteria, suffix.toString(), limit);
+    }
+  }
+
+  private static Kind parseKind(EntityMetadata metadata, Method method, String subject) {
+    Class<?> returnType = method.getReturnType();
+    switch (subject) {
+      case "count":
+        if (isCount(returnType)) {
+          return Kind.COUNT;
+        }
+        throw error(metadata, method, "count queries must return long or int");
+      case "exists":
+        if (returnType == boolean.class || returnType == Boolean.class) {
+          return Kind.EXISTS;
+        }
+        throw error(metadata, method, "exists queries must return boolean");
+      case "delete":
+      case "remove":
+        if (returnType == void.class || isCount(returnType)) {
+          return Kind.DELETE;
+        }
+        throw error(metadata, method, "delete queries must return void, long or int");
+      default:
+        if (returnType == Stream.class) {
+          return Kind.STREAM;
+        }
+        if (subject.equals("stream")) {
+          throw error(metadata, method, "stream queries must return Stream");
+        }
+        if (returnType == List.class || returnType == Collection.class || returnType == Iterable.class) {
+          return Kind.LIST;
+        }
+        if (returnType == Optional.class) {
+          return Kind.OPTIONAL;
+        }
+        if (returnType.isAssignableFrom(metadata.getEntityClass())) {
+          return Kind.SINGLE;
+        }
+        throw error(metadata, method, "finds must return the entity, Optional, List or Stream");
+    }
+  }
+
+  private static Criterion parseCriterion(EntityMetadata metadata, Method method,
+                                          Map<String, ColumnMetadata> properties, String part, String joiner,
+                                          int argument) {
+    for (Operator operator : Operator.values()) {
+      for (String keyword : operator.getKeywords()) {
+        if (part.length() > keyword.length() && part.endsWith(keyword)) {
+          ColumnMetadata column = properties.get(normalize(part.substring(0, part.length() - keyword.length())));
+          if (column != null) {
+            return criterion(metadata, method, joiner, column, operator, argument);
+          }
+        }
+      }
+    }
+    ColumnMetadata column = properties.get(normalize(part));
+    if (column == null) {
+      throw error(metadata, method, String.format("no column matches property %s", part));
+    }
+    return criterion(metadata, method, joiner, column, Operator.EQUAL, argument);
+  }
+
+  private static Criterion criterion(EntityMetadata metadata, Method method, String joiner, ColumnMetadata column,
+                                     Operator operator, int argument) {
+    if (operator.isList() && argument < method.getParameterCount()) {
+      Class<?> type = method.getParameterTypes()[argument];
+      if (!Collection.class.isAssignableFrom(type) && !type.isArray()) {
+        throw error(metadata, method, String.format(
+            "parameter %d of IN criterion on %s must be a collection or an array", argument + 1, column.getName()));
+      }
+    }
+    return new Criterion(joiner, column, operator, argument);
+  }
+
+  private static boolean isCount(Class<?> type) {
+    return type == long.class || type == Long.class || type == int.class || type == Integer.class;
+  }
+
+  private static String normalize(String name) {
+    return name.replace("_", "").toLowerCase(Locale.ROOT);
+  }
+
+  private static ShadeException error(EntityMetadata metadata, Method method, String reason) {
+    return new ShadeException(String.format("Cannot derive query of %s from method %s: %s",
+        metadata.getEntityName(), method.getName(), reason));
+  }
+}
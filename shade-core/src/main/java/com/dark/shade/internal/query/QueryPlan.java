@@ -0,0 +1,178 @@
+package com.dark.shade.internal.query;
+
+import com.dark.shade.dialect.Dialect;
+import com.dark.shade.exception.ShadeException;
+import com.dark.shade.internal.ColumnMetadata;
+
+import java.lang.reflect.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Query plan of a derived query method.
+ * Holds the criteria parsed from the method name and the binders of its arguments. The SQL is rendered
+ * for the dialect of the session on first call and kept, so later calls only bind and execute; queries
+ * with IN lists render their placeholders per call, for the size of the list.
+ */
+public final class QueryPlan {
+
+  /**
+   * Statement of the plan and shape of its result.
+   */
+  public enum Kind {
+    LIST, SINGLE, OPTIONAL, STREAM, COUNT, EXISTS, DELETE
+  }
+
+  private final Kind kind;
+  private final String prefix;
+  private final String suffix;
+  private final int limit;
+  private final Criterion[] criteria;
+  private final boolean lists;
+  private volatile Rendering rendering;
+
+  /**
+   * Creates a plan of the given statement prefix, criteria and suffix, returning at most {@code limit} rows
+   * when it is positive.
+   */
+  QueryPlan(Kind kind, String prefix, List<Criterion> criteria, String suffix, int limit) {
+    this.kind = kind;
+    this.prefix = prefix;
+    this.suffix = suffix;
+    this.limit = limit;
+    this.criteria = criteria.toArray(new Criterion[criteria.size()]);
+    boolean lists = false;
+    for (Criterion criterion : criteria) {
+      lists |= criterion.operator.isList();
+    }
+    this.lists = lists;
+  }
+
+  public Kind getKind() {
+    return kind;
+  }
+
+  /**
+   * Returns the SQL of a call with the given arguments in the given dialect.
+   */
+  public String getSql(Dialect dialect, Object[] args) {
+    Rendering current = rendering;
+    if (current != null && current.dialect == dialect) {
+      return current.sql;
+    }
+    StringBuilder builder = new StringBuilder(prefix);
+    for (Criterion criterion : criteria) {
+      builder.append(criterion.joiner);
+      if (!criterion.operator.isList()) {
+        builder.append(criterion.condition(dialect));
+        continue;
+      }
+      int size = listSize(args[criterion.argument]);
+      if (size == 0) {
+        builder.append(criterion.operator == Operator.IN ? "1=0" : "1=1");
+      } else {
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+          placeholders.append(i == 0 ? "?" : ", ?");
+        }
+        builder.append(String.format(criterion.operator.getSql(), criterion.column.getName(), placeholders));
+      }
+    }
+    builder.append(suffix);
+    if (limit > 0) {
+      builder.append(' ').append(dialect.limitSql(String.valueOf(limit)));
+    }
+    String sql = builder.toString();
+    if (!lists) {
+      rendering = new Rendering(dialect, sql);
+    }
+    return sql;
+  }
+
+  /**
+   * Binds the arguments of a call from parameter 1 on.
+   */
+  public void bind(PreparedStatement statement, Object[] args) throws SQLException {
+    int index = 1;
+    for (Criterion criterion : criteria) {
+      Operator operator = criterion.operator;
+      if (operator.isList()) {
+        Object list = args[criterion.argument];
+        if (list instanceof Collection) {
+          for (Object value : (Collection<?>) list) {
+            criterion.column.getBinder().bindValue(statement, index++, value);
+          }
+        } else {
+          for (int i = 0; i < Array.getLength(list); i++) {
+            criterion.column.getBinder().bindValue(statement, index++, Array.get(list, i));
+          }
+        }
+        continue;
+      }
+      for (int i = 0; i < operator.getArguments(); i++) {
+        Object value = args[criterion.argument + i];
+        if (operator.getPattern() != null && value != null) {
+          value = operator.toPattern(value);
+        }
+        criterion.column.getBinder().bindValue(statement, index++, value);
+      }
+    }
+  }
+
+  private static int listSize(Object list) {
+    if (list instanceof Collection) {
+      return ((Collection<?>) list).size();
+    }
+    if (list != null && list.getClass().isArray()) {
+      return Array.getLength(list);
+    }
+    throw new ShadeException(String.format("IN argument must be a collection or an array: %s", list));
+  }
+
+  /**
+   * Condition on one column, taking its arguments from the given method parameter on.
+   */
+  static final class Criterion {
+
+    private final String joiner;
+    private final ColumnMetadata column;
+    private final Operator operator;
+    private final int argument;
+    private final String condition;
+
+    Criterion(String joiner, ColumnMetadata column, Operator operator, int argument) {
+      this.joiner = joiner;
+      this.column = column;
+      this.operator = operator;
+      this.argument = argument;
+      this.condition = operator.isList() || operator.isBoolean()
+          ? null : String.format(operator.getSql(), column.getName());
+    }
+
+    int getArguments() {
+      return operator.getArguments();
+    }
+
+    private String condition(Dialect dialect) {
+      return operator.isBoolean()
+          ? String.format(operator.getSql(), column.getName(), dialect.booleanLiteral(operator == Operator.TRUE))
+          : condition;
+    }
+  }
+
+  /**
+   * SQL of a plan without IN lists, rendered for a dialect.
+   */
+  private static final class Rendering {
+
+    private final Dialect dialect;
+    private final String sql;
+
+    private Rendering(Dialect dialect, String sql) {
+      this.dialect = dialect;
+      this.sql = sql;
+    }
+  }
+}
@@ -0,0 +1,315 @@
+package com.dark.shade.internal.schema;
+
+import com.dark.shade.dialect.Dialect;
+import com.dark.shade.exception.ShadeException;
+import com.dark.shade.internal.ColumnMetadata;
+import com.dark.shade.internal.EntityMetadata;
+import com.dark.shade.internal.IndexMetadata;
+import com.dark.shade.internal.id.SequenceIdGenerator;
+import com.dark.shade.internal.jdbc.JdbcType;
+
+import java.sql.DatabaseMetaData;
+import java.sql.JDBCType;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Schema generator.
+ * Derives the table, id sequence and indexes of an entity from its metadata, and compares them with
+ * the existing schema read through {@link DatabaseMetaData}. Identifiers are compared ignoring case,
+ * as databases fold unquoted identifiers to upper or lower case.
+ */
+public final class SchemaGenerator {
+
+  private final Dialect dialect;
+
+  public SchemaGenerator(Dialect dialect) {
+    this.dialect = dialect;
+  }
+
+  /**
+   * Returns the statements creating the table of an entity, its id sequence and its indexes.
+   */
+  public List<String> createSql(EntityMetadata metadata) {
+    List<String> statements = new ArrayList<>();
+    if (metadata.getIdGenerator() instanceof SequenceIdGenerator) {
+      SequenceIdGenerator generator = (SequenceIdGenerator) metadata.getIdGenerator();
+      statements.add(dialect.createSequenceSql(generator.getSequence(), generator.getIncrement()));
+    }
+    StringBuilder table = new StringBuilder("CREATE TABLE ").append(metadata.getTableName()).append(" (")
+        .append(metadata.getIdName()).append(' ').append(idType(metadata)).append(" PRIMARY KEY");
+    for (ColumnMetadata column : metadata.getColumns()) {
+      table.append(", ").append(column.getName()).append(' ').append(columnType(metadata, column));
+      if (!column.isNullable()) {
+        table.append(" NOT NULL");
+      }
+      if (column.isUnique()) {
+        table.append(" UNIQUE");
+      }
+    }
+    statements.add(table.append(')').toString());
+    for (IndexMetadata index : metadata.getIndexes()) {
+      statements.add(createIndexSql(metadata, index));
+    }
+    return statements;
+  }
+
+  /**
+   * Returns the statements creating the table of an entity when it does not exist, or else its missing indexes.
+   * Existing columns are left as they are; {@link #validate} reports their differences.
+   */
+  public List<String> missingSql(EntityMetadata metadata, DatabaseMetaData databaseMetaData) throws SQLException {
+    Table table = findTable(databaseMetaData, metadata.getTableName());
+    if (table == null) {
+      return createSql(metadata);
+    }
+    List<Index> existing = readIndexes(databaseMetaData, table);
+    List<String> statements = new ArrayList<>();
+    for (IndexMetadata index : metadata.getIndexes()) {
+      if (!hasIndex(existing, index.getColumnNames(), index.isUnique())) {
+        statements.add(createIndexSql(metadata, index));
+      }
+    }
+    return statements;
+  }
+
+  /**
+   * Returns the differences between the mapping of an entity and its table, or an empty list when they match.
+   */
+  public List<String> validate(EntityMetadata metadata, DatabaseMetaData databaseMetaData) throws SQLException {
+    String tableName = metadata.getTableName();
+    Table table = findTable(databaseMetaData, tableName);
+    if (table == null) {
+      return Collections.singletonList(String.format("Table %s does not exist", tableName));
+    }
+    List<String> differences = new ArrayList<>();
+    Map<String, Column> columns = readColumns(databaseMetaData, table);
+    List<ColumnMetadata> mapped = new ArrayList<>();
+    mapped.add(metadata.getIdColumn());
+    mapped.addAll(metadata.getColumns());
+    for (ColumnMetadata column : mapped) {
+      Column existing = columns.get(column.getName());
+      if (existing == null) {
+        differences.add(String.format("Column %s.%s does not exist", tableName, column.getName()));
+        continue;
+      }
+      JdbcType type = JdbcType.forClass(column.getAccessor().getType());
+      if (column.getDefinition() == null && !isCompatible(type, existing.sqlType)) {
+        differences.add(String.format("Column %s.%s is %s, expected %s",
+            tableName, column.getName(), existing.typeName, columnType(metadata, column)));
+      }
+      if (column != metadata.getIdColumn() && !column.isNullable() && existing.nullable) {
+        differences.add(String.format("Column %s.%s allows NULL, expected NOT NULL", tableName, column.getName()));
+      }
+    }
+    List<String> primaryKey = readPrimaryKey(databaseMetaData, table);
+    if (primaryKey.size() != 1 || !primaryKey.get(0).equalsIgnoreCase(metadata.getIdName())) {
+      differences.add(String.format("Primary key of %s is %s, expected %s",
+          tableName, primaryKey, metadata.getIdName()));
+    }
+    List<Index> indexes = readIndexes(databaseMetaData, table);
+    for (ColumnMetadata column : metadata.getColumns()) {
+      if (column.isUnique() && !hasIndex(indexes, Collections.singletonList(column.getName()), true)) {
+        differences.add(String.format("Column %s.%s has no unique constraint", tableName, column.getName()));
+      }
+    }
+    for (IndexMetadata index : metadata.getIndexes()) {
+      if (!hasIndex(indexes, index.getColumnNames(), index.isUnique())) {
+        differences.add(String.format("%s %s on %s (%s) does not exist", index.isUnique() ? "Unique index" : "Index",
+            index.getName(), tableName, String.join(", ", index.getColumnNames())));
+      }
+    }
+    return differences;
+  }
+
+  private String createIndexSql(EntityMetadata metadata, IndexMetadata index) {
+    return String.format("CREATE %sINDEX %s ON %s (%s)", index.isUnique() ? "UNIQUE " : "",
+        index.getName(), metadata.getTableName(), String.join(", ", index.getColumnNames()));
+  }
+
+  /**
+   * Returns the type of the id column, generated by the database for integral ids without id generator.
+   */
+  private String idType(EntityMetadata metadata) {
+    ColumnMetadata id = metadata.getIdColumn();
+    String type = columnType(metadata, id);
+    JdbcType jdbcType = JdbcType.forClass(id.getAccessor().getType());
+    boolean integral = jdbcType == JdbcType.INTEGER || jdbcType == JdbcType.BIGINT || jdbcType == JdbcType.SMALLINT;
+    return metadata.getIdGenerator() == null && id.getDefinition() == null && integral
+        ? dialect.identityColumnType(type) : type;
+  }
+
+  private String columnType(EntityMetadata metadata, ColumnMetadata column) {
+    if (column.getDefinition() != null) {
+      return column.getDefinition();
+    }
+    Class<?> type = column.getAccessor().getType();
+    JDBCType jdbcType = JDBCType.valueOf(JdbcType.forClass(type).getSqlType());
+    String sqlType = dialect.columnType(type, jdbcType, column.getLength(), column.isLazy());
+    if (sqlType == null) {
+      throw new ShadeException(String.format("Cannot derive the SQL type of column %s of %s from %s; "
+          + "declare it with @Column(definition)", column.getName(), metadata.getEntityName(), type.getName()));
+    }
+    return sqlType;
+  }
+
+  /**
+   * Returns whether a database column type can hold the values of a JDBC type; unknown types always can.
+   */
+  private static boolean isCompatible(JdbcType type, int sqlType) {
+    switch (type) {
+      case INTEGER:
+      case BIGINT:
+      case SMALLINT:
+      case TINYINT:
+        return isOneOf(sqlType, Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT, Types.NUMERIC,
+            Types.DECIMAL);
+      case DOUBLE:
+      case REAL:
+        return isOneOf(sqlType, Types.REAL, Types.FLOAT, Types.DOUBLE, Types.NUMERIC, Types.DECIMAL);
+      case BOOLEAN:
+        return isOneOf(sqlType, Types.BOOLEAN, Types.BIT, Types.TINYINT, Types.SMALLINT);
+      case VARCHAR:
+        return isOneOf(sqlType, Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR, Types.CLOB, Types.NCHAR,
+            Types.NVARCHAR, Types.LONGNVARCHAR, Types.NCLOB);
+      case DECIMAL:
+        return isOneOf(sqlType, Types.NUMERIC, Types.DECIMAL);
+      case VARBINARY:
+        return isOneOf(sqlType, Types.BINARY, Types.VARBINARY, Types.LONGVARBINARY, Types.BLOB);
+      case DATE:
+        return isOneOf(sqlType, Types.DATE, Types.TIMESTAMP);
+      case TIME:
+        return isOneOf(sqlType, Types.TIME, Types.TIME_WITH_TIMEZONE);
+      case TIMESTAMP:
+        return isOneOf(sqlType, Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE, Types.DATE);
+      default:
+        return true;
+    }
+  }
+
+  private static boolean isOneOf(int sqlType, int... sqlTypes) {
+    for (int candidate : sqlTypes) {
+      if (candidate == sqlType) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean hasIndex(List<Index> indexes, List<String> columnNames, boolean unique) {
+    for (Index index : indexes) {
+      if ((index.unique || !unique) && index.columnNames.size() == columnNames.size()) {
+        boolean matches = true;
+        for (int i = 0; i < columnNames.size(); i++) {
+          matches &= index.columnNames.get(i).equalsIgnoreCase(columnNames.get(i));
+        }
+        if (matches) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Finds a table in the current catalog and schema of the connection, trying the name as given,
+   * in upper case and in lower case.
+   */
+  private static Table findTable(DatabaseMetaData databaseMetaData, String tableName) throws SQLException {
+    String catalog = databaseMetaData.getConnection().getCatalog();
+    String schema = databaseMetaData.getConnection().getSchema();
+    for (String name : new String[]{tableName, tableName.toUpperCase(Locale.ROOT), tableName.toLowerCase(Locale.ROOT)}) {
+      try (ResultSet resultSet = databaseMetaData.getTables(catalog, schema, name, null)) {
+        if (resultSet.next()) {
+          return new Table(resultSet.getString("TABLE_CAT"), resultSet.getString("TABLE_SCHEM"),
+              resultSet.getString("TABLE_NAME"));
+        }
+      }
+    }
+    return null;
+  }
+
+  private static Map<String, Column> readColumns(DatabaseMetaData databaseMetaData, Table table)
+      throws SQLException {
+    Map<String, Column> columns = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    try (ResultSet resultSet = databaseMetaData.getColumns(table.catalog, table.schema, table.name, null)) {
+      while (resultSet.next()) {
+        columns.put(resultSet.getString("COLUMN_NAME"), new Column(resultSet.getInt("DATA_TYPE"),
+            resultSet.getString("TYPE_NAME"), resultSet.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls));
+      }
+    }
+    return columns;
+  }
+
+  private static List<String> readPrimaryKey(DatabaseMetaData databaseMetaData, Table table) throws SQLException {
+    Map<Integer, String> columns = new TreeMap<>();
+    try (ResultSet resultSet = databaseMetaData.getPrimaryKeys(table.catalog, table.schema, table.name)) {
+      while (resultSet.next()) {
+        columns.put(resultSet.getInt("KEY_SEQ"), resultSet.getString("COLUMN_NAME"));
+      }
+    }
+    return new ArrayList<>(columns.values());
+  }
+
+  private static List<Index> readIndexes(DatabaseMetaData databaseMetaData, Table table) throws SQLException {
+    Map<String, Index> indexes = new HashMap<>();
+    try (ResultSet resultSet = databaseMetaData.getIndexInfo(table.catalog, table.schema, table.name, false, false)) {
+      while (resultSet.next()) {
+        String name = resultSet.getString("INDEX_NAME");
+        if (name == null || resultSet.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic) {
+          continue;
+        }
+        Index index = indexes.computeIfAbsent(name, key -> new Index());
+        index.unique = !resultSet.getBoolean("NON_UNIQUE");
+        index.positions.put((int) resultSet.getShort("ORDINAL_POSITION"), resultSet.getString("COLUMN_NAME"));
+      }
+    }
+    List<Index> result = new ArrayList<>(indexes.size());
+    for (Index index : indexes.values()) {
+      index.columnNames.addAll(index.positions.values());
+      result.add(index);
+    }
+    return result;
+  }
+
+  private static final class Table {
+
+    private final String catalog;
+    private final String schema;
+    private final String name;
+
+    private Table(String catalog, String schema, String name) {
+      this.catalog = catalog;
+      this.schema = schema;
+      this.name = name;
+    }
+  }
+
+  private static final class Column {
+
+    private final int sqlType;
+    private final String typeName;
+    private final boolean nullable;
+
+    private Column(int sqlType, String typeName, boolean nullable) {
+      this.sqlType = sqlType;
+      this.typeName = typeName;
+      this.nullable = nullable;
+    }
+  }
+
+  private static final class Index {
+
+    private final Map<Integer, String> positions = new TreeMap<>();
+    private final List<String> columnNames = new ArrayList<>();
+    private boolean unique;
+  }
+}
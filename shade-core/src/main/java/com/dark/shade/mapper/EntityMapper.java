@@ -0,0 +1,23 @@
+package com.dark.shade.mapper;
+
+import java.util.Map;
+
+/**
+ * Entity mapper.
+ * Implemented by the classes which the shade-processor annotation processor generates at compile time,
+ * named after the entity class with the {@link #SUFFIX} suffix. When present, the mapper creates entities
+ * and accesses their members with plain calls instead of method handles. Entity metadata and SQL are still
+ * built from the annotations at runtime.
+ */
+public interface EntityMapper<T> {
+
+  String SUFFIX = "_ShadeMapper";
+
+  T newInstance();
+
+  /**
+   * Returns accessors of the mapped members keyed by member name: the field name for annotated fields
+   * and the getter name for annotated getters. Members missing from the map are accessed reflectively.
+   */
+  Map<String, MemberAccessor> getAccessors();
+}
@@ -0,0 +1,47 @@
+package com.dark.shade.mapper;
+
+/**
+ * Member accessor.
+ * Reads and writes one mapped member of an entity on behalf of an {@link EntityMapper}. The primitive
+ * methods let generated accessors of primitive members skip boxing.
+ */
+public interface MemberAccessor {
+
+  Class<?> getType();
+
+  Object get(Object entity);
+
+  void set(Object entity, Object value);
+
+  default int getInt(Object entity) {
+    return (Integer) get(entity);
+  }
+
+  default void setInt(Object entity, int value) {
+    set(entity, value);
+  }
+
+  default long getLong(Object entity) {
+    return (Long) get(entity);
+  }
+
+  default void setLong(Object entity, long value) {
+    set(entity, value);
+  }
+
+  default double getDouble(Object entity) {
+    return (Double) get(entity);
+  }
+
+  default void setDouble(Object entity, double value) {
+    set(entity, value);
+  }
+
+  default boolean getBoolean(Object entity) {
+    return (Boolean) get(entity);
+  }
+
+  default void setBoolean(Object entity, boolean value) {
+    set(entity, value);
+  }
+}
@@ -0,0 +1,77 @@
+package com.dark.shade.metrics;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Listener aggregating operation statistics in memory, per entity class and operation.
+ * Recording is lock-free; statistics of an entity are allocated on its first operation.
+ */
+public final class InMemoryMetrics implements ShadeListener {
+
+  private final ConcurrentHashMap<Class<?>, OperationStats[]> entityStats = new ConcurrentHashMap<>();
+  private final OperationStats[] transactionStats = newStats();
+
+  @Override
+  public void onOperation(OperationEvent event) {
+    statsOf(event.getEntityClass())[event.getOperation().ordinal()].record(event);
+  }
+
+  /**
+   * Returns the statistics of an operation of the given entity class, or of transactions when it is null.
+   */
+  public OperationStats getStats(Class<?> entityClass, Operation operation) {
+    return statsOf(entityClass)[operation.ordinal()];
+  }
+
+  /**
+   * Returns the statistics of the operations which ran at least once, by entity class and operation;
+   * transaction statistics are keyed by null.
+   */
+  public Map<Class<?>, Map<Operation, OperationStats>> getStats() {
+    Map<Class<?>, Map<Operation, OperationStats>> result = new LinkedHashMap<>();
+    putUsed(result, null, transactionStats);
+    for (Map.Entry<Class<?>, OperationStats[]> entry : entityStats.entrySet()) {
+      putUsed(result, entry.getKey(), entry.getValue());
+    }
+    return result;
+  }
+
+  public void reset() {
+    entityStats.clear();
+    for (int i = 0; i < transactionStats.length; i++) {
+      transactionStats[i] = new OperationStats();
+    }
+  }
+
+  private OperationStats[] statsOf(Class<?> entityClass) {
+    if (entityClass == null) {
+      return transactionStats;
+    }
+    OperationStats[] stats = entityStats.get(entityClass);
+    return stats != null ? stats : entityStats.computeIfAbsent(entityClass, type -> newStats());
+  }
+
+  private static void putUsed(Map<Class<?>, Map<Operation, OperationStats>> result, Class<?> entityClass,
+                              OperationStats[] stats) {
+    Map<Operation, OperationStats> used = new EnumMap<>(Operation.class);
+    for (Operation operation : Operation.values()) {
+      if (stats[operation.ordinal()].getCount() > 0) {
+        used.put(operation, stats[operation.ordinal()]);
+      }
+    }
+    if (!used.isEmpty()) {
+      result.put(entityClass, used);
+    }
+  }
+
+  private static OperationStats[] newStats() {
+    OperationStats[] stats = new OperationStats[Operation.values().length];
+    for (int i = 0; i < stats.length; i++) {
+      stats[i] = new OperationStats();
+    }
+    return stats;
+  }
+}
@@ -0,0 +1,9 @@
+package com.dark.shade.metrics;
+
+/**
+ * Entity manager operation reported to a {@link ShadeListener}.
+ */
+public enum Operation {
+
+  PERSIST, BULK_INSERT, UPSERT, FIND, FIND_ALL, LOAD_COLUMN, STREAM, SCAN, COUNT, CONTAINS, REMOVE, REMOVE_ALL, COMMIT
+}
@@ -0,0 +1,108 @@
+package com.dark.shade.metrics;
+
+/**
+ * Timings and counts of one entity manager operation.
+ * Writes queued in a transaction are reported by the flush that executes them, as one event per batch;
+ * the transaction commit itself is reported as {@link Operation#COMMIT} without entity class.
+ */
+public final class OperationEvent {
+
+  private final Class<?> entityClass;
+  private final Operation operation;
+  private final long durationNanos;
+  private final long prepareNanos;
+  private final long executeNanos;
+  private final long mappingNanos;
+  private final long commitNanos;
+  private final int statements;
+  private final long rowsRead;
+  private final long rowsWritten;
+  private final String sql;
+  private final Throwable failure;
+
+  public OperationEvent(Class<?> entityClass, Operation operation, long durationNanos, long prepareNanos,
+                        long executeNanos, long mappingNanos, long commitNanos, int statements, long rowsRead,
+                        long rowsWritten, String sql, Throwable failure) {
+    this.entityClass = entityClass;
+    this.operation = operation;
+    this.durationNanos = durationNanos;
+    this.prepareNanos = prepareNanos;
+    this.executeNanos = executeNanos;
+    this.mappingNanos = mappingNanos;
+    this.commitNanos = commitNanos;
+    this.statements = statements;
+    this.rowsRead = rowsRead;
+    this.rowsWritten = rowsWritten;
+    this.sql = sql;
+    this.failure = failure;
+  }
+
+  /**
+   * Returns the entity class, or null for a transaction commit.
+   */
+  public Class<?> getEntityClass() {
+    return entityClass;
+  }
+
+  public Operation getOperation() {
+    return operation;
+  }
+
+  /**
+   * Returns the whole operation time, including connection borrowing.
+   */
+  public long getDurationNanos() {
+    return durationNanos;
+  }
+
+  /**
+   * Returns the time spent getting prepared statements, mostly statement cache misses.
+   */
+  public long getPrepareNanos() {
+    return prepareNanos;
+  }
+
+  /**
+   * Returns the time spent executing statements until the database answered.
+   */
+  public long getExecuteNanos() {
+    return executeNanos;
+  }
+
+  /**
+   * Returns the time spent reading result sets into entities, including fetches of further rows.
+   */
+  public long getMappingNanos() {
+    return mappingNanos;
+  }
+
+  public long getCommitNanos() {
+    return commitNanos;
+  }
+
+  public int getStatements() {
+    return statements;
+  }
+
+  public long getRowsRead() {
+    return rowsRead;
+  }
+
+  public long getRowsWritten() {
+    return rowsWritten;
+  }
+
+  /**
+   * Returns the last executed statement, or null.
+   */
+  public String getSql() {
+    return sql;
+  }
+
+  /**
+   * Returns the failure of the operation, or null when it succeeded.
+   */
+  public Throwable getFailure() {
+    return failure;
+  }
+}
@@ -0,0 +1,129 @@
+package com.dark.shade.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free statistics of one operation of one entity.
+ * Latencies are kept in a histogram with power of two nanosecond buckets, so percentiles are upper bounds
+ * within a factor of two.
+ */
+public final class OperationStats {
+
+  private static final int BUCKETS = 64;
+
+  private final LongAdder count = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+  private final LongAdder prepareNanos = new LongAdder();
+  private final LongAdder executeNanos = new LongAdder();
+  private final LongAdder mappingNanos = new LongAdder();
+  private final LongAdder commitNanos = new LongAdder();
+  private final LongAdder statements = new LongAdder();
+  private final LongAdder rowsRead = new LongAdder();
+  private final LongAdder rowsWritten = new LongAdder();
+  private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+  void record(OperationEvent event) {
+    long duration = Math.max(event.getDurationNanos(), 0);
+    count.increment();
+    if (event.getFailure() != null) {
+      failures.increment();
+    }
+    totalNanos.add(duration);
+    maxNanos.accumulate(duration);
+    prepareNanos.add(event.getPrepareNanos());
+    executeNanos.add(event.getExecuteNanos());
+    mappingNanos.add(event.getMappingNanos());
+    commitNanos.add(event.getCommitNanos());
+    statements.add(event.getStatements());
+    rowsRead.add(event.getRowsRead());
+    rowsWritten.add(event.getRowsWritten());
+    histogram.incrementAndGet(Math.min(BUCKETS - Long.numberOfLeadingZeros(duration), BUCKETS - 1));
+  }
+
+  public long getCount() {
+    return count.sum();
+  }
+
+  public long getFailures() {
+    return failures.sum();
+  }
+
+  public long getTotalNanos() {
+    return totalNanos.sum();
+  }
+
+  public long getMaxNanos() {
+    return maxNanos.get();
+  }
+
+  public long getMeanNanos() {
+    long operations = count.sum();
+    return operations == 0 ? 0 : totalNanos.sum() / operations;
+  }
+
+  /**
+   * Returns the upper bound of the bucket holding the given percentile, e.g. 99 for p99, capped by the maximum;
+   * 0 without data.
+   */
+  public long getPercentileNanos(double percentile) {
+    long[] buckets = new long[BUCKETS];
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      buckets[i] = histogram.get(i);
+      total += buckets[i];
+    }
+    if (total == 0) {
+      return 0;
+    }
+    long rank = (long) Math.ceil(total * Math.min(Math.max(percentile, 0), 100) / 100);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += buckets[i];
+      if (seen >= Math.max(rank, 1)) {
+        return i == BUCKETS - 1 ? maxNanos.get() : Math.min((1L << i) - 1, maxNanos.get());
+      }
+    }
+    return maxNanos.get();
+  }
+
+  public long getPrepareNanos() {
+    return prepareNanos.sum();
+  }
+
+  public long getExecuteNanos() {
+    return executeNanos.sum();
+  }
+
+  public long getMappingNanos() {
+    return mappingNanos.sum();
+  }
+
+  public long getCommitNanos() {
+    return commitNanos.sum();
+  }
+
+  public long getStatements() {
+    return statements.sum();
+  }
+
+  public long getRowsRead() {
+    return rowsRead.sum();
+  }
+
+  public long getRowsWritten() {
+    return rowsWritten.sum();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("count=%d, failures=%d, mean=%dus, p50=%dus, p99=%dus, max=%dus, prepare=%dus, "
+            + "execute=%dus, mapping=%dus, commit=%dus, statements=%d, rowsRead=%d, rowsWritten=%d",
+        getCount(), getFailures(), getMeanNanos() / 1000, getPercentileNanos(50) / 1000,
+        getPercentileNanos(99) / 1000, getMaxNanos() / 1000, getPrepareNanos() / 1000, getExecuteNanos() / 1000,
+        getMappingNanos() / 1000, getCommitNanos() / 1000, getStatements(), getRowsRead(), getRowsWritten());
+  }
+}
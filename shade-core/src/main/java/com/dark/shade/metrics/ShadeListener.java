@@ -0,0 +1,11 @@
+package com.dark.shade.metrics;
+
+/**
+ * Shade listener.
+ * Receives an event for every entity manager operation which reaches the database, on the thread which ran it.
+ * Implementations must be thread-safe and fast, as they run on the operation's critical path.
+ */
+public interface ShadeListener {
+
+  void onOperation(OperationEvent event);
+}
@@ -0,0 +1,66 @@
+package com.dark.shade.repository;
+
+import com.dark.shade.exception.ShadeException;
+import com.dark.shade.internal.EntityManager;
+import com.dark.shade.internal.EntityMetadata;
+import com.dark.shade.internal.parser.EntityRegistry;
+
+import java.util.Iterator;
+
+/**
+ * Bulk loader.
+ * Inserts entities with multi-row INSERT statements, streaming them from an iterator such as a
+ * {@link CsvRowSource}, so no more than one statement of rows is held in memory. Outside a transaction
+ * every statement is committed on its own. The rows per statement are capped so that a statement stays
+ * within the bind parameters of the session dialect.
+ */
+public final class BulkLoader<T> {
+
+  public static final int DEFAULT_ROWS_PER_STATEMENT = 500;
+
+  private final EntityManager em;
+  private final EntityMetadata metadata;
+  private int rowsPerStatement = DEFAULT_ROWS_PER_STATEMENT;
+  private boolean returnIds;
+
+  BulkLoader(Class<T> type) {
+    em = EntityManager.getManager();
+    metadata = EntityRegistry.getMetadata(type);
+  }
+
+  public int getRowsPerStatement() {
+    return rowsPerStatement;
+  }
+
+  public BulkLoader<T> setRowsPerStatement(int rowsPerStatement) {
+    if (rowsPerStatement < 1) {
+      throw new ShadeException(String.format("Rows per statement must be positive: %d", rowsPerStatement));
+    }
+    this.rowsPerStatement = rowsPerStatement;
+    return this;
+  }
+
+  public boolean isReturnIds() {
+    return returnIds;
+  }
+
+  /**
+   * Whether ids generated by the database are read back into the loaded entities; off by default, as fetching
+   * them costs a result set per statement. Ids of HILO, POOLED and UUID strategies are assigned regardless.
+   */
+  public BulkLoader<T> setReturnIds(boolean returnIds) {
+    this.returnIds = returnIds;
+    return this;
+  }
+
+  /**
+   * Inserts the remaining entities of the iterator and returns their number.
+   */
+  public long load(Iterator<? extends T> entities) {
+    return em.bulkInsert(metadata, entities, rowsPerStatement, returnIds);
+  }
+
+  public long load(Iterable<? extends T> entities) {
+    return load(entities.iterator());
+  }
+}
@@ -0,0 +1,217 @@
+package com.dark.shade.repository;
+
+import com.dark.shade.exception.ShadeException;
+import com.dark.shade.internal.ColumnMetadata;
+import com.dark.shade.internal.EntityMetadata;
+import com.dark.shade.internal.jdbc.JdbcType;
+import com.dark.shade.internal.parser.EntityRegistry;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * CSV row source.
+ * Reads entities one record at a time from CSV text whose header names the columns. Fields follow RFC 4180:
+ * they may be quoted, with doubled quotes inside quoted fields, and an empty unquoted field is null.
+ * A header column matching the id is ignored, as ids are generated on insert.
+ */
+public final class CsvRowSource<T> implements Iterator<T>, Closeable {
+
+  private final Class<T> type;
+  private final EntityMetadata metadata;
+  private final BufferedReader reader;
+  private final char delimiter;
+  private final ColumnMetadata[] columns;
+  private final JdbcType[] types;
+  private final String[] headers;
+  private List<String> next;
+  private long recordNumber;
+
+  public CsvRowSource(Class<T> type, Reader reader) {
+    this(type, reader, ',');
+  }
+
+  public CsvRowSource(Class<T> type, Reader reader, char delimiter) {
+    this.type = type;
+    this.metadata = EntityRegistry.getMetadata(type);
+    this.reader = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+    this.delimiter = delimiter;
+    List<String> header = readRecord();
+    if (header == null) {
+      throw new ShadeException("CSV input has no header");
+    }
+    headers = header.toArray(new String[0]);
+    columns = new ColumnMetadata[headers.length];
+    types = new JdbcType[headers.length];
+    for (int i = 0; i < headers.length; i++) {
+      ColumnMetadata column = metadata.findColumn(headers[i].trim());
+      if (column == null) {
+        throw new ShadeException(String.format(
+            "CSV column %s is not mapped by entity %s", headers[i], metadata.getEntityName()));
+      }
+      if (column != metadata.getIdColumn()) {
+        columns[i] = column;
+        types[i] = JdbcType.forClass(column.getAccessor().getType());
+        if (types[i] == JdbcType.OTHER) {
+          throw new ShadeException(String.format(
+              "CSV column %s has unsupported type %s", headers[i], column.getAccessor().getType().getName()));
+        }
+      }
+    }
+    next = readRecord();
+  }
+
+  @Override
+  public boolean hasNext() {
+    return next != null;
+  }
+
+  @Override
+  public T next() {
+    if (next == null) {
+      throw new NoSuchElementException();
+    }
+    List<String> record = next;
+    if (record.size() != headers.length) {
+      throw new ShadeException(String.format(
+          "CSV record %d has %d fields, expected %d", recordNumber, record.size(), headers.length));
+    }
+    T entity;
+    try {
+      entity = type.cast(metadata.newInstance());
+      for (int i = 0; i < headers.length; i++) {
+        if (columns[i] != null) {
+          columns[i].getAccessor().set(entity, convert(i, record.get(i)));
+        }
+      }
+    } catch (IllegalAccessException | InvocationTargetException | RuntimeException e) {
+      throw new ShadeException(String.format("Cannot read CSV record %d: %s", recordNumber, e.getMessage()), e);
+    }
+    next = readRecord();
+    return entity;
+  }
+
+  @Override
+  public void close() {
+    try {
+      reader.close();
+    } catch (IOException e) {
+      throw new ShadeException(String.format("Cannot close CSV input: %s", e.getMessage()), e);
+    }
+  }
+
+  private Object convert(int index, String value) {
+    if (value == null) {
+      if (columns[index].getAccessor().getType().isPrimitive()) {
+        throw new ShadeException(String.format("CSV column %s must not be empty", headers[index]));
+      }
+      return null;
+    }
+    switch (types[index]) {
+      case INTEGER:
+        return Integer.valueOf(value.trim());
+      case BIGINT:
+        return Long.valueOf(value.trim());
+      case SMALLINT:
+        return Short.valueOf(value.trim());
+      case TINYINT:
+        return Byte.valueOf(value.trim());
+      case DOUBLE:
+        return Double.valueOf(value.trim());
+      case REAL:
+        return Float.valueOf(value.trim());
+      case BOOLEAN:
+        return parseBoolean(headers[index], value.trim());
+      case DECIMAL:
+        return new BigDecimal(value.trim());
+      case VARBINARY:
+        return Base64.getDecoder().decode(value.trim());
+      case DATE:
+        return Date.valueOf(value.trim());
+      case TIME:
+        return Time.valueOf(value.trim());
+      case TIMESTAMP:
+        return Timestamp.valueOf(value.trim());
+      default:
+        return value;
+    }
+  }
+
+  private static Boolean parseBoolean(String header, String value) {
+    if (value.equalsIgnoreCase("true") || value.equals("1")) {
+      return Boolean.TRUE;
+    }
+    if (value.equalsIgnoreCase("false") || value.equals("0")) {
+      return Boolean.FALSE;
+    }
+    throw new ShadeException(String.format("CSV column %s has invalid boolean %s", header, value));
+  }
+
+  /**
+   * Reads the fields of the next record, or returns null at the end of the input.
+   */
+  private List<String> readRecord() {
+    try {
+      int c = reader.read();
+      if (c == -1) {
+        return null;
+      }
+      recordNumber++;
+      List<String> fields = new ArrayList<>();
+      StringBuilder field = new StringBuilder();
+      boolean quoted = false;
+      boolean wasQuoted = false;
+      while (true) {
+        if (quoted) {
+          if (c == -1) {
+            throw new ShadeException(String.format("CSV record %d has an unterminated quote", recordNumber));
+          }
+          if (c == '"') {
+            reader.mark(1);
+            if (reader.read() == '"') {
+              field.append('"');
+            } else {
+              reader.reset();
+              quoted = false;
+            }
+          } else {
+            field.append((char) c);
+          }
+        } else if (c == '"' && field.length() == 0 && !wasQuoted) {
+          quoted = true;
+          wasQuoted = true;
+        } else if (c == delimiter || c == '\n' || c == '\r' || c == -1) {
+          fields.add(field.length() == 0 && !wasQuoted ? null : field.toString());
+          field.setLength(0);
+          wasQuoted = false;
+          if (c != delimiter) {
+            if (c == '\r') {
+              reader.mark(1);
+              if (reader.read() != '\n') {
+                reader.reset();
+              }
+            }
+            return fields;
+          }
+        } else {
+          field.append((char) c);
+        }
+        c = reader.read();
+      }
+    } catch (IOException e) {
+      throw new ShadeException(String.format("Cannot read CSV input: %s", e.getMessage()), e);
+    }
+  }
+}
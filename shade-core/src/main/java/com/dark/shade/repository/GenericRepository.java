@@ -0,0 +1,143 @@
+package com.dark.shade.repository;
+
+import com.dark.shade.exception.ShadeException;
+import com.dark.shade.internal.EntityManager;
+import com.dark.shade.internal.EntityMetadata;
+import com.dark.shade.internal.parser.EntityRegistry;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Generic Repository.
+ */
+public class GenericRepository<T, ID> implements Repository<T, ID> {
+
+  private final Class<T> type;
+  private final EntityManager em;
+  private final EntityMetadata metadata;
+
+  GenericRepository(Class<T> type) {
+    this.type = type;
+    em = EntityManager.getManager();
+    metadata = EntityRegistry.getMetadata(type);
+  }
+
+  public T save(T entity) {
+    em.persist(metadata, entity);
+    return entity;
+  }
+
+  public List<T> save(Iterable<T> entities) {
+    List<T> savedEntities = new ArrayList<>();
+    for (T entity : entities) {
+      savedEntities.add(entity);
+    }
+    em.persistAll(metadata, savedEntities);
+    return savedEntities;
+  }
+
+  public T upsert(T entity) {
+    em.upsert(metadata, entity);
+    return entity;
+  }
+
+  public List<T> upsert(Iterable<T> entities) {
+    List<T> upsertedEntities = new ArrayList<>();
+    for (T entity : entities) {
+      upsertedEntities.add(entity);
+    }
+    em.upsertAll(metadata, upsertedEntities);
+    return upsertedEntities;
+  }
+
+  public long bulkInsert(Iterator<? extends T> entities) {
+    return em.bulkInsert(metadata, entities, BulkLoader.DEFAULT_ROWS_PER_STATEMENT, false);
+  }
+
+  public T findOne(ID id) {
+    return em.find(metadata, type, id);
+  }
+
+  public boolean exists(ID id) {
+    return em.contains(metadata, id);
+  }
+
+  public List<T> findAll() {
+    return em.findAll(metadata, type);
+  }
+
+  public List<T> findAll(Iterable<ID> ids) {
+    return em.findAll(metadata, type, ids);
+  }
+
+  public Object loadColumn(T entity, String column) {
+    return em.loadColumn(metadata, entity, column);
+  }
+
+  public void fetch(Iterable<T> entities, String relation) {
+    em.fetch(metadata, entities, relation);
+  }
+
+  public InputStream openStream(ID id, String column) {
+    return em.openBinaryStream(metadata, id, column);
+  }
+
+  public Reader openReader(ID id, String column) {
+    return em.openCharacterStream(metadata, id, column);
+  }
+
+  public Stream<T> streamAll() {
+    return em.stream(metadata, type);
+  }
+
+  public void forEach(Consumer<T> action) {
+    try (Stream<T> entities = streamAll()) {
+      entities.forEach(action);
+    }
+  }
+
+  public Stream<T> parallelStreamAll(int partitions) {
+    return em.parallelStream(metadata, type, partitions);
+  }
+
+  public void parallelForEach(int partitions, Consumer<? super T> action) {
+    em.parallelForEach(metadata, type, partitions, action);
+  }
+
+  @SuppressWarnings("unchecked")
+  public Slice<T, ID> findPage(ID afterId, int limit) {
+    if (limit < 1 || limit == Integer.MAX_VALUE) {
+      throw new ShadeException(String.format("Page limit must be between 1 and %d: %d", Integer.MAX_VALUE - 1, limit));
+    }
+    // one row more than the limit tells whether a next page exists
+    List<T> entities = em.findPage(metadata, type, afterId, limit + 1);
+    boolean hasNext = entities.size() > limit;
+    if (hasNext) {
+      entities = entities.subList(0, limit);
+    }
+    ID lastId = null;
+    if (!entities.isEmpty()) {
+      try {
+        lastId = (ID) metadata.getIdAccessor().get(entities.get(entities.size() - 1));
+      } catch (IllegalAccessException | InvocationTargetException e) {
+        throw new ShadeException(e.getMessage(), e);
+      }
+    }
+    return new Slice<>(entities, lastId, hasNext);
+  }
+
+  public void delete(ID id) {
+    em.remove(metadata, id);
+  }
+
+  public void deleteAll() {
+    em.removeAll(metadata);
+  }
+}
@@ -0,0 +1,102 @@
+package com.dark.shade.repository;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Repository.
+ */
+public interface Repository<T, ID> {
+
+  T save(T entity);
+
+  List<T> save(Iterable<T> entities);
+
+  /**
+   * Inserts the entities of an iterator with multi-row INSERT statements and returns their number,
+   * without reading back generated ids. See {@link BulkLoader} for the tunable variant.
+   */
+  long bulkInsert(Iterator<? extends T> entities);
+
+  /**
+   * Inserts the entity, or updates the row with its id when one exists, in one statement.
+   * The entity must have an id.
+   */
+  T upsert(T entity);
+
+  /**
+   * Upserts the entities with JDBC batches.
+   */
+  List<T> upsert(Iterable<T> entities);
+
+  T findOne(ID id);
+
+  boolean exists(ID id);
+
+  List<T> findAll();
+
+  /**
+   * Loads a column left out when the entity was loaded, see {@link com.dark.shade.annotation.Column#lazy()},
+   * sets it on the entity and returns its value.
+   */
+  Object loadColumn(T entity, String column);
+
+  /**
+   * Loads a relation of the entities, see {@link com.dark.shade.annotation.ManyToOne} and
+   * {@link com.dark.shade.annotation.OneToMany}, and sets it on them. The relation of all entities is loaded
+   * with one IN-list query, chunked for large numbers of entities.
+   *
+   * @param relation name of the member mapping the relation
+   */
+  void fetch(Iterable<T> entities, String relation);
+
+  /**
+   * Opens a stream over a binary column of the entity with the given id, without loading the value into memory.
+   * Returns null when the value is null. The stream must be closed to release its connection.
+   */
+  InputStream openStream(ID id, String column);
+
+  /**
+   * Opens a reader over a character column of the entity with the given id, like {@link #openStream}.
+   */
+  Reader openReader(ID id, String column);
+
+  List<T> findAll(Iterable<ID> ids);
+
+  /**
+   * Streams all entities with a server-side cursor. The stream must be closed to release its connection
+   * unless it is fully consumed.
+   */
+  Stream<T> streamAll();
+
+  void forEach(Consumer<T> action);
+
+  /**
+   * Streams all entities in parallel, reading up to {@code partitions} ranges of ids, split between the lowest
+   * and highest id, each with its own query and pooled connection. The id must be integral. The stream must be
+   * closed to release its connections unless it is fully consumed.
+   */
+  Stream<T> parallelStreamAll(int partitions);
+
+  /**
+   * Passes all entities to a thread-safe action from {@code partitions} threads, each reading ranges of ids
+   * like {@link #parallelStreamAll(int)}, and returns when all are passed. The connection pool should allow
+   * at least {@code partitions} connections.
+   */
+  void parallelForEach(int partitions, Consumer<? super T> action);
+
+  /**
+   * Finds the next {@code limit} entities after the given id in id order, using keyset pagination.
+   * Passing null as {@code afterId} returns the first page. The limit must be between 1 and
+   * {@code Integer.MAX_VALUE - 1}, as one more row is read to tell whether there is a next page.
+   */
+  Slice<T, ID> findPage(ID afterId, int limit);
+
+  void delete(ID id);
+
+  void deleteAll();
+}
@@ -0,0 +1,105 @@
+package com.dark.shade.repository;
+
+import com.dark.shade.config.SessionSettings;
+import com.dark.shade.exception.ShadeException;
+import com.dark.shade.internal.EntityManager;
+import com.dark.shade.internal.EntityMetadata;
+import com.dark.shade.internal.parser.EntityRegistry;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Repository factory.
+ */
+public final class RepositoryFactory {
+
+  public static void init(String url, String user, String pass) {
+    EntityManager.getManager().createSession(url, user, pass);
+  }
+
+  /**
+   * Initializes the session with the given connection pool settings.
+   */
+  public static void init(String url, String user, String pass, SessionSettings settings) {
+    EntityManager.getManager().createSession(url, user, pass, settings);
+  }
+
+  /**
+   * Sets the number of statements sent per JDBC batch by {@link Repository#save(Iterable)}.
+   */
+  public static void setBatchSize(int batchSize) {
+    EntityManager.getManager().setBatchSize(batchSize);
+  }
+
+  /**
+   * Begins a transaction bound to the current thread.
+   */
+  public static Transaction beginTransaction() {
+    return new Transaction(EntityManager.getManager());
+  }
+
+  /**
+   * Parses and validates all entity classes in the given packages ahead of repository creation,
+   * so mapping errors surface at startup.
+   */
+  public static void scan(String... packageNames) {
+    EntityRegistry.scan(packageNames);
+  }
+
+  /**
+   * Returns the DDL creating the tables, id sequences and indexes of the given entity classes, in the session dialect.
+   */
+  public static List<String> generateSchema(Class<?>... types) {
+    return EntityManager.getManager().generateSchema(metadata(types));
+  }
+
+  /**
+   * Creates the tables and indexes of the given entity classes that do not exist and returns the DDL executed.
+   * Columns of existing tables are not altered; {@link #validateSchema} reports their differences.
+   */
+  public static List<String> createSchema(Class<?>... types) {
+    return EntityManager.getManager().createSchema(metadata(types));
+  }
+
+  /**
+   * Checks the tables of the given entity classes against their mappings, throwing with all differences found.
+   */
+  public static void validateSchema(Class<?>... types) {
+    List<String> differences = EntityManager.getManager().validateSchema(metadata(types));
+    if (!differences.isEmpty()) {
+      throw new ShadeException(String.format("Invalid database schema:%n%s",
+          String.join(String.format("%n"), differences)));
+    }
+  }
+
+  public static <T, ID> Repository<T, ID> createRepository(Class<T> type) {
+    return new GenericRepository<>(type);
+  }
+
+  /**
+   * Creates an implementation of a repository interface extending {@link Repository}, whose other methods
+   * are queries derived from their names, such as {@code findByStatusAndCreatedAfter} or {@code countByStatus}.
+   * Method names are parsed into SQL here, once, so invalid ones fail at creation.
+   */
+  public static <T, R extends Repository<T, ?>> R createRepository(Class<T> type, Class<R> repositoryInterface) {
+    if (!repositoryInterface.isInterface()) {
+      throw new ShadeException(String.format("Repository %s must be an interface", repositoryInterface.getName()));
+    }
+    return repositoryInterface.cast(Proxy.newProxyInstance(repositoryInterface.getClassLoader(),
+        new Class<?>[]{repositoryInterface}, new RepositoryInvocationHandler<>(type, repositoryInterface)));
+  }
+
+  public static <T> BulkLoader<T> createBulkLoader(Class<T> type) {
+    return new BulkLoader<>(type);
+  }
+
+  private static List<EntityMetadata> metadata(Class<?>... types) {
+    List<EntityMetadata> entities = new ArrayList<>(types.length);
+    for (Class<?> type : types) {
+      entities.add(EntityRegistry.getMetadata(type));
+    }
+    return entities;
+  }
+}
@@ -0,0 +1,142 @@
+package com.dark.shade.repository;
+
+import com.dark.shade.exception.ShadeException;
+import com.dark.shade.internal.EntityManager;
+import com.dark.shade.internal.EntityMetadata;
+import com.dark.shade.internal.parser.EntityRegistry;
+import com.dark.shade.internal.query.QueryMethodParser;
+import com.dark.shade.internal.query.QueryPlan;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Repository invocation handler.
+ * Implements a repository interface: the {@link Repository} methods are delegated to a {@link GenericRepository}
+ * and the other methods run the query plans parsed from their names when the repository is created.
+ */
+final class RepositoryInvocationHandler<T> implements InvocationHandler {
+
+  private static final Object[] NO_ARGUMENTS = new Object[0];
+
+  private final Class<T> type;
+  private final Class<?> repositoryInterface;
+  private final EntityManager em;
+  private final EntityMetadata metadata;
+  private final GenericRepository<T, ?> repository;
+  private final Map<Method, Method> delegates = new HashMap<>();
+  private final Map<Method, QueryPlan> queries = new HashMap<>();
+
+  RepositoryInvocationHandler(Class<T> type, Class<?> repositoryInterface) {
+    this.type = type;
+    this.repositoryInterface = repositoryInterface;
+    em = EntityManager.getManager();
+    metadata = EntityRegistry.getMetadata(type);
+    repository = new GenericRepository<>(type);
+    for (Method method : repositoryInterface.getMethods()) {
+      if (Modifier.isStatic(method.getModifiers())) {
+        continue;
+      }
+      Method delegate = findRepositoryMethod(method);
+      if (delegate != null) {
+        delegates.put(method, delegate);
+      } else if (method.isDefault()) {
+        throw new ShadeException(String.format("Default method %s of repository %s is not supported",
+            method.getName(), repositoryInterface.getName()));
+      } else {
+        queries.put(method, QueryMethodParser.parse(metadata, method));
+      }
+    }
+  }
+
+  @Override
+  public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+    if (method.getDeclaringClass() == Object.class) {
+      switch (method.getName()) {
+        case "equals":
+          return proxy == args[0];
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        default:
+          return String.format("%s of %s", repositoryInterface.getSimpleName(), type.getName());
+      }
+    }
+    QueryPlan plan = queries.get(method);
+    if (plan == null) {
+      try {
+        return delegates.get(method).invoke(repository, args);
+      } catch (InvocationTargetException e) {
+        throw e.getCause();
+      }
+    }
+    Object[] arguments = args == null ? NO_ARGUMENTS : args;
+    switch (plan.getKind()) {
+      case LIST:
+        return em.findAll(metadata, type, plan, arguments);
+      case STREAM:
+        return em.stream(metadata, type, plan, arguments);
+      case SINGLE:
+      case OPTIONAL:
+        List<T> entities = em.findAll(metadata, type, plan, arguments);
+        if (entities.size() > 1) {
+          throw new ShadeException(String.format(
+              "Query %s found more than one %s", method.getName(), metadata.getEntityName()));
+        }
+        T entity = entities.isEmpty() ? null : entities.get(0);
+        return plan.getKind() == QueryPlan.Kind.OPTIONAL ? Optional.ofNullable(entity) : entity;
+      case COUNT:
+        return count(method, em.count(metadata, plan, arguments));
+      case EXISTS:
+        return em.contains(metadata, plan, arguments);
+      default:
+        return count(method, em.removeAll(metadata, plan, arguments));
+    }
+  }
+
+  /**
+   * Returns the {@link Repository} method the given method declares or redeclares, or null for a query method.
+   * Of overloads such as {@code save(T)} and {@code save(Iterable)}, the most specific one matches.
+   */
+  private static Method findRepositoryMethod(Method method) {
+    if (method.getDeclaringClass() == Repository.class) {
+      return method;
+    }
+    Method match = null;
+    for (Method candidate : Repository.class.getMethods()) {
+      if (candidate.getName().equals(method.getName())
+          && candidate.getParameterCount() == method.getParameterCount()
+          && accepts(candidate, method.getParameterTypes())
+          && (match == null || accepts(match, candidate.getParameterTypes()))) {
+        match = candidate;
+      }
+    }
+    return match;
+  }
+
+  private static boolean accepts(Method method, Class<?>[] parameterTypes) {
+    Class<?>[] types = method.getParameterTypes();
+    for (int i = 0; i < types.length; i++) {
+      if (!types[i].isAssignableFrom(parameterTypes[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static Object count(Method method, long count) {
+    Class<?> returnType = method.getReturnType();
+    if (returnType == void.class) {
+      return null;
+    }
+    if (returnType == int.class || returnType == Integer.class) {
+      return (int) count;
+    }
+    return count;
+  }
+}
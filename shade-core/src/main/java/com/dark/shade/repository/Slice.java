@@ -0,0 +1,36 @@
+package com.dark.shade.repository;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Slice of entities ordered by id, as returned by keyset pagination.
+ */
+public final class Slice<T, ID> {
+
+  private final List<T> content;
+  private final ID lastId;
+  private final boolean hasNext;
+
+  public Slice(List<T> content, ID lastId, boolean hasNext) {
+    this.content = Collections.unmodifiableList(content);
+    this.lastId = lastId;
+    this.hasNext = hasNext;
+  }
+
+  public List<T> getContent() {
+    return content;
+  }
+
+  /**
+   * Id of the last entity of the slice, to be passed as {@code afterId} for the next page;
+   * null for an empty slice.
+   */
+  public ID getLastId() {
+    return lastId;
+  }
+
+  public boolean hasNext() {
+    return hasNext;
+  }
+}
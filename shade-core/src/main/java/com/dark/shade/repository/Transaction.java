@@ -0,0 +1,50 @@
+package com.dark.shade.repository;
+
+import com.dark.shade.internal.EntityManager;
+import com.dark.shade.internal.UnitOfWork;
+
+/**
+ * Transaction.
+ * Bound to the thread which began it. Repositories used in that thread share its connection:
+ * {@link Repository#findOne} is served from the identity map when the entity was already loaded or saved,
+ * and saves and deletes are queued and flushed as JDBC batches before queries and on {@link #commit()}.
+ * Closing a transaction which was not committed rolls it back. A rollback, or a failed commit, also gives the entities
+ * saved in the transaction back the ids and versions they had before it, so they can be saved again.
+ */
+public final class Transaction implements AutoCloseable {
+
+  private final EntityManager em;
+  private final UnitOfWork unit;
+
+  Transaction(EntityManager em) {
+    this.em = em;
+    this.unit = em.begin();
+  }
+
+  public void flush() {
+    em.flush(unit);
+  }
+
+  /**
+   * Flushes the queued writes and commits them, throwing
+   * {@link com.dark.shade.exception.OptimisticLockException} as is when a versioned update conflicts.
+   */
+  public void commit() {
+    em.commit(unit);
+  }
+
+  public void rollback() {
+    em.rollback(unit);
+  }
+
+  public boolean isActive() {
+    return unit.isActive();
+  }
+
+  @Override
+  public void close() {
+    if (unit.isActive()) {
+      rollback();
+    }
+  }
+}
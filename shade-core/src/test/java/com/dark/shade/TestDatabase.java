@@ -0,0 +1,58 @@
+package com.dark.shade;
+
+import com.dark.shade.config.SessionSettings;
+import com.dark.shade.internal.EntityManager;
+import com.dark.shade.repository.RepositoryFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Test database.
+ * Opens the session of a test class on a named in-memory H2 database, which lives until the JVM exits,
+ * and runs plain JDBC statements to set up or check rows behind the session.
+ */
+public final class TestDatabase {
+
+  public static final String USER = "sa";
+  public static final String PASS = "";
+
+  private TestDatabase() {
+  }
+
+  public static String url(String name) {
+    return "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1";
+  }
+
+  public static void open(String url, SessionSettings settings) {
+    RepositoryFactory.init(url, USER, PASS, settings);
+  }
+
+  public static void close() {
+    EntityManager.getManager().closeSession();
+  }
+
+  public static void execute(String url, String... statements) throws SQLException {
+    try (Connection connection = DriverManager.getConnection(url, USER, PASS);
+         Statement statement = connection.createStatement()) {
+      for (String sql : statements) {
+        statement.execute(sql);
+      }
+    }
+  }
+
+  /**
+   * Returns the first column of the first row of a query, as a long.
+   */
+  public static long queryLong(String url, String sql) throws SQLException {
+    try (Connection connection = DriverManager.getConnection(url, USER, PASS);
+         Statement statement = connection.createStatement();
+         ResultSet resultSet = statement.executeQuery(sql)) {
+      resultSet.next();
+      return resultSet.getLong(1);
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package com.dark.shade.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LruEntityCacheTest {
+
+  private static final Object[] SNAPSHOT = {1L, "value"};
+
+  @Test
+  void putWithStampIsDroppedAfterEviction() {
+    LruEntityCache cache = new LruEntityCache(100, 60000);
+    long stamp = cache.stamp(1L);
+    cache.evict(1L);
+    cache.put(1L, SNAPSHOT, stamp);
+    assertNull(cache.get(1L));
+    cache.put(1L, SNAPSHOT, cache.stamp(1L));
+    assertNotNull(cache.get(1L));
+  }
+
+  @Test
+  void putWithStampIsDroppedAfterClear() {
+    LruEntityCache cache = new LruEntityCache(100, 60000);
+    long stamp = cache.stamp(1L);
+    cache.clear();
+    cache.put(1L, SNAPSHOT, stamp);
+    assertNull(cache.get(1L));
+  }
+
+  @Test
+  void sizeIsBoundedByLeastRecentlyUsedEviction() {
+    LruEntityCache cache = new LruEntityCache(64, 60000);
+    for (long id = 0; id < 1000; id++) {
+      cache.put(id, SNAPSHOT);
+    }
+    int cached = 0;
+    for (long id = 0; id < 1000; id++) {
+      cached += cache.get(id) == null ? 0 : 1;
+    }
+    assertTrue(cached <= 64, "cached " + cached);
+    assertNotNull(cache.get(999L));
+  }
+
+  @Test
+  void entriesExpireAfterTimeToLive() throws Exception {
+    LruEntityCache cache = new LruEntityCache(10, 20);
+    cache.put(1L, SNAPSHOT);
+    Thread.sleep(50);
+    assertNull(cache.get(1L));
+  }
+}
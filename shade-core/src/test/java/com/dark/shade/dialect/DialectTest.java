@@ -0,0 +1,54 @@
+package com.dark.shade.dialect;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.JDBCType;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class DialectTest {
+
+  @Test
+  void resolvesDialectFromUrl() {
+    assertSame(Dialect.H2, Dialect.forUrl("jdbc:h2:mem:test"));
+    assertSame(Dialect.POSTGRESQL, Dialect.forUrl("jdbc:postgresql://localhost/test"));
+    assertSame(Dialect.MYSQL, Dialect.forUrl("jdbc:mysql://localhost/test"));
+    assertSame(Dialect.MARIADB, Dialect.forUrl("jdbc:mariadb://localhost/test"));
+    assertSame(Dialect.STANDARD, Dialect.forUrl("jdbc:sqlserver://localhost"));
+  }
+
+  @Test
+  void mysqlUpsertRefersToInsertedRowByAlias() {
+    assertEquals("INSERT INTO item (id, name, price) VALUES (?, ?, ?) AS new "
+            + "ON DUPLICATE KEY UPDATE name = new.name, price = new.price",
+        Dialect.MYSQL.upsertSql("item", "id", Arrays.asList("name", "price")));
+    assertEquals("INSERT INTO item (id) VALUES (?) AS new ON DUPLICATE KEY UPDATE id = new.id",
+        Dialect.MYSQL.upsertSql("item", "id", Collections.<String>emptyList()));
+  }
+
+  @Test
+  void mariadbUpsertKeepsValuesFunction() {
+    assertEquals("INSERT INTO item (id, name) VALUES (?, ?) ON DUPLICATE KEY UPDATE name = VALUES(name)",
+        Dialect.MARIADB.upsertSql("item", "id", Collections.singletonList("name")));
+  }
+
+  @Test
+  void limitsParametersOfUnknownDatabasesToSqlServerLimit() {
+    assertEquals(2100, Dialect.STANDARD.maxParameters());
+    assertEquals(65535, Dialect.POSTGRESQL.maxParameters());
+  }
+
+  @Test
+  void mapsStandardJdbcTypesToColumnTypes() {
+    assertEquals("VARCHAR(40)", Dialect.STANDARD.columnType(String.class, JDBCType.VARCHAR, 40, false));
+    assertEquals("TEXT", Dialect.POSTGRESQL.columnType(String.class, JDBCType.VARCHAR, 40, true));
+    assertEquals("LONGBLOB", Dialect.MARIADB.columnType(byte[].class, JDBCType.VARBINARY, 40, true));
+    assertEquals("UUID", Dialect.H2.columnType(UUID.class, JDBCType.OTHER, 0, false));
+    assertNull(Dialect.STANDARD.columnType(UUID.class, JDBCType.OTHER, 0, false));
+  }
+}
@@ -0,0 +1,86 @@
+package com.dark.shade.internal.pool;
+
+import com.dark.shade.TestDatabase;
+import com.dark.shade.config.SessionSettings;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConnectionPoolTest {
+
+  private static final String URL = TestDatabase.url("pool");
+
+  @Test
+  void waitingBorrowerOpensConnectionWhenOneIsInvalidated() throws Exception {
+    ConnectionPool pool = new ConnectionPool(URL, TestDatabase.USER, TestDatabase.PASS,
+        new SessionSettings().setMaxPoolSize(1).setBorrowTimeoutMillis(10000));
+    try {
+      PooledConnection connection = pool.borrow();
+      CompletableFuture<PooledConnection> waiting = CompletableFuture.supplyAsync(() -> {
+        try {
+          return pool.borrow();
+        } catch (Exception e) {
+          throw new IllegalStateException(e);
+        }
+      });
+      Thread.sleep(100);
+      pool.invalidate(connection);
+      assertNotNull(waiting.get(2, TimeUnit.SECONDS));
+      assertEquals(1, pool.getSize());
+    } finally {
+      pool.close();
+    }
+  }
+
+  @Test
+  void borrowTimesOutWhenPoolIsExhausted() throws Exception {
+    ConnectionPool pool = new ConnectionPool(URL, TestDatabase.USER, TestDatabase.PASS,
+        new SessionSettings().setMaxPoolSize(1).setBorrowTimeoutMillis(100));
+    try {
+      pool.borrow();
+      assertThrows(SQLTimeoutException.class, pool::borrow);
+    } finally {
+      pool.close();
+    }
+  }
+
+  @Test
+  void releaseEndsTheTransactionOfReads() throws Exception {
+    TestDatabase.execute(URL, "CREATE TABLE IF NOT EXISTS ticket (id BIGINT PRIMARY KEY)", "DELETE FROM ticket");
+    ConnectionPool pool = new ConnectionPool(URL, TestDatabase.USER, TestDatabase.PASS,
+        new SessionSettings().setMaxPoolSize(1));
+    try {
+      PooledConnection connection = pool.borrow();
+      connection.prepareStatement("SET SESSION CHARACTERISTICS AS TRANSACTION ISOLATION LEVEL REPEATABLE READ")
+          .execute();
+      connection.commit();
+      assertEquals(0, countTickets(connection));
+      pool.release(connection);
+      assertFalse(connection.isInTransaction());
+      TestDatabase.execute(URL, "INSERT INTO ticket (id) VALUES (1)");
+      connection = pool.borrow();
+      assertEquals(1, countTickets(connection));
+      pool.release(connection);
+    } finally {
+      pool.close();
+    }
+  }
+
+  private static long countTickets(PooledConnection connection) throws SQLException {
+    PreparedStatement statement = connection.cachedStatement("SELECT COUNT(*) FROM ticket");
+    try (ResultSet resultSet = statement.executeQuery()) {
+      resultSet.next();
+      return resultSet.getLong(1);
+    }
+  }
+}
@@ -0,0 +1,132 @@
+package com.dark.shade.internal.query;
+
+import com.dark.shade.annotation.Column;
+import com.dark.shade.annotation.Entity;
+import com.dark.shade.annotation.Id;
+import com.dark.shade.annotation.Table;
+import com.dark.shade.dialect.Dialect;
+import com.dark.shade.exception.ShadeException;
+import com.dark.shade.internal.EntityMetadata;
+import com.dark.shade.internal.parser.EntityRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class QueryMethodParserTest {
+
+  private static final EntityMetadata METADATA = EntityRegistry.getMetadata(Member.class);
+  private static final String SELECT = "SELECT id, name, age, active, orderBytes FROM member";
+
+  @Test
+  void rendersCriteriaOrderingAndLimitsPerDialect() throws Exception {
+    QueryPlan plan = plan("findTop3ByAgeGreaterThanAndActiveTrueOrNameStartingWithOrderByAgeDescName", 2);
+    assertEquals(QueryPlan.Kind.LIST, plan.getKind());
+    assertEquals(SELECT + " WHERE age > ? AND active = TRUE OR name LIKE ? ESCAPE '!' ORDER BY age DESC, name ASC "
+        + "LIMIT 3", plan.getSql(Dialect.H2, null));
+    assertEquals(SELECT + " WHERE age > ? AND active = TRUE OR name LIKE ? ESCAPE '!' ORDER BY age DESC, name ASC "
+        + "FETCH FIRST 3 ROWS ONLY", plan.getSql(Dialect.STANDARD, null));
+  }
+
+  @Test
+  void limitsSingleResultsAndExistsQueries() throws Exception {
+    assertEquals(SELECT + " WHERE name = ? LIMIT 2", plan("findByName", 1).getSql(Dialect.H2, null));
+    assertEquals(QueryPlan.Kind.OPTIONAL, plan("readByName", 1).getKind());
+    assertEquals("SELECT 1 FROM member WHERE active = FALSE FETCH FIRST 1 ROWS ONLY",
+        plan("existsByActiveFalse", 0).getSql(Dialect.STANDARD, null));
+    assertEquals("SELECT COUNT(*) FROM member WHERE age IS NULL", plan("countByAgeIsNull", 0).getSql(Dialect.H2, null));
+  }
+
+  @Test
+  void rendersInListsPerCall() throws Exception {
+    QueryPlan plan = plan("deleteByIdIn", 1);
+    assertEquals(QueryPlan.Kind.DELETE, plan.getKind());
+    assertEquals("DELETE FROM member WHERE id IN (?, ?)",
+        plan.getSql(Dialect.H2, new Object[] {Arrays.asList(1L, 2L)}));
+    assertEquals("DELETE FROM member WHERE 1=0", plan.getSql(Dialect.H2, new Object[] {new Long[0]}));
+  }
+
+  @Test
+  void splitsOrderingOnlyAtWordBoundaries() throws Exception {
+    assertEquals(SELECT + " WHERE orderBytes = ? ORDER BY name ASC",
+        plan("findByOrderBytesOrderByName", 1).getSql(Dialect.H2, null));
+    assertEquals(SELECT + " WHERE orderBytes > ?", plan("findByOrderBytesGreaterThan", 1).getSql(Dialect.H2, null));
+  }
+
+  @Test
+  void escapesWildcardsOfPatternArguments() {
+    assertEquals("50!%!_off!!%", Operator.STARTING_WITH.toPattern("50%_off!"));
+    assertEquals("%a!_b", Operator.ENDING_WITH.toPattern("a_b"));
+    assertEquals("%plain%", Operator.CONTAINING.toPattern("plain"));
+  }
+
+  @Test
+  void rejectsInvalidMethods() {
+    assertThrows(ShadeException.class, () -> plan("findByNickname", 1));
+    assertThrows(ShadeException.class, () -> plan("findByNameAndAge", 1));
+    assertThrows(ShadeException.class, () -> plan("countFirstByName", 1));
+    assertThrows(ShadeException.class, () -> plan("streamByName", 1));
+  }
+
+  private static QueryPlan plan(String name, int parameters) throws NoSuchMethodException {
+    for (Method method : Methods.class.getMethods()) {
+      if (method.getName().equals(name) && method.getParameterCount() == parameters) {
+        return QueryMethodParser.parse(METADATA, method);
+      }
+    }
+    throw new NoSuchMethodException(name);
+  }
+
+  interface Methods {
+
+    List<Member> findTop3ByAgeGreaterThanAndActiveTrueOrNameStartingWithOrderByAgeDescName(int age, String prefix);
+
+    Member findByName(String name);
+
+    Optional<Member> readByName(String name);
+
+    boolean existsByActiveFalse();
+
+    long countByAgeIsNull();
+
+    int deleteByIdIn(List<Long> ids);
+
+    List<Member> findByNickname(String nickname);
+
+    List<Member> findByNameAndAge(String name);
+
+    long countFirstByName(String name);
+
+    List<Member> streamByName(String name);
+
+    List<Member> findByOrderBytesOrderByName(int orderBytes);
+
+    List<Member> findByOrderBytesGreaterThan(int orderBytes);
+  }
+
+  @Entity
+  @Table(name = "member")
+  public static class Member {
+
+    @Id
+    @Column
+    public Long id;
+
+    @Column
+    public String name;
+
+    @Column
+    public Integer age;
+
+    @Column
+    public Boolean active;
+
+    @Column
+    public Integer orderBytes;
+  }
+}
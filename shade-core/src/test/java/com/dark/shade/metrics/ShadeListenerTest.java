@@ -0,0 +1,174 @@
+package com.dark.shade.metrics;
+
+import com.dark.shade.TestDatabase;
+import com.dark.shade.annotation.Column;
+import com.dark.shade.annotation.Entity;
+import com.dark.shade.annotation.Id;
+import com.dark.shade.annotation.Table;
+import com.dark.shade.config.SessionSettings;
+import com.dark.shade.exception.ShadeException;
+import com.dark.shade.repository.Repository;
+import com.dark.shade.repository.RepositoryFactory;
+import com.dark.shade.repository.Transaction;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShadeListenerTest {
+
+  private static final String URL = TestDatabase.url("listener");
+
+  private static final RecordingListener LISTENER = new RecordingListener();
+
+  private static Repository<Invoice, Long> invoices;
+
+  @BeforeAll
+  static void open() {
+    TestDatabase.open(URL, new SessionSettings().setListener(LISTENER));
+    RepositoryFactory.createSchema(Invoice.class);
+    invoices = RepositoryFactory.createRepository(Invoice.class);
+  }
+
+  @AfterAll
+  static void close() {
+    TestDatabase.close();
+  }
+
+  @BeforeEach
+  void clear() {
+    invoices.deleteAll();
+    LISTENER.events.clear();
+    LISTENER.metrics.reset();
+    LISTENER.failing = false;
+  }
+
+  @Test
+  void reportsEveryOperationWithItsCounts() {
+    Invoice invoice = invoices.save(new Invoice("A-1"));
+    invoices.findOne(invoice.id);
+    invoices.findAll();
+    invoices.exists(invoice.id);
+    invoices.delete(invoice.id);
+    invoices.deleteAll();
+
+    assertEquals(6, LISTENER.events.size());
+    OperationEvent persist = LISTENER.events.get(0);
+    assertSame(Invoice.class, persist.getEntityClass());
+    assertSame(Operation.PERSIST, persist.getOperation());
+    assertEquals(1, persist.getStatements());
+    assertEquals(1, persist.getRowsWritten());
+    assertTrue(persist.getSql().startsWith("INSERT INTO invoice"));
+    assertTrue(persist.getDurationNanos() >= persist.getExecuteNanos());
+    assertNull(persist.getFailure());
+    assertSame(Operation.FIND, LISTENER.events.get(1).getOperation());
+    assertEquals(1, LISTENER.events.get(1).getRowsRead());
+    assertSame(Operation.FIND_ALL, LISTENER.events.get(2).getOperation());
+    assertSame(Operation.CONTAINS, LISTENER.events.get(3).getOperation());
+    assertSame(Operation.REMOVE, LISTENER.events.get(4).getOperation());
+    assertEquals(1, LISTENER.events.get(4).getRowsWritten());
+    assertSame(Operation.REMOVE_ALL, LISTENER.events.get(5).getOperation());
+
+    OperationStats find = LISTENER.metrics.getStats(Invoice.class, Operation.FIND);
+    assertEquals(1, find.getCount());
+    assertEquals(1, find.getRowsRead());
+    assertTrue(find.getPercentileNanos(99) <= find.getMaxNanos());
+    assertEquals(6, LISTENER.metrics.getStats().get(Invoice.class).size());
+  }
+
+  @Test
+  void reportsTransactionCommitWithoutEntityClass() {
+    try (Transaction transaction = RepositoryFactory.beginTransaction()) {
+      invoices.save(new Invoice("B-1"));
+      invoices.save(new Invoice("B-2"));
+      transaction.commit();
+    }
+    OperationEvent commit = LISTENER.events.get(LISTENER.events.size() - 1);
+    assertSame(Operation.COMMIT, commit.getOperation());
+    assertNull(commit.getEntityClass());
+    assertTrue(commit.getCommitNanos() > 0);
+    assertEquals(1, LISTENER.metrics.getStats(null, Operation.COMMIT).getCount());
+    assertEquals(2, LISTENER.metrics.getStats(Invoice.class, Operation.PERSIST).getRowsWritten());
+  }
+
+  @Test
+  void reportsFailuresWithTheOperationInTheMessage() {
+    ShadeException e = assertThrows(ShadeException.class, () -> invoices.save(new Invoice(null)));
+    assertTrue(e.getMessage().startsWith("Failed to persist"), e.getMessage());
+    assertTrue(e.getMessage().contains("INSERT INTO invoice"), e.getMessage());
+    OperationEvent event = LISTENER.events.get(0);
+    assertNotNull(event.getFailure());
+    assertEquals(1, LISTENER.metrics.getStats(Invoice.class, Operation.PERSIST).getFailures());
+  }
+
+  @Test
+  void listenerFailuresDoNotFailOperations() {
+    LISTENER.failing = true;
+    Invoice invoice = invoices.save(new Invoice("C-1"));
+    assertEquals("C-1", invoices.findOne(invoice.id).number);
+  }
+
+  @Test
+  void percentilesAreUpperBoundsOfPowerOfTwoBuckets() {
+    OperationStats stats = new OperationStats();
+    for (int i = 0; i < 99; i++) {
+      stats.record(event(1000));
+    }
+    stats.record(event(1000000));
+    assertEquals(100, stats.getCount());
+    assertEquals(1023, stats.getPercentileNanos(50));
+    assertEquals(1023, stats.getPercentileNanos(99));
+    assertEquals(1000000, stats.getPercentileNanos(100));
+    assertEquals(1000000, stats.getMaxNanos());
+    assertEquals((99 * 1000 + 1000000) / 100, stats.getMeanNanos());
+  }
+
+  private static OperationEvent event(long durationNanos) {
+    return new OperationEvent(Invoice.class, Operation.FIND, durationNanos, 0, 0, 0, 0, 1, 1, 0, null, null);
+  }
+
+  private static final class RecordingListener implements ShadeListener {
+
+    private final List<OperationEvent> events = new CopyOnWriteArrayList<>();
+    private final InMemoryMetrics metrics = new InMemoryMetrics();
+    private volatile boolean failing;
+
+    @Override
+    public void onOperation(OperationEvent event) {
+      events.add(event);
+      metrics.onOperation(event);
+      if (failing) {
+        throw new IllegalStateException("listener failure");
+      }
+    }
+  }
+
+  @Entity
+  @Table(name = "invoice")
+  public static class Invoice {
+
+    @Id
+    @Column
+    public Long id;
+
+    @Column(nullable = false)
+    public String number;
+
+    public Invoice() {
+    }
+
+    Invoice(String number) {
+      this.number = number;
+    }
+  }
+}
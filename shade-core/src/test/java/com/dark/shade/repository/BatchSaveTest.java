@@ -0,0 +1,118 @@
+package com.dark.shade.repository;
+
+import com.dark.shade.TestDatabase;
+import com.dark.shade.annotation.Column;
+import com.dark.shade.annotation.Entity;
+import com.dark.shade.annotation.Id;
+import com.dark.shade.annotation.Table;
+import com.dark.shade.config.SessionSettings;
+import com.dark.shade.metrics.InMemoryMetrics;
+import com.dark.shade.metrics.Operation;
+import com.dark.shade.metrics.OperationStats;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class BatchSaveTest {
+
+  private static final String URL = TestDatabase.url("batch_save");
+
+  private static final InMemoryMetrics METRICS = new InMemoryMetrics();
+
+  private static Repository<Parcel, Long> parcels;
+
+  @BeforeAll
+  static void open() {
+    TestDatabase.open(URL, new SessionSettings().setBatchSize(3).setListener(METRICS));
+    RepositoryFactory.createSchema(Parcel.class);
+    parcels = RepositoryFactory.createRepository(Parcel.class);
+  }
+
+  @AfterAll
+  static void close() {
+    TestDatabase.close();
+  }
+
+  @BeforeEach
+  void clear() {
+    parcels.deleteAll();
+    METRICS.reset();
+  }
+
+  @Test
+  void insertsInBatchesAndReadsBackGeneratedIds() throws Exception {
+    List<Parcel> batch = parcels(7);
+    parcels.save(batch);
+    HashSet<Long> ids = new HashSet<>();
+    for (Parcel parcel : batch) {
+      assertNotNull(parcel.id);
+      ids.add(parcel.id);
+      assertEquals(parcel.weight, parcels.findOne(parcel.id).weight);
+    }
+    assertEquals(7, ids.size());
+    assertEquals(7, TestDatabase.queryLong(URL, "SELECT COUNT(*) FROM parcel"));
+    OperationStats stats = METRICS.getStats(Parcel.class, Operation.PERSIST);
+    assertEquals(1, stats.getCount());
+    assertEquals(3, stats.getStatements());
+    assertEquals(7, stats.getRowsWritten());
+  }
+
+  @Test
+  void splitsInsertsFromUpdates() throws Exception {
+    List<Parcel> existing = parcels(5);
+    parcels.save(existing);
+    METRICS.reset();
+    List<Parcel> mixed = new ArrayList<>();
+    for (Parcel parcel : existing) {
+      parcel.weight += 100;
+      mixed.add(parcel);
+    }
+    mixed.add(new Parcel(7));
+    mixed.add(new Parcel(8));
+    parcels.save(mixed);
+    for (Parcel parcel : mixed) {
+      assertNotNull(parcel.id);
+      assertEquals(parcel.weight, parcels.findOne(parcel.id).weight);
+    }
+    assertEquals(7, TestDatabase.queryLong(URL, "SELECT COUNT(*) FROM parcel"));
+    assertEquals(5, TestDatabase.queryLong(URL, "SELECT COUNT(*) FROM parcel WHERE weight >= 100"));
+    OperationStats stats = METRICS.getStats(Parcel.class, Operation.PERSIST);
+    assertEquals(3, stats.getStatements());
+    assertEquals(7, stats.getRowsWritten());
+  }
+
+  private static List<Parcel> parcels(int count) {
+    List<Parcel> list = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      list.add(new Parcel(i));
+    }
+    return list;
+  }
+
+  @Entity
+  @Table(name = "parcel")
+  public static class Parcel {
+
+    @Id
+    @Column
+    public Long id;
+
+    @Column
+    public int weight;
+
+    public Parcel() {
+    }
+
+    Parcel(int weight) {
+      this.weight = weight;
+    }
+  }
+}
@@ -0,0 +1,109 @@
+package com.dark.shade.repository;
+
+import com.dark.shade.TestDatabase;
+import com.dark.shade.annotation.Column;
+import com.dark.shade.annotation.Entity;
+import com.dark.shade.annotation.Id;
+import com.dark.shade.annotation.Table;
+import com.dark.shade.config.SessionSettings;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BulkInsertTest {
+
+  private static final String URL = TestDatabase.url("bulk_insert");
+
+  private static Repository<Reading, Long> readings;
+
+  @BeforeAll
+  static void open() {
+    TestDatabase.open(URL, new SessionSettings());
+    RepositoryFactory.createSchema(Reading.class);
+    readings = RepositoryFactory.createRepository(Reading.class);
+  }
+
+  @AfterAll
+  static void close() {
+    TestDatabase.close();
+  }
+
+  @BeforeEach
+  void clear() {
+    readings.deleteAll();
+  }
+
+  @Test
+  void insertsAllRowsWithoutIds() throws Exception {
+    List<Reading> batch = readings(7);
+    assertEquals(7, readings.bulkInsert(batch.iterator()));
+    assertNull(batch.get(0).id);
+    assertEquals(7, TestDatabase.queryLong(URL, "SELECT COUNT(*) FROM reading"));
+  }
+
+  @Test
+  void returnsIdsWhenRequested() {
+    List<Reading> batch = readings(7);
+    BulkLoader<Reading> loader = RepositoryFactory.createBulkLoader(Reading.class)
+        .setRowsPerStatement(3).setReturnIds(true);
+    assertEquals(7, loader.load(batch));
+    HashSet<Long> ids = new HashSet<>();
+    for (Reading reading : batch) {
+      assertNotNull(reading.id);
+      ids.add(reading.id);
+      assertEquals(reading.level, readings.findOne(reading.id).level);
+    }
+    assertEquals(7, ids.size());
+  }
+
+  @Test
+  void saveReturnsIdsAfterBulkInsert() throws Exception {
+    readings.bulkInsert(readings(3).iterator());
+    Reading saved = readings.save(new Reading(10));
+    assertNotNull(saved.id);
+    try (Transaction transaction = RepositoryFactory.beginTransaction()) {
+      readings.save(Arrays.asList(new Reading(11), new Reading(12)));
+      Reading single = readings.save(new Reading(13));
+      transaction.commit();
+      assertNotNull(single.id);
+    }
+    assertEquals(7, TestDatabase.queryLong(URL, "SELECT COUNT(*) FROM reading"));
+  }
+
+  private static List<Reading> readings(int count) {
+    List<Reading> list = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      list.add(new Reading(i));
+    }
+    return list;
+  }
+
+  @Entity
+  @Table(name = "reading")
+  public static class Reading {
+
+    @Id
+    @Column
+    public Long id;
+
+    @Column
+    public int level;
+
+    public Reading() {
+    }
+
+    Reading(int level) {
+      this.level = level;
+    }
+  }
+}
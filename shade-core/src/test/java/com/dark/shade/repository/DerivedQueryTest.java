@@ -0,0 +1,126 @@
+package com.dark.shade.repository;
+
+import com.dark.shade.TestDatabase;
+import com.dark.shade.annotation.Column;
+import com.dark.shade.annotation.Entity;
+import com.dark.shade.annotation.Id;
+import com.dark.shade.annotation.Table;
+import com.dark.shade.config.SessionSettings;
+import com.dark.shade.exception.ShadeException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DerivedQueryTest {
+
+  private static final String URL = TestDatabase.url("derived_query");
+
+  private static PlayerRepository players;
+
+  @BeforeAll
+  static void open() {
+    TestDatabase.open(URL, new SessionSettings());
+    RepositoryFactory.createSchema(Player.class);
+    players = RepositoryFactory.createRepository(Player.class, PlayerRepository.class);
+    for (int i = 1; i <= 5; i++) {
+      players.save(new Player("player" + i, i * 10, i % 2 == 1));
+    }
+  }
+
+  @AfterAll
+  static void close() {
+    TestDatabase.close();
+  }
+
+  @Test
+  void runsLimitedAndBooleanQueries() {
+    List<Player> oldest = players.findTop2ByActiveTrueOrderByScoreDesc();
+    assertEquals(2, oldest.size());
+    assertEquals(50, oldest.get(0).score);
+    assertEquals(30, oldest.get(1).score);
+    assertEquals(2, players.countByActiveFalse());
+    assertTrue(players.existsByName("player3"));
+    assertFalse(players.existsByName("nobody"));
+    assertEquals(20, players.readByName("player2").get().score);
+  }
+
+  @Test
+  void matchesPatternArgumentsLiterally() {
+    assertEquals(1, players.findByNameEndingWith("1").size());
+    assertEquals(5, players.findByNameStartingWith("play").size());
+    assertEquals(0, players.findByNameStartingWith("player_").size());
+    assertEquals(0, players.findByNameContaining("%").size());
+    assertEquals(0, players.findByNameContaining("!").size());
+  }
+
+  @Test
+  void pagesByIdWithDialectLimit() {
+    Slice<Player, Long> first = players.findPage(null, 3);
+    assertEquals(3, first.getContent().size());
+    assertTrue(first.hasNext());
+    Slice<Player, Long> second = players.findPage(first.getLastId(), 3);
+    assertEquals(2, second.getContent().size());
+    assertFalse(second.hasNext());
+  }
+
+  @Test
+  void pageLimitMustLeaveRoomForTheNextPageProbe() {
+    Slice<Player, Long> all = players.findPage(null, Integer.MAX_VALUE - 1);
+    assertEquals(5, all.getContent().size());
+    assertFalse(all.hasNext());
+    assertThrows(ShadeException.class, () -> players.findPage(null, Integer.MAX_VALUE));
+    assertThrows(ShadeException.class, () -> players.findPage(null, 0));
+  }
+
+  public interface PlayerRepository extends Repository<Player, Long> {
+
+    List<Player> findTop2ByActiveTrueOrderByScoreDesc();
+
+    long countByActiveFalse();
+
+    boolean existsByName(String name);
+
+    Optional<Player> readByName(String name);
+
+    List<Player> findByNameStartingWith(String prefix);
+
+    List<Player> findByNameEndingWith(String suffix);
+
+    List<Player> findByNameContaining(String part);
+  }
+
+  @Entity
+  @Table(name = "player")
+  public static class Player {
+
+    @Id
+    @Column
+    public Long id;
+
+    @Column
+    public String name;
+
+    @Column
+    public int score;
+
+    @Column
+    public boolean active;
+
+    public Player() {
+    }
+
+    Player(String name, int score, boolean active) {
+      this.name = name;
+      this.score = score;
+      this.active = active;
+    }
+  }
+}
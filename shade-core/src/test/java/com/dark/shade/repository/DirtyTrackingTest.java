@@ -0,0 +1,90 @@
+package com.dark.shade.repository;
+
+import com.dark.shade.TestDatabase;
+import com.dark.shade.annotation.Column;
+import com.dark.shade.annotation.Entity;
+import com.dark.shade.annotation.Id;
+import com.dark.shade.annotation.Table;
+import com.dark.shade.config.SessionSettings;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DirtyTrackingTest {
+
+  private static final String URL = TestDatabase.url("dirty_tracking");
+
+  private static Repository<Profile, Long> profiles;
+
+  @BeforeAll
+  static void open() {
+    assertTrue(new SessionSettings().isDirtyTracking());
+    TestDatabase.open(URL, new SessionSettings());
+    RepositoryFactory.createSchema(Profile.class);
+    profiles = RepositoryFactory.createRepository(Profile.class);
+  }
+
+  @AfterAll
+  static void close() {
+    TestDatabase.close();
+  }
+
+  @Test
+  void updateWritesOnlyChangedColumns() throws Exception {
+    Profile profile = profiles.save(new Profile("ada", "first"));
+    Profile found = profiles.findOne(profile.id);
+    TestDatabase.execute(URL, "UPDATE profile SET bio = 'concurrent' WHERE id = " + profile.id);
+    found.name = "grace";
+    profiles.save(found);
+    Profile updated = profiles.findOne(profile.id);
+    assertEquals("grace", updated.name);
+    assertEquals("concurrent", profiles.loadColumn(updated, "bio"));
+  }
+
+  @Test
+  void saveWithoutChangesWritesNothing() throws Exception {
+    Profile profile = profiles.save(new Profile("ada", "first"));
+    Profile found = profiles.findOne(profile.id);
+    TestDatabase.execute(URL, "UPDATE profile SET name = 'concurrent' WHERE id = " + profile.id);
+    profiles.save(found);
+    assertEquals("concurrent", profiles.findOne(profile.id).name);
+  }
+
+  @Test
+  void loadedLazyColumnCanBeCleared() {
+    Profile profile = profiles.save(new Profile("ada", "bio"));
+    Profile found = profiles.findOne(profile.id);
+    assertNull(found.bio);
+    profiles.loadColumn(found, "bio");
+    found.bio = null;
+    profiles.save(found);
+    assertNull(profiles.loadColumn(profiles.findOne(profile.id), "bio"));
+  }
+
+  @Entity
+  @Table(name = "profile")
+  public static class Profile {
+
+    @Id
+    @Column
+    public Long id;
+
+    @Column
+    public String name;
+
+    @Column(lazy = true)
+    public String bio;
+
+    public Profile() {
+    }
+
+    Profile(String name, String bio) {
+      this.name = name;
+      this.bio = bio;
+    }
+  }
+}
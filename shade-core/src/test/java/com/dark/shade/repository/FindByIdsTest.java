@@ -0,0 +1,110 @@
+package com.dark.shade.repository;
+
+import com.dark.shade.TestDatabase;
+import com.dark.shade.annotation.Column;
+import com.dark.shade.annotation.Entity;
+import com.dark.shade.annotation.Id;
+import com.dark.shade.annotation.Table;
+import com.dark.shade.config.SessionSettings;
+import com.dark.shade.metrics.InMemoryMetrics;
+import com.dark.shade.metrics.Operation;
+import com.dark.shade.metrics.OperationStats;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class FindByIdsTest {
+
+  private static final String URL = TestDatabase.url("find_by_ids");
+
+  private static final InMemoryMetrics METRICS = new InMemoryMetrics();
+
+  private static final int ROWS = 1100;
+
+  private static Repository<Sensor, Long> sensors;
+
+  @BeforeAll
+  static void open() throws Exception {
+    TestDatabase.open(URL, new SessionSettings().setListener(METRICS));
+    RepositoryFactory.createSchema(Sensor.class);
+    sensors = RepositoryFactory.createRepository(Sensor.class);
+    TestDatabase.execute(URL, "INSERT INTO sensor (id, code) SELECT X, 'S' || X FROM SYSTEM_RANGE(1, " + ROWS + ")");
+  }
+
+  @AfterAll
+  static void close() {
+    TestDatabase.close();
+  }
+
+  @BeforeEach
+  void reset() {
+    METRICS.reset();
+  }
+
+  @Test
+  void keepsInputOrderWithNullsForMissingIds() {
+    List<Sensor> found = sensors.findAll(Arrays.asList(5L, 2000L, 3L, null, 5L, 1L));
+    assertEquals(6, found.size());
+    assertEquals("S5", found.get(0).code);
+    assertNull(found.get(1));
+    assertEquals("S3", found.get(2).code);
+    assertNull(found.get(3));
+    assertSame(found.get(0), found.get(4));
+    assertEquals("S1", found.get(5).code);
+    OperationStats stats = METRICS.getStats(Sensor.class, Operation.FIND_ALL);
+    assertEquals(1, stats.getStatements());
+    assertEquals(3, stats.getRowsRead());
+  }
+
+  @Test
+  void queriesManyIdsInFixedSizeChunks() {
+    List<Long> ids = new ArrayList<>();
+    for (long id = ROWS + 20; id > 70; id--) {
+      ids.add(id);
+    }
+    List<Sensor> found = sensors.findAll(ids);
+    assertEquals(ids.size(), found.size());
+    for (int i = 0; i < ids.size(); i++) {
+      long id = ids.get(i);
+      if (id > ROWS) {
+        assertNull(found.get(i));
+      } else {
+        assertEquals(id, found.get(i).id.longValue());
+        assertEquals("S" + id, found.get(i).code);
+      }
+    }
+    OperationStats stats = METRICS.getStats(Sensor.class, Operation.FIND_ALL);
+    assertEquals(2, stats.getStatements());
+    assertEquals(ROWS - 70, stats.getRowsRead());
+  }
+
+  @Test
+  void returnsEmptyListWithoutQueryForNoIds() {
+    assertEquals(0, sensors.findAll(new ArrayList<Long>()).size());
+    assertEquals(0, METRICS.getStats(Sensor.class, Operation.FIND_ALL).getStatements());
+  }
+
+  @Entity
+  @Table(name = "sensor")
+  public static class Sensor {
+
+    @Id
+    @Column
+    public Long id;
+
+    @Column
+    public String code;
+
+    public Sensor() {
+    }
+  }
+}
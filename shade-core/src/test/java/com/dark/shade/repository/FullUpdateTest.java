@@ -0,0 +1,67 @@
+package com.dark.shade.repository;
+
+import com.dark.shade.TestDatabase;
+import com.dark.shade.annotation.Column;
+import com.dark.shade.annotation.Entity;
+import com.dark.shade.annotation.Id;
+import com.dark.shade.annotation.Table;
+import com.dark.shade.config.SessionSettings;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FullUpdateTest {
+
+  private static final String URL = TestDatabase.url("full_update");
+
+  private static Repository<Memo, Long> memos;
+
+  @BeforeAll
+  static void open() {
+    TestDatabase.open(URL, new SessionSettings().setDirtyTracking(false));
+    RepositoryFactory.createSchema(Memo.class);
+    memos = RepositoryFactory.createRepository(Memo.class);
+  }
+
+  @AfterAll
+  static void close() {
+    TestDatabase.close();
+  }
+
+  @Test
+  void updateWritesAllColumnsWithoutDirtyTracking() throws Exception {
+    Memo memo = memos.save(new Memo("draft", "first"));
+    Memo found = memos.findOne(memo.id);
+    TestDatabase.execute(URL, "UPDATE memo SET note = 'concurrent' WHERE id = " + memo.id);
+    found.title = "final";
+    memos.save(found);
+    Memo updated = memos.findOne(memo.id);
+    assertEquals("final", updated.title);
+    assertEquals("first", updated.note);
+  }
+
+  @Entity
+  @Table(name = "memo")
+  public static class Memo {
+
+    @Id
+    @Column
+    public Long id;
+
+    @Column
+    public String title;
+
+    @Column
+    public String note;
+
+    public Memo() {
+    }
+
+    Memo(String title, String note) {
+      this.title = title;
+      this.note = note;
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package com.dark.shade.repository;
+
+import com.dark.shade.TestDatabase;
+import com.dark.shade.annotation.Column;
+import com.dark.shade.annotation.Entity;
+import com.dark.shade.annotation.GenerationType;
+import com.dark.shade.annotation.Id;
+import com.dark.shade.annotation.Table;
+import com.dark.shade.config.SessionSettings;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IdGenerationTest {
+
+  private static final String URL = TestDatabase.url("id_generation");
+
+  private static Repository<HiloEvent, Long> hiloEvents;
+  private static Repository<PooledEvent, Integer> pooledEvents;
+
+  @BeforeAll
+  static void open() {
+    TestDatabase.open(URL, new SessionSettings());
+    RepositoryFactory.createSchema(HiloEvent.class);
+    RepositoryFactory.createSchema(PooledEvent.class);
+    hiloEvents = RepositoryFactory.createRepository(HiloEvent.class);
+    pooledEvents = RepositoryFactory.createRepository(PooledEvent.class);
+  }
+
+  @AfterAll
+  static void close() {
+    TestDatabase.close();
+  }
+
+  @Test
+  void hiloHandsOutBlocksOfSequenceValues() throws Exception {
+    List<Long> ids = new ArrayList<>();
+    for (int i = 0; i < 25; i++) {
+      ids.add(hiloEvents.save(new HiloEvent()).id);
+    }
+    for (int i = 0; i < 25; i++) {
+      assertEquals(10L + i, ids.get(i).longValue());
+    }
+    assertEquals(4, TestDatabase.queryLong(URL, "SELECT NEXT VALUE FOR hilo_event_seq"));
+  }
+
+  @Test
+  void pooledIdsAreUniqueAcrossThreadsAndBulkInserts() throws Exception {
+    final Set<Integer> ids = Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < 50; i++) {
+            ids.add(pooledEvents.save(new PooledEvent()).id);
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    List<PooledEvent> bulk = new ArrayList<>();
+    for (int i = 0; i < 30; i++) {
+      bulk.add(new PooledEvent());
+    }
+    pooledEvents.bulkInsert(bulk.iterator());
+    for (PooledEvent event : bulk) {
+      ids.add(event.id);
+    }
+    assertEquals(230, ids.size());
+    assertEquals(230, TestDatabase.queryLong(URL, "SELECT COUNT(DISTINCT id) FROM pooled_event"));
+    assertEquals(1, Collections.min(ids).intValue());
+  }
+
+  @Entity
+  @Table(name = "hilo_event")
+  public static class HiloEvent {
+
+    @Id(strategy = GenerationType.HILO, allocationSize = 10)
+    @Column
+    public Long id;
+
+    @Column
+    public String kind;
+  }
+
+  @Entity
+  @Table(name = "pooled_event")
+  public static class PooledEvent {
+
+    @Id(strategy = GenerationType.POOLED, allocationSize = 20)
+    @Column
+    public Integer id;
+
+    @Column
+    public String kind;
+  }
+}
@@ -0,0 +1,140 @@
+package com.dark.shade.repository;
+
+import com.dark.shade.TestDatabase;
+import com.dark.shade.annotation.Column;
+import com.dark.shade.annotation.Entity;
+import com.dark.shade.annotation.Id;
+import com.dark.shade.annotation.Table;
+import com.dark.shade.config.SessionSettings;
+import com.dark.shade.exception.ShadeException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LazyColumnTest {
+
+  private static final String URL = TestDatabase.url("lazy_column");
+
+  private static Repository<Document, Long> documents;
+
+  @BeforeAll
+  static void open() {
+    TestDatabase.open(URL, new SessionSettings().setMaxPoolSize(1).setBorrowTimeoutMillis(500));
+    RepositoryFactory.createSchema(Document.class);
+    documents = RepositoryFactory.createRepository(Document.class);
+  }
+
+  @AfterAll
+  static void close() {
+    TestDatabase.close();
+  }
+
+  @Test
+  void findsLeaveLazyColumnsOutUntilLoaded() {
+    Document saved = documents.save(new Document("report", text(5000), bytes(8000)));
+    Document found = documents.findOne(saved.id);
+    assertEquals("report", found.title);
+    assertNull(found.body);
+    assertNull(found.image);
+    List<Document> all = documents.findAll(Arrays.asList(saved.id));
+    assertNull(all.get(0).body);
+
+    assertEquals(text(5000), documents.loadColumn(found, "body"));
+    assertEquals(text(5000), found.body);
+    assertArrayEquals(bytes(8000), (byte[]) documents.loadColumn(found, "image"));
+    assertArrayEquals(bytes(8000), found.image);
+  }
+
+  @Test
+  void opensStreamsOverLazyColumns() throws IOException {
+    Document saved = documents.save(new Document("scan", text(70000), bytes(90000)));
+    try (InputStream stream = documents.openStream(saved.id, "image")) {
+      ByteArrayOutputStream read = new ByteArrayOutputStream();
+      byte[] buffer = new byte[4096];
+      for (int count; (count = stream.read(buffer)) != -1; ) {
+        read.write(buffer, 0, count);
+      }
+      assertArrayEquals(bytes(90000), read.toByteArray());
+    }
+    try (Reader reader = documents.openReader(saved.id, "body")) {
+      StringBuilder read = new StringBuilder();
+      char[] buffer = new char[4096];
+      for (int count; (count = reader.read(buffer)) != -1; ) {
+        read.append(buffer, 0, count);
+      }
+      assertEquals(text(70000), read.toString());
+    }
+    // the single pooled connection was released when the streams were closed
+    assertEquals("scan", documents.findOne(saved.id).title);
+  }
+
+  @Test
+  void opensNoStreamOverNullValue() {
+    Document saved = documents.save(new Document("empty", null, null));
+    assertNull(documents.openStream(saved.id, "image"));
+    assertNull(documents.openReader(saved.id, "body"));
+    assertEquals("empty", documents.findOne(saved.id).title);
+  }
+
+  @Test
+  void rejectsMissingRowsAndUnknownColumns() {
+    assertThrows(ShadeException.class, () -> documents.openStream(-1L, "image"));
+    assertThrows(ShadeException.class, () -> documents.openStream(1L, "missing"));
+    assertThrows(ShadeException.class, () -> documents.loadColumn(new Document(), "body"));
+  }
+
+  private static String text(int length) {
+    StringBuilder builder = new StringBuilder(length);
+    for (int i = 0; i < length; i++) {
+      builder.append((char) ('a' + i % 26));
+    }
+    return builder.toString();
+  }
+
+  private static byte[] bytes(int length) {
+    byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      bytes[i] = (byte) i;
+    }
+    return bytes;
+  }
+
+  @Entity
+  @Table(name = "document")
+  public static class Document {
+
+    @Id
+    @Column
+    public Long id;
+
+    @Column
+    public String title;
+
+    @Column(lazy = true)
+    public String body;
+
+    @Column(lazy = true)
+    public byte[] image;
+
+    public Document() {
+    }
+
+    Document(String title, String body, byte[] image) {
+      this.title = title;
+      this.body = body;
+      this.image = image;
+    }
+  }
+}
@@ -0,0 +1,143 @@
+package com.dark.shade.repository;
+
+import com.dark.shade.TestDatabase;
+import com.dark.shade.annotation.Column;
+import com.dark.shade.annotation.Entity;
+import com.dark.shade.annotation.Id;
+import com.dark.shade.annotation.Table;
+import com.dark.shade.config.SessionSettings;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class NullColumnTest {
+
+  private static final String URL = TestDatabase.url("null_column");
+
+  private static Repository<Optional, Long> optionals;
+  private static Repository<Counter, Long> counters;
+
+  @BeforeAll
+  static void open() throws Exception {
+    TestDatabase.open(URL, new SessionSettings());
+    RepositoryFactory.createSchema(Optional.class);
+    // primitive members map to NOT NULL columns, so this table is created by hand to hold NULLs
+    TestDatabase.execute(URL, "CREATE TABLE counter (id BIGINT AUTO_INCREMENT PRIMARY KEY, hits INT, total BIGINT,"
+        + " ratio DOUBLE, active BOOLEAN, rank SMALLINT)");
+    optionals = RepositoryFactory.createRepository(Optional.class);
+    counters = RepositoryFactory.createRepository(Counter.class);
+  }
+
+  @AfterAll
+  static void close() {
+    TestDatabase.close();
+  }
+
+  @Test
+  void persistsAndFindsNullWrapperAndStringMembers() {
+    Optional saved = optionals.save(new Optional());
+    assertNotNull(saved.id);
+    Optional found = optionals.findOne(saved.id);
+    assertNull(found.label);
+    assertNull(found.count);
+    assertNull(found.amount);
+    assertNull(found.flag);
+    assertNull(found.price);
+  }
+
+  @Test
+  void updatesSetMembersBackToNull() {
+    Optional optional = new Optional();
+    optional.label = "set";
+    optional.count = 3;
+    optional.amount = 4L;
+    optional.flag = Boolean.TRUE;
+    optional.price = new BigDecimal("1.50");
+    optionals.save(optional);
+    assertEquals("set", optionals.findOne(optional.id).label);
+    optional.label = null;
+    optional.count = null;
+    optional.amount = null;
+    optional.flag = null;
+    optional.price = null;
+    optionals.save(optional);
+    Optional found = optionals.findOne(optional.id);
+    assertNull(found.label);
+    assertNull(found.count);
+    assertNull(found.amount);
+    assertNull(found.flag);
+    assertNull(found.price);
+  }
+
+  @Test
+  void readsNullColumnsIntoPrimitiveMembersAsDefaults() throws Exception {
+    TestDatabase.execute(URL, "INSERT INTO counter (id) VALUES (1)");
+    Counter found = counters.findOne(1L);
+    assertEquals(0, found.hits);
+    assertEquals(0L, found.total);
+    assertEquals(0.0, found.ratio);
+    assertFalse(found.active);
+    assertEquals((short) 0, found.rank);
+  }
+
+  @Entity
+  @Table(name = "optional_row")
+  public static class Optional {
+
+    @Id
+    @Column
+    public Long id;
+
+    @Column
+    public String label;
+
+    @Column
+    public Integer count;
+
+    @Column
+    public Long amount;
+
+    @Column
+    public Boolean flag;
+
+    @Column
+    public BigDecimal price;
+
+    public Optional() {
+    }
+  }
+
+  @Entity
+  @Table(name = "counter")
+  public static class Counter {
+
+    @Id
+    @Column
+    public Long id;
+
+    @Column
+    public int hits;
+
+    @Column
+    public long total;
+
+    @Column
+    public double ratio;
+
+    @Column
+    public boolean active;
+
+    @Column
+    public short rank;
+
+    public Counter() {
+    }
+  }
+}
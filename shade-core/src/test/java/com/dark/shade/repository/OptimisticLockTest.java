@@ -0,0 +1,128 @@
+package com.dark.shade.repository;
+
+import com.dark.shade.TestDatabase;
+import com.dark.shade.annotation.Column;
+import com.dark.shade.annotation.Entity;
+import com.dark.shade.annotation.Id;
+import com.dark.shade.annotation.Table;
+import com.dark.shade.annotation.Version;
+import com.dark.shade.config.SessionSettings;
+import com.dark.shade.exception.OptimisticLockException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OptimisticLockTest {
+
+  private static final String URL = TestDatabase.url("optimistic_lock");
+
+  private static Repository<Ticket, Long> tickets;
+
+  @BeforeAll
+  static void open() {
+    TestDatabase.open(URL, new SessionSettings());
+    RepositoryFactory.createSchema(Ticket.class);
+    tickets = RepositoryFactory.createRepository(Ticket.class);
+  }
+
+  @AfterAll
+  static void close() {
+    TestDatabase.close();
+  }
+
+  @Test
+  void staleUpdateFailsAndKeepsVersion() {
+    Ticket ticket = tickets.save(new Ticket("open"));
+    Ticket first = tickets.findOne(ticket.id);
+    Ticket second = tickets.findOne(ticket.id);
+    assertNotSame(first, second);
+    first.status = "assigned";
+    tickets.save(first);
+    assertEquals(1, first.version.intValue());
+
+    second.status = "closed";
+    OptimisticLockException e = assertThrows(OptimisticLockException.class, () -> tickets.save(second));
+    assertSame(second, e.getEntity());
+    assertEquals(0, second.version.intValue());
+    assertEquals("assigned", tickets.findOne(ticket.id).status);
+  }
+
+  @Test
+  void updateOfDeletedRowFails() {
+    Ticket ticket = tickets.save(new Ticket("open"));
+    tickets.delete(ticket.id);
+    ticket.status = "closed";
+    assertThrows(OptimisticLockException.class, () -> tickets.save(ticket));
+  }
+
+  @Test
+  void conflictInTransactionRollsBackOnCommit() throws Exception {
+    Ticket ticket = tickets.save(new Ticket("open"));
+    Ticket other = tickets.save(new Ticket("open"));
+    Ticket stale = tickets.findOne(ticket.id);
+    TestDatabase.execute(URL, "UPDATE ticket SET version = version + 1 WHERE id = " + ticket.id);
+    try (Transaction transaction = RepositoryFactory.beginTransaction()) {
+      other.status = "closed";
+      tickets.save(other);
+      stale.status = "closed";
+      tickets.save(stale);
+      assertThrows(OptimisticLockException.class, transaction::commit);
+    }
+    assertEquals("open", tickets.findOne(other.id).status);
+    assertEquals(0, other.version.intValue());
+  }
+
+  @Test
+  void repeatedSaveInTransactionUpdatesOnce() throws Exception {
+    Ticket ticket = tickets.save(new Ticket("open"));
+    try (Transaction transaction = RepositoryFactory.beginTransaction()) {
+      ticket.status = "assigned";
+      tickets.save(ticket);
+      ticket.status = "closed";
+      tickets.save(ticket);
+      transaction.commit();
+    }
+    assertEquals(1, ticket.version.intValue());
+    assertEquals(1, TestDatabase.queryLong(URL, "SELECT version FROM ticket WHERE id = " + ticket.id));
+    assertEquals("closed", tickets.findOne(ticket.id).status);
+  }
+
+  @Test
+  void repeatedEntityInSaveAllUpdatesOnce() {
+    Ticket ticket = tickets.save(new Ticket("open"));
+    ticket.status = "closed";
+    tickets.save(Arrays.asList(ticket, ticket));
+    assertEquals(1, ticket.version.intValue());
+    assertEquals("closed", tickets.findOne(ticket.id).status);
+  }
+
+  @Entity
+  @Table(name = "ticket")
+  public static class Ticket {
+
+    @Id
+    @Column
+    public Long id;
+
+    @Column
+    public String status;
+
+    @Version
+    @Column
+    public Integer version;
+
+    public Ticket() {
+    }
+
+    Ticket(String status) {
+      this.status = status;
+    }
+  }
+}
@@ -0,0 +1,126 @@
+package com.dark.shade.repository;
+
+import com.dark.shade.TestDatabase;
+import com.dark.shade.annotation.Column;
+import com.dark.shade.annotation.Entity;
+import com.dark.shade.annotation.Id;
+import com.dark.shade.annotation.ManyToOne;
+import com.dark.shade.annotation.Table;
+import com.dark.shade.config.SessionSettings;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelScanTest {
+
+  private static final String URL = TestDatabase.url("parallel_scan");
+  private static final int ORDERS = 1000;
+
+  private static Repository<Order, Long> orders;
+
+  @BeforeAll
+  static void open() throws Exception {
+    TestDatabase.open(URL, new SessionSettings()
+        .setMaxPoolSize(1)
+        .setBorrowTimeoutMillis(2000)
+        .setFetchSize(10));
+    RepositoryFactory.createSchema(Customer.class, Order.class);
+    Repository<Customer, Long> customers = RepositoryFactory.createRepository(Customer.class);
+    orders = RepositoryFactory.createRepository(Order.class);
+    List<Customer> saved = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      saved.add(customers.save(new Customer("customer" + i)));
+    }
+    List<Order> batch = new ArrayList<>();
+    for (int i = 0; i < ORDERS; i++) {
+      batch.add(new Order(i, saved.get(i % saved.size())));
+    }
+    orders.save(batch);
+    TestDatabase.execute(URL, "DELETE FROM purchase WHERE MOD(amount, 7) = 0");
+  }
+
+  @AfterAll
+  static void close() {
+    TestDatabase.close();
+  }
+
+  @Test
+  void forEachLoadsRelationsOnTheConnectionOfEachPartition() throws Exception {
+    Set<Long> ids = ConcurrentHashMap.newKeySet();
+    Set<Long> duplicates = ConcurrentHashMap.newKeySet();
+    orders.parallelForEach(1, order -> {
+      assertNotNull(order.customer.name);
+      if (!ids.add(order.id)) {
+        duplicates.add(order.id);
+      }
+    });
+    assertTrue(duplicates.isEmpty(), duplicates.toString());
+    assertEquals(TestDatabase.queryLong(URL, "SELECT COUNT(*) FROM purchase"), ids.size());
+  }
+
+  @Test
+  void streamCoversEveryRowOnce() {
+    try (Stream<Order> stream = orders.parallelStreamAll(4)) {
+      List<Long> ids = stream.map(order -> order.customer.name != null ? order.id : null)
+          .collect(Collectors.toList());
+      assertEquals(orders.findAll().size(), ids.size());
+      assertEquals(ids.size(), new HashSet<>(ids).size());
+      assertFalse(ids.contains(null));
+    }
+  }
+
+  @Entity
+  @Table(name = "customer")
+  public static class Customer {
+
+    @Id
+    @Column
+    public Long id;
+
+    @Column
+    public String name;
+
+    public Customer() {
+    }
+
+    Customer(String name) {
+      this.name = name;
+    }
+  }
+
+  @Entity
+  @Table(name = "purchase")
+  public static class Order {
+
+    @Id
+    @Column
+    public Long id;
+
+    @Column
+    public int amount;
+
+    @ManyToOne
+    public Customer customer;
+
+    public Order() {
+    }
+
+    Order(int amount, Customer customer) {
+      this.amount = amount;
+      this.customer = customer;
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package com.dark.shade.repository;
+
+import com.dark.shade.TestDatabase;
+import com.dark.shade.annotation.Column;
+import com.dark.shade.annotation.Entity;
+import com.dark.shade.annotation.FetchType;
+import com.dark.shade.annotation.Id;
+import com.dark.shade.annotation.ManyToOne;
+import com.dark.shade.annotation.OneToMany;
+import com.dark.shade.annotation.Table;
+import com.dark.shade.config.SessionSettings;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class RelationFetchTest {
+
+  private static final String URL = TestDatabase.url("relation_fetch");
+
+  private static Repository<Author, Long> authors;
+  private static Repository<Book, Long> books;
+  private static Repository<Review, Long> reviews;
+  private static Author ada;
+  private static Author grace;
+
+  @BeforeAll
+  static void open() {
+    TestDatabase.open(URL, new SessionSettings().setMaxPoolSize(1).setBorrowTimeoutMillis(500).setFetchSize(2));
+    RepositoryFactory.createSchema(Author.class, Book.class, Review.class);
+    authors = RepositoryFactory.createRepository(Author.class);
+    books = RepositoryFactory.createRepository(Book.class);
+    reviews = RepositoryFactory.createRepository(Review.class);
+    ada = authors.save(new Author("ada"));
+    grace = authors.save(new Author("grace"));
+    books.save(Arrays.asList(new Book("engines", ada), new Book("notes", ada), new Book("cobol", grace)));
+    reviews.save(new Review("classic", books.findAll().get(0)));
+  }
+
+  @AfterAll
+  static void close() {
+    TestDatabase.close();
+  }
+
+  @Test
+  void eagerManyToOneIsLoadedAndShared() {
+    List<Book> all = books.findAll();
+    assertEquals("ada", all.get(0).author.name);
+    assertSame(all.get(0).author, all.get(1).author);
+    assertEquals("grace", all.get(2).author.name);
+  }
+
+  @Test
+  void lazyRelationsWaitForExplicitFetch() {
+    Review review = reviews.findAll().get(0);
+    assertEquals(books.findAll().get(0).id, review.book.id);
+    assertNull(review.book.title);
+    reviews.fetch(Arrays.asList(review), "book");
+    assertEquals("engines", review.book.title);
+
+    List<Author> all = authors.findAll();
+    assertNull(all.get(0).books);
+    authors.fetch(all, "books");
+    assertEquals(2, all.get(0).books.size());
+    assertSame(all.get(0), all.get(0).books.get(0).author);
+    assertEquals(1, all.get(1).books.size());
+  }
+
+  @Test
+  void streamLoadsEagerRelationsOnItsOwnConnection() {
+    try (Stream<Book> stream = books.streamAll()) {
+      assertEquals(Arrays.asList("ada", "ada", "grace"),
+          stream.map(book -> book.author.name).collect(Collectors.toList()));
+    }
+    books.save(new Book("spare", grace));
+    assertEquals(4, books.findAll().size());
+  }
+
+  @Entity
+  @Table(name = "author")
+  public static class Author {
+
+    @Id
+    @Column
+    public Long id;
+
+    @Column
+    public String name;
+
+    @OneToMany(column = "author_id")
+    public List<Book> books;
+
+    public Author() {
+    }
+
+    Author(String name) {
+      this.name = name;
+    }
+  }
+
+  @Entity
+  @Table(name = "book")
+  public static class Book {
+
+    @Id
+    @Column
+    public Long id;
+
+    @Column
+    public String title;
+
+    @ManyToOne
+    public Author author;
+
+    public Book() {
+    }
+
+    Book(String title, Author author) {
+      this.title = title;
+      this.author = author;
+    }
+  }
+
+  @Entity
+  @Table(name = "review")
+  public static class Review {
+
+    @Id
+    @Column
+    public Long id;
+
+    @Column
+    public String text;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    public Book book;
+
+    public Review() {
+    }
+
+    Review(String text, Book book) {
+      this.text = text;
+      this.book = book;
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package com.dark.shade.repository;
+
+import com.dark.shade.TestDatabase;
+import com.dark.shade.annotation.Column;
+import com.dark.shade.annotation.Entity;
+import com.dark.shade.annotation.Id;
+import com.dark.shade.annotation.Table;
+import com.dark.shade.config.SessionSettings;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Routing of reads to two embedded replica databases, whose rows differ from the primary ones.
+ */
+class ReplicaRoutingTest {
+
+  private static final String PRIMARY = TestDatabase.url("replica_primary");
+  private static final String FIRST_REPLICA = TestDatabase.url("replica_first");
+  private static final String SECOND_REPLICA = TestDatabase.url("replica_second");
+
+  private static Repository<Note, Long> notes;
+
+  @BeforeAll
+  static void open() throws Exception {
+    TestDatabase.execute(FIRST_REPLICA, "CREATE TABLE note (id BIGINT PRIMARY KEY, text VARCHAR(100))",
+        "INSERT INTO note VALUES (1, 'first replica')");
+    TestDatabase.execute(SECOND_REPLICA, "CREATE TABLE note (id BIGINT PRIMARY KEY, text VARCHAR(100))",
+        "INSERT INTO note VALUES (1, 'second replica')");
+    TestDatabase.open(PRIMARY, new SessionSettings()
+        .addReadReplica(FIRST_REPLICA)
+        .addReadReplica(SECOND_REPLICA)
+        .setMaxPoolSize(1)
+        .setBorrowTimeoutMillis(200));
+    RepositoryFactory.createSchema(Note.class);
+    notes = RepositoryFactory.createRepository(Note.class);
+    notes.save(new Note("primary"));
+  }
+
+  @AfterAll
+  static void close() {
+    TestDatabase.close();
+  }
+
+  @Test
+  void readsAlternateBetweenReplicas() {
+    Set<String> texts = new HashSet<>();
+    for (int i = 0; i < 4; i++) {
+      texts.add(notes.findOne(1L).text);
+    }
+    assertEquals(new HashSet<>(Arrays.asList("first replica", "second replica")), texts);
+  }
+
+  @Test
+  void writesGoToPrimary() throws Exception {
+    Note note = notes.save(new Note("written"));
+    assertEquals(1, TestDatabase.queryLong(PRIMARY, "SELECT COUNT(*) FROM note WHERE id = " + note.id));
+    assertNull(notes.findOne(note.id));
+  }
+
+  @Test
+  void transactionPinsReadsToPrimary() {
+    try (Transaction transaction = RepositoryFactory.beginTransaction()) {
+      assertEquals("primary", notes.findOne(1L).text);
+    }
+  }
+
+  @Test
+  void readsFallBackToPrimaryWhenReplicasAreExhausted() {
+    try (Stream<Note> first = notes.streamAll(); Stream<Note> second = notes.streamAll()) {
+      assertEquals("primary", notes.findOne(1L).text);
+    }
+    assertEquals(2, Stream.of(notes.findOne(1L).text, notes.findOne(1L).text).distinct().count());
+  }
+
+  @Entity
+  @Table(name = "note")
+  public static class Note {
+
+    @Id
+    @Column
+    public Long id;
+
+    @Column
+    public String text;
+
+    public Note() {
+    }
+
+    Note(String text) {
+      this.text = text;
+    }
+  }
+}
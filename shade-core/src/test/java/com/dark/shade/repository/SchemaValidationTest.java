@@ -0,0 +1,127 @@
+package com.dark.shade.repository;
+
+import com.dark.shade.TestDatabase;
+import com.dark.shade.annotation.Column;
+import com.dark.shade.annotation.Entity;
+import com.dark.shade.annotation.Id;
+import com.dark.shade.annotation.Index;
+import com.dark.shade.annotation.Table;
+import com.dark.shade.config.SessionSettings;
+import com.dark.shade.exception.ShadeException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaValidationTest {
+
+  private static final String URL = TestDatabase.url("schema_validation");
+
+  @BeforeAll
+  static void open() {
+    TestDatabase.open(URL, new SessionSettings());
+  }
+
+  @AfterAll
+  static void close() {
+    TestDatabase.close();
+  }
+
+  @Test
+  void createdSchemaIsValid() {
+    RepositoryFactory.createSchema(Product.class);
+    RepositoryFactory.validateSchema(Product.class);
+    assertTrue(RepositoryFactory.createSchema(Product.class).isEmpty());
+  }
+
+  @Test
+  void reportsEveryDifferenceOfExistingTable() throws Exception {
+    TestDatabase.execute(URL, "CREATE TABLE drifted (id BIGINT, code INTEGER, price DECIMAL(10, 2))");
+    ShadeException e = assertThrows(ShadeException.class, () -> RepositoryFactory.validateSchema(Drifted.class));
+    String message = e.getMessage();
+    assertTrue(message.contains("Column drifted.code is INTEGER, expected VARCHAR(32)"), message);
+    assertTrue(message.contains("Column drifted.code allows NULL, expected NOT NULL"), message);
+    assertTrue(message.contains("Column drifted.code has no unique constraint"), message);
+    assertTrue(message.contains("Column drifted.stock does not exist"), message);
+    assertTrue(message.contains("Primary key of drifted is [], expected id"), message);
+    assertTrue(message.contains("Index drifted_price_idx on drifted (price) does not exist"), message);
+  }
+
+  @Test
+  void createsMissingIndexesOfExistingTable() throws Exception {
+    TestDatabase.execute(URL, "CREATE TABLE indexed (id BIGINT PRIMARY KEY, price DECIMAL(10, 2))");
+    List<String> statements = RepositoryFactory.createSchema(Indexed.class);
+    assertEquals(1, statements.size());
+    assertEquals("CREATE INDEX indexed_price_idx ON indexed (price)", statements.get(0));
+    RepositoryFactory.validateSchema(Indexed.class);
+  }
+
+  @Test
+  void reportsMissingTable() {
+    ShadeException e = assertThrows(ShadeException.class, () -> RepositoryFactory.validateSchema(Missing.class));
+    assertTrue(e.getMessage().contains("Table missing does not exist"), e.getMessage());
+  }
+
+  @Entity
+  @Table(name = "product")
+  public static class Product {
+
+    @Id
+    @Column
+    public Long id;
+
+    @Column(unique = true, nullable = false, length = 32)
+    public String code;
+
+    @Index
+    @Column
+    public BigDecimal price;
+  }
+
+  @Entity
+  @Table(name = "drifted")
+  public static class Drifted {
+
+    @Id
+    @Column
+    public Long id;
+
+    @Column(unique = true, nullable = false, length = 32)
+    public String code;
+
+    @Index
+    @Column
+    public BigDecimal price;
+
+    @Column
+    public int stock;
+  }
+
+  @Entity
+  @Table(name = "indexed")
+  public static class Indexed {
+
+    @Id
+    @Column
+    public Long id;
+
+    @Index
+    @Column
+    public BigDecimal price;
+  }
+
+  @Entity
+  @Table(name = "missing")
+  public static class Missing {
+
+    @Id
+    @Column
+    public Long id;
+  }
+}
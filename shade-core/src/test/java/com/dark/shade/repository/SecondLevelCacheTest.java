@@ -0,0 +1,82 @@
+package com.dark.shade.repository;
+
+import com.dark.shade.TestDatabase;
+import com.dark.shade.annotation.Cacheable;
+import com.dark.shade.annotation.Column;
+import com.dark.shade.annotation.Entity;
+import com.dark.shade.annotation.Id;
+import com.dark.shade.annotation.Table;
+import com.dark.shade.config.SessionSettings;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+class SecondLevelCacheTest {
+
+  private static final String URL = TestDatabase.url("second_level_cache");
+
+  private static Repository<Rate, Long> rates;
+
+  @BeforeAll
+  static void open() {
+    TestDatabase.open(URL, new SessionSettings());
+    RepositoryFactory.createSchema(Rate.class);
+    rates = RepositoryFactory.createRepository(Rate.class);
+  }
+
+  @AfterAll
+  static void close() {
+    TestDatabase.close();
+  }
+
+  @Test
+  void cachedSnapshotsShareNoDates() throws Exception {
+    Rate rate = rates.save(new Rate("EUR", new Timestamp(1000)));
+    Rate first = rates.findOne(rate.id);
+    TestDatabase.execute(URL, "UPDATE rate SET code = 'changed' WHERE id = " + rate.id);
+    first.updated.setTime(5000);
+    Rate second = rates.findOne(rate.id);
+    assertEquals("EUR", second.code);
+    assertEquals(1000, second.updated.getTime());
+    assertNotSame(first.updated, second.updated);
+  }
+
+  @Test
+  void saveEvictsTheCachedState() {
+    Rate rate = rates.save(new Rate("USD", new Timestamp(1000)));
+    rates.findOne(rate.id).code = "local change";
+    Rate found = rates.findOne(rate.id);
+    found.code = "GBP";
+    rates.save(found);
+    assertEquals("GBP", rates.findOne(rate.id).code);
+  }
+
+  @Entity
+  @Table(name = "rate")
+  @Cacheable
+  public static class Rate {
+
+    @Id
+    @Column
+    public Long id;
+
+    @Column
+    public String code;
+
+    @Column
+    public Timestamp updated;
+
+    public Rate() {
+    }
+
+    Rate(String code, Timestamp updated) {
+      this.code = code;
+      this.updated = updated;
+    }
+  }
+}
@@ -0,0 +1,115 @@
+package com.dark.shade.repository;
+
+import com.dark.shade.TestDatabase;
+import com.dark.shade.annotation.Column;
+import com.dark.shade.annotation.Entity;
+import com.dark.shade.annotation.Id;
+import com.dark.shade.annotation.Table;
+import com.dark.shade.config.SessionSettings;
+import com.dark.shade.metrics.InMemoryMetrics;
+import com.dark.shade.metrics.Operation;
+import com.dark.shade.metrics.OperationStats;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.Iterator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StreamTest {
+
+  private static final String URL = TestDatabase.url("stream");
+
+  private static final int ROWS = 20;
+
+  private static final InMemoryMetrics METRICS = new InMemoryMetrics();
+
+  private static Repository<Event, Long> events;
+
+  @BeforeAll
+  static void open() throws Exception {
+    TestDatabase.open(URL, new SessionSettings().setFetchSize(2).setStatementCacheSize(2).setListener(METRICS));
+    RepositoryFactory.createSchema(Event.class);
+    events = RepositoryFactory.createRepository(Event.class);
+    TestDatabase.execute(URL, "INSERT INTO event (id, kind) SELECT X, 'K' || X FROM SYSTEM_RANGE(1, " + ROWS + ")");
+  }
+
+  @AfterAll
+  static void close() {
+    TestDatabase.close();
+  }
+
+  @Test
+  void sameQueryRunsWhileStreamIsOpen() {
+    try (Transaction transaction = RepositoryFactory.beginTransaction();
+         Stream<Event> stream = events.streamAll()) {
+      Iterator<Event> iterator = stream.iterator();
+      int count = 0;
+      while (iterator.hasNext()) {
+        iterator.next();
+        if (count++ == 0) {
+          assertEquals(ROWS, events.findAll().size());
+        }
+      }
+      assertEquals(ROWS, count);
+      transaction.commit();
+    }
+  }
+
+  @Test
+  void evictedStatementsDoNotCloseStream() {
+    try (Transaction transaction = RepositoryFactory.beginTransaction();
+         Stream<Event> stream = events.streamAll()) {
+      Iterator<Event> iterator = stream.iterator();
+      int count = 0;
+      while (iterator.hasNext()) {
+        Event event = iterator.next();
+        events.findAll();
+        events.exists(event.id);
+        events.findOne(event.id);
+        count++;
+      }
+      assertEquals(ROWS, count);
+      transaction.commit();
+    }
+  }
+
+  @Test
+  void streamIsReportedWhenClosedWithMappedRows() {
+    METRICS.reset();
+    try (Stream<Event> stream = events.streamAll()) {
+      Iterator<Event> iterator = stream.iterator();
+      iterator.next();
+      iterator.next();
+      assertEquals(0, METRICS.getStats(Event.class, Operation.STREAM).getCount());
+    }
+    OperationStats stats = METRICS.getStats(Event.class, Operation.STREAM);
+    assertEquals(1, stats.getCount());
+    assertEquals(2, stats.getRowsRead());
+    assertTrue(stats.getMappingNanos() > 0);
+    try (Stream<Event> stream = events.streamAll()) {
+      assertEquals(ROWS, stream.collect(Collectors.toList()).size());
+    }
+    assertEquals(2, stats.getCount());
+    assertEquals(ROWS + 2, stats.getRowsRead());
+  }
+
+  @Entity
+  @Table(name = "event")
+  public static class Event {
+
+    @Id
+    @Column
+    public Long id;
+
+    @Column
+    public String kind;
+
+    public Event() {
+    }
+  }
+}
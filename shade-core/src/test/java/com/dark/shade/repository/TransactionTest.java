@@ -0,0 +1,130 @@
+package com.dark.shade.repository;
+
+import com.dark.shade.TestDatabase;
+import com.dark.shade.annotation.Column;
+import com.dark.shade.annotation.Entity;
+import com.dark.shade.annotation.Id;
+import com.dark.shade.annotation.Table;
+import com.dark.shade.annotation.Version;
+import com.dark.shade.config.SessionSettings;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TransactionTest {
+
+  private static final String URL = TestDatabase.url("transaction");
+
+  private static Repository<Account, Long> accounts;
+
+  @BeforeAll
+  static void open() {
+    TestDatabase.open(URL, new SessionSettings());
+    RepositoryFactory.createSchema(Account.class);
+    accounts = RepositoryFactory.createRepository(Account.class);
+  }
+
+  @AfterAll
+  static void close() {
+    TestDatabase.close();
+  }
+
+  @BeforeEach
+  void clear() {
+    accounts.deleteAll();
+  }
+
+  @Test
+  void writesAreQueuedUntilCommit() throws Exception {
+    try (Transaction transaction = RepositoryFactory.beginTransaction()) {
+      accounts.save(Arrays.asList(new Account(1), new Account(2)));
+      assertEquals(0, count());
+      transaction.flush();
+      assertEquals(0, count());
+      transaction.commit();
+    }
+    assertEquals(2, count());
+  }
+
+  @Test
+  void findsAreServedFromIdentityMap() {
+    Account account = accounts.save(new Account(1));
+    try (Transaction transaction = RepositoryFactory.beginTransaction()) {
+      Account found = accounts.findOne(account.id);
+      assertSame(found, accounts.findOne(account.id));
+      assertSame(found, accounts.findAll().get(0));
+    }
+  }
+
+  @Test
+  void repeatedSaveOfNewEntityInsertsOnce() throws Exception {
+    Account account = new Account(1);
+    try (Transaction transaction = RepositoryFactory.beginTransaction()) {
+      accounts.save(account);
+      account.balance = 2;
+      accounts.save(account);
+      accounts.save(Arrays.asList(account, account));
+      transaction.commit();
+    }
+    assertEquals(1, count());
+    assertEquals(2, accounts.findOne(account.id).balance);
+  }
+
+  @Test
+  void rollbackDiscardsWritesAndRestoresIdsAndVersions() throws Exception {
+    Account existing = accounts.save(new Account(1));
+    Account created = new Account(2);
+    try (Transaction transaction = RepositoryFactory.beginTransaction()) {
+      existing.balance = 10;
+      accounts.save(existing);
+      accounts.save(created);
+      transaction.flush();
+      assertNotNull(created.id);
+      assertEquals(1, existing.version.intValue());
+      transaction.rollback();
+    }
+    assertNull(created.id);
+    assertNull(created.version);
+    assertEquals(0, existing.version.intValue());
+    assertEquals(1, count());
+    assertEquals(1, accounts.findOne(existing.id).balance);
+    accounts.save(existing);
+    accounts.save(created);
+    assertEquals(2, count());
+  }
+
+  private static long count() throws Exception {
+    return TestDatabase.queryLong(URL, "SELECT COUNT(*) FROM account");
+  }
+
+  @Entity
+  @Table(name = "account")
+  public static class Account {
+
+    @Id
+    @Column
+    public Long id;
+
+    @Column
+    public int balance;
+
+    @Version
+    @Column
+    public Integer version;
+
+    public Account() {
+    }
+
+    Account(int balance) {
+      this.balance = balance;
+    }
+  }
+}
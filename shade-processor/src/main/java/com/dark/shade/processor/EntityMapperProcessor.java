@@ -0,0 +1,224 @@
+package com.dark.shade.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Entity mapper processor.
+ * Generates a {@code com.dark.shade.mapper.EntityMapper} for every {@code @Entity} class, which creates
+ * entities with the no-arg constructor and reads and writes the {@code @Id} and {@code @Column} members
+ * with plain field and getter/setter calls. Private members are left to the reflective accessors;
+ * classes without an accessible no-arg constructor get no mapper. Only construction and member access
+ * are generated: the entity metadata and SQL are still parsed from the annotations at runtime.
+ */
+@SupportedAnnotationTypes(EntityMapperProcessor.ENTITY)
+public class EntityMapperProcessor extends AbstractProcessor {
+
+  static final String ENTITY = "com.dark.shade.annotation.Entity";
+  private static final String ID = "com.dark.shade.annotation.Id";
+  private static final String COLUMN = "com.dark.shade.annotation.Column";
+  private static final String MAPPER = "com.dark.shade.mapper.EntityMapper";
+  private static final String ACCESSOR = "com.dark.shade.mapper.MemberAccessor";
+  private static final String SUFFIX = "_ShadeMapper";
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (TypeElement annotation : annotations) {
+      for (TypeElement entity : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(annotation))) {
+        if (isMappable(entity)) {
+          try {
+            generate(entity);
+          } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                String.format("Cannot generate entity mapper: %s", e.getMessage()), entity);
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  private boolean isMappable(TypeElement entity) {
+    if (entity.getKind() != ElementKind.CLASS || entity.getModifiers().contains(Modifier.ABSTRACT)) {
+      return false;
+    }
+    for (Element type = entity; type.getKind() == ElementKind.CLASS; type = type.getEnclosingElement()) {
+      TypeElement typeElement = (TypeElement) type;
+      if (typeElement.getModifiers().contains(Modifier.PRIVATE)
+          || typeElement.getNestingKind() == NestingKind.LOCAL
+          || typeElement.getNestingKind() == NestingKind.ANONYMOUS
+          || typeElement.getNestingKind() == NestingKind.MEMBER
+          && !typeElement.getModifiers().contains(Modifier.STATIC)) {
+        return false;
+      }
+    }
+    for (ExecutableElement constructor : ElementFilter.constructorsIn(entity.getEnclosedElements())) {
+      if (constructor.getParameters().isEmpty()) {
+        return !constructor.getModifiers().contains(Modifier.PRIVATE);
+      }
+    }
+    return false;
+  }
+
+  private void generate(TypeElement entity) throws IOException {
+    String packageName = processingEnv.getElementUtils().getPackageOf(entity).getQualifiedName().toString();
+    String binaryName = processingEnv.getElementUtils().getBinaryName(entity).toString();
+    String mapperName = binaryName.substring(packageName.isEmpty() ? 0 : packageName.length() + 1) + SUFFIX;
+    String entityName = entity.getQualifiedName().toString();
+
+    List<String> accessors = new ArrayList<>();
+    for (VariableElement field : ElementFilter.fieldsIn(entity.getEnclosedElements())) {
+      if (isMapped(field) && !field.getModifiers().contains(Modifier.PRIVATE)
+          && !field.getModifiers().contains(Modifier.STATIC) && !field.getModifiers().contains(Modifier.FINAL)) {
+        String name = field.getSimpleName().toString();
+        accessors.add(accessor(entityName, name, field.asType(), "." + name, "." + name + " = %s"));
+      }
+    }
+    for (ExecutableElement getter : ElementFilter.methodsIn(entity.getEnclosedElements())) {
+      if (isMapped(getter) && !getter.getModifiers().contains(Modifier.PRIVATE)
+          && !getter.getModifiers().contains(Modifier.STATIC) && getter.getParameters().isEmpty()) {
+        String name = getter.getSimpleName().toString();
+        ExecutableElement setter = findSetter(entity, name.replaceFirst("get|is", "set"), getter.getReturnType());
+        if (setter != null) {
+          accessors.add(accessor(entityName, name, getter.getReturnType(),
+              "." + name + "()", "." + setter.getSimpleName() + "(%s)"));
+        }
+      }
+    }
+
+    JavaFileObject file = processingEnv.getFiler().createSourceFile(
+        (packageName.isEmpty() ? "" : packageName + ".") + mapperName, entity);
+    try (Writer writer = file.openWriter()) {
+      if (!packageName.isEmpty()) {
+        writer.write("package " + packageName + ";\n\n");
+      }
+      writer.write("/**\n * Generated by " + EntityMapperProcessor.class.getName() + ".\n */\n");
+      writer.write("public final class " + mapperName
+          + " implements " + MAPPER + "<" + entityName + "> {\n\n");
+      writer.write("  private static final java.util.Map<String, " + ACCESSOR + "> ACCESSORS;\n\n");
+      writer.write("  static {\n");
+      writer.write("    java.util.Map<String, " + ACCESSOR + "> accessors = new java.util.HashMap<>();\n");
+      for (String accessor : accessors) {
+        writer.write(accessor);
+      }
+      writer.write("    ACCESSORS = java.util.Collections.unmodifiableMap(accessors);\n");
+      writer.write("  }\n\n");
+      writer.write("  @Override\n");
+      writer.write("  public " + entityName + " newInstance() {\n");
+      writer.write("    return new " + entityName + "();\n");
+      writer.write("  }\n\n");
+      writer.write("  @Override\n");
+      writer.write("  public java.util.Map<String, " + ACCESSOR + "> getAccessors() {\n");
+      writer.write("    return ACCESSORS;\n");
+      writer.write("  }\n");
+      writer.write("}\n");
+    }
+  }
+
+  private boolean isMapped(Element member) {
+    for (AnnotationMirror mirror : member.getAnnotationMirrors()) {
+      String name = ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+      if (name.equals(ID) || name.equals(COLUMN)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private ExecutableElement findSetter(TypeElement entity, String name, TypeMirror type) {
+    for (ExecutableElement method : ElementFilter.methodsIn(entity.getEnclosedElements())) {
+      if (method.getSimpleName().contentEquals(name) && method.getParameters().size() == 1
+          && !method.getModifiers().contains(Modifier.PRIVATE) && !method.getModifiers().contains(Modifier.STATIC)
+          && processingEnv.getTypeUtils().isSameType(method.getParameters().get(0).asType(), type)) {
+        return method;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the statement registering an accessor of the given member; {@code read} and {@code write}
+   * are the member access expressions applied to the cast entity, {@code write} taking the value as %s.
+   */
+  private String accessor(String entityName, String key, TypeMirror type, String read, String write) {
+    String typeName = processingEnv.getTypeUtils().erasure(type).toString();
+    String boxedName = type.getKind().isPrimitive()
+        ? processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString()
+        : typeName;
+    String target = "((" + entityName + ") entity)";
+    StringBuilder builder = new StringBuilder();
+    builder.append("    accessors.put(\"").append(key).append("\", new ").append(ACCESSOR).append("() {\n");
+    builder.append("      @Override\n");
+    builder.append("      public Class<?> getType() {\n");
+    builder.append("        return ").append(typeName).append(".class;\n");
+    builder.append("      }\n\n");
+    builder.append("      @Override\n");
+    builder.append("      public Object get(Object entity) {\n");
+    builder.append("        return ").append(target).append(read).append(";\n");
+    builder.append("      }\n\n");
+    builder.append("      @Override\n");
+    builder.append("      public void set(Object entity, Object value) {\n");
+    builder.append("        ").append(target).append(String.format(write, "(" + boxedName + ") value")).append(";\n");
+    builder.append("      }\n");
+    String primitive = primitiveName(type.getKind());
+    if (primitive != null) {
+      String method = Character.toUpperCase(primitive.charAt(0)) + primitive.substring(1);
+      builder.append("\n");
+      builder.append("      @Override\n");
+      builder.append("      public ").append(primitive).append(" get").append(method).append("(Object entity) {\n");
+      builder.append("        return ").append(target).append(read).append(";\n");
+      builder.append("      }\n\n");
+      builder.append("      @Override\n");
+      builder.append("      public void set").append(method).append("(Object entity, ").append(primitive)
+          .append(" value) {\n");
+      builder.append("        ").append(target).append(String.format(write, "value")).append(";\n");
+      builder.append("      }\n");
+    }
+    builder.append("    });\n");
+    return builder.toString();
+  }
+
+  /**
+   * Returns the primitive type with a specialized {@code MemberAccessor} method, or null.
+   */
+  private static String primitiveName(TypeKind kind) {
+    switch (kind) {
+      case INT:
+        return "int";
+      case LONG:
+        return "long";
+      case DOUBLE:
+        return "double";
+      case BOOLEAN:
+        return "boolean";
+      default:
+        return null;
+    }
+  }
+}
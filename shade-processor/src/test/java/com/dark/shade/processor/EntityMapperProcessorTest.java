@@ -0,0 +1,131 @@
+package com.dark.shade.processor;
+
+import com.dark.shade.mapper.EntityMapper;
+import com.dark.shade.mapper.MemberAccessor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EntityMapperProcessorTest {
+
+  private static final String SOURCE = String.join("\n",
+      "package fixture;",
+      "",
+      "import com.dark.shade.annotation.Column;",
+      "import com.dark.shade.annotation.Entity;",
+      "import com.dark.shade.annotation.Id;",
+      "",
+      "@Entity",
+      "public class Account {",
+      "",
+      "  @Id",
+      "  @Column",
+      "  public Long id;",
+      "",
+      "  @Column",
+      "  public int visits;",
+      "",
+      "  @Column",
+      "  private String secret;",
+      "",
+      "  private String name;",
+      "",
+      "  @Column",
+      "  public String getName() {",
+      "    return name;",
+      "  }",
+      "",
+      "  public void setName(String name) {",
+      "    this.name = name;",
+      "  }",
+      "",
+      "  @Entity",
+      "  public class Inner {",
+      "  }",
+      "}",
+      "");
+
+  @TempDir
+  static Path output;
+
+  private static ClassLoader loader;
+
+  @BeforeAll
+  static void compile() throws Exception {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    String classPath = Paths.get(EntityMapper.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+        .toString();
+    try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+      JavaFileObject source = new SimpleJavaFileObject(URI.create("string:///fixture/Account.java"),
+          JavaFileObject.Kind.SOURCE) {
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+          return SOURCE;
+        }
+      };
+      JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null,
+          Arrays.asList("-classpath", classPath, "-d", output.toString(), "-s", output.toString()),
+          null, Collections.singletonList(source));
+      task.setProcessors(Collections.singletonList(new EntityMapperProcessor()));
+      assertTrue(task.call());
+    }
+    loader = new URLClassLoader(new URL[] {output.toUri().toURL()}, EntityMapperProcessorTest.class.getClassLoader());
+  }
+
+  @Test
+  void generatesMapperForPublicMembers() throws Exception {
+    EntityMapper<?> mapper = newMapper();
+    Object account = mapper.newInstance();
+    assertEquals("fixture.Account", account.getClass().getName());
+
+    Map<String, MemberAccessor> accessors = mapper.getAccessors();
+    assertEquals(new HashSet<>(Arrays.asList("id", "visits", "getName")), accessors.keySet());
+    assertFalse(accessors.containsKey("secret"));
+
+    accessors.get("id").set(account, 7L);
+    assertEquals(7L, accessors.get("id").get(account));
+    assertEquals(Long.class, accessors.get("id").getType());
+
+    MemberAccessor visits = accessors.get("visits");
+    assertEquals(int.class, visits.getType());
+    visits.setInt(account, 3);
+    assertEquals(3, visits.getInt(account));
+    assertEquals(3, visits.get(account));
+
+    accessors.get("getName").set(account, "ada");
+    assertEquals("ada", account.getClass().getMethod("getName").invoke(account));
+  }
+
+  @Test
+  void skipsInnerClasses() {
+    assertThrows(ClassNotFoundException.class,
+        () -> Class.forName("fixture.Account$Inner" + EntityMapper.SUFFIX, false, loader));
+    assertTrue(new File(output.toFile(), "fixture/Account" + EntityMapper.SUFFIX + ".java").isFile());
+  }
+
+  private static EntityMapper<?> newMapper() throws ReflectiveOperationException {
+    return (EntityMapper<?>) Class.forName("fixture.Account" + EntityMapper.SUFFIX, true, loader)
+        .getDeclaredConstructor().newInstance();
+  }
+}